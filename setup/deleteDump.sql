@@ -1,4 +1,8 @@
 --Remove existing tables and associated sequences
+DROP TABLE IF EXISTS SchemaVersion;
+
+DROP TABLE IF EXISTS DeletionLog;
+
 DROP TABLE Sharing;
 
 DROP TABLE Todos;
@@ -8,4 +12,6 @@ DROP TABLE Noticeboards;
 DROP SEQUENCE boardIDsequence;
 
 DROP TABLE Users;
-DROP SEQUENCE userIDsequence;
\ No newline at end of file
+DROP SEQUENCE userIDsequence;
+
+DROP SEQUENCE IF EXISTS changeSequence;
\ No newline at end of file
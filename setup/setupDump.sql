@@ -1,3 +1,11 @@
+--Create change sequence, every insert, update and delete of a tracked row takes a new version from it
+--Tracked rows also record the ID of the transaction that last wrote them (xactID), the sync reads the changes by transaction ID
+--because versions are taken in statement order, not in commit order, and a later version may become visible first
+CREATE SEQUENCE changeSequence
+START WITH 1
+MINVALUE 1
+INCREMENT BY 1;
+
 --Create user ID sequence
 CREATE SEQUENCE userIDsequence
 START WITH 0
@@ -29,6 +37,8 @@ CREATE TABLE Noticeboards
     boardTitle character varying(128) NOT NULL,
     boardDescription character varying(256),
     userID integer REFERENCES Users(userID) ON DELETE CASCADE NOT NULL,
+    version bigint NOT NULL DEFAULT nextval('changeSequence'),
+    xactID xid8 NOT NULL DEFAULT pg_current_xact_id(),
   
   CONSTRAINT "boardTitleIsNotBlank" CHECK (LENGTH(TRIM(boardTitle)) > 0),
   CONSTRAINT "boardTitleIsValid" CHECK (boardTitle ~ '^[A-Za-z0-9\@\#\&\_\.\-\/ ]+$'),
@@ -57,7 +67,9 @@ CREATE TABLE ToDos
     backgroundColor character(7) NOT NULL DEFAULT '#FFFFFF',
 
     boardID integer REFERENCES Noticeboards(boardID) ON DELETE CASCADE NOT NULL,
-    boardIndex integer NOT NULL,
+    boardIndex bigint NOT NULL, --Sparse ordering key, consecutive ToDos are normally 65536 apart
+    version bigint NOT NULL DEFAULT nextval('changeSequence'),
+    xactID xid8 NOT NULL DEFAULT pg_current_xact_id(),
 
     CONSTRAINT "todoTitleIsNotBlank" CHECK (LENGTH(TRIM(todoTitle)) > 0),
     CONSTRAINT "todoTitleIsValid" CHECK (todoTitle ~ '^[A-Za-z0-9\@\#\&\_\.\- ]+$'),
@@ -71,83 +83,176 @@ CREATE TABLE Sharing
 (
   userID integer REFERENCES Users(userID) ON DELETE CASCADE NOT NULL,
   todoID integer REFERENCES ToDos(todoID) ON DELETE CASCADE NOT NULL,
+  version bigint NOT NULL DEFAULT nextval('changeSequence'),
+  xactID xid8 NOT NULL DEFAULT pg_current_xact_id(),
 
   PRIMARY KEY (userID, todoID)
 );
 
+--Create deletion log table, records the deleted Noticeboards ('B'), ToDos ('T') and Sharing rows ('S')
+--userID is the owner for Noticeboards and ToDos, the User the ToDo was shared with for Sharing rows
+CREATE TABLE DeletionLog
+(
+  version bigint PRIMARY KEY NOT NULL DEFAULT nextval('changeSequence'),
+  xactID xid8 NOT NULL DEFAULT pg_current_xact_id(),
+  entityType character(1) NOT NULL,
+  boardID integer,
+  todoID integer,
+  userID integer NOT NULL,
+
+  CONSTRAINT "deletedEntityTypeIsValid" CHECK (entityType IN ('B', 'T', 'S'))
+);
+
+CREATE INDEX deletionLogUserXactIndex ON DeletionLog (userID, xactID);
+
 
 
 --Creating functions and procedures
---Create function to normalize boardIndexes of a board
-CREATE OR REPLACE PROCEDURE normalizeBoardIndex(targetBoardID INT) --normalizes all ToDos boardIndex'es
+--Create procedure to spread the boardIndexes of a board evenly again, once a move finds no gap left
+CREATE OR REPLACE PROCEDURE rebalanceBoardIndex(targetBoardID INT)
 AS $$
   BEGIN
-    WITH normalizedRows AS (
+    WITH rebalancedRows AS (
       SELECT
-        todoID, (ROW_NUMBER() OVER (ORDER BY boardIndex)) - 1 AS newIndex
+        todoID, (ROW_NUMBER() OVER (ORDER BY boardIndex, todoID)) * 65536 AS newIndex
       FROM ToDos
       WHERE boardID = targetBoardID
     )
     UPDATE ToDos t
     SET boardIndex = n.newIndex
-    FROM normalizedRows n
-    WHERE t.todoID = n.todoID;
-  END;
-$$ LANGUAGE plpgsql;
-
---Create trigger function to normalize boardIndex on remove
-CREATE OR REPLACE FUNCTION normalizeIndex() --normalizes all ToDos boardIndex'es
-RETURNS TRIGGER AS
-$$
-  BEGIN
-    WITH normalizedRows AS (
-      SELECT
-        todoID, (ROW_NUMBER() OVER (ORDER BY boardIndex)) - 1 AS newIndex
-      FROM ToDos
-      WHERE boardID = OLD.boardID
-    )
-    UPDATE ToDos t
-    SET boardIndex = n.newIndex
-    FROM normalizedRows n
-    WHERE t.todoID = n.todoID;
-
-    RETURN NULL;
+    FROM rebalancedRows n
+    WHERE t.todoID = n.todoID
+      AND t.boardIndex <> n.newIndex;
   END;
 $$ LANGUAGE plpgsql;
 
---Create procedure to move a ToDo to a new index
+--Create procedure to move a ToDo to a new index, only the moved ToDo's row is written
+--The ToDo is placed between the ToDos currently at newIndex - 1 and newIndex, taking the midpoint of their boardIndexes
 CREATE OR REPLACE PROCEDURE moveToDo(p_todoID INT, newIndex INT)
 AS $$
 DECLARE
   targetBoardID INT;
-  oldIndex INT;
+  lowerID INT;
+  lowerIndex BIGINT;
+  upperID INT;
+  upperIndex BIGINT;
 BEGIN
-    SELECT boardID, boardIndex INTO targetBoardID, oldIndex FROM ToDos WHERE todoID = p_todoID;
-    IF oldIndex = newIndex THEN
+    SELECT boardID INTO targetBoardID FROM ToDos WHERE todoID = p_todoID;
+    IF targetBoardID IS NULL THEN
+       RETURN;
+    END IF;
+
+    --Serialize the moves within the board, so that two moves never take the same gap
+    PERFORM 1 FROM Noticeboards WHERE boardID = targetBoardID FOR UPDATE;
+
+    IF newIndex > 0 THEN
+        SELECT todoID, boardIndex INTO lowerID, lowerIndex FROM ToDos
+        WHERE boardID = targetBoardID ORDER BY boardIndex, todoID OFFSET newIndex - 1 LIMIT 1;
+    END IF;
+    SELECT todoID, boardIndex INTO upperID, upperIndex FROM ToDos
+    WHERE boardID = targetBoardID ORDER BY boardIndex, todoID OFFSET newIndex LIMIT 1;
+
+    IF lowerID = p_todoID OR upperID = p_todoID THEN
        RETURN; --Early exit, no need to update
-    ELSIF newIndex < oldIndex THEN
-        UPDATE ToDos
-        SET boardIndex = boardIndex + 1
-        WHERE boardID = targetBoardID
-          AND todoID <> p_todoID
-          AND boardIndex >= newIndex
-          AND boardIndex < oldIndex;
-    ELSIF newIndex > oldIndex THEN
-        UPDATE ToDos
-        SET boardIndex = boardIndex - 1
-        WHERE boardID = targetBoardID
-          AND todoID <> p_todoID
-          AND boardIndex > oldIndex
-          AND boardIndex <= newIndex;
+    END IF;
+
+    --No gap left between the neighbours, spread the board again and retry
+    IF lowerIndex IS NOT NULL AND upperIndex IS NOT NULL AND upperIndex - lowerIndex < 2 THEN
+        CALL rebalanceBoardIndex(targetBoardID);
+        CALL moveToDo(p_todoID, newIndex);
+        RETURN;
     END IF;
 
     -- Moves ToDo to new index
     UPDATE ToDos
-    SET boardIndex = newIndex
+    SET boardIndex = CASE
+        WHEN lowerIndex IS NULL THEN upperIndex - 65536
+        WHEN upperIndex IS NULL THEN lowerIndex + 65536
+        ELSE lowerIndex + (upperIndex - lowerIndex) / 2
+    END
     WHERE todoID = p_todoID;
 END;
 $$ LANGUAGE plpgsql;
 
+--Create trigger function to give updated rows a new version, and the ID of the transaction updating them
+CREATE OR REPLACE FUNCTION bumpVersion()
+RETURNS TRIGGER AS
+$$
+  BEGIN
+    NEW.version := nextval('changeSequence');
+    NEW.xactID := pg_current_xact_id();
+    RETURN NEW;
+  END;
+$$ LANGUAGE plpgsql;
+
+--Create statement-level trigger function to log the deleted rows, read from the deletedRows transition table
+--ToDos deleted along with their Noticeboard, and sharing rows deleted along with their User, are not logged: the parent's removal covers them
+CREATE OR REPLACE FUNCTION logDeletion()
+RETURNS TRIGGER AS
+$$
+  BEGIN
+    IF TG_TABLE_NAME = 'noticeboards' THEN
+      INSERT INTO DeletionLog (entityType, boardID, userID)
+      SELECT 'B', d.boardID, d.userID FROM deletedRows d
+      WHERE EXISTS (SELECT 1 FROM Users u WHERE u.userID = d.userID);
+    ELSIF TG_TABLE_NAME = 'todos' THEN
+      INSERT INTO DeletionLog (entityType, boardID, todoID, userID)
+      SELECT 'T', d.boardID, d.todoID, d.ownerUserID FROM deletedRows d
+      WHERE EXISTS (SELECT 1 FROM Noticeboards b WHERE b.boardID = d.boardID);
+    ELSE
+      INSERT INTO DeletionLog (entityType, todoID, userID)
+      SELECT 'S', d.todoID, d.userID FROM deletedRows d
+      WHERE EXISTS (SELECT 1 FROM Users u WHERE u.userID = d.userID);
+    END IF;
+    RETURN NULL;
+  END;
+$$ LANGUAGE plpgsql;
+
+--Create trigger function to notify the listening clients of inserted and updated rows
+--The payload is "<entityType>:<boardID>:<todoID>:<userID>", with the same entity types and userID as DeletionLog
+CREATE OR REPLACE FUNCTION notifyChange()
+RETURNS TRIGGER AS
+$$
+  DECLARE
+    r RECORD;
+  BEGIN
+    r := NEW;
+
+    IF TG_TABLE_NAME = 'noticeboards' THEN
+      PERFORM pg_notify('applicativo_changes', 'B:' || r.boardID || ':0:' || r.userID);
+    ELSIF TG_TABLE_NAME = 'todos' THEN
+      PERFORM pg_notify('applicativo_changes', 'T:' || r.boardID || ':' || r.todoID || ':' || r.ownerUserID);
+      IF TG_OP = 'UPDATE' AND OLD.boardID <> NEW.boardID THEN
+        PERFORM pg_notify('applicativo_changes', 'T:' || OLD.boardID || ':' || OLD.todoID || ':' || OLD.ownerUserID);
+      END IF;
+    ELSE
+      PERFORM pg_notify('applicativo_changes', 'S:' || COALESCE((SELECT boardID FROM ToDos WHERE todoID = r.todoID), 0) || ':' || r.todoID || ':' || r.userID);
+    END IF;
+    RETURN NULL;
+  END;
+$$ LANGUAGE plpgsql;
+
+--Create statement-level trigger function to notify the listening clients of the deleted rows, read from the deletedRows transition table
+--ToDo deletions are notified once per Noticeboard, and not at all when the Noticeboard itself is being deleted
+CREATE OR REPLACE FUNCTION notifyDeletion()
+RETURNS TRIGGER AS
+$$
+  BEGIN
+    IF TG_TABLE_NAME = 'noticeboards' THEN
+      PERFORM pg_notify('applicativo_changes', 'B:' || d.boardID || ':0:' || d.userID) FROM deletedRows d;
+    ELSIF TG_TABLE_NAME = 'todos' THEN
+      PERFORM pg_notify('applicativo_changes', 'T:' || d.boardID || ':0:' || d.ownerUserID)
+      FROM (SELECT DISTINCT boardID, ownerUserID FROM deletedRows) d
+      WHERE EXISTS (SELECT 1 FROM Noticeboards b WHERE b.boardID = d.boardID);
+    ELSE
+      PERFORM pg_notify('applicativo_changes', 'S:' || COALESCE(t.boardID, 0) || ':' || d.todoID || ':' || d.userID)
+      FROM deletedRows d LEFT JOIN ToDos t ON t.todoID = d.todoID
+      WHERE EXISTS (SELECT 1 FROM Users u WHERE u.userID = d.userID);
+    END IF;
+    RETURN NULL;
+  END;
+$$ LANGUAGE plpgsql;
+
 --Create trigger function to prevent user sharing its own todos
 CREATE OR REPLACE FUNCTION preventSelfSharing()
 RETURNS TRIGGER AS
@@ -189,8 +294,71 @@ BEFORE INSERT ON Sharing
 FOR EACH ROW
 EXECUTE FUNCTION preventSelfSharing();
 
---Assign trigger to call normalizeIndex trigger function
-CREATE TRIGGER normalizeIndexTrigger
+--Assign triggers to give updated rows a new version
+CREATE TRIGGER noticeboardsVersionTrigger
+BEFORE UPDATE ON Noticeboards
+FOR EACH ROW
+EXECUTE FUNCTION bumpVersion();
+
+CREATE TRIGGER todosVersionTrigger
+BEFORE UPDATE ON ToDos
+FOR EACH ROW
+EXECUTE FUNCTION bumpVersion();
+
+CREATE TRIGGER sharingVersionTrigger
+BEFORE UPDATE ON Sharing
+FOR EACH ROW
+EXECUTE FUNCTION bumpVersion();
+
+--Assign statement-level triggers to log deleted rows, once per statement
+CREATE TRIGGER noticeboardsDeletionTrigger
+AFTER DELETE ON Noticeboards
+REFERENCING OLD TABLE AS deletedRows
+FOR EACH STATEMENT
+EXECUTE FUNCTION logDeletion();
+
+CREATE TRIGGER todosDeletionTrigger
 AFTER DELETE ON ToDos
+REFERENCING OLD TABLE AS deletedRows
+FOR EACH STATEMENT
+EXECUTE FUNCTION logDeletion();
+
+CREATE TRIGGER sharingDeletionTrigger
+AFTER DELETE ON Sharing
+REFERENCING OLD TABLE AS deletedRows
+FOR EACH STATEMENT
+EXECUTE FUNCTION logDeletion();
+
+--Assign triggers to notify the listening clients of changed rows
+CREATE TRIGGER noticeboardsNotifyTrigger
+AFTER INSERT OR UPDATE ON Noticeboards
 FOR EACH ROW
-EXECUTE FUNCTION normalizeIndex();
\ No newline at end of file
+EXECUTE FUNCTION notifyChange();
+
+CREATE TRIGGER noticeboardsDeletionNotifyTrigger
+AFTER DELETE ON Noticeboards
+REFERENCING OLD TABLE AS deletedRows
+FOR EACH STATEMENT
+EXECUTE FUNCTION notifyDeletion();
+
+CREATE TRIGGER todosNotifyTrigger
+AFTER INSERT OR UPDATE ON ToDos
+FOR EACH ROW
+EXECUTE FUNCTION notifyChange();
+
+CREATE TRIGGER todosDeletionNotifyTrigger
+AFTER DELETE ON ToDos
+REFERENCING OLD TABLE AS deletedRows
+FOR EACH STATEMENT
+EXECUTE FUNCTION notifyDeletion();
+
+CREATE TRIGGER sharingNotifyTrigger
+AFTER INSERT OR UPDATE ON Sharing
+FOR EACH ROW
+EXECUTE FUNCTION notifyChange();
+
+CREATE TRIGGER sharingDeletionNotifyTrigger
+AFTER DELETE ON Sharing
+REFERENCING OLD TABLE AS deletedRows
+FOR EACH STATEMENT
+EXECUTE FUNCTION notifyDeletion();
\ No newline at end of file
@@ -1,17 +1,31 @@
 package controller;
 
 //Java imports
-import java.sql.Connection;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 //App imports
 import controller.InvalidModelAttributeException.InvalidAttributeType;
 import controller.InexistentModelEntityException.EntityType;
 import controller.InvalidControllerOperationException.InvalidOperationType;
 
+import database.ChangeListener;
+import database.ConnectionLease;
 import database.DatabaseConnection;
+import database.UnitOfWork;
 
 import dao.*;
 import daopostgresimplementation.*;
@@ -23,12 +37,36 @@ import dto.*;
  * <p>The Controller, acts as an interface between the App's state and the GUI</p>
  */
 public class Controller {
+    /**
+     * <p>The strategies used to load a User's data at login and on reload.</p>
+     */
+    public enum SessionLoadMode {
+        //Loads the Noticeboards, ToDos and sharing data with a separate query for each
+        EAGER,
+        //Loads the whole User tree with a single query, aggregated as JSON by the Database
+        AGGREGATED,
+        //Loads only the Noticeboards' metadata, the ToDos of a Noticeboard are loaded the first time it is accessed
+        LAZY
+    }
+
     //Members
     private static Controller instance = null;
     private User loggedUser;
+    private UserDTO userSnapshot; //Latest snapshot of the logged User handed out, null if none was taken yet
+    private SessionLoadMode sessionLoadMode;
+    private int boardLoadFetchSize;
+    private final BoardResidencyCache boardCache;
+    private long syncWatermark; //Database transaction ID the loaded data is up to date with, see SyncDAO, -1 if unknown
+    private ChangeListener changeListener;
+    private ExecutorService changeFetcher; //Fetches the notified changes off the listener's callback thread, null unless listening
+    private WriteBehindQueue writeBehindQueue; //null unless write-behind is enabled
+    private boolean offHeapStorage;
 
     //Utility variables & constants
     private static final String VALID_USERNAME_REGEX = "^[A-Za-z0-9._\\-]+$";
+    private static final int BOARD_CACHE_CAPACITY = 5_000; //Maximum count of ToDos kept loaded, displayed boards excluded
+    private static final int DEFAULT_BOARD_LOAD_FETCH_SIZE = 500; //Rows streamed from the Database at a time by the eager board loaders
+    private static final long WRITE_BEHIND_DELAY_MILLIS = 300; //How long a deferred write waits for the writes it can be coalesced with
 
     //Constructor
     /**
@@ -37,6 +75,15 @@ public class Controller {
     private Controller() {
         //Set state
         this.loggedUser = null;
+        this.userSnapshot = null;
+        this.sessionLoadMode = SessionLoadMode.LAZY;
+        this.boardLoadFetchSize = DEFAULT_BOARD_LOAD_FETCH_SIZE;
+        this.boardCache = new BoardResidencyCache(BOARD_CACHE_CAPACITY);
+        this.syncWatermark = -1;
+        this.changeListener = null;
+        this.changeFetcher = null;
+        this.writeBehindQueue = null;
+        this.offHeapStorage = false;
     }
 
 
@@ -52,6 +99,15 @@ public class Controller {
         return instance;
     }
 
+    /**
+     * <p>Connects to the Database and brings its schema up to date, so that the App does not start on a Database it cannot work with.</p>
+     *
+     * @throws IllegalStateException if the Database could not be reached or its schema could not be migrated
+     */
+    public void connectDatabase() {
+        DatabaseConnection.getInstance();
+    }
+
     //State methods
     /**
      * <p>Checks if a User is logged in the system</p>
@@ -61,13 +117,14 @@ public class Controller {
 
     /**
      * <p>Gets the current logged User's DTO</p>
+     * <p>The DTO is an immutable snapshot of the User, handed out as is until the User changes.</p>
      * @return if a user is logged, returns the current logged user's DTO, otherwise returns {@code null}
      */
     public UserDTO getLoggedUser() {
         if(loggedUser == null)
             return null;
 
-        return new UserDTO(loggedUser);
+        return this.getUserSnapshot();
     }
 
     /**
@@ -76,6 +133,58 @@ public class Controller {
      */
     private void setLoggedUser(User user) {
         this.loggedUser = user;
+        this.userSnapshot = null;
+        this.resetBoardCache();
+    }
+
+    /**
+     * <p>Gets the snapshot of the logged User matching its current version, taking a new one from the previous one if the User changed.</p>
+     * <p>A new snapshot shares the snapshots of the Noticeboards and ToDos that did not change, so only the changed ones are copied again.</p>
+     * @return the snapshot
+     */
+    private UserDTO getUserSnapshot() {
+        if(userSnapshot == null || userSnapshot.getVersion() != loggedUser.getVersion())
+            userSnapshot = new UserDTO(loggedUser, userSnapshot);
+
+        return userSnapshot;
+    }
+
+    /**
+     * <p>Gets the strategy used to load the User's data at login and on reload</p>
+     * @return the {@link SessionLoadMode}
+     */
+    public SessionLoadMode getSessionLoadMode() { return sessionLoadMode; }
+
+    /**
+     * <p>Sets the strategy used to load the User's data at login and on reload</p>
+     * @param mode the {@link SessionLoadMode}
+     *
+     * @throws IllegalArgumentException if {@code mode} is {@code null}
+     */
+    public void setSessionLoadMode(SessionLoadMode mode) {
+        if(mode == null)
+            throw new IllegalArgumentException("The session load mode cannot be null");
+
+        this.sessionLoadMode = mode;
+    }
+
+    /**
+     * <p>Gets the count of rows the eager board loaders fetch from the Database at a time</p>
+     * @return the fetch size
+     */
+    public int getBoardLoadFetchSize() { return boardLoadFetchSize; }
+
+    /**
+     * <p>Sets the count of rows the eager board loaders fetch from the Database at a time, bounding the memory used by a load</p>
+     * @param fetchSize the fetch size
+     *
+     * @throws IllegalArgumentException if {@code fetchSize} is not positive
+     */
+    public void setBoardLoadFetchSize(int fetchSize) {
+        if(fetchSize <= 0)
+            throw new IllegalArgumentException("The board load fetch size must be positive");
+
+        this.boardLoadFetchSize = fetchSize;
     }
 
 
@@ -86,7 +195,10 @@ public class Controller {
      *
      */
     public Map<Integer, String> getUsers(){
-        Map<String, Integer> userList = new PostgresUserDAO(DatabaseConnection.getInstance().getConnection()).getUsers();
+        Map<String, Integer> userList;
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            userList = new PostgresUserDAO(lease.getConnection()).getUsers();
+        }
 
         Map<Integer, String> reversedUserList = new TreeMap<>();
 
@@ -114,8 +226,10 @@ public class Controller {
         if(!username.matches(VALID_USERNAME_REGEX))
             throw new InvalidModelAttributeException("The username is not valid.", InvalidAttributeType.INVALID_USER_USERNAME);
 
-        UserDAO userDAO = new PostgresUserDAO(DatabaseConnection.getInstance().getConnection());
-        return userDAO.userExists(username);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            UserDAO userDAO = new PostgresUserDAO(lease.getConnection());
+            return userDAO.userExists(username);
+        }
     }
 
     /**
@@ -132,19 +246,22 @@ public class Controller {
         this.validateUserCredentials(username, password);
 
         //Register user
-        Connection con = DatabaseConnection.getInstance().getConnection();
-        UserDAO userDAO = new PostgresUserDAO(con);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            UserDAO userDAO = new PostgresUserDAO(lease.getConnection());
+
+            int authResult;
+            try {
+                authResult = userDAO.registerUser(username, password);
+            }
+            catch (IllegalStateException _) {
+                throw new InvalidControllerOperationException("A User with the same username exists already", InvalidOperationType.USER_ALREADY_EXISTS);
+            }
 
-        try {
-            int authResult = userDAO.registerUser(username, password);
             if (authResult == -1)
                 return false;
             else
                 this.initUserSession(authResult, userDAO);
         }
-        catch (IllegalStateException _) {
-            throw new InvalidControllerOperationException("A User with the same username exists already", InvalidOperationType.USER_ALREADY_EXISTS);
-        }
 
         return true;
     }
@@ -162,14 +279,15 @@ public class Controller {
         this.validateUserCredentials(username, password);
 
         //Auth user
-        Connection con = DatabaseConnection.getInstance().getConnection();
-        UserDAO userDAO = new PostgresUserDAO(con);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            UserDAO userDAO = new PostgresUserDAO(lease.getConnection());
 
-        int authResult = userDAO.authUser(username, password);
-        if(authResult < 0)
-            return authResult;
-        else
-            this.initUserSession(authResult, userDAO);
+            int authResult = userDAO.authUser(username, password);
+            if(authResult < 0)
+                return authResult;
+            else
+                this.initUserSession(authResult, userDAO);
+        }
 
         return 0;
     }
@@ -180,37 +298,245 @@ public class Controller {
      * @param userDAO the UserDAO to load the User data from
      */
     private void initUserSession(int userID, UserDAO userDAO) {
-        //Initialize and set current user
+        //Read the watermark before loading, so that changes committed during the load are fetched again by the next sync
+        long watermark = this.readSyncWatermark();
+
+        //Load the whole User tree in one round trip
+        if(sessionLoadMode == SessionLoadMode.AGGREGATED) {
+            User usr = userDAO.loadUserByUserID(userID);
+            if(usr != null) {
+                this.setLoggedUser(usr);
+                this.syncWatermark = watermark;
+                return;
+            }
+        }
+
+        //Initialize and set current user, also the fallback if the aggregated load fails
         User usr = userDAO.getUserMetadata(userID);
-        this.loadUserNoticeboards(usr.getUserID(), usr.getNoticeboards());
+        this.loadUserNoticeboards(usr);
         this.setLoggedUser(usr);
+        this.syncWatermark = watermark;
     }
 
     /**
-     * <p>Invalidates the current User's cached data </p>
+     * <p>Brings the current User's cached data up to date with the Database.</p>
+     * <p>Only the changes made since the last sync are fetched and patched into the loaded data,
+     * the whole User data is reloaded only if the changes cannot be fetched.</p>
      */
     public void reloadUserData(){
-        //Invalidate cached data and reload
-        this.loadUserNoticeboards(this.loggedUser.getUserID(), this.loggedUser.getNoticeboards());
+        this.syncUserData();
+    }
+
+    /**
+     * <p>Starts listening for the changes made to the logged User's data by other clients, replacing any previous listener.</p>
+     * <p>On every batch of relevant changes, the current state of the notified Noticeboards and ToDos is fetched on a
+     * background thread, then patched into the loaded data on {@code callbackExecutor}, and {@code onBoardsChanged} is
+     * notified with the IDs of the affected Noticeboards, or with {@code null} if the whole User data was reloaded.
+     * The changes made by this App are not notified, the loaded data holds them already.</p>
+     * @param callbackExecutor the {@link Executor} the loaded data is patched and {@code onBoardsChanged} is run on, usually the GUI's event thread
+     * @param onBoardsChanged the callback notified of the affected Noticeboards
+     */
+    public void startChangeListener(Executor callbackExecutor, Consumer<Set<Integer>> onBoardsChanged) {
+        this.stopChangeListener();
+
+        //A single fetcher thread, so that the fetches are patched in the order the notifications came in
+        ExecutorService fetcher = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ChangeListener-fetcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        changeFetcher = fetcher;
+
+        changeListener = DatabaseConnection.getInstance().openChangeListener(changes -> {
+            if(loggedUser == null)
+                return;
+
+            List<ChangeListener.Change> relevantChanges = changes.stream().filter(this::isRelevantChange).toList();
+            if(!relevantChanges.isEmpty())
+                this.patchNotifiedChanges(relevantChanges, fetcher, callbackExecutor, onBoardsChanged);
+        }, callbackExecutor);
+    }
+
+    /**
+     * <p>Stops listening for the changes made by other clients.</p>
+     */
+    public void stopChangeListener() {
+        if(changeListener != null) {
+            changeListener.close();
+            changeListener = null;
+        }
+
+        if(changeFetcher != null) {
+            changeFetcher.shutdownNow();
+            changeFetcher = null;
+        }
+    }
+
+    /**
+     * <p>Enables write-behind for the ToDo completion states and background colors, replacing any previous queue.</p>
+     * <p>The model is updated straight away, while the writes are coalesced per ToDo and column and persisted in batches
+     * on a background thread. If a batch fails, its model changes are rolled back and {@code onWriteFailed} is notified.
+     * Pending writes are flushed when write-behind is disabled and when the App exits.</p>
+     * @param callbackExecutor the {@link Executor} the rollbacks and {@code onWriteFailed} are run on, usually the GUI's event thread
+     * @param onWriteFailed the callback notified of the failed writes, after the model is rolled back
+     */
+    public void enableWriteBehind(Executor callbackExecutor, Consumer<RuntimeException> onWriteFailed) {
+        this.disableWriteBehind();
+        writeBehindQueue = new WriteBehindQueue(WRITE_BEHIND_DELAY_MILLIS, callbackExecutor, onWriteFailed);
+    }
+
+    /**
+     * <p>Disables write-behind, waiting for the pending writes to be persisted.</p>
+     */
+    public void disableWriteBehind() {
+        if(writeBehindQueue != null) {
+            writeBehindQueue.close();
+            writeBehindQueue = null;
+        }
+    }
+
+    /**
+     * <p>Enables the off-heap storage of the ToDos of the logged User's own Noticeboards.</p>
+     * <p>From now on, the ToDos of an owned Noticeboard loaded on first access are streamed from the Database into an
+     * {@link OffHeapToDoStore}, outside the Java heap, and read from there while the Noticeboard is only displayed.
+     * The first change to the Noticeboard, or the first look-up of one of its ToDos, brings them back onto the heap.
+     * Noticeboards loaded already, and those loaded eagerly at login, stay on the heap.</p>
+     */
+    public void enableOffHeapStorage() { this.offHeapStorage = true; }
+
+    /**
+     * <p>Disables the off-heap storage of ToDos, dropping the ToDos stored off the heap so that they are loaded again on the heap on next access.</p>
+     */
+    public void disableOffHeapStorage() {
+        this.offHeapStorage = false;
+        if(loggedUser == null)
+            return;
+
+        for(Noticeboard board : loggedUser.getNoticeboards()) {
+            if(board.isStoredOffHeap()) {
+                board.evictToDos();
+                boardCache.remove(board.getBoardID());
+            }
+        }
+    }
+
+    /**
+     * <p>Checks if the off-heap storage of ToDos is enabled.</p>
+     * @return {@code true} if enabled, {@code false} otherwise
+     */
+    public boolean isOffHeapStorageEnabled() { return offHeapStorage; }
+
+    /**
+     * <p>Waits for the pending write-behind writes, if any, to be persisted.</p>
+     */
+    public void flushPendingWrites() {
+        if(writeBehindQueue != null)
+            writeBehindQueue.flush();
+    }
+
+    /**
+     * <p>Runs many Controller operations as a single Database transaction, committed once at the end.</p>
+     * <p>Every operation run by {@code operations} on the calling thread uses the same connection and joins the same
+     * transaction, and write-behind is bypassed. If an operation throws, or fails and leaves the transaction aborted, the
+     * transaction is rolled back instead of committed, and the Noticeboards the operations changed are restored from the
+     * Database, so that the model does not keep the changes the Database discarded.
+     * A unit of work run within another one joins it.</p>
+     * @param operations the operations, usually a sequence of calls to the Controller
+     *
+     * @throws IllegalArgumentException if {@code operations} is {@code null}
+     * @throws IllegalStateException if the transaction could not be committed
+     */
+    public void runUnitOfWork(Runnable operations) {
+        if(operations == null)
+            throw new IllegalArgumentException("The unit of work's operations cannot be null");
+
+        DatabaseConnection database = DatabaseConnection.getInstance();
+        if(database.isInUnitOfWork()) {
+            operations.run();
+            return;
+        }
+
+        //Deferred writes go first, so that they do not land after the unit of work
+        this.flushPendingWrites();
+
+        Map<Integer, Long> boardVersions = new HashMap<>();
+        if(loggedUser != null)
+            loggedUser.getNoticeboards().forEach(board -> boardVersions.put(board.getBoardID(), board.getVersion()));
+
+        RuntimeException failure;
+        try (UnitOfWork unitOfWork = database.beginUnitOfWork()) {
+            try {
+                operations.run();
+                unitOfWork.commit();
+                return;
+            }
+            catch (SQLException sqlex) {
+                failure = new IllegalStateException("Could not commit the unit of work.", sqlex);
+            }
+            catch (RuntimeException e) {
+                failure = e;
+            }
+        }
+
+        //The Database was rolled back when the unit of work was closed, throw away the model changes too
+        this.restoreNoticeboards(boardVersions);
+        throw failure;
+    }
+
+    /**
+     * <p>Sets the Noticeboards currently displayed, whose ToDos are never evicted from the model</p>
+     * @param boardIDs the IDs of the displayed Noticeboards
+     */
+    public void setDisplayedNoticeboards(Collection<Integer> boardIDs) {
+        boardCache.pin(boardIDs);
+    }
+
+    /**
+     * <p>Gets the hit/miss/eviction statistics of the cache of loaded Noticeboard contents</p>
+     * @return the cache's {@link BoardResidencyCache.Statistics}
+     */
+    public BoardResidencyCache.Statistics getBoardCacheStatistics() {
+        return boardCache.getStatistics();
     }
 
     //Noticeboard methods
     /**
-     * <p>Gets the logged User's Noticeboard identified by {@code boardID}</p>
+     * <p>Gets the logged User's Noticeboard identified by {@code boardID}, loading its ToDos if needed</p>
      * @param boardID the Noticeboard's ID
      * @return if found, returns the noticeboard wrapped as a {@link NoticeboardDTO}, otherwise returns {@code null}
      */
     public NoticeboardDTO getNoticeboard(int boardID) {
-        return loggedUser.getNoticeboards().stream().filter(board -> board.getBoardID() == boardID)
-                .findFirst().map(NoticeboardDTO::new).orElse(null);
+        Noticeboard board = this.getHydratedNoticeboard(boardID);
+        return board != null ? this.getUserSnapshot().getNoticeboard(boardID) : null;
+    }
+
+    /**
+     * <p>Gets the metadata of the logged User's Noticeboard identified by {@code boardID}, without loading its ToDos</p>
+     * @param boardID the Noticeboard's ID
+     * @return if found, returns the noticeboard's metadata wrapped as a {@link NoticeboardDTO} without ToDos, otherwise returns {@code null}
+     */
+    public NoticeboardDTO getNoticeboardMetadata(int boardID) {
+        Noticeboard board = loggedUser.getNoticeboard(boardID);
+        return board != null ? new NoticeboardDTO(board.getBoardID(), board.getTitle(), board.getDescription(), board.getUserID()) : null;
     }
 
     /**
      * <p>Gets the logged User's Noticeboards</p>
+     * <p>In {@link SessionLoadMode#LAZY} mode, the Noticeboards that have not been accessed yet have no ToDos.</p>
      * @return returns the noticeboards wrapped as a {@link List} of {@link NoticeboardDTO}
      */
     public List<NoticeboardDTO> getNoticeboards() {
-        return loggedUser.getNoticeboards().stream().map(NoticeboardDTO::new).toList();
+        return this.getUserSnapshot().getNoticeboards();
+    }
+
+    /**
+     * <p>Gets the logged User's Noticeboards, loading the ToDos of all of them if needed</p>
+     * @return returns the noticeboards wrapped as a {@link List} of {@link NoticeboardDTO}
+     */
+    public List<NoticeboardDTO> getHydratedNoticeboards() {
+        //Take each snapshot right after the load, as loading the next Noticeboards may evict the ToDos of the previous ones
+        return loggedUser.getNoticeboards().stream().map(board -> this.getHydratedNoticeboard(board.getBoardID()))
+                .map(board -> this.getUserSnapshot().getNoticeboard(board.getBoardID())).toList();
     }
 
     /**
@@ -230,14 +556,15 @@ public class Controller {
 
 
         //Sync DB state
-        NoticeboardDAO boardDAO = new PostgresNoticeboardDAO(DatabaseConnection.getInstance().getConnection());
-
         int boardID;
-        try {
-            boardID = boardDAO.addNoticeboard(noticeboard.getTitle(), noticeboard.getDescription(), loggedUser.getUserID());
-        }
-        catch (IllegalStateException _) {
-            throw new InvalidControllerOperationException("A noticeboard with the same title exists already", InvalidOperationType.NOTICEBOARD_TITLE_ALREADY_EXISTS);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            NoticeboardDAO boardDAO = new PostgresNoticeboardDAO(lease.getConnection());
+            try {
+                boardID = boardDAO.addNoticeboard(noticeboard.getTitle(), noticeboard.getDescription(), loggedUser.getUserID());
+            }
+            catch (IllegalStateException _) {
+                throw new InvalidControllerOperationException("A noticeboard with the same title exists already", InvalidOperationType.NOTICEBOARD_TITLE_ALREADY_EXISTS);
+            }
         }
 
         //Sync App state
@@ -254,9 +581,12 @@ public class Controller {
      * @throws InexistentModelEntityException if the noticeboard does not exist
      */
     public void deleteNoticeboardByID(int boardID) {
+        //Deferred writes go first, so that they do not land after the Noticeboard's ToDos are deleted
+        this.flushPendingWrites();
+
         //Sync DB state
-        NoticeboardDAO boardDAO = new PostgresNoticeboardDAO(DatabaseConnection.getInstance().getConnection());
-        try {
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            NoticeboardDAO boardDAO = new PostgresNoticeboardDAO(lease.getConnection());
             boardDAO.removeNoticeboard(boardID);
         }
         catch(NoSuchElementException _) {
@@ -265,6 +595,7 @@ public class Controller {
 
         //Sync App state
         loggedUser.deleteNoticeboard(boardID);
+        boardCache.remove(boardID);
     }
 
     /**
@@ -291,11 +622,13 @@ public class Controller {
             throw new InexistentModelEntityException("The target noticeboard (ID: " + noticeboard.getUserID() + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
 
         //Sync DB state
-        NoticeboardDAO boardDAO = new PostgresNoticeboardDAO(DatabaseConnection.getInstance().getConnection());
-        boardDAO.updateNoticeboard(noticeboard);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            NoticeboardDAO boardDAO = new PostgresNoticeboardDAO(lease.getConnection());
+            boardDAO.updateNoticeboard(noticeboard);
+        }
 
         //Sync App state
-        target.setTitle(noticeboard.getTitle());
+        loggedUser.renameNoticeboard(target.getBoardID(), noticeboard.getTitle());
         target.setDescription(noticeboard.getDescription());
     }
 
@@ -310,13 +643,152 @@ public class Controller {
      * @throws InexistentModelEntityException if the target noticeboard does not exist
      */
     public ToDo getToDo(int boardID, int todoID){
-        Noticeboard board = loggedUser.getNoticeboard(boardID);
+        Noticeboard board = this.getHydratedNoticeboard(boardID);
         if(board == null)
             throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
 
         return board.getToDo(todoID);
     }
 
+    /**
+     * <p>Gets a ToDo from a Noticeboard, as it is in the model</p>
+     * <p>Views use it to redraw a ToDo after changing it, without reading the Noticeboard's pages again.</p>
+     * @param boardID the Noticeboard's ID
+     * @param todoID the ToDo's ID
+     * @return the ToDo wrapped as a {@link ToDoDTO} if the noticeboard contains it, {@code null} otherwise
+     *
+     * @throws InexistentModelEntityException if the target noticeboard does not exist
+     */
+    public ToDoDTO getToDoDTO(int boardID, int todoID) {
+        ToDo todo = this.getToDo(boardID, todoID);
+        return todo != null ? new ToDoDTO(todo) : null;
+    }
+
+    /**
+     * <p>Gets a ToDo from a Noticeboard by its title, as it is in the model</p>
+     * @param boardID the Noticeboard's ID
+     * @param title the ToDo's title
+     * @return the ToDo wrapped as a {@link ToDoDTO} if the noticeboard contains it, {@code null} otherwise
+     *
+     * @throws InexistentModelEntityException if the target noticeboard does not exist
+     */
+    public ToDoDTO getToDoDTO(int boardID, String title) {
+        Noticeboard board = this.getHydratedNoticeboard(boardID);
+        if(board == null)
+            throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
+
+        ToDo todo = board.getToDo(title);
+        return todo != null ? new ToDoDTO(todo) : null;
+    }
+
+    /**
+     * <p>Gets a page of the ToDos of a Noticeboard visible to the logged User, in board order</p>
+     * <p>Pages are always read from the Database and never load the whole Noticeboard into the model, so that very large
+     * Noticeboards can be displayed a page at a time. Pages are keyed on the last ToDo of the previous page, rather than
+     * on an offset, so that ToDos added or removed between two requests are neither skipped nor repeated.</p>
+     * @param boardID the Noticeboard's ID
+     * @param pageToken the continuation token returned with the previous page, {@code null} for the first page
+     * @param pageSize the maximum count of ToDos in the page
+     * @return the page wrapped as a {@link ToDoPageDTO} if successful, {@code null} otherwise
+     *
+     * @throws IllegalArgumentException if {@code pageSize} is not positive, or if {@code pageToken} is malformed or belongs to another Noticeboard
+     * @throws InexistentModelEntityException if the target noticeboard does not exist
+     */
+    public ToDoPageDTO getToDoPage(int boardID, String pageToken, int pageSize) {
+        if(pageSize <= 0)
+            throw new IllegalArgumentException("The page size must be positive");
+
+        if(loggedUser.getNoticeboard(boardID) == null)
+            throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
+
+        //Decode the key the page starts after
+        long afterBoardIndex = Long.MIN_VALUE;
+        int afterToDoID = 0;
+        if(pageToken != null) {
+            try {
+                String[] key = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8).split(":");
+                if(key.length != 3 || Integer.parseInt(key[0]) != boardID)
+                    throw new IllegalArgumentException("The page token does not belong to the target noticeboard (ID: " + boardID + ")");
+
+                afterBoardIndex = Long.parseLong(key[1]);
+                afterToDoID = Integer.parseInt(key[2]);
+            }
+            catch (NumberFormatException _) {
+                throw new IllegalArgumentException("The page token is malformed");
+            }
+        }
+
+        //Read DB state
+        ToDoDAO.ToDoPage page;
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            page = todoDAO.loadToDoPage(boardID, loggedUser.getUserID(), afterBoardIndex, afterToDoID, pageSize);
+        }
+
+        if(page == null)
+            return null;
+
+        //Show the deferred writes that have not reached the Database yet
+        if(writeBehindQueue != null)
+            page.todos().forEach(writeBehindQueue::applyPending);
+
+        //Encode the key the next page starts after
+        String nextPageToken = null;
+        if(page.hasMore()) {
+            String key = boardID + ":" + page.lastBoardIndex() + ":" + page.lastToDoID();
+            nextPageToken = Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+        }
+
+        return new ToDoPageDTO(page.todos().stream().map(ToDoDTO::new).toList(), nextPageToken);
+    }
+
+    /**
+     * <p>Gets a ToDo with its description and URLs, loading them if needed</p>
+     * <p>Noticeboards are loaded with ToDo summaries, the details are read the first time they are needed and then kept
+     * in the model for as long as the Noticeboard stays loaded.</p>
+     * @param boardID the Noticeboard's ID
+     * @param todo the ToDo, either a summary or a ToDo with its details
+     * @return the ToDo with its details wrapped as a {@link ToDoDTO}, {@code null} if the details could not be loaded
+     *
+     * @throws IllegalArgumentException if {@code todo} is {@code null}
+     * @throws InexistentModelEntityException if the target noticeboard does not exist
+     */
+    public ToDoDTO loadToDoDetails(int boardID, ToDoDTO todo) {
+        if(todo == null)
+            throw new IllegalArgumentException("ToDoDTO is null");
+
+        if(todo.areDetailsLoaded())
+            return todo;
+
+        Noticeboard board = loggedUser.getNoticeboard(boardID);
+        if(board == null)
+            throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
+
+        //The ToDo is cached only while its Noticeboard is loaded
+        ToDo cached = board.getToDo(todo.getToDoID());
+        if(cached != null && cached.areDetailsLoaded())
+            return new ToDoDTO(cached);
+
+        //Read DB state
+        ToDoDAO.ToDoDetails details;
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            details = todoDAO.loadToDoDetails(todo.getToDoID(), loggedUser.getUserID());
+        }
+
+        if(details == null)
+            return null;
+
+        //Sync App state
+        if(cached != null)
+            cached.setDetails(details.description(), details.activityURL(), details.imageURL());
+
+        ToDo detailed = new ToDo(todo.getToDoID(), todo.isCompleted(), todo.getTitle(), details.description(), details.activityURL(), details.imageURL(),
+                todo.getExpiryDate(), todo.getOwnerUserID(), todo.getBackgroundColor());
+        todo.getSharedUsers().forEach(detailed::addSharedUser);
+        return new ToDoDTO(detailed);
+    }
+
     /**
      * <p>Adds ToDo to a Noticeboard</p>
      * @param boardID the board's ID
@@ -332,14 +804,9 @@ public class Controller {
             throw new IllegalArgumentException("Cannot add a null ToDo to a Noticeboard");
 
         //Validity check on ToDo metadata
-        if(todo.getTitle().length() > 128)
-            throw new InvalidModelAttributeException("The title cannot be longer than 128 characters.", InvalidAttributeType.INVALID_TODO_TITLE);
-        if(!todo.getTitle().matches("^[A-Za-z0-9@#&_.\\- ]+$"))
-            throw new InvalidModelAttributeException("The title is not valid.", InvalidAttributeType.INVALID_TODO_TITLE);
-        if(!todo.getBackgroundColor().matches("^#[0-9A-Fa-f]{6}$"))
-            throw new InvalidModelAttributeException("ToDo background color is not valid, must be in the following format \"#RRGGBB\"", InvalidAttributeType.INVALID_TODO_COLOR);
+        this.validateToDoMetadata(todo);
 
-        Noticeboard board = loggedUser.getNoticeboard(boardID);
+        Noticeboard board = this.getHydratedNoticeboard(boardID);
         if(board == null)
             throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
 
@@ -347,14 +814,66 @@ public class Controller {
             throw new InvalidControllerOperationException("A ToDo with the same title exists already, duplicate titles are not allowed", InvalidOperationType.TODO_TITLE_ALREADY_EXISTS);
 
         //Sync DB state
-        ToDoDAO todoDAO = new PostgresToDoDAO(DatabaseConnection.getInstance().getConnection());
-        int todoID = todoDAO.addToDo(todo, boardID, board.getToDoCount());
+        ToDo newToDo;
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            newToDo = todoDAO.addToDo(todo, boardID);
+        }
 
-        //Sync App state
-        if (todoID != -1) {
-            ToDoDTO newToDo = new ToDoDTO(todoID, todo.isCompleted(), todo.getTitle(), todo.getDescription(), todo.getActivityURL(), todo.getImageURL(), todo.getExpiryDate(), todo.getOwnerUserID(), todo.getBackgroundColor());
-            board.addToDo(fromDTO(newToDo));
+        //Sync App state, the new ToDo carries the values set by the Database
+        if (newToDo != null)
+            board.addToDo(newToDo);
+    }
+
+    /**
+     * <p>Adds many ToDos to the end of a Noticeboard at once, in list order</p>
+     * <p>Either all the ToDos are added or none is.</p>
+     * @param boardID the board's ID
+     * @param todos the todos
+     *
+     * @throws IllegalArgumentException if {@code todos} is {@code null} or contains {@code null}
+     * @throws InvalidModelAttributeException if a title is invalid or too long, or if a background color's format is not valid
+     * @throws InexistentModelEntityException if the noticeboard does not exist
+     * @throws InvalidControllerOperationException if two todos have the same title, or a todo with the same title already exists in the board
+     */
+    public void addToDos(int boardID, List<ToDoDTO> todos){
+        if(todos == null || todos.contains(null))
+            throw new IllegalArgumentException("Cannot add a null ToDo to a Noticeboard");
+
+        Noticeboard board = this.getHydratedNoticeboard(boardID);
+        if(board == null)
+            throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
+
+        //Validity check on ToDos metadata and titles
+        HashSet<String> titles = new HashSet<>();
+        for(ToDoDTO todo : todos) {
+            this.validateToDoMetadata(todo);
+
+            if(!titles.add(todo.getTitle()) || board.getToDo(todo.getTitle()) != null)
+                throw new InvalidControllerOperationException("A ToDo with the title \"" + todo.getTitle() + "\" exists already, duplicate titles are not allowed", InvalidOperationType.TODO_TITLE_ALREADY_EXISTS);
+        }
+
+        if(todos.isEmpty())
+            return;
+
+        //Sync DB state
+        List<ToDo> newToDos;
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            try {
+                newToDos = todoDAO.addToDos(todos, boardID);
+            }
+            catch (IllegalStateException _) {
+                throw new InvalidControllerOperationException("A ToDo with the same title exists already, duplicate titles are not allowed", InvalidOperationType.TODO_TITLE_ALREADY_EXISTS);
+            }
+            catch (NoSuchElementException _) {
+                throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
+            }
         }
+
+        //Sync App state, the new ToDos carry the values set by the Database
+        if (newToDos != null)
+            newToDos.forEach(board::addToDo);
     }
 
     /**
@@ -368,7 +887,7 @@ public class Controller {
      *
      */
     public void deleteToDo(int boardID, int todoID){
-        Noticeboard board = loggedUser.getNoticeboard(boardID);
+        Noticeboard board = this.getHydratedNoticeboard(boardID);
         if(board == null)
             throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
 
@@ -376,9 +895,14 @@ public class Controller {
         if(todo == null)
             throw new InexistentModelEntityException("The target todo (ID: " + todoID + ") does not exist", EntityType.INEXISTENT_TODO);
 
+        //Deferred writes go first, so that they do not land after the ToDo is deleted
+        this.flushPendingWrites();
+
         //Sync DB state
-        ToDoDAO todoDAO = new PostgresToDoDAO(DatabaseConnection.getInstance().getConnection());
-        todoDAO.removeToDo(todo.getToDoID()); //Removes ToDo and sharing data from DB
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            todoDAO.removeToDo(todo.getToDoID()); //Removes ToDo and sharing data from DB
+        }
 
         //Sync App State
         board.deleteToDo(todoID);
@@ -397,9 +921,23 @@ public class Controller {
         if(target == null)
             throw new InexistentModelEntityException("The target todo (ID: " + todoID + ") does not exist", EntityType.INEXISTENT_TODO);
 
+        //Sync App state first and defer the DB write, if write-behind is enabled
+        if(writeBehindQueue != null && !DatabaseConnection.getInstance().isInUnitOfWork()) {
+            boolean previousState = target.isCompleted();
+            target.changeCompletionState();
+            writeBehindQueue.enqueue(todoID, WriteBehindQueue.Column.COMPLETION_STATE, target.isCompleted(), () -> {
+                ToDo todo = this.getLoadedToDo(boardID, todoID);
+                if(todo != null && todo.isCompleted() != previousState)
+                    todo.changeCompletionState();
+            });
+            return;
+        }
+
         //Sync DB state
-        ToDoDAO todoDAO = new PostgresToDoDAO(DatabaseConnection.getInstance().getConnection());
-        todoDAO.updateToDoCompletionState(!target.isCompleted(), todoID);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            todoDAO.updateToDoCompletionState(!target.isCompleted(), todoID);
+        }
 
         //Sync App state
         target.changeCompletionState();
@@ -425,7 +963,7 @@ public class Controller {
         if(!newTitle.matches("^[A-Za-z0-9@#&_.\\- ]+$"))
             throw new InvalidModelAttributeException("The title is not valid.", InvalidAttributeType.INVALID_TODO_TITLE);
 
-        Noticeboard board = loggedUser.getNoticeboard(boardID);
+        Noticeboard board = this.getHydratedNoticeboard(boardID);
         if(board == null)
             throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
 
@@ -438,11 +976,13 @@ public class Controller {
             throw new InexistentModelEntityException("The target todo (ID: " + todoID + ") does not exist", EntityType.INEXISTENT_TODO);
 
         //Sync DB state
-        ToDoDAO todoDAO = new PostgresToDoDAO(DatabaseConnection.getInstance().getConnection());
-        todoDAO.updateToDoTitle(newTitle, todoID);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            todoDAO.updateToDoTitle(newTitle, todoID);
+        }
 
         //Sync App state
-        target.setTitle(newTitle);
+        board.renameToDo(todoID, newTitle);
     }
 
     /**
@@ -464,8 +1004,10 @@ public class Controller {
             throw new InexistentModelEntityException("The target todo (ID: " + todoID + ") does not exist", EntityType.INEXISTENT_TODO);
 
         //Sync DB state
-        ToDoDAO todoDAO = new PostgresToDoDAO(DatabaseConnection.getInstance().getConnection());
-        todoDAO.updateToDoDescription(newDescription, todoID);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            todoDAO.updateToDoDescription(newDescription, todoID);
+        }
 
         //Sync App state
         target.setDescription(newDescription);
@@ -486,8 +1028,10 @@ public class Controller {
             throw new InexistentModelEntityException("The target todo (ID: " + todoID + ") does not exist", EntityType.INEXISTENT_TODO);
 
         //Sync DB state
-        ToDoDAO todoDAO = new PostgresToDoDAO(DatabaseConnection.getInstance().getConnection());
-        todoDAO.updateToDoExpiryDate(newExpiryDate, todoID);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            todoDAO.updateToDoExpiryDate(newExpiryDate, todoID);
+        }
 
         //Sync App state
         target.setExpiryDate(newExpiryDate);
@@ -512,8 +1056,10 @@ public class Controller {
             throw new InexistentModelEntityException("The target todo (ID: " + todoID + ") does not exist", EntityType.INEXISTENT_TODO);
 
         //Sync DB state
-        ToDoDAO todoDAO = new PostgresToDoDAO(DatabaseConnection.getInstance().getConnection());
-        todoDAO.updateToDoActivityURL(newActivityURL, todoID);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            todoDAO.updateToDoActivityURL(newActivityURL, todoID);
+        }
 
         //Sync App state
         target.setActivityURL(newActivityURL);
@@ -538,8 +1084,10 @@ public class Controller {
             throw new InexistentModelEntityException("The target todo (ID: " + todoID + ") does not exist", EntityType.INEXISTENT_TODO);
 
         //Sync DB state
-        ToDoDAO todoDAO = new PostgresToDoDAO(DatabaseConnection.getInstance().getConnection());
-        todoDAO.updateToDoImageURL(newImageURL, todoID);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            todoDAO.updateToDoImageURL(newImageURL, todoID);
+        }
 
         //Sync App state
         target.setImageURL(newImageURL);
@@ -563,14 +1111,111 @@ public class Controller {
         if(target == null)
             throw new InexistentModelEntityException("The target todo (ID: " + todoID + ") does not exist", EntityType.INEXISTENT_TODO);
 
+        //Sync App state first and defer the DB write, if write-behind is enabled
+        if(writeBehindQueue != null && !DatabaseConnection.getInstance().isInUnitOfWork()) {
+            String previousColor = target.getBackgroundColor();
+            target.setBackgroundColor(newBackgroundColor);
+            writeBehindQueue.enqueue(todoID, WriteBehindQueue.Column.BACKGROUND_COLOR, newBackgroundColor, () -> {
+                ToDo todo = this.getLoadedToDo(boardID, todoID);
+                if(todo != null)
+                    todo.setBackgroundColor(previousColor);
+            });
+            return;
+        }
+
         //Sync DB state
-        ToDoDAO todoDAO = new PostgresToDoDAO(DatabaseConnection.getInstance().getConnection());
-        todoDAO.updateToDoBackgroundColor(newBackgroundColor, todoID);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            todoDAO.updateToDoBackgroundColor(newBackgroundColor, todoID);
+        }
 
         //Sync App state
         target.setBackgroundColor(newBackgroundColor);
     }
 
+    /**
+     * <p>Updates the changed attributes of a Noticeboard's ToDo at once.</p>
+     * <p>Every changed attribute is validated before anything is persisted, then all of them are written with a single
+     * statement and applied to the model together, so that an edit is never left half applied.</p>
+     * @param boardID the target Noticeboard's ID
+     * @param todoID the target ToDo's ID
+     * @param changes the changed attributes and their new values
+     *
+     * @throws IllegalArgumentException if {@code changes} is {@code null}
+     * @throws InvalidModelAttributeException if a new attribute is not valid or too long
+     * @throws InexistentModelEntityException if the noticeboard does not exist
+     * @throws InexistentModelEntityException if the todo does not exist
+     * @throws InvalidControllerOperationException if the new title is already used by another ToDo of the board
+     */
+    public void updateToDo(int boardID, int todoID, ToDoUpdateDTO changes) {
+        if(changes == null)
+            throw new IllegalArgumentException("ToDoUpdateDTO is null");
+        if(changes.isEmpty())
+            return;
+
+        //Validity check on every changed attribute
+        if(changes.isChanged(ToDoUpdateDTO.Field.TITLE)) {
+            String newTitle = changes.getTitle();
+            if(newTitle == null || newTitle.isBlank())
+                throw new InvalidModelAttributeException("The new title cannot be null or empty", InvalidAttributeType.INVALID_TODO_TITLE);
+            if(newTitle.length() > 128)
+                throw new InvalidModelAttributeException("The title cannot be longer than 128 characters.", InvalidAttributeType.INVALID_TODO_TITLE);
+            if(!newTitle.matches("^[A-Za-z0-9@#&_.\\- ]+$"))
+                throw new InvalidModelAttributeException("The title is not valid.", InvalidAttributeType.INVALID_TODO_TITLE);
+        }
+        if(changes.isChanged(ToDoUpdateDTO.Field.DESCRIPTION) && changes.getDescription() != null && changes.getDescription().length() > 256)
+            throw new InvalidModelAttributeException("The new description cannot be longer than 256 characters.", InvalidAttributeType.INVALID_NOTICEBOARD_DESCRIPTION);
+        if(changes.isChanged(ToDoUpdateDTO.Field.ACTIVITY_URL) && changes.getActivityURL() != null && changes.getActivityURL().length() > 2048)
+            throw new InvalidModelAttributeException("The new activity URL cannot be longer than 2048 characters.", InvalidAttributeType.INVALID_TODO_ACTIVITY_URL);
+        if(changes.isChanged(ToDoUpdateDTO.Field.IMAGE_URL) && changes.getImageURL() != null && changes.getImageURL().length() > 2048)
+            throw new InvalidModelAttributeException("The new image URL cannot be longer than 2048 characters.", InvalidAttributeType.INVALID_TODO_IMAGE_URL);
+        if(changes.isChanged(ToDoUpdateDTO.Field.BACKGROUND_COLOR) && (changes.getBackgroundColor() == null || !changes.getBackgroundColor().matches("^#[0-9A-Fa-f]{6}$")))
+            throw new InvalidModelAttributeException("ToDo background color is not valid, must be in the following format \"#RRGGBB\"", InvalidAttributeType.INVALID_TODO_COLOR);
+
+        Noticeboard board = this.getHydratedNoticeboard(boardID);
+        if(board == null)
+            throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
+
+        ToDo target = board.getToDo(todoID);
+        if(target == null)
+            throw new InexistentModelEntityException("The target todo (ID: " + todoID + ") does not exist", EntityType.INEXISTENT_TODO);
+
+        //Check if title is already used
+        if(changes.isChanged(ToDoUpdateDTO.Field.TITLE) && board.getToDo(changes.getTitle()) != null)
+            throw new InvalidControllerOperationException("A todo with the title \"" + changes.getTitle() + "\" already exists", InvalidOperationType.TODO_TITLE_ALREADY_EXISTS);
+
+        //Deferred writes go first, so that an older background color does not overwrite this one
+        this.flushPendingWrites();
+
+        //Sync DB state
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            try {
+                todoDAO.updateToDo(todoID, changes);
+            }
+            catch (IllegalStateException _) {
+                throw new InvalidControllerOperationException("A todo with the title \"" + changes.getTitle() + "\" already exists", InvalidOperationType.TODO_TITLE_ALREADY_EXISTS);
+            }
+        }
+        catch (NoSuchElementException _) {
+            throw new InexistentModelEntityException("The target todo (ID: " + todoID + ") does not exist", EntityType.INEXISTENT_TODO);
+        }
+
+        //Sync App state, nothing below can fail once the attributes are validated
+        if(changes.isChanged(ToDoUpdateDTO.Field.TITLE))
+            board.renameToDo(todoID, changes.getTitle());
+        if(changes.isChanged(ToDoUpdateDTO.Field.DESCRIPTION))
+            target.setDescription(changes.getDescription());
+        if(changes.isChanged(ToDoUpdateDTO.Field.EXPIRY_DATE))
+            target.setExpiryDate(changes.getExpiryDate());
+        if(changes.isChanged(ToDoUpdateDTO.Field.ACTIVITY_URL))
+            target.setActivityURL(changes.getActivityURL());
+        if(changes.isChanged(ToDoUpdateDTO.Field.IMAGE_URL))
+            target.setImageURL(changes.getImageURL());
+        if(changes.isChanged(ToDoUpdateDTO.Field.BACKGROUND_COLOR))
+            target.setBackgroundColor(changes.getBackgroundColor());
+    }
+
     /**
      * <p>Shares a ToDo with a User.</p>
      * @param boardID the target Noticeboard's ID
@@ -594,15 +1239,17 @@ public class Controller {
             throw new InexistentModelEntityException("The target user (\"" + username + "\") does not exist", EntityType.INEXISTENT_USER);
 
         //Sync DB state
-        SharingDAO shareDAO = new PostgresSharingDAO(DatabaseConnection.getInstance().getConnection());
-        try {
-            shareDAO.shareToDo(userID, todoID);
-        }
-        catch (IllegalStateException _){
-            throw new InvalidControllerOperationException("The ToDo is already shared with the User", InvalidOperationType.TODO_IS_ALREADY_SHARED);
-        }
-        catch (IllegalArgumentException _){
-            throw new InvalidControllerOperationException("The User is trying to share a ToDo with itself", InvalidOperationType.CANNOT_SHARE_TODO_WITH_YOURSELF);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            SharingDAO shareDAO = new PostgresSharingDAO(lease.getConnection());
+            try {
+                shareDAO.shareToDo(userID, todoID);
+            }
+            catch (IllegalStateException _){
+                throw new InvalidControllerOperationException("The ToDo is already shared with the User", InvalidOperationType.TODO_IS_ALREADY_SHARED);
+            }
+            catch (IllegalArgumentException _){
+                throw new InvalidControllerOperationException("The User is trying to share a ToDo with itself", InvalidOperationType.CANNOT_SHARE_TODO_WITH_YOURSELF);
+            }
         }
 
         //Sync App state
@@ -632,18 +1279,41 @@ public class Controller {
             throw new InexistentModelEntityException("The target user (\"" + username + "\") does not exist", EntityType.INEXISTENT_USER);
 
         //Sync DB state
-        SharingDAO shareDAO = new PostgresSharingDAO(DatabaseConnection.getInstance().getConnection());
-        try {
-            shareDAO.unshareToDo(userID, todoID);
-        }
-        catch (IllegalStateException _){
-            throw new InvalidControllerOperationException("The ToDo is not shared with the User", InvalidOperationType.TODO_IS_NOT_ALREADY_SHARED);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            SharingDAO shareDAO = new PostgresSharingDAO(lease.getConnection());
+            try {
+                shareDAO.unshareToDo(userID, todoID);
+            }
+            catch (IllegalStateException _){
+                throw new InvalidControllerOperationException("The ToDo is not shared with the User", InvalidOperationType.TODO_IS_NOT_ALREADY_SHARED);
+            }
         }
 
         //Sync App state
         target.removeSharedUser(username);
     }
 
+    /**
+     * <p>Gets the position of a ToDo in its Noticeboard</p>
+     * @param boardID the Noticeboard's ID
+     * @param todoID the ToDo's ID
+     * @return the ToDo's index in board order
+     *
+     * @throws InexistentModelEntityException if the noticeboard does not exist
+     * @throws InexistentModelEntityException if the todo does not exist
+     */
+    public int getToDoPosition(int boardID, int todoID){
+        Noticeboard board = this.getHydratedNoticeboard(boardID);
+        if(board == null)
+            throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
+
+        int position = board.getToDoPosition(todoID);
+        if(position < 0)
+            throw new InexistentModelEntityException("The target todo (ID: " + todoID + ") does not exist in board (ID: " + boardID + ")", EntityType.INEXISTENT_TODO);
+
+        return position;
+    }
+
     /**
      * <p>Moves a ToDo from its position in its Noticeboard to another position</p>
      * @param boardID the Noticeboard's ID
@@ -655,7 +1325,7 @@ public class Controller {
      * @throws IndexOutOfBoundsException if {@code newIndex < 0} or {@code newIndex} is bigger or equal to the Noticeboard's size
      */
     public void moveToDoToIndex(int boardID, int todoID, int newIndex){
-        Noticeboard board = loggedUser.getNoticeboard(boardID);
+        Noticeboard board = this.getHydratedNoticeboard(boardID);
         if(board == null)
             throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
 
@@ -667,20 +1337,13 @@ public class Controller {
             throw new IndexOutOfBoundsException("Invalid index.\nCannot move todo to index " + newIndex);
         else {
             //Sync DB state
-            ToDoDAO todoDAO = new PostgresToDoDAO(DatabaseConnection.getInstance().getConnection());
-            todoDAO.moveToDoToIndex(todoID, newIndex);
+            try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+                ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+                todoDAO.moveToDoToIndex(todoID, newIndex);
+            }
 
             //Sync App state
-            List<ToDo> todos = board.getToDos();
-            int targetIndex = todos.indexOf(target);
-
-            todos.remove(targetIndex);
-
-            // Adjust newIndex if the removal shifted it
-            if (newIndex > targetIndex)
-                newIndex--;
-
-            todos.add(newIndex, target);
+            board.moveToDo(todoID, newIndex);
         }
     }
 
@@ -695,8 +1358,8 @@ public class Controller {
      * @throws InvalidControllerOperationException if the destination Noticeboard already owns a ToDo with the same title
      */
     public void moveToDoToBoard(int originBoardID, int todoID, int targetBoardID){
-        Noticeboard oldBoard = loggedUser.getNoticeboard(originBoardID);
-        Noticeboard newBoard = loggedUser.getNoticeboard(targetBoardID);
+        Noticeboard oldBoard = this.getHydratedNoticeboard(originBoardID);
+        Noticeboard newBoard = this.getHydratedNoticeboard(targetBoardID);
         if(oldBoard == null)
             throw new InexistentModelEntityException("The origin noticeboard does not exist", EntityType.INEXISTENT_ORIGIN_NOTICEBOARD);
         if(newBoard == null)
@@ -709,13 +1372,18 @@ public class Controller {
         if(todo == null)
             throw new InexistentModelEntityException("The ToDo does not exist", EntityType.INEXISTENT_TODO);
 
+        //Deferred writes go first, so that they do not land after the ToDo is moved
+        this.flushPendingWrites();
+
         //Sync DB state
-        ToDoDAO todoDAO = new PostgresToDoDAO(DatabaseConnection.getInstance().getConnection());
-        try {
-            todoDAO.moveToDoToBoard(todoID, originBoardID, targetBoardID);
-        }
-        catch(IllegalStateException _){
-            throw new InvalidControllerOperationException("The destination Noticeboard already owns a ToDo with the same title", InvalidOperationType.TODO_TITLE_ALREADY_EXISTS);
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            try {
+                todoDAO.moveToDoToBoard(todoID, originBoardID, targetBoardID);
+            }
+            catch(IllegalStateException _){
+                throw new InvalidControllerOperationException("The destination Noticeboard already owns a ToDo with the same title", InvalidOperationType.TODO_TITLE_ALREADY_EXISTS);
+            }
         }
 
         //Sync App state
@@ -723,24 +1391,611 @@ public class Controller {
         oldBoard.deleteToDo(todo.getToDoID());
     }
 
+    /**
+     * <p>Deletes many ToDos from the User's Noticeboard at once, with a single statement, either all of them or none.</p>
+     * <p>If the logged User is the owner of a ToDo, removes it from the Noticeboard of the Users who share it</p>
+     * @param boardID the Noticeboard's ID
+     * @param todoIDs the ToDos' IDs
+     *
+     * @throws IllegalArgumentException if {@code todoIDs} is {@code null}
+     * @throws InexistentModelEntityException if the noticeboard does not exist
+     * @throws InexistentModelEntityException if one of the todos does not exist
+     */
+    public void deleteToDos(int boardID, Set<Integer> todoIDs){
+        Noticeboard board = this.getHydratedNoticeboard(boardID);
+        if(board == null)
+            throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
+
+        List<ToDo> targets = this.getToDos(board, todoIDs);
+        if(targets.isEmpty())
+            return;
+
+        //Deferred writes go first, so that they do not land after the ToDos are deleted
+        this.flushPendingWrites();
+
+        //Sync DB state
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            todoDAO.removeToDos(todoIDs); //Removes the ToDos and their sharing data from DB
+        }
+
+        //Sync App state
+        for(ToDo target : targets)
+            board.deleteToDo(target.getToDoID());
+    }
+
+    /**
+     * <p>Sets the completion state of many ToDos of a Noticeboard at once, with a single statement, either all of them or none.</p>
+     * @param boardID the target Noticeboard's ID
+     * @param todoIDs the target ToDos' IDs
+     * @param isCompleted the new state, {@code true} -> {@code Completed}, {@code false} -> {@code NotCompleted}
+     *
+     * @throws IllegalArgumentException if {@code todoIDs} is {@code null}
+     * @throws InexistentModelEntityException if the noticeboard does not exist
+     * @throws InexistentModelEntityException if one of the todos does not exist
+     */
+    public void setCompletionState(int boardID, Set<Integer> todoIDs, boolean isCompleted){
+        Noticeboard board = this.getHydratedNoticeboard(boardID);
+        if(board == null)
+            throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
+
+        List<ToDo> targets = this.getToDos(board, todoIDs);
+        if(targets.isEmpty())
+            return;
+
+        //Deferred writes go first, so that they do not overwrite this one
+        this.flushPendingWrites();
+
+        //Sync DB state
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            todoDAO.updateToDosCompletionState(isCompleted, todoIDs);
+        }
+
+        //Sync App state
+        for(ToDo target : targets)
+            if(target.isCompleted() != isCompleted)
+                target.changeCompletionState();
+    }
+
+    /**
+     * <p>Sets the background color of many ToDos of a Noticeboard at once, with a single statement, either all of them or none.</p>
+     * @param boardID the target Noticeboard's ID
+     * @param todoIDs the target ToDos' IDs
+     * @param newBackgroundColor the new background color
+     *
+     * @throws IllegalArgumentException if {@code todoIDs} is {@code null}
+     * @throws InvalidModelAttributeException if the new background color is not valid or too long
+     * @throws InexistentModelEntityException if the noticeboard does not exist
+     * @throws InexistentModelEntityException if one of the todos does not exist
+     */
+    public void setBackgroundColor(int boardID, Set<Integer> todoIDs, String newBackgroundColor){
+        if(newBackgroundColor == null || !newBackgroundColor.matches("^#[0-9A-Fa-f]{6}$"))
+            throw new InvalidModelAttributeException("ToDo background color is not valid, must be in the following format \"#RRGGBB\"", InvalidAttributeType.INVALID_TODO_COLOR);
+
+        Noticeboard board = this.getHydratedNoticeboard(boardID);
+        if(board == null)
+            throw new InexistentModelEntityException("The target noticeboard (ID: " + boardID + ") does not exist", EntityType.INEXISTENT_NOTICEBOARD);
+
+        List<ToDo> targets = this.getToDos(board, todoIDs);
+        if(targets.isEmpty())
+            return;
+
+        //Deferred writes go first, so that they do not overwrite this one
+        this.flushPendingWrites();
+
+        //Sync DB state
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            todoDAO.updateToDosBackgroundColor(newBackgroundColor, todoIDs);
+        }
+
+        //Sync App state
+        for(ToDo target : targets)
+            target.setBackgroundColor(newBackgroundColor);
+    }
+
+    /**
+     * <p>Moves many ToDos from their original Noticeboard to another at once, with a single statement, either all of them or none.</p>
+     * <p>The ToDos are appended to the destination Noticeboard in the order they had in the original one.</p>
+     * @param originBoardID the origin Noticeboard's ID
+     * @param todoIDs the ToDos' IDs
+     * @param targetBoardID the destination Noticeboard's ID
+     *
+     * @throws IllegalArgumentException if {@code todoIDs} is {@code null}
+     * @throws InexistentModelEntityException if either the original or new Noticeboard do not exist, or if one of the todos does not exist
+     * @throws InvalidControllerOperationException if the new Noticeboard is not owned by the User
+     * @throws InvalidControllerOperationException if the destination Noticeboard already owns a ToDo with the same title as one of the ToDos
+     */
+    public void moveToDosToBoard(int originBoardID, Set<Integer> todoIDs, int targetBoardID){
+        Noticeboard oldBoard = this.getHydratedNoticeboard(originBoardID);
+        Noticeboard newBoard = this.getHydratedNoticeboard(targetBoardID);
+        if(oldBoard == null)
+            throw new InexistentModelEntityException("The origin noticeboard does not exist", EntityType.INEXISTENT_ORIGIN_NOTICEBOARD);
+        if(newBoard == null)
+            throw new InexistentModelEntityException("The target noticeboard does not exist", EntityType.INEXISTENT_TARGET_NOTICEBOARD);
+
+        if(newBoard.getUserID() != this.getLoggedUser().getUserID())
+            throw new InvalidControllerOperationException("The new noticeboard is not owned by User \"" + this.getLoggedUser().getUsername() + "\"", InvalidOperationType.USER_DOES_NOT_OWN_TARGET_NOTICEBOARD);
+
+        List<ToDo> targets = this.getToDos(oldBoard, todoIDs);
+        if(targets.isEmpty() || originBoardID == targetBoardID)
+            return;
+
+        //Deferred writes go first, so that they do not land after the ToDos are moved
+        this.flushPendingWrites();
+
+        //Sync DB state
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            ToDoDAO todoDAO = new PostgresToDoDAO(lease.getConnection());
+            try {
+                todoDAO.moveToDosToBoard(todoIDs, originBoardID, targetBoardID);
+            }
+            catch(IllegalStateException _){
+                throw new InvalidControllerOperationException("The destination Noticeboard already owns a ToDo with the same title as one of the moved ToDos", InvalidOperationType.TODO_TITLE_ALREADY_EXISTS);
+            }
+        }
+
+        //Sync App state
+        for(ToDo target : targets) {
+            newBoard.addToDo(target);
+            oldBoard.deleteToDo(target.getToDoID());
+        }
+    }
+
     //Utility methods
     /**
-     * <p>Loads the Noticeboards and ToDos of a User.</p>
-     * @param userID the user's ID
-     * @param boards an empty mutable {@link List} object to load the {@link Noticeboard} objects into
+     * <p>Gets the ToDos of a Noticeboard targeted by a bulk operation, in the Noticeboard's order.</p>
+     * @param board the Noticeboard
+     * @param todoIDs the ToDos' IDs
+     * @return the ToDos, as a {@link List} of {@link ToDo}
+     *
+     * @throws IllegalArgumentException if {@code todoIDs} is {@code null}
+     * @throws InexistentModelEntityException if one of the todos does not exist in the Noticeboard
+     */
+    private List<ToDo> getToDos(Noticeboard board, Set<Integer> todoIDs) {
+        if(todoIDs == null)
+            throw new IllegalArgumentException("The ToDos' IDs cannot be null");
+
+        for(int todoID : todoIDs)
+            if(board.getToDo(todoID) == null)
+                throw new InexistentModelEntityException("The target todo (ID: " + todoID + ") does not exist", EntityType.INEXISTENT_TODO);
+
+        return board.getToDos().stream().filter(todo -> todoIDs.contains(todo.getToDoID())).toList();
+    }
+
+    /**
+     * <p>Gets a ToDo of one of the logged User's Noticeboards, only if the Noticeboard's ToDos are loaded.</p>
+     * <p>Deferred callbacks use it to find the ToDo as the model holds it now, since an evicted Noticeboard is loaded
+     * again with new ToDo instances.</p>
+     * @param boardID the Noticeboard's ID
+     * @param todoID the ToDo's ID
+     * @return the ToDo if loaded, otherwise {@code null}
      */
-    private void loadUserNoticeboards(int userID, List<Noticeboard> boards) {
+    private ToDo getLoadedToDo(int boardID, int todoID) {
+        if(loggedUser == null)
+            return null;
+
+        Noticeboard board = loggedUser.getNoticeboard(boardID);
+        return board != null && board.isHydrated() ? board.getToDo(todoID) : null;
+    }
+
+    /**
+     * <p>Loads the Noticeboards and ToDos of a User, replacing the ones it holds.</p>
+     * @param usr the User to load the {@link Noticeboard} objects into
+     */
+    private void loadUserNoticeboards(User usr) {
+        int userID = usr.getUserID();
+
         //Clear any data
-        boards.clear();
+        usr.clearNoticeboards();
+
+        //Load the whole User tree in one round trip and keep its Noticeboards
+        if(sessionLoadMode == SessionLoadMode.AGGREGATED) {
+            User loaded;
+            try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+                loaded = new PostgresUserDAO(lease.getConnection()).loadUserByUserID(userID);
+            }
+
+            if(loaded != null) {
+                usr.addNoticeboards(loaded.getNoticeboards());
+                return;
+            }
+        }
+
+        //Load User's owned and shared Noticeboards (and their ToDos, unless lazy) concurrently, each loader on its own connection
+        boolean lazy = sessionLoadMode == SessionLoadMode.LAZY;
+        List<Noticeboard> ownedBoards = new ArrayList<>();
+        List<Noticeboard> sharedBoards = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<?> ownedLoad = executor.submit(() -> this.timeQuery(lazy ? "owned noticeboards metadata" : "owned noticeboards", () -> {
+                try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+                    NoticeboardDAO boardDAO = new PostgresNoticeboardDAO(lease.getConnection());
+                    if(lazy)
+                        boardDAO.getNoticeboardsMetadataByUserID(userID, ownedBoards);
+                    else
+                        boardDAO.loadNoticeboardsByUserID(userID, boardLoadFetchSize, ownedBoards::add);
+                }
+            }));
+            Future<?> sharedLoad = executor.submit(() -> this.timeQuery(lazy ? "shared noticeboards metadata" : "shared noticeboards", () -> {
+                try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+                    SharingDAO sharingDAO = new PostgresSharingDAO(lease.getConnection());
+                    if(lazy)
+                        sharingDAO.getSharedNoticeboardsMetadataByUserID(userID, sharedBoards);
+                    else
+                        sharingDAO.loadSharedNoticeboardsByUserID(userID, boardLoadFetchSize, sharedBoards::add);
+                }
+            }));
+
+            ownedLoad.get();
+            sharedLoad.get();
+        }
+        catch (ExecutionException e) {
+            if(e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new IllegalStateException("Could not load the user's noticeboards", e.getCause());
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading the user's noticeboards", e);
+        }
+
+        //The ToDos of metadata-only Noticeboards are loaded on first access
+        if(lazy) {
+            ownedBoards.forEach(board -> board.setHydrated(false));
+            sharedBoards.forEach(board -> board.setHydrated(false));
+        }
+
+        //Merge in a deterministic order, owned Noticeboards first
+        usr.addNoticeboards(ownedBoards);
+        usr.addNoticeboards(sharedBoards);
+    }
+
+    /**
+     * <p>Gets one of the logged User's Noticeboards, loading its ToDos and sharing data the first time it is accessed.</p>
+     * @param boardID the Noticeboard's ID
+     * @return the Noticeboard if found, otherwise {@code null}
+     */
+    private Noticeboard getHydratedNoticeboard(int boardID) {
+        Noticeboard board = loggedUser.getNoticeboard(boardID);
+        if(board == null)
+            return null;
+
+        if(board.isHydrated()) {
+            boardCache.recordHit(board);
+            return board;
+        }
+
+        if(offHeapStorage && board.getUserID() == loggedUser.getUserID())
+            return this.loadNoticeboardOffHeap(board);
+
+        List<ToDo> todos = new ArrayList<>();
+        int result;
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            //Load summaries only, the details of a ToDo are read when it is opened, see loadToDoDetails
+            if(board.getUserID() == loggedUser.getUserID())
+                result = new PostgresToDoDAO(lease.getConnection()).loadToDosByBoardID(boardID, todos);
+            else
+                result = new PostgresSharingDAO(lease.getConnection()).loadSharedToDosByBoardID(loggedUser.getUserID(), boardID, todos);
+        }
+
+        //Keep the Noticeboard unhydrated if the load failed, so that the next access tries again
+        if(result == 0) {
+            if(writeBehindQueue != null)
+                todos.forEach(writeBehindQueue::applyPending);
+            board.addToDos(todos);
+            board.setHydrated(true);
+            boardCache.recordMiss(board);
+        }
+
+        return board;
+    }
+
+    /**
+     * <p>Loads the ToDos of an owned Noticeboard into an {@link OffHeapToDoStore}.</p>
+     * @param board the Noticeboard, not hydrated
+     * @return the Noticeboard, still not hydrated if the load failed
+     */
+    private Noticeboard loadNoticeboardOffHeap(Noticeboard board) {
+        //The store is read-only, so the Database has to hold the deferred writes before it is read
+        this.flushPendingWrites();
+
+        OffHeapToDoStore store = new OffHeapToDoStore();
+        int result;
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            result = new PostgresToDoDAO(lease.getConnection()).loadToDosByBoardID(board.getBoardID(), boardLoadFetchSize, store);
+        }
+
+        //Keep the Noticeboard unhydrated if the load failed, so that the next access tries again
+        if(result == 0) {
+            board.storeToDosOffHeap(store);
+            board.setHydrated(true);
+            boardCache.recordMiss(board);
+        }
+
+        return board;
+    }
+
+    /**
+     * <p>Brings the current User's cached data up to date with the Database, patching in only what changed since the last sync if possible.</p>
+     * @return the IDs of the Noticeboards affected by the changes, or {@code null} if the whole User data was reloaded
+     */
+    private Set<Integer> syncUserData() {
+        //The Database has to hold the deferred writes before it is read back
+        this.flushPendingWrites();
+
+        //Fetch and apply only what changed since the last sync
+        if(syncWatermark >= 0) {
+            SyncDAO.ChangeSet changes;
+            try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+                changes = new PostgresSyncDAO(lease.getConnection()).getChangesSince(loggedUser.getUserID(), syncWatermark);
+            }
+
+            if(changes != null) {
+                Set<Integer> affectedBoardIDs = this.applyChanges(changes);
+                this.syncWatermark = changes.watermark();
+                return affectedBoardIDs;
+            }
+        }
+
+        //Invalidate cached data and reload
+        long watermark = this.readSyncWatermark();
+        this.loadUserNoticeboards(this.loggedUser);
+        this.resetBoardCache();
+        this.syncWatermark = watermark;
+        return null;
+    }
+
+    /**
+     * <p>Fetches the current state of what a batch of notifications names on the fetcher thread, then patches it into the loaded data.</p>
+     * <p>Runs on the callback executor, which is also the only thread the fetched state is patched on. If the loaded data
+     * changed while fetching, the fetched state may be older than it, so that it is fetched again instead. Missed
+     * notifications are caught up with a delta sync from the watermark, the deferred writes are applied over the fetched ToDos.</p>
+     * @param changes the relevant notified changes
+     * @param fetcher the {@link ExecutorService} to fetch on
+     * @param callbackExecutor the {@link Executor} to patch the loaded data and notify {@code onBoardsChanged} on
+     * @param onBoardsChanged the callback notified of the affected Noticeboards
+     */
+    private void patchNotifiedChanges(List<ChangeListener.Change> changes, ExecutorService fetcher, Executor callbackExecutor, Consumer<Set<Integer>> onBoardsChanged) {
+        //Read what the fetch needs from the loaded data here, it is not touched on the fetcher thread
+        int userID = loggedUser.getUserID();
+        long userVersion = loggedUser.getVersion();
+        long watermark = syncWatermark;
+        boolean missedChanges = changes.stream().anyMatch(change -> change.entityType() == ChangeListener.EntityType.UNKNOWN);
+
+        Set<Integer> boardIDs = new HashSet<>();
+        Set<Integer> todoIDs = new HashSet<>();
+        for(ChangeListener.Change change : changes) {
+            if(change.boardID() != 0)
+                boardIDs.add(change.boardID());
+            if(change.todoID() != 0)
+                todoIDs.add(change.todoID());
+        }
+
+        //Without a watermark, only a full reload can catch up with the missed notifications
+        if(missedChanges && watermark < 0) {
+            onBoardsChanged.accept(this.syncUserData());
+            return;
+        }
+
+        try {
+            fetcher.execute(() -> {
+                SyncDAO.ChangeSet changeSet;
+                try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+                    SyncDAO syncDAO = new PostgresSyncDAO(lease.getConnection());
+                    changeSet = missedChanges ? syncDAO.getChangesSince(userID, watermark) : syncDAO.getCurrentState(userID, boardIDs, todoIDs);
+                }
+                catch (RuntimeException _) {
+                    changeSet = null;
+                }
+
+                if(changeSet == null) {
+                    //A lost connection is followed by a missed changes notification, which catches up with these ones too
+                    Logger.getLogger(Controller.class.getName()).log(Level.WARNING, "Could not fetch the notified changes.");
+                    return;
+                }
+
+                SyncDAO.ChangeSet fetched = changeSet;
+                callbackExecutor.execute(() -> {
+                    if(loggedUser == null || loggedUser.getUserID() != userID)
+                        return;
+
+                    if(loggedUser.getVersion() != userVersion) {
+                        this.patchNotifiedChanges(changes, fetcher, callbackExecutor, onBoardsChanged);
+                        return;
+                    }
+
+                    if(writeBehindQueue != null)
+                        fetched.todos().forEach(writeBehindQueue::applyPending);
+
+                    Set<Integer> affectedBoardIDs = this.applyChanges(fetched);
+                    if(missedChanges && syncWatermark == watermark)
+                        this.syncWatermark = fetched.watermark();
+
+                    onBoardsChanged.accept(affectedBoardIDs);
+                });
+            });
+        }
+        catch (RejectedExecutionException _) {
+            //The listener was stopped
+        }
+    }
+
+    /**
+     * <p>Restores from the Database the Noticeboards changed in the model since their versions were recorded.</p>
+     * <p>The changed Noticeboards are patched back to their Database state, and their loaded ToDos are evicted, so that
+     * they are loaded again on next access. If the state cannot be read, the User's data is reloaded.</p>
+     * @param boardVersions the version of each of the logged User's Noticeboards, by ID, when recorded
+     */
+    private void restoreNoticeboards(Map<Integer, Long> boardVersions) {
+        if(loggedUser == null)
+            return;
+
+        //Changed, added and deleted Noticeboards
+        Set<Integer> changedBoardIDs = new HashSet<>(boardVersions.keySet());
+        for(Noticeboard board : loggedUser.getNoticeboards()) {
+            Long version = boardVersions.get(board.getBoardID());
+            if(version != null && version == board.getVersion())
+                changedBoardIDs.remove(board.getBoardID());
+            else
+                changedBoardIDs.add(board.getBoardID());
+        }
+
+        if(changedBoardIDs.isEmpty())
+            return;
+
+        SyncDAO.ChangeSet changeSet;
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            changeSet = new PostgresSyncDAO(lease.getConnection()).getCurrentState(loggedUser.getUserID(), changedBoardIDs, Set.of());
+        }
+        catch (RuntimeException _) {
+            changeSet = null;
+        }
+
+        if(changeSet == null) {
+            this.syncWatermark = -1;
+            this.syncUserData();
+            return;
+        }
+
+        this.applyChanges(changeSet);
+        for(int boardID : changedBoardIDs) {
+            Noticeboard board = loggedUser.getNoticeboard(boardID);
+            if(board != null && board.isHydrated()) {
+                board.evictToDos();
+                boardCache.remove(boardID);
+            }
+        }
+    }
+
+    /**
+     * <p>Checks whether a change notified by the Database may affect the logged User's data.</p>
+     * @param change the {@link ChangeListener.Change}
+     * @return {@code true} if the change concerns the logged User or one of their Noticeboards, {@code false} otherwise
+     */
+    private boolean isRelevantChange(ChangeListener.Change change) {
+        return change.entityType() == ChangeListener.EntityType.UNKNOWN
+                || change.userID() == loggedUser.getUserID()
+                || loggedUser.getNoticeboard(change.boardID()) != null;
+    }
+
+    /**
+     * <p>Reads the Database's current watermark, used as the starting point of the next sync.</p>
+     * @return the current watermark, or {@code -1} if it could not be read
+     */
+    private long readSyncWatermark() {
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            return new PostgresSyncDAO(lease.getConnection()).getSyncWatermark();
+        }
+    }
 
-        //Load User's Noticeboards&ToDos
-        Connection con = DatabaseConnection.getInstance().getConnection();
+    /**
+     * <p>Patches a set of changes into the logged User's loaded data.</p>
+     * <p>Noticeboards that are not hydrated only get their metadata patched, their ToDos are loaded on first access anyway.
+     * A hydrated Noticeboard whose ToDos do not match the Database after patching is evicted, so that it is loaded again.</p>
+     * @param changes the {@link SyncDAO.ChangeSet} to apply
+     * @return the IDs of the Noticeboards affected by the changes, deleted Noticeboards included
+     */
+    private Set<Integer> applyChanges(SyncDAO.ChangeSet changes) {
+        Set<Integer> affectedBoardIDs = new HashSet<>(changes.deletedBoardIDs());
+        affectedBoardIDs.addAll(changes.boardOrders().keySet());
+        changes.boards().forEach(board -> affectedBoardIDs.add(board.getBoardID()));
+
+        //Drop the deleted Noticeboards, and the shared Noticeboards that are no longer visible
+        List<Noticeboard> droppedBoards = loggedUser.deleteNoticeboardsIf(board ->
+                changes.deletedBoardIDs().contains(board.getBoardID()) || !changes.visibleBoardIDs().contains(board.getBoardID()));
+        for(Noticeboard dropped : droppedBoards) {
+            boardCache.remove(dropped.getBoardID());
+            affectedBoardIDs.add(dropped.getBoardID());
+        }
 
-        NoticeboardDAO boardDAO = new PostgresNoticeboardDAO(con);
-        SharingDAO sharingDAO = new PostgresSharingDAO(con);
+        //Patch the changed Noticeboards' metadata, new Noticeboards are loaded on first access
+        for(Noticeboard changed : changes.boards()) {
+            Noticeboard board = loggedUser.getNoticeboard(changed.getBoardID());
+            if(board == null) {
+                changed.setHydrated(false);
+                loggedUser.addNoticeboard(changed);
+            }
+            else {
+                loggedUser.renameNoticeboard(board.getBoardID(), changed.getTitle());
+                board.setDescription(changed.getDescription());
+            }
+        }
 
-        boardDAO.loadNoticeboardsByUserID(userID, boards);
-        sharingDAO.loadSharedNoticeboardsByUserID(userID, boards);
+        //Remove the deleted ToDos, the changed ToDos that moved to another Noticeboard, and the ToDos missing from a
+        //touched Noticeboard's order, as ToDo deletions are notified per Noticeboard without their IDs
+        for(Noticeboard board : loggedUser.getNoticeboards()) {
+            if(!board.isHydrated())
+                continue;
+
+            List<Integer> order = changes.boardOrders().get(board.getBoardID());
+            Set<Integer> orderedToDoIDs = order != null ? new HashSet<>(order) : null;
+            List<ToDo> removed = board.deleteToDosIf(todo -> changes.deletedToDoIDs().contains(todo.getToDoID())
+                    || changes.todoBoardIDs().getOrDefault(todo.getToDoID(), board.getBoardID()) != board.getBoardID()
+                    || (orderedToDoIDs != null && !orderedToDoIDs.contains(todo.getToDoID())));
+            if(removed.stream().anyMatch(todo -> !changes.todoBoardIDs().containsKey(todo.getToDoID())))
+                affectedBoardIDs.add(board.getBoardID());
+        }
+
+        //Patch the changed ToDos in place, or add them to their Noticeboard
+        for(ToDo changed : changes.todos()) {
+            Noticeboard board = loggedUser.getNoticeboard(changes.todoBoardIDs().get(changed.getToDoID()));
+            if(board == null || !board.isHydrated())
+                continue;
+
+            ToDo todo = board.getToDo(changed.getToDoID());
+            if(todo == null) {
+                board.addToDo(changed);
+                continue;
+            }
+
+            if(todo.isCompleted() != changed.isCompleted())
+                todo.changeCompletionState();
+            board.renameToDo(todo.getToDoID(), changed.getTitle());
+            todo.setDetails(changed.getDescription(), changed.getActivityURL(), changed.getImageURL());
+            todo.setExpiryDate(changed.getExpiryDate());
+            todo.setBackgroundColor(changed.getBackgroundColor());
+            todo.setSharedUsers(changed.getSharedUsers());
+        }
+
+        //Restore the Database order of the touched Noticeboards
+        changes.boardOrders().forEach((boardID, todoIDs) -> {
+            Noticeboard board = loggedUser.getNoticeboard(boardID);
+            if(board == null || !board.isHydrated())
+                return;
+
+            try {
+                board.reorderToDos(todoIDs);
+            }
+            catch (IllegalStateException _) {
+                board.evictToDos();
+                boardCache.remove(boardID);
+            }
+        });
+
+        return affectedBoardIDs;
+    }
+
+    /**
+     * <p>Starts tracking the loaded contents of the logged User's Noticeboards from scratch.</p>
+     */
+    private void resetBoardCache() {
+        boardCache.clear();
+        if(loggedUser != null)
+            loggedUser.getNoticeboards().forEach(boardCache::track);
+    }
+
+    /**
+     * <p>Runs a query and logs how long it took.</p>
+     * @param name the query's name, as reported in the log
+     * @param query the query
+     */
+    private void timeQuery(String name, Runnable query) {
+        long start = System.nanoTime();
+        query.run();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        Logger.getLogger(Controller.class.getName()).log(Level.INFO, "Loaded {0} in {1}ms", new Object[]{ name, elapsedMillis });
     }
     /**
      * <p>Creates a new instance of Noticeboard from a NoticeboardDTO object source.</p>
@@ -754,7 +2009,7 @@ public class Controller {
         List<ToDoDTO> sourceTodos = noticeboardDTO.getToDos();
         if(!sourceTodos.isEmpty()) {
             List<ToDo> todos = sourceTodos.stream().map(this::fromDTO).toList();
-            noticeboard.getToDos().addAll(todos);
+            noticeboard.addToDos(todos);
         }
 
         return noticeboard;
@@ -792,6 +2047,20 @@ public class Controller {
         if(password.length() > 128)
             throw new InvalidModelAttributeException("The password cannot be longer than 128 characters.", InvalidAttributeType.INVALID_USER_PASSWORD);
     }
+    /**
+     * <p>Asserts that the metadata of a ToDo is valid.</p>
+     * @param todo the ToDo's DTO
+     *
+     * @throws InvalidModelAttributeException if the title is not valid or too long, or if the background color's format is not valid
+     */
+    private void validateToDoMetadata(ToDoDTO todo) {
+        if(todo.getTitle().length() > 128)
+            throw new InvalidModelAttributeException("The title cannot be longer than 128 characters.", InvalidAttributeType.INVALID_TODO_TITLE);
+        if(!todo.getTitle().matches("^[A-Za-z0-9@#&_.\\- ]+$"))
+            throw new InvalidModelAttributeException("The title is not valid.", InvalidAttributeType.INVALID_TODO_TITLE);
+        if(todo.getBackgroundColor() != null && !todo.getBackgroundColor().isBlank() && !todo.getBackgroundColor().matches("^#[0-9A-Fa-f]{6}$"))
+            throw new InvalidModelAttributeException("ToDo background color is not valid, must be in the following format \"#RRGGBB\"", InvalidAttributeType.INVALID_TODO_COLOR);
+    }
     /**
      * <p>Asserts that the metadata of a Noticeboard is valid.</p>
      * @param noticeboard the Noticeboard's DTO
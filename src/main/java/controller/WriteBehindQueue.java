@@ -0,0 +1,246 @@
+package controller;
+
+//Java imports
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+//App imports
+import dao.ToDoDAO;
+import daopostgresimplementation.PostgresToDoDAO;
+
+import database.ConnectionLease;
+import database.DatabaseConnection;
+
+import model.ToDo;
+
+/**
+ * <p>Defers the writes of frequently changed ToDo columns, coalescing them and persisting them in batches on a background thread.</p>
+ * <p>The model is changed by the caller straight away. Repeated writes to the same ToDo and column within the flush delay
+ * collapse into the last one. Batches are written one at a time, each in a single transaction, so that the writes of a
+ * ToDo reach the Database in the order they were made. If a batch fails, the model changes it carried are rolled back,
+ * unless a newer write to the same ToDo and column is pending, and the error handler is notified, both on the callback {@link Executor}.</p>
+ */
+/* package */ class WriteBehindQueue implements AutoCloseable {
+    /**
+     * <p>The ToDo columns whose writes can be deferred.</p>
+     */
+    /* package */ enum Column { COMPLETION_STATE, BACKGROUND_COLOR }
+
+    private record Key(int todoID, Column column) { }
+
+    /**
+     * <p>A deferred write.</p>
+     * @param value the value to write
+     * @param rollback restores the model as it was before the first of the coalesced writes
+     */
+    private record PendingWrite(Object value, Runnable rollback) { }
+
+    private final Object lock;
+    private LinkedHashMap<Key, PendingWrite> pending;
+    private boolean flushScheduled;
+    private boolean closed;
+
+    private final long flushDelayMillis;
+    private final Executor callbackExecutor;
+    private final Consumer<RuntimeException> onWriteFailed;
+    private final ScheduledExecutorService flusher;
+    private final Thread shutdownHook;
+
+    /**
+     * <p>Instantiates a new WriteBehindQueue.</p>
+     * @param flushDelayMillis how long a write waits for the writes it can be coalesced with, in milliseconds
+     * @param callbackExecutor the {@link Executor} the rollbacks and {@code onWriteFailed} are run on, usually the GUI's event thread
+     * @param onWriteFailed notified of the failure of a batch, after its model changes are rolled back
+     */
+    /* package */ WriteBehindQueue(long flushDelayMillis, Executor callbackExecutor, Consumer<RuntimeException> onWriteFailed) {
+        this.lock = new Object();
+        this.pending = new LinkedHashMap<>();
+        this.flushScheduled = false;
+        this.closed = false;
+
+        this.flushDelayMillis = flushDelayMillis;
+        this.callbackExecutor = callbackExecutor;
+        this.onWriteFailed = onWriteFailed;
+
+        //Write on a single daemon thread, so that batches never overlap
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "WriteBehindQueue-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        //Persist the pending writes when the App exits
+        this.shutdownHook = new Thread(this::flush, "WriteBehindQueue-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    //Methods
+    /**
+     * <p>Defers a write, coalescing it with the pending write of the same ToDo and column.</p>
+     * @param todoID the ToDo's ID
+     * @param column the written column
+     * @param value the value to write
+     * @param rollback restores the model as it was before this write, only kept if no write is pending for the ToDo and column
+     *
+     * @throws IllegalStateException if the queue is closed
+     */
+    /* package */ void enqueue(int todoID, Column column, Object value, Runnable rollback) {
+        synchronized (lock) {
+            if(closed)
+                throw new IllegalStateException("The write-behind queue is closed.");
+
+            //The first write's rollback restores the value the Database still holds
+            Key key = new Key(todoID, column);
+            PendingWrite previous = pending.get(key);
+            pending.put(key, new PendingWrite(value, previous != null ? previous.rollback() : rollback));
+
+            if(!flushScheduled) {
+                flushScheduled = true;
+                flusher.schedule(this::writePending, flushDelayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * <p>Overwrites the deferred columns of a ToDo freshly read from the Database with its pending values.</p>
+     * @param todo the ToDo
+     */
+    /* package */ void applyPending(ToDo todo) {
+        synchronized (lock) {
+            PendingWrite state = pending.get(new Key(todo.getToDoID(), Column.COMPLETION_STATE));
+            if(state != null && todo.isCompleted() != (Boolean) state.value())
+                todo.changeCompletionState();
+
+            PendingWrite color = pending.get(new Key(todo.getToDoID(), Column.BACKGROUND_COLOR));
+            if(color != null)
+                todo.setBackgroundColor((String) color.value());
+        }
+    }
+
+    /**
+     * <p>Writes the pending writes and waits for them, and for any batch being written, to reach the Database.</p>
+     */
+    /* package */ void flush() {
+        try {
+            flusher.submit(this::writePending).get();
+        }
+        catch (InterruptedException _) {
+            Thread.currentThread().interrupt();
+        }
+        catch (ExecutionException exex) {
+            Logger.getLogger(WriteBehindQueue.class.getName()).log(Level.WARNING, "Could not flush the deferred ToDo writes.", exex.getCause());
+        }
+        catch (RejectedExecutionException _) {
+            //Closed already, everything was written on close
+        }
+    }
+
+    /**
+     * <p>Stops accepting new writes, then writes the pending ones.</p>
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+        }
+
+        this.flush();
+        flusher.shutdown();
+
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        }
+        catch (IllegalStateException _) {
+            //Already shutting down, the hook is running
+        }
+    }
+
+    //Utility methods
+    /**
+     * <p>Writes the pending writes as a single batch, runs on the flusher thread.</p>
+     */
+    private void writePending() {
+        LinkedHashMap<Key, PendingWrite> batch;
+        synchronized (lock) {
+            flushScheduled = false;
+            if(pending.isEmpty())
+                return;
+
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        //One statement per column, coalescing left at most one value per ToDo
+        Map<Integer, Boolean> states = new HashMap<>();
+        Map<Integer, String> colors = new HashMap<>();
+        batch.forEach((key, write) -> {
+            switch (key.column()) {
+                case COMPLETION_STATE -> states.put(key.todoID(), (Boolean) write.value());
+                case BACKGROUND_COLOR -> colors.put(key.todoID(), (String) write.value());
+            }
+        });
+
+        try (ConnectionLease lease = DatabaseConnection.getInstance().leaseConnection()) {
+            Connection connection = lease.getConnection();
+            connection.setAutoCommit(false);
+            try {
+                ToDoDAO todoDAO = new PostgresToDoDAO(connection);
+                todoDAO.updateToDoCompletionStates(states);
+                todoDAO.updateToDoBackgroundColors(colors);
+                connection.commit();
+            }
+            catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+            finally {
+                connection.setAutoCommit(true);
+            }
+        }
+        catch (SQLException | RuntimeException e) {
+            Logger.getLogger(WriteBehindQueue.class.getName()).log(Level.WARNING, "Could not write " + batch.size() + " deferred ToDo writes.", e);
+
+            RuntimeException failure = e instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(e);
+            callbackExecutor.execute(() -> {
+                this.rollBack(batch);
+                onWriteFailed.accept(failure);
+            });
+        }
+    }
+
+    /**
+     * <p>Puts the model back as the Database holds it after a batch failed, runs on the callback {@link Executor}.</p>
+     * <p>A newer write pending for one of the batch's ToDos and columns captured the failed value as the one to roll back to.
+     * It is rebased on the failed write's rollback instead, and the model keeps the newer value, which is written next.</p>
+     * @param batch the failed batch
+     */
+    private void rollBack(Map<Key, PendingWrite> batch) {
+        List<Runnable> rollbacks = new ArrayList<>();
+        synchronized (lock) {
+            batch.forEach((key, write) -> {
+                PendingWrite newer = pending.get(key);
+                if(newer != null)
+                    pending.put(key, new PendingWrite(newer.value(), write.rollback()));
+                else
+                    rollbacks.add(write.rollback());
+            });
+        }
+
+        rollbacks.forEach(Runnable::run);
+    }
+}
@@ -2,9 +2,8 @@ package dao;
 
 //Java imports
 import java.util.List;
-import java.util.List;
-
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 //App imports
 import dto.NoticeboardDTO;
@@ -22,14 +21,18 @@ public interface NoticeboardDAO {
     List<Integer> getNoticeboardIDsByUserID(int userID);
 
     /**
-     * <p>Loads a User's Noticeboards and their ToDos.</p>
+     * <p>Loads a User's Noticeboards and their ToDos, streaming the rows from the Database {@code fetchSize} at a time.</p>
+     * <p>Each Noticeboard is handed over as soon as all of its ToDos have been read, in ascending ID order,
+     * so that no more than one Noticeboard and one batch of rows are held by the loader at any time.
+     * The ToDos are loaded as summaries, without their description and URLs.</p>
      * @param userID the User's ID
-     * @param boards a {@link List} object to load the {@link Noticeboard} objects into
-     * @return {@code 0} if successful, otherwise {@code -1}.
+     * @param fetchSize the count of rows fetched from the Database at a time
+     * @param onBoardLoaded the consumer of the loaded {@link Noticeboard} objects
+     * @return {@code 0} if successful, otherwise {@code -1}, the Noticeboards handed over before the failure are complete.
      *
-     * @throws IllegalArgumentException if {@code boards==null}
+     * @throws IllegalArgumentException if {@code onBoardLoaded==null} or {@code fetchSize} is not positive
      */
-    int loadNoticeboardsByUserID(int userID, List<Noticeboard> boards);
+    int loadNoticeboardsByUserID(int userID, int fetchSize, Consumer<Noticeboard> onBoardLoaded);
     /**
      * <p>Loads a User's Noticeboard with its ToDos.</p>
      * @param boardID the Noticeboard's ID
@@ -2,22 +2,27 @@ package dao;
 
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 import model.Noticeboard;
+import model.ToDo;
 
 /**
  * <p>Manages the fundamental Database operations for the sharing of {@link model.ToDo} between system users.</p>
  */
 public interface SharingDAO {
     /**
-     * <p>Loads a User's shared ToDos in each appropriate Noticeboard.</p>
+     * <p>Loads a User's shared ToDos in each appropriate Noticeboard, streaming the rows from the Database {@code fetchSize} at a time.</p>
+     * <p>Each Noticeboard is handed over as soon as all of its shared ToDos have been read, in ascending ID order.
+     * The ToDos are loaded as summaries, without their description and URLs.</p>
      * @param userID the User's ID
-     * @param boards a {@link List} object to load the {@link Noticeboard} objects into
-     * @return {@code 0} if successful, otherwise {@code -1}.
+     * @param fetchSize the count of rows fetched from the Database at a time
+     * @param onBoardLoaded the consumer of the loaded {@link Noticeboard} objects
+     * @return {@code 0} if successful, otherwise {@code -1}, the Noticeboards handed over before the failure are complete.
      *
-     * @throws IllegalArgumentException if {@code boards==null}
+     * @throws IllegalArgumentException if {@code onBoardLoaded==null} or {@code fetchSize} is not positive
      */
-    int loadSharedNoticeboardsByUserID(int userID, List<Noticeboard> boards);
+    int loadSharedNoticeboardsByUserID(int userID, int fetchSize, Consumer<Noticeboard> onBoardLoaded);
     /**
      * <p>Gets the metadata of the Noticeboards shared with a User.</p>
      * @param userID the User's ID
@@ -27,6 +32,16 @@ public interface SharingDAO {
      * @throws IllegalArgumentException if {@code boards==null}
      */
     int getSharedNoticeboardsMetadataByUserID(int userID, List<Noticeboard> boards);
+    /**
+     * <p>Loads the ToDos of a Noticeboard that are shared with a User, as summaries without their description and URLs.</p>
+     * @param userID the User's ID
+     * @param boardID the Noticeboard's ID
+     * @param todos a {@link List} object to load the {@link ToDo} objects into
+     * @return {@code 0} if successful, otherwise {@code -1}.
+     *
+     * @throws IllegalArgumentException if {@code todos==null}
+     */
+    int loadSharedToDosByBoardID(int userID, int boardID, List<ToDo> todos);
 
     /**
      * <p>Shares a ToDo with a User.</p>
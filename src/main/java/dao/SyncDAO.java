@@ -0,0 +1,66 @@
+package dao;
+
+//Java imports
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+//App imports
+import model.Noticeboard;
+import model.ToDo;
+
+/**
+ * <p>Manages the Database operations needed to keep a User's loaded data in sync with the Database incrementally.</p>
+ * <p>Every tracked row carries the ID of the transaction that last wrote it, and deleted rows are recorded in a deletion log,
+ * so that only what changed since a given watermark has to be fetched.</p>
+ * <p>A watermark is the oldest transaction ID still in progress when a snapshot was taken: every change by an older
+ * transaction was already visible in that snapshot, every change by a newer one is fetched again by the next sync.
+ * Unlike a version, it follows the commit order, so that a change committed after a later one is never skipped.</p>
+ */
+public interface SyncDAO {
+    /**
+     * <p>The changes visible to a User since a given watermark.</p>
+     * @param watermark the watermark of the snapshot the changes were read from, to be used as the next sync's starting watermark
+     * @param boards the metadata of the new or changed Noticeboards, without ToDos
+     * @param todos the new or changed ToDos, with their sharing data
+     * @param todoBoardIDs the ID of the Noticeboard of each new or changed ToDo, by ToDo ID
+     * @param deletedToDoIDs the IDs of the ToDos that were deleted, or are no longer shared with the User
+     * @param deletedBoardIDs the IDs of the Noticeboards that were deleted
+     * @param visibleBoardIDs the IDs of all the Noticeboards currently visible to the User, owned or shared
+     * @param boardOrders the IDs of the ToDos visible to the User in each touched Noticeboard, in board order, by Noticeboard ID
+     */
+    record ChangeSet(long watermark, List<Noticeboard> boards, List<ToDo> todos, Map<Integer, Integer> todoBoardIDs,
+                     Set<Integer> deletedToDoIDs, Set<Integer> deletedBoardIDs, Set<Integer> visibleBoardIDs,
+                     Map<Integer, List<Integer>> boardOrders) { }
+
+    /**
+     * <p>Gets the Database's current watermark, that is the oldest transaction ID still in progress.</p>
+     * <p>Data loaded after reading it is up to date with it, even if the load is not in the same transaction.</p>
+     * @return the current watermark if successful, otherwise {@code -1}.
+     */
+    long getSyncWatermark();
+
+    /**
+     * <p>Gets the changes visible to a User since a given watermark.</p>
+     * <p>The changes of the transactions that were still in progress at the watermark may be fetched again, they are
+     * fetched as they are now, so that applying them twice is harmless.</p>
+     * @param userID the User's ID
+     * @param sinceWatermark the watermark of the last sync
+     * @return the {@link ChangeSet} if successful, otherwise {@code null}.
+     */
+    ChangeSet getChangesSince(int userID, long sinceWatermark);
+
+    /**
+     * <p>Gets the current state of the Noticeboards and ToDos named by some change notifications, as visible to a User.</p>
+     * <p>The named Noticeboards and ToDos that are not visible to the User anymore are reported as deleted, and the order
+     * of the named Noticeboards and of the Noticeboards holding the named ToDos is included. The state is read as it is
+     * now, so that it does not move the sync watermark: the returned watermark is {@code -1}.</p>
+     * @param userID the User's ID
+     * @param boardIDs the IDs of the named Noticeboards
+     * @param todoIDs the IDs of the named ToDos
+     * @return the {@link ChangeSet} if successful, otherwise {@code null}.
+     *
+     * @throws IllegalArgumentException if {@code boardIDs==null} or {@code todoIDs==null}
+     */
+    ChangeSet getCurrentState(int userID, Set<Integer> boardIDs, Set<Integer> todoIDs);
+}
@@ -4,17 +4,38 @@ package dao;
 import java.time.LocalDateTime;
 
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Set;
 
 //App imports
 import dto.ToDoDTO;
+import dto.ToDoUpdateDTO;
 import model.Noticeboard;
+import model.OffHeapToDoStore;
 import model.ToDo;
 
 /**
  * <p>Manages the fundamental Database operations for {@link ToDo} objects.</p>
  */
 public interface ToDoDAO {
+    /**
+     * <p>A page of a Noticeboard's ToDos, in board order.</p>
+     * @param todos the page's ToDos, with their sharing data
+     * @param lastBoardIndex the board index of the page's last ToDo, the key the next page starts after
+     * @param lastToDoID the ID of the page's last ToDo, breaking ties between equal board indexes
+     * @param hasMore {@code true} if more ToDos follow the page, {@code false} otherwise
+     */
+    record ToDoPage(List<ToDo> todos, long lastBoardIndex, int lastToDoID, boolean hasMore) { }
+
+    /**
+     * <p>The large text columns of a ToDo, left out of the summaries the Noticeboards are loaded with.</p>
+     * @param description the description
+     * @param activityURL the activity url
+     * @param imageURL the image url
+     */
+    record ToDoDetails(String description, String activityURL, String imageURL) { }
+
     /**
      * <p>Gets a List of all the ToDos of a Noticeboard.</p>
      * @param boardID the Noticeboard's ID
@@ -23,7 +44,7 @@ public interface ToDoDAO {
     List<Integer> getToDoListByBoardID(int boardID);
 
     /**
-     * <p>Loads the ToDos of a Noticeboard.</p>
+     * <p>Loads the ToDos of a Noticeboard, as summaries without their description and URLs, together with their sharing data.</p>
      * @param boardID the Noticeboard's ID
      * @param todos a {@link List} object to load the {@link Noticeboard} objects into
      * @return {@code 0} if successful, otherwise {@code -1}.
@@ -31,6 +52,34 @@ public interface ToDoDAO {
      * @throws IllegalArgumentException if {@code todos==null}
      */
     int loadToDosByBoardID(int boardID, List<ToDo> todos);
+    /**
+     * <p>Loads the ToDos of a Noticeboard into an {@link OffHeapToDoStore}, streaming the rows from the Database {@code fetchSize} at a time.</p>
+     * <p>The rows are written into the store as they are read, so that no {@link ToDo} is instantiated on the heap.
+     * The ToDos are loaded as summaries, without their description and URLs, together with their sharing data.</p>
+     * @param boardID the Noticeboard's ID
+     * @param fetchSize the count of rows fetched from the Database at a time
+     * @param store the store to append the ToDos to, in board order
+     * @return {@code 0} if successful, otherwise {@code -1}, the store may hold part of the ToDos after a failure.
+     *
+     * @throws IllegalArgumentException if {@code store==null} or {@code fetchSize} is not positive
+     */
+    int loadToDosByBoardID(int boardID, int fetchSize, OffHeapToDoStore store);
+    /**
+     * <p>Loads a page of the ToDos of a Noticeboard visible to a User, in board order.</p>
+     * <p>Pages are keyed on {@code (boardIndex, todoID)}, so that every page is read with an index range scan
+     * however deep into the Noticeboard it is, and stays consistent when ToDos are added or removed between pages.
+     * The owner sees all the ToDos and their sharing data, any other User only the ToDos shared with them.
+     * The ToDos are loaded as summaries, without their description and URLs.</p>
+     * @param boardID the Noticeboard's ID
+     * @param userID the viewing User's ID
+     * @param afterBoardIndex the board index of the previous page's last ToDo, {@link Long#MIN_VALUE} for the first page
+     * @param afterToDoID the ID of the previous page's last ToDo, {@code 0} for the first page
+     * @param pageSize the maximum count of ToDos in the page
+     * @return the {@link ToDoPage} if successful, otherwise {@code null}.
+     *
+     * @throws IllegalArgumentException if {@code pageSize} is not positive
+     */
+    ToDoPage loadToDoPage(int boardID, int userID, long afterBoardIndex, int afterToDoID, int pageSize);
     /**
      * <p>Loads a ToDo.</p>
      * @param todoID the ToDo's ID
@@ -39,17 +88,38 @@ public interface ToDoDAO {
     ToDo loadToDoByToDoID(int todoID);
 
     /**
-     * <p>Adds a ToDo to the system.</p>
+     * <p>Loads the description and URLs of a ToDo visible to a User.</p>
+     * @param todoID the ToDo's ID
+     * @param userID the viewing User's ID
+     * @return the {@link ToDoDetails} if the ToDo exists and is visible to the User, otherwise {@code null}.
+     */
+    ToDoDetails loadToDoDetails(int todoID, int userID);
+
+    /**
+     * <p>Adds a ToDo to the end of a Noticeboard.</p>
+     * <p>If the ToDo has no background color, the Database's default color is used.</p>
      * @param todo the corresponding {@link ToDoDTO} object
      * @param boardID the target Noticeboard's ID
-     * @param boardIndex the target index in the Noticeboard
-     * @return the ToDo's ID if successful, otherwise returns {@code -1}.
+     * @return the new {@link ToDo}, as stored by the Database, if successful, otherwise {@code null}.
      *
      * @throws NoSuchElementException if no Noticeboard with the ID {@code boardID} exists
      * @throws IllegalStateException if a ToDo with the same title exists already in the board
      * @throws IllegalArgumentException if the ToDo's title is not valid or too long or if the background color is in the wrong format
      */
-    int addToDo(ToDoDTO todo, int boardID, int boardIndex);
+    ToDo addToDo(ToDoDTO todo, int boardID);
+    /**
+     * <p>Adds many ToDos to the end of the same Noticeboard at once, in list order, either all of them or none.</p>
+     * <p>ToDos without a background color get the Database's default color.</p>
+     * @param todos the corresponding {@link ToDoDTO} objects
+     * @param boardID the target Noticeboard's ID
+     * @return the new {@link ToDo}s, as stored by the Database and in list order, if successful, otherwise {@code null}.
+     *
+     * @throws IllegalArgumentException if {@code todos==null}
+     * @throws NoSuchElementException if no Noticeboard with the ID {@code boardID} exists
+     * @throws IllegalStateException if two ToDos have the same title, or a ToDo with the same title exists already in the board
+     * @throws IllegalArgumentException if a ToDo's title is not valid or too long or if a background color is in the wrong format
+     */
+    List<ToDo> addToDos(List<ToDoDTO> todos, int boardID);
 
     /**
      * <p>Updates the ToDo's state.</p>
@@ -60,6 +130,25 @@ public interface ToDoDAO {
      */
     void updateToDoCompletionState(boolean isCompleted, int todoID);
 
+    /**
+     * <p>Updates the state of many ToDos with a single statement, either all of them or none.</p>
+     * <p>ToDos that no longer exist are skipped.</p>
+     * @param states the new states, {@code true} -> {@code Completed}, {@code false} -> {@code NotCompleted}, keyed by ToDo ID
+     *
+     * @throws IllegalArgumentException if {@code states==null}
+     */
+    void updateToDoCompletionStates(Map<Integer, Boolean> states);
+
+    /**
+     * <p>Sets the state of many ToDos with a single statement, either all of them or none.</p>
+     * @param isCompleted the ToDos' new state, {@code true} -> {@code Completed}, {@code false} -> {@code NotCompleted}
+     * @param todoIDs the ToDos' IDs
+     *
+     * @throws IllegalArgumentException if {@code todoIDs==null}
+     * @throws NoSuchElementException if one of the target ToDos does not exist
+     */
+    void updateToDosCompletionState(boolean isCompleted, Set<Integer> todoIDs);
+
     /**
      * <p>Updates the ToDo's title.</p>
      * @param newTitle the new title
@@ -121,10 +210,43 @@ public interface ToDoDAO {
      */
     void updateToDoBackgroundColor(String newColor, int todoID);
 
+    /**
+     * <p>Updates the background color of many ToDos with a single statement, either all of them or none.</p>
+     * <p>ToDos that no longer exist are skipped.</p>
+     * @param colors the new background colors, keyed by ToDo ID
+     *
+     * @throws IllegalArgumentException if {@code colors==null} or if a background color is not valid or too long
+     */
+    void updateToDoBackgroundColors(Map<Integer, String> colors);
+
+    /**
+     * <p>Sets the background color of many ToDos with a single statement, either all of them or none.</p>
+     * @param newColor the new background color
+     * @param todoIDs the ToDos' IDs
+     *
+     * @throws IllegalArgumentException if {@code todoIDs==null} or if the background color is not valid or too long
+     * @throws NoSuchElementException if one of the target ToDos does not exist
+     */
+    void updateToDosBackgroundColor(String newColor, Set<Integer> todoIDs);
+
+    /**
+     * <p>Updates the changed attributes of a ToDo at once, with a single statement, either all of them or none.</p>
+     * @param todoID the ToDo's ID
+     * @param changes the changed attributes and their new values, nothing is done if there are none
+     *
+     * @throws IllegalArgumentException if {@code changes==null}
+     * @throws NoSuchElementException if the target ToDo does not exist
+     * @throws IllegalStateException if the new title is already used by another ToDo
+     * @throws IllegalArgumentException if the new title or background color are not valid, or if any new value is too long
+     */
+    void updateToDo(int todoID, ToDoUpdateDTO changes);
+
     /**
      * <p>Moves a ToDo from its index in the board to another index.</p>
+     * <p>The ToDo is placed right before the ToDo currently at {@code newIndex}, or at the end if there is none.
+     * Only the moved ToDo is written, unless the board's sparse ordering keys have to be spread out again.</p>
      * @param todoID the ToDo's ID
-     * @param newIndex the new index
+     * @param newIndex the new index, counting the moved ToDo at its current position
      */
     void moveToDoToIndex(int todoID, int newIndex);
 
@@ -140,6 +262,20 @@ public interface ToDoDAO {
      */
     void moveToDoToBoard(int todoID, int oldBoardID, int newBoardID);
 
+    /**
+     * <p>Moves many ToDos from their original Noticeboard to another Noticeboard with a single statement, either all of them or none.</p>
+     * <p>The ToDos are appended after the new Noticeboard's last ToDo, keeping the order they had in the old one.</p>
+     * @param todoIDs the ToDos' IDs
+     * @param oldBoardID the old Noticeboard's ID
+     * @param newBoardID the new Noticeboard's ID
+     *
+     * @throws IllegalArgumentException if {@code todoIDs==null}
+     * @throws NoSuchElementException if one of the target ToDos does not exist in the old Noticeboard
+     * @throws NoSuchElementException if no Noticeboard with the ID {@code newBoardID} exists
+     * @throws IllegalStateException if the new Noticeboard already owns a ToDo with the same name as one of the ToDos
+     */
+    void moveToDosToBoard(Set<Integer> todoIDs, int oldBoardID, int newBoardID);
+
     /**
      * <p>Removes a ToDo from the system.</p>
      * @param todoID the ToDo's ID
@@ -147,4 +283,13 @@ public interface ToDoDAO {
      * @throws NoSuchElementException if the target ToDo does not exist
      */
     void removeToDo(int todoID);
+
+    /**
+     * <p>Removes many ToDos from the system with a single statement, either all of them or none.</p>
+     * @param todoIDs the ToDos' IDs
+     *
+     * @throws IllegalArgumentException if {@code todoIDs==null}
+     * @throws NoSuchElementException if one of the target ToDos does not exist
+     */
+    void removeToDos(Set<Integer> todoIDs);
 }
\ No newline at end of file
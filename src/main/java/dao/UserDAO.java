@@ -47,4 +47,13 @@ public interface UserDAO {
      * @return the user, otherwise {@code null}.
      */
     User getUserMetadata(int userID);
+
+    /**
+     * <p>Loads a User together with all of its Noticeboards, ToDos and sharing data in a single round trip.</p>
+     * <p>The User's own Noticeboards come first, followed by the Noticeboards of the ToDos shared with the User.
+     * The ToDos are loaded as summaries, without their description and URLs.</p>
+     * @param userID the user's ID
+     * @return the fully loaded user, otherwise {@code null}.
+     */
+    User loadUserByUserID(int userID);
 }
\ No newline at end of file
@@ -0,0 +1,347 @@
+package daopostgresimplementation;
+
+//Java imports
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * <p>A minimal pull parser for JSON documents, reading tokens from a {@link Reader} as they are requested.</p>
+ * <p>The parser never builds an in-memory tree: callers walk the document with {@link #beginObject()}, {@link #nextName()},
+ * {@link #nextString()} and the like, hydrating their own objects along the way.</p>
+ */
+/* package */ class JsonReader implements AutoCloseable {
+    /**
+     * <p>The kinds of JSON token the parser can peek at.</p>
+     */
+    /* package */ enum Token { BEGIN_OBJECT, END_OBJECT, BEGIN_ARRAY, END_ARRAY, NAME, STRING, NUMBER, BOOLEAN, NULL, END_DOCUMENT }
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position;
+    private int limit;
+
+    //Whether the next token in the current object is a member name
+    private boolean expectingName;
+    //Nesting stack, 'o' for objects and 'a' for arrays
+    private final StringBuilder scopes;
+
+    /**
+     * <p>Instantiates a new JsonReader.</p>
+     * @param reader the character stream of the JSON document
+     */
+    /* package */ JsonReader(Reader reader) {
+        this.reader = reader;
+        this.buffer = new char[8192];
+        this.position = 0;
+        this.limit = 0;
+        this.expectingName = false;
+        this.scopes = new StringBuilder();
+    }
+
+    //Methods
+    /**
+     * <p>Peeks at the kind of the next token, without consuming it.</p>
+     * @return the next {@link Token}
+     *
+     * @throws IOException if the document cannot be read or is malformed
+     */
+    /* package */ Token peek() throws IOException {
+        int c = this.skipSeparators();
+        if(c == -1)
+            return Token.END_DOCUMENT;
+
+        return switch (c) {
+            case '{' -> Token.BEGIN_OBJECT;
+            case '}' -> Token.END_OBJECT;
+            case '[' -> Token.BEGIN_ARRAY;
+            case ']' -> Token.END_ARRAY;
+            case '"' -> expectingName ? Token.NAME : Token.STRING;
+            case 't', 'f' -> Token.BOOLEAN;
+            case 'n' -> Token.NULL;
+            default -> {
+                if(c == '-' || (c >= '0' && c <= '9'))
+                    yield Token.NUMBER;
+                throw this.syntaxError("Unexpected character '" + (char) c + "'");
+            }
+        };
+    }
+
+    /**
+     * <p>Checks whether the current object or array has more elements.</p>
+     * @return {@code true} if another member or element follows, otherwise {@code false}
+     *
+     * @throws IOException if the document cannot be read or is malformed
+     */
+    /* package */ boolean hasNext() throws IOException {
+        Token token = this.peek();
+        return token != Token.END_OBJECT && token != Token.END_ARRAY && token != Token.END_DOCUMENT;
+    }
+
+    /**
+     * <p>Consumes the start of an object.</p>
+     * @throws IOException if the next token is not the start of an object
+     */
+    /* package */ void beginObject() throws IOException {
+        this.expect(Token.BEGIN_OBJECT);
+        position++;
+        scopes.append('o');
+        expectingName = true;
+    }
+    /**
+     * <p>Consumes the end of an object.</p>
+     * @throws IOException if the next token is not the end of an object
+     */
+    /* package */ void endObject() throws IOException {
+        this.expect(Token.END_OBJECT);
+        position++;
+        this.popScope();
+    }
+
+    /**
+     * <p>Consumes the start of an array.</p>
+     * @throws IOException if the next token is not the start of an array
+     */
+    /* package */ void beginArray() throws IOException {
+        this.expect(Token.BEGIN_ARRAY);
+        position++;
+        scopes.append('a');
+        expectingName = false;
+    }
+    /**
+     * <p>Consumes the end of an array.</p>
+     * @throws IOException if the next token is not the end of an array
+     */
+    /* package */ void endArray() throws IOException {
+        this.expect(Token.END_ARRAY);
+        position++;
+        this.popScope();
+    }
+
+    /**
+     * <p>Consumes the name of an object member.</p>
+     * @return the name
+     * @throws IOException if the next token is not a member name
+     */
+    /* package */ String nextName() throws IOException {
+        this.expect(Token.NAME);
+        String name = this.readString();
+
+        if(this.skipSeparators() != ':')
+            throw this.syntaxError("Expected ':' after member name");
+        position++;
+
+        expectingName = false;
+        return name;
+    }
+
+    /**
+     * <p>Consumes a string value, or a {@code null} value.</p>
+     * @return the string, {@code null} if the value is {@code null}
+     * @throws IOException if the next token is neither a string nor {@code null}
+     */
+    /* package */ String nextString() throws IOException {
+        if(this.peek() == Token.NULL) {
+            this.nextNull();
+            return null;
+        }
+
+        this.expect(Token.STRING);
+        String value = this.readString();
+        this.afterValue();
+        return value;
+    }
+
+    /**
+     * <p>Consumes an integer value.</p>
+     * @return the integer
+     * @throws IOException if the next token is not an integer
+     */
+    /* package */ int nextInt() throws IOException {
+        this.expect(Token.NUMBER);
+        String literal = this.readLiteral();
+        this.afterValue();
+
+        try {
+            return Integer.parseInt(literal);
+        } catch (NumberFormatException _) {
+            throw this.syntaxError("Expected an integer but was " + literal);
+        }
+    }
+
+    /**
+     * <p>Consumes a boolean value.</p>
+     * @return the boolean
+     * @throws IOException if the next token is not a boolean
+     */
+    /* package */ boolean nextBoolean() throws IOException {
+        this.expect(Token.BOOLEAN);
+        String literal = this.readLiteral();
+        this.afterValue();
+
+        return switch (literal) {
+            case "true" -> true;
+            case "false" -> false;
+            default -> throw this.syntaxError("Expected a boolean but was " + literal);
+        };
+    }
+
+    /**
+     * <p>Consumes a {@code null} value.</p>
+     * @throws IOException if the next token is not {@code null}
+     */
+    /* package */ void nextNull() throws IOException {
+        this.expect(Token.NULL);
+        if(!this.readLiteral().equals("null"))
+            throw this.syntaxError("Expected null");
+        this.afterValue();
+    }
+
+    /**
+     * <p>Consumes the next value, whatever its kind, including any nested value.</p>
+     * @throws IOException if the document cannot be read or is malformed
+     */
+    /* package */ void skipValue() throws IOException {
+        switch (this.peek()) {
+            case BEGIN_OBJECT -> {
+                this.beginObject();
+                while(this.hasNext()) {
+                    this.nextName();
+                    this.skipValue();
+                }
+                this.endObject();
+            }
+            case BEGIN_ARRAY -> {
+                this.beginArray();
+                while(this.hasNext())
+                    this.skipValue();
+                this.endArray();
+            }
+            case STRING -> this.nextString();
+            case NUMBER, BOOLEAN, NULL -> {
+                this.readLiteral();
+                this.afterValue();
+            }
+            default -> throw this.syntaxError("Expected a value");
+        }
+    }
+
+    /**
+     * <p>Closes the underlying {@link Reader}.</p>
+     * @throws IOException if the reader cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    //Utility methods
+    /**
+     * <p>Skips whitespace and value separators, filling the buffer as needed.</p>
+     * @return the next significant character, without consuming it, or {@code -1} at the end of the document
+     */
+    private int skipSeparators() throws IOException {
+        while(true) {
+            if(position == limit && !this.fill())
+                return -1;
+
+            char c = buffer[position];
+            if(c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == ',')
+                position++;
+            else
+                return c;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        int read = reader.read(buffer, 0, buffer.length);
+        if(read <= 0)
+            return false;
+
+        position = 0;
+        limit = read;
+        return true;
+    }
+
+    private int readChar() throws IOException {
+        if(position == limit && !this.fill())
+            throw this.syntaxError("Unterminated document");
+        return buffer[position++];
+    }
+
+    private void expect(Token expected) throws IOException {
+        Token actual = this.peek();
+        if(actual != expected)
+            throw this.syntaxError("Expected " + expected + " but was " + actual);
+    }
+
+    private void popScope() {
+        scopes.setLength(scopes.length() - 1);
+        this.afterValue();
+    }
+
+    private void afterValue() {
+        //Inside an object, a value is always followed by the next member's name
+        expectingName = !scopes.isEmpty() && scopes.charAt(scopes.length() - 1) == 'o';
+    }
+
+    /**
+     * <p>Reads a quoted string, the opening quote being the next character.</p>
+     */
+    private String readString() throws IOException {
+        position++; //Opening quote
+        StringBuilder sb = new StringBuilder();
+
+        while(true) {
+            int c = this.readChar();
+            if(c == '"')
+                return sb.toString();
+            if(c != '\\') {
+                sb.append((char) c);
+                continue;
+            }
+
+            int escaped = this.readChar();
+            switch (escaped) {
+                case '"', '\\', '/' -> sb.append((char) escaped);
+                case 'b' -> sb.append('\b');
+                case 'f' -> sb.append('\f');
+                case 'n' -> sb.append('\n');
+                case 'r' -> sb.append('\r');
+                case 't' -> sb.append('\t');
+                case 'u' -> {
+                    int code = 0;
+                    for(int i = 0; i < 4; i++) {
+                        int digit = Character.digit(this.readChar(), 16);
+                        if(digit < 0)
+                            throw this.syntaxError("Invalid unicode escape");
+                        code = (code << 4) | digit;
+                    }
+                    sb.append((char) code);
+                }
+                default -> throw this.syntaxError("Invalid escape sequence '\\" + (char) escaped + "'");
+            }
+        }
+    }
+
+    /**
+     * <p>Reads an unquoted literal: a number, {@code true}, {@code false} or {@code null}.</p>
+     */
+    private String readLiteral() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        while(true) {
+            if(position == limit && !this.fill())
+                return sb.toString();
+
+            char c = buffer[position];
+            if(c == ',' || c == '}' || c == ']' || c == ' ' || c == '\t' || c == '\n' || c == '\r')
+                return sb.toString();
+
+            sb.append(c);
+            position++;
+        }
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException("Malformed JSON document: " + message);
+    }
+}
@@ -3,6 +3,7 @@ package daopostgresimplementation;
 //Java imports
 import java.sql.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 //App imports
 import dao.NoticeboardDAO;
@@ -53,68 +54,74 @@ public class PostgresNoticeboardDAO implements NoticeboardDAO {
     /**
      * {@inheritDoc}
      */
-    public int loadNoticeboardsByUserID(int userID, List<Noticeboard> boards) {
-        if (boards == null)
-            throw new IllegalArgumentException("The user's board list cannot be null.");
+    public int loadNoticeboardsByUserID(int userID, int fetchSize, Consumer<Noticeboard> onBoardLoaded) {
+        if (onBoardLoaded == null)
+            throw new IllegalArgumentException("The loaded boards' consumer cannot be null.");
+        if (fetchSize <= 0)
+            throw new IllegalArgumentException("The fetch size must be positive.");
 
-        //Query strings
+        //Query strings, the sharing data is aggregated per ToDo so that every board completes within a single pass
         final String boardsAndToDosQuery = """
             SELECT
-                Noticeboards.boardID, boardTitle, boardDescription,
-                todoID, state, todoTitle, todoDescription, activityURL, imageURL, expiryDate, Noticeboards.userID, backgroundColor
-            FROM Noticeboards LEFT JOIN Todos ON Noticeboards.boardID = Todos.boardID
-            WHERE userID=?
-            ORDER BY boardID, boardIndex ASC
-        """;
-        final String sharingDataQuery = """
-            SELECT
-                boardID, todoID, username
-            FROM Users NATURAL JOIN (Sharing NATURAL JOIN Todos)
-            WHERE ownerUserID=?
-            ORDER BY boardID, todoID ASC
+                b.boardID, b.boardTitle, b.boardDescription, b.userID,
+                t.todoID, t.state, t.todoTitle, (t.todoDescription <> '' OR t.activityURL <> '' OR t.imageURL <> ''), t.expiryDate, t.backgroundColor,
+                ARRAY(SELECT u.username FROM Sharing s JOIN Users u ON u.userID = s.userID WHERE s.todoID = t.todoID ORDER BY u.username)
+            FROM Noticeboards b LEFT JOIN Todos t ON t.boardID = b.boardID
+            WHERE b.userID=?
+            ORDER BY b.boardID, t.boardIndex, t.todoID ASC
         """;
 
-        //Load noticeboards
-        try (PreparedStatement boardsAndToDosStatement = connection.prepareStatement(boardsAndToDosQuery)) {
+        try {
+            //The driver only streams through a cursor inside a transaction, otherwise it buffers the whole result
+            boolean ownsTransaction = connection.getAutoCommit();
+            if (ownsTransaction)
+                connection.setAutoCommit(false);
 
-            boardsAndToDosStatement.setInt(1, userID);
-            ResultSet res = boardsAndToDosStatement.executeQuery();
+            try (PreparedStatement boardsAndToDosStatement = connection.prepareStatement(boardsAndToDosQuery)) {
+                boardsAndToDosStatement.setFetchSize(fetchSize);
+                boardsAndToDosStatement.setInt(1, userID);
+                ResultSet res = boardsAndToDosStatement.executeQuery();
 
-            TreeMap<Integer, Noticeboard> map = new TreeMap<>();
-            while (res.next()) {
-                //If boards is not in map, then add to map & boards
-                int boardID = res.getInt(1);
-                if (!map.containsKey(boardID)) {
-                    Noticeboard board = new Noticeboard(boardID, res.getString(2), res.getString(3), res.getInt(11));
-                    map.put(boardID, board);
-                    boards.add(board);
+                Noticeboard board = null;
+                while (res.next()) {
+                    //Rows come ordered by board, a new board ID means the previous board is complete
+                    int boardID = res.getInt(1);
+                    if (board == null || board.getBoardID() != boardID) {
+                        if (board != null)
+                            onBoardLoaded.accept(board);
+                        board = new Noticeboard(boardID, res.getString(2), res.getString(3), res.getInt(4));
+                    }
+
+                    //A board without ToDos comes as a single row with a null ToDo
+                    int todoID = res.getInt(5);
+                    if (res.wasNull())
+                        continue;
+
+                    ToDo todo = new ToDo(todoID, res.getBoolean(6), res.getString(7), res.getBoolean(8),
+                            Optional.ofNullable(res.getTimestamp(9)).map(Timestamp::toLocalDateTime).orElse(null),
+                            board.getUserID(), res.getString(10));
+                    for (Object username : (Object[]) res.getArray(11).getArray())
+                        todo.addSharedUser((String) username);
+
+                    board.addToDo(todo);
                 }
 
-                //If todo exists (ToDo does not exist if ID is 0 AND title is null, so we have to negate it) add it to board
-                int todoID = res.getInt(4);
-                String todoTitle = res.getString(6);
-                if (todoID != 0 || todoTitle != null) {
-                    ToDo todo = new ToDo(todoID, res.getBoolean(5), todoTitle,
-                            res.getString(7), res.getString(8), res.getString(9),
-                            Optional.ofNullable(res.getTimestamp(10)).map(Timestamp::toLocalDateTime).orElse(null),
-                            res.getInt(11), res.getString(12));
+                if (board != null)
+                    onBoardLoaded.accept(board);
 
-                    map.get(boardID).addToDo(todo);
-                }
+                if (ownsTransaction)
+                    connection.commit();
+                return 0;
             }
-
-            //Load share data for all ToDos
-            try (PreparedStatement sharingDataStatement = connection.prepareStatement(sharingDataQuery)) {
-                sharingDataStatement.setInt(1, userID);
-                res = sharingDataStatement.executeQuery();
-
-                while (res.next()) {
-                    Noticeboard board = map.get(res.getInt(1));
-                    board.getToDo(res.getInt(2)).addSharedUser(res.getString(3));
-                }
+            catch (SQLException e) {
+                if (ownsTransaction)
+                    connection.rollback();
+                throw e;
+            }
+            finally {
+                if (ownsTransaction)
+                    connection.setAutoCommit(true);
             }
-
-            return 0;
         } catch (SQLException _) {
             return -1;
         }
@@ -130,7 +137,7 @@ public class PostgresNoticeboardDAO implements NoticeboardDAO {
                 todoID, state, todoTitle, todoDescription, activityURL, imageURL, expiryDate, backgroundColor
             FROM Noticeboards NATURAL JOIN Todos
             WHERE boardID=?
-            ORDER BY boardID, boardIndex ASC
+            ORDER BY boardID, boardIndex, todoID ASC
         """;
         final String sharingDataQuery = """
             SELECT
@@ -166,7 +173,7 @@ public class PostgresNoticeboardDAO implements NoticeboardDAO {
                 res = sharingDataStatement.executeQuery();
 
                 while(res.next())
-                    board.getToDo(res.getInt(2)).addSharedUser(res.getString(3));
+                    board.getToDo(res.getInt(1)).addSharedUser(res.getString(2));
                 }
             }
 
@@ -200,7 +207,7 @@ public class PostgresNoticeboardDAO implements NoticeboardDAO {
      */
     @Override
     public Noticeboard getNoticeboardMetadataByBoardID(int boardID) {
-        try(PreparedStatement boardStatement = connection.prepareStatement("SELECT boardTitle, boardDescription FROM Noticeboards WHERE boardID=? ORDER BY boardID")) {
+        try(PreparedStatement boardStatement = connection.prepareStatement("SELECT boardTitle, boardDescription, userID FROM Noticeboards WHERE boardID=?")) {
             boardStatement.setInt(1, boardID);
             ResultSet res = boardStatement.executeQuery();
 
@@ -217,22 +224,14 @@ public class PostgresNoticeboardDAO implements NoticeboardDAO {
      */
     @Override
     public int addNoticeboard(String title, String description, int userID) {
-        try(PreparedStatement insertStatement = connection.prepareStatement("INSERT INTO Noticeboards (boardTitle, boardDescription, userID) VALUES (?,?,?)")) {
+        try(PreparedStatement insertStatement = connection.prepareStatement("INSERT INTO Noticeboards (boardTitle, boardDescription, userID) VALUES (?,?,?) RETURNING boardID")) {
             insertStatement.setString(1, title);
             insertStatement.setString(2, description);
             insertStatement.setInt(3, userID);
-            insertStatement.executeUpdate();
-
-            //Get the new board's ID
-            try (PreparedStatement boardIDStatement = connection.prepareStatement("SELECT boardID FROM Noticeboards WHERE boardTitle=? AND userID=?")) {
-                boardIDStatement.setString(1, title);
-                boardIDStatement.setInt(2, userID);
-
-                ResultSet resSet = boardIDStatement.executeQuery();
-                resSet.next();
 
-                return resSet.getInt(1);
-            }
+            //Get the new board's ID from the inserted row
+            ResultSet resSet = insertStatement.executeQuery();
+            return resSet.next() ? resSet.getInt(1) : -1;
         } catch (SQLException e) {
             String code = e.getSQLState();
             switch (code) {
@@ -331,8 +330,10 @@ public class PostgresNoticeboardDAO implements NoticeboardDAO {
             if(res == 0)
                 throw new NoSuchElementException("The target noticeboard (ID: " + boardID + ") does not exist");
         } catch (SQLException e) {
-            if(e.getSQLState().equals(VALUE_TOO_LONG_SQL_STATE))
+            if(VALUE_TOO_LONG_SQL_STATE.equals(e.getSQLState()))
                 throw new IllegalArgumentException("The description cannot exceed 256 characters.");
+
+            throw new UnknownPostgresException(e);
         }
     }
 
@@ -348,7 +349,7 @@ public class PostgresNoticeboardDAO implements NoticeboardDAO {
             if(res == 0)
                 throw new NoSuchElementException("The target noticeboard (ID: " + boardID + ") does not exist");
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new UnknownPostgresException(e);
         }
     }
 }
\ No newline at end of file
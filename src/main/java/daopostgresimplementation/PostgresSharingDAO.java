@@ -2,6 +2,7 @@ package daopostgresimplementation;
 
 //Java imports
 import java.util.*;
+import java.util.function.Consumer;
 import java.sql.*;
 
 //App imports
@@ -31,63 +32,71 @@ public class PostgresSharingDAO implements SharingDAO {
     /**
      * {@inheritDoc}
      */
-    public int loadSharedNoticeboardsByUserID(int userID, List<Noticeboard> boards) {
-        if(boards == null)
-            throw new IllegalArgumentException("The user's board list cannot be null.");
+    public int loadSharedNoticeboardsByUserID(int userID, int fetchSize, Consumer<Noticeboard> onBoardLoaded) {
+        if(onBoardLoaded == null)
+            throw new IllegalArgumentException("The loaded boards' consumer cannot be null.");
+        if(fetchSize <= 0)
+            throw new IllegalArgumentException("The fetch size must be positive.");
 
-        //Query strings
+        //Query strings, every shared ToDo is only shared with the User as far as the User can see
         final String boardsAndToDosQuery = """
             SELECT
-                Noticeboards.boardID, boardTitle, boardDescription,
-                todoID, state, todoTitle, todoDescription, activityURL, imageURL, expiryDate, ownerUserID, backgroundColor
-            FROM Noticeboards LEFT JOIN (Sharing NATURAL JOIN Todos) ON Noticeboards.boardID = Todos.boardID
-            WHERE Sharing.userID=?
-            ORDER BY boardID, boardIndex ASC
+                b.boardID, b.boardTitle, b.boardDescription, b.userID,
+                t.todoID, t.state, t.todoTitle, (t.todoDescription <> '' OR t.activityURL <> '' OR t.imageURL <> ''), t.expiryDate, t.ownerUserID, t.backgroundColor,
+                u.username
+            FROM Sharing s
+                JOIN Users u ON u.userID = s.userID
+                JOIN Todos t ON t.todoID = s.todoID
+                JOIN Noticeboards b ON b.boardID = t.boardID
+            WHERE s.userID=?
+            ORDER BY b.boardID, t.boardIndex, t.todoID ASC
             """;
-        final String sharingDataQuery = """
-            SELECT
-                boardID, todoID, username
-            FROM (Users NATURAL JOIN Sharing) NATURAL JOIN Todos
-            WHERE userID=?
-            ORDER BY boardID, todoID ASC
-            """;
-
-        try (PreparedStatement boardsAndToDosStatements = connection.prepareStatement(boardsAndToDosQuery)) {
-            boardsAndToDosStatements.setInt(1, userID);
-            ResultSet res = boardsAndToDosStatements.executeQuery();
 
-            TreeMap<Integer, Noticeboard> map = new TreeMap<>();
-            while(res.next()) {
-                //If boards is not in map, then add to map & boards
-                int boardID = res.getInt(1);
-                if (!map.containsKey(boardID)) {
-                    Noticeboard board = new Noticeboard(boardID, res.getString(2), res.getString(3), res.getInt(11));
-                    map.put(boardID, board);
-                    boards.add(board);
+        try {
+            //The driver only streams through a cursor inside a transaction, otherwise it buffers the whole result
+            boolean ownsTransaction = connection.getAutoCommit();
+            if(ownsTransaction)
+                connection.setAutoCommit(false);
+
+            try (PreparedStatement boardsAndToDosStatement = connection.prepareStatement(boardsAndToDosQuery)) {
+                boardsAndToDosStatement.setFetchSize(fetchSize);
+                boardsAndToDosStatement.setInt(1, userID);
+                ResultSet res = boardsAndToDosStatement.executeQuery();
+
+                Noticeboard board = null;
+                while(res.next()) {
+                    //Rows come ordered by board, a new board ID means the previous board is complete
+                    int boardID = res.getInt(1);
+                    if(board == null || board.getBoardID() != boardID) {
+                        if(board != null)
+                            onBoardLoaded.accept(board);
+                        board = new Noticeboard(boardID, res.getString(2), res.getString(3), res.getInt(4));
+                    }
+
+                    ToDo todo = new ToDo(res.getInt(5), res.getBoolean(6), res.getString(7), res.getBoolean(8),
+                            Optional.ofNullable(res.getTimestamp(9)).map(Timestamp::toLocalDateTime).orElse(null),
+                            res.getInt(10), res.getString(11));
+                    todo.addSharedUser(res.getString(12));
+
+                    board.addToDo(todo);
                 }
 
-                //If todo exists (ToDo does not exist if ID is 0 AND title is null, so we have to negate it) add it to board
-                int todoID = res.getInt(4);
-                String todoTitle = res.getString(6);
-                if(todoID != 0 || todoTitle != null){
-                    ToDo todo = new ToDo(todoID, res.getBoolean(5), todoTitle,
-                            res.getString(7), res.getString(8), res.getString(9),
-                            Optional.ofNullable(res.getTimestamp(10)).map(Timestamp::toLocalDateTime).orElse(null),
-                            res.getInt(11), res.getString(12));
-
-                    map.get(boardID).addToDo(todo);
-                }
-            }
-
-            //Load ToDo share data
-            try (PreparedStatement sharingDataStatement = connection.prepareStatement(sharingDataQuery)){
-                sharingDataStatement.setInt(1, userID);
-                res = sharingDataStatement.executeQuery();
-                while (res.next())
-                    map.get(res.getInt(1)).getToDo(res.getInt(2)).addSharedUser(res.getString(3));
+                if(board != null)
+                    onBoardLoaded.accept(board);
 
+                if(ownsTransaction)
+                    connection.commit();
                 return 0;
             }
+            catch (SQLException e) {
+                if(ownsTransaction)
+                    connection.rollback();
+                throw e;
+            }
+            finally {
+                if(ownsTransaction)
+                    connection.setAutoCommit(true);
+            }
         } catch (SQLException _) {
             return -1;
         }
@@ -102,11 +111,11 @@ public class PostgresSharingDAO implements SharingDAO {
         //Query strings
         final String boardsDataQuery = """
             SELECT Noticeboards.boardID, boardTitle, boardDescription, Noticeboards.userID
-            FROM Noticeboards NATURAL JOIN
+            FROM Noticeboards JOIN
                 (SELECT DISTINCT boardID
                 FROM (Sharing NATURAL JOIN Todos)
-                WHERE userID=?
-                ORDER BY boardID ASC)
+                WHERE userID=?) AS SharedBoards ON Noticeboards.boardID = SharedBoards.boardID
+            ORDER BY Noticeboards.boardID ASC
             """;
         try (PreparedStatement boardsDataStatement = connection.prepareStatement(boardsDataQuery)) {
 
@@ -122,6 +131,42 @@ public class PostgresSharingDAO implements SharingDAO {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    public int loadSharedToDosByBoardID(int userID, int boardID, List<ToDo> todos) {
+        if(todos == null)
+            throw new IllegalArgumentException("The board's todo list cannot be null.");
+
+        //Query strings
+        final String sharedToDosQuery = """
+            SELECT
+                todoID, state, todoTitle, (todoDescription <> '' OR activityURL <> '' OR imageURL <> ''), expiryDate, ownerUserID, backgroundColor, username
+            FROM (Users NATURAL JOIN Sharing) NATURAL JOIN Todos
+            WHERE userID=? AND boardID=?
+            ORDER BY boardIndex, todoID ASC
+            """;
+
+        try (PreparedStatement sharedToDosStatement = connection.prepareStatement(sharedToDosQuery)) {
+            sharedToDosStatement.setInt(1, userID);
+            sharedToDosStatement.setInt(2, boardID);
+            ResultSet res = sharedToDosStatement.executeQuery();
+
+            while(res.next()) {
+                ToDo todo = new ToDo(res.getInt(1), res.getBoolean(2), res.getString(3), res.getBoolean(4),
+                        Optional.ofNullable(res.getTimestamp(5)).map(Timestamp::toLocalDateTime).orElse(null),
+                        res.getInt(6), res.getString(7));
+                todo.addSharedUser(res.getString(8));
+
+                todos.add(todo);
+            }
+
+            return 0;
+        } catch (SQLException _) {
+            return -1;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -153,7 +198,7 @@ public class PostgresSharingDAO implements SharingDAO {
             if(res == 0)
                 throw new IllegalStateException("User (ID:" + userID + ") does not exist or ToDo (ID:" + todoID + ") is not shared with the User");
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new UnknownPostgresException(e);
         }
     }
 }
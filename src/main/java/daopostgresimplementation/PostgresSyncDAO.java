@@ -0,0 +1,365 @@
+package daopostgresimplementation;
+
+//Java imports
+import java.sql.*;
+import java.util.*;
+
+//App imports
+import dao.SyncDAO;
+import model.Noticeboard;
+import model.ToDo;
+
+/**
+ * <p>PostgreSQL specific implementation of the {@link SyncDAO} interface.</p>
+ */
+public class PostgresSyncDAO implements SyncDAO {
+    private final Connection connection;
+
+    //Query strings shared by the syncs
+    //The oldest transaction ID still in progress in the current snapshot, xid8 is unsigned but stays far below 2^63
+    private static final String WATERMARK_QUERY = "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint";
+    private static final String VISIBLE_BOARDS_QUERY = """
+        SELECT boardID FROM Noticeboards WHERE userID=?
+        UNION
+        SELECT Todos.boardID FROM Todos JOIN Sharing ON Sharing.todoID = Todos.todoID WHERE Sharing.userID=?
+        """;
+    private static final String BOARD_ORDERS_QUERY = """
+        SELECT t.boardID, array_agg(t.todoID ORDER BY t.boardIndex, t.todoID)
+        FROM Todos t JOIN Noticeboards b ON b.boardID = t.boardID
+        WHERE t.boardID = ANY(?)
+          AND (b.userID = ? OR EXISTS (SELECT 1 FROM Sharing s WHERE s.todoID = t.todoID AND s.userID = ?))
+        GROUP BY t.boardID
+        """;
+
+    /**
+     * <p>Instantiates a new PostgresSyncDAO object.</p>
+     * @param con the {@link Connection} to the PostgreSQL database
+     */
+    public PostgresSyncDAO(Connection con) {
+        connection = con;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public long getSyncWatermark() {
+        try(PreparedStatement watermarkStatement = connection.prepareStatement(WATERMARK_QUERY)) {
+            ResultSet res = watermarkStatement.executeQuery();
+            res.next();
+
+            return res.getLong(1);
+        } catch (SQLException _) {
+            return -1;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ChangeSet getChangesSince(int userID, long sinceWatermark) {
+        //Query strings
+        final String changedBoardsQuery = """
+            SELECT b.boardID, b.boardTitle, b.boardDescription, b.userID
+            FROM Noticeboards b
+            WHERE (b.userID = ? AND b.xactID >= ?::xid8)
+               OR EXISTS (SELECT 1 FROM Todos t JOIN Sharing s ON s.todoID = t.todoID
+                          WHERE t.boardID = b.boardID AND s.userID = ? AND (b.xactID >= ?::xid8 OR s.xactID >= ?::xid8))
+            ORDER BY b.boardID
+            """;
+        final String changedToDosQuery = """
+            SELECT
+                t.todoID, t.state, t.todoTitle, t.todoDescription, t.activityURL, t.imageURL, t.expiryDate, t.ownerUserID, t.backgroundColor, t.boardID,
+                ARRAY(SELECT u.username FROM Sharing s JOIN Users u ON u.userID = s.userID WHERE s.todoID = t.todoID ORDER BY u.username)
+            FROM Todos t JOIN Noticeboards b ON b.boardID = t.boardID
+            WHERE b.userID = ?
+              AND (t.xactID >= ?::xid8
+                OR EXISTS (SELECT 1 FROM Sharing s WHERE s.todoID = t.todoID AND s.xactID >= ?::xid8)
+                OR EXISTS (SELECT 1 FROM DeletionLog d WHERE d.entityType = 'S' AND d.todoID = t.todoID AND d.xactID >= ?::xid8))
+            UNION ALL
+            SELECT
+                t.todoID, t.state, t.todoTitle, t.todoDescription, t.activityURL, t.imageURL, t.expiryDate, t.ownerUserID, t.backgroundColor, t.boardID,
+                ARRAY[u.username]
+            FROM Todos t JOIN Sharing s ON s.todoID = t.todoID JOIN Users u ON u.userID = s.userID
+            WHERE s.userID = ? AND (t.xactID >= ?::xid8 OR s.xactID >= ?::xid8)
+            """;
+        final String deletionsQuery = "SELECT entityType, boardID, todoID FROM DeletionLog WHERE userID = ? AND xactID >= ?::xid8";
+
+        try {
+            //Read all the changes from the same snapshot
+            boolean ownsTransaction = connection.getAutoCommit();
+            if(ownsTransaction) {
+                connection.setAutoCommit(false);
+                connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            }
+
+            try {
+                //Take the next watermark from the snapshot the changes are read from, the first query sets it
+                long watermark;
+                try(PreparedStatement watermarkStatement = connection.prepareStatement(WATERMARK_QUERY)) {
+                    ResultSet res = watermarkStatement.executeQuery();
+                    res.next();
+                    watermark = res.getLong(1);
+                }
+
+                //Visible Noticeboards
+                Set<Integer> visibleBoardIDs = this.readVisibleBoardIDs(userID);
+
+                //New or changed Noticeboards
+                List<Noticeboard> boards = new ArrayList<>();
+                try(PreparedStatement changedBoardsStatement = connection.prepareStatement(changedBoardsQuery)) {
+                    changedBoardsStatement.setInt(1, userID);
+                    changedBoardsStatement.setString(2, Long.toString(sinceWatermark));
+                    changedBoardsStatement.setInt(3, userID);
+                    changedBoardsStatement.setString(4, Long.toString(sinceWatermark));
+                    changedBoardsStatement.setString(5, Long.toString(sinceWatermark));
+                    this.readBoards(changedBoardsStatement, boards);
+                }
+
+                //New or changed ToDos, along with the ToDos whose sharing data changed
+                List<ToDo> todos = new ArrayList<>();
+                Map<Integer, Integer> todoBoardIDs = new HashMap<>();
+                try(PreparedStatement changedToDosStatement = connection.prepareStatement(changedToDosQuery)) {
+                    changedToDosStatement.setInt(1, userID);
+                    changedToDosStatement.setString(2, Long.toString(sinceWatermark));
+                    changedToDosStatement.setString(3, Long.toString(sinceWatermark));
+                    changedToDosStatement.setString(4, Long.toString(sinceWatermark));
+                    changedToDosStatement.setInt(5, userID);
+                    changedToDosStatement.setString(6, Long.toString(sinceWatermark));
+                    changedToDosStatement.setString(7, Long.toString(sinceWatermark));
+                    this.readToDos(changedToDosStatement, todos, todoBoardIDs);
+                }
+
+                //Deleted Noticeboards, ToDos and sharing rows
+                Set<Integer> deletedToDoIDs = new HashSet<>();
+                Set<Integer> deletedBoardIDs = new HashSet<>();
+                Set<Integer> touchedBoardIDs = new HashSet<>(todoBoardIDs.values());
+                try(PreparedStatement deletionsStatement = connection.prepareStatement(deletionsQuery)) {
+                    deletionsStatement.setInt(1, userID);
+                    deletionsStatement.setString(2, Long.toString(sinceWatermark));
+
+                    ResultSet res = deletionsStatement.executeQuery();
+                    while(res.next()) {
+                        switch (res.getString(1)) {
+                            case "B" -> deletedBoardIDs.add(res.getInt(2));
+                            case "T" -> {
+                                deletedToDoIDs.add(res.getInt(3));
+                                touchedBoardIDs.add(res.getInt(2));
+                            }
+                            default -> deletedToDoIDs.add(res.getInt(3));
+                        }
+                    }
+                }
+
+                //A ToDo deleted and then shared again is not deleted anymore
+                todoBoardIDs.keySet().forEach(deletedToDoIDs::remove);
+                touchedBoardIDs.removeAll(deletedBoardIDs);
+
+                //Order of the touched Noticeboards
+                Map<Integer, List<Integer>> boardOrders = this.readBoardOrders(userID, touchedBoardIDs);
+
+                if(ownsTransaction)
+                    connection.commit();
+
+                return new ChangeSet(watermark, boards, todos, todoBoardIDs, deletedToDoIDs, deletedBoardIDs, visibleBoardIDs, boardOrders);
+            }
+            catch (SQLException e) {
+                if(ownsTransaction)
+                    connection.rollback();
+                throw e;
+            }
+            finally {
+                if(ownsTransaction) {
+                    connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+                    connection.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException _) {
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ChangeSet getCurrentState(int userID, Set<Integer> boardIDs, Set<Integer> todoIDs) {
+        if(boardIDs == null || todoIDs == null)
+            throw new IllegalArgumentException("The IDs of the Noticeboards and ToDos cannot be null.");
+
+        //Query strings
+        final String boardsQuery = """
+            SELECT b.boardID, b.boardTitle, b.boardDescription, b.userID
+            FROM Noticeboards b
+            WHERE b.boardID = ANY(?::integer[])
+              AND (b.userID = ? OR EXISTS (SELECT 1 FROM Todos t JOIN Sharing s ON s.todoID = t.todoID WHERE t.boardID = b.boardID AND s.userID = ?))
+            ORDER BY b.boardID
+            """;
+        final String todosQuery = """
+            SELECT
+                t.todoID, t.state, t.todoTitle, t.todoDescription, t.activityURL, t.imageURL, t.expiryDate, t.ownerUserID, t.backgroundColor, t.boardID,
+                ARRAY(SELECT u.username FROM Sharing s JOIN Users u ON u.userID = s.userID WHERE s.todoID = t.todoID ORDER BY u.username)
+            FROM Todos t JOIN Noticeboards b ON b.boardID = t.boardID
+            WHERE t.todoID = ANY(?::integer[]) AND b.userID = ?
+            UNION ALL
+            SELECT
+                t.todoID, t.state, t.todoTitle, t.todoDescription, t.activityURL, t.imageURL, t.expiryDate, t.ownerUserID, t.backgroundColor, t.boardID,
+                ARRAY[u.username]
+            FROM Todos t JOIN Sharing s ON s.todoID = t.todoID JOIN Users u ON u.userID = s.userID
+            WHERE t.todoID = ANY(?::integer[]) AND s.userID = ?
+            """;
+
+        try {
+            //Read all the state from the same snapshot
+            boolean ownsTransaction = connection.getAutoCommit();
+            if(ownsTransaction) {
+                connection.setAutoCommit(false);
+                connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+            }
+
+            try {
+                //Visible Noticeboards, the named ones that are not are gone for the User
+                Set<Integer> visibleBoardIDs = this.readVisibleBoardIDs(userID);
+                Set<Integer> deletedBoardIDs = new HashSet<>(boardIDs);
+                deletedBoardIDs.removeAll(visibleBoardIDs);
+
+                //Named Noticeboards
+                List<Noticeboard> boards = new ArrayList<>();
+                if(!boardIDs.isEmpty()) {
+                    try(PreparedStatement boardsStatement = connection.prepareStatement(boardsQuery)) {
+                        boardsStatement.setArray(1, connection.createArrayOf("integer", boardIDs.toArray()));
+                        boardsStatement.setInt(2, userID);
+                        boardsStatement.setInt(3, userID);
+                        this.readBoards(boardsStatement, boards);
+                    }
+                }
+
+                //Named ToDos, the ones that are not visible anymore are gone for the User
+                List<ToDo> todos = new ArrayList<>();
+                Map<Integer, Integer> todoBoardIDs = new HashMap<>();
+                if(!todoIDs.isEmpty()) {
+                    try(PreparedStatement todosStatement = connection.prepareStatement(todosQuery)) {
+                        todosStatement.setArray(1, connection.createArrayOf("integer", todoIDs.toArray()));
+                        todosStatement.setInt(2, userID);
+                        todosStatement.setArray(3, connection.createArrayOf("integer", todoIDs.toArray()));
+                        todosStatement.setInt(4, userID);
+                        this.readToDos(todosStatement, todos, todoBoardIDs);
+                    }
+                }
+
+                Set<Integer> deletedToDoIDs = new HashSet<>(todoIDs);
+                deletedToDoIDs.removeAll(todoBoardIDs.keySet());
+
+                //Order of the named Noticeboards and of the ones holding the named ToDos
+                Set<Integer> touchedBoardIDs = new HashSet<>(boardIDs);
+                touchedBoardIDs.addAll(todoBoardIDs.values());
+                touchedBoardIDs.removeAll(deletedBoardIDs);
+                Map<Integer, List<Integer>> boardOrders = this.readBoardOrders(userID, touchedBoardIDs);
+
+                if(ownsTransaction)
+                    connection.commit();
+
+                return new ChangeSet(-1, boards, todos, todoBoardIDs, deletedToDoIDs, deletedBoardIDs, visibleBoardIDs, boardOrders);
+            }
+            catch (SQLException e) {
+                if(ownsTransaction)
+                    connection.rollback();
+                throw e;
+            }
+            finally {
+                if(ownsTransaction) {
+                    connection.setTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+                    connection.setAutoCommit(true);
+                }
+            }
+        } catch (SQLException _) {
+            return null;
+        }
+    }
+
+    //Utility methods
+    /**
+     * <p>Reads the IDs of all the Noticeboards visible to a User, owned or shared.</p>
+     * @param userID the User's ID
+     * @return the IDs, as a {@link Set} of {@link Integer}
+     *
+     * @throws SQLException if the query fails
+     */
+    private Set<Integer> readVisibleBoardIDs(int userID) throws SQLException {
+        Set<Integer> visibleBoardIDs = new HashSet<>();
+        try(PreparedStatement visibleBoardsStatement = connection.prepareStatement(VISIBLE_BOARDS_QUERY)) {
+            visibleBoardsStatement.setInt(1, userID);
+            visibleBoardsStatement.setInt(2, userID);
+
+            ResultSet res = visibleBoardsStatement.executeQuery();
+            while(res.next())
+                visibleBoardIDs.add(res.getInt(1));
+        }
+
+        return visibleBoardIDs;
+    }
+
+    /**
+     * <p>Reads the Noticeboards' metadata selected by a statement, in the {@code boardID, boardTitle, boardDescription, userID} column order.</p>
+     * @param statement the statement, with its parameters set
+     * @param boards the {@link List} to add the Noticeboards to, without ToDos
+     *
+     * @throws SQLException if the query fails
+     */
+    private void readBoards(PreparedStatement statement, List<Noticeboard> boards) throws SQLException {
+        ResultSet res = statement.executeQuery();
+        while(res.next())
+            boards.add(new Noticeboard(res.getInt(1), res.getString(2), res.getString(3), res.getInt(4)));
+    }
+
+    /**
+     * <p>Reads the ToDos selected by a statement, with their Noticeboard's ID and the usernames they are shared with as the last two columns.</p>
+     * @param statement the statement, with its parameters set
+     * @param todos the {@link List} to add the ToDos to
+     * @param todoBoardIDs the {@link Map} to put the ID of each ToDo's Noticeboard into, by ToDo ID
+     *
+     * @throws SQLException if the query fails
+     */
+    private void readToDos(PreparedStatement statement, List<ToDo> todos, Map<Integer, Integer> todoBoardIDs) throws SQLException {
+        ResultSet res = statement.executeQuery();
+        while(res.next()) {
+            ToDo todo = new ToDo(res.getInt(1), res.getBoolean(2), res.getString(3),
+                    res.getString(4), res.getString(5), res.getString(6),
+                    Optional.ofNullable(res.getTimestamp(7)).map(Timestamp::toLocalDateTime).orElse(null),
+                    res.getInt(8), res.getString(9));
+            for(Object username : (Object[]) res.getArray(11).getArray())
+                todo.addSharedUser((String) username);
+
+            todos.add(todo);
+            todoBoardIDs.put(todo.getToDoID(), res.getInt(10));
+        }
+    }
+
+    /**
+     * <p>Reads the IDs of the ToDos visible to a User in some Noticeboards, in board order.</p>
+     * @param userID the User's ID
+     * @param boardIDs the Noticeboards' IDs
+     * @return the ToDo IDs by Noticeboard ID, with an empty {@link List} for the Noticeboards without visible ToDos
+     *
+     * @throws SQLException if the query fails
+     */
+    private Map<Integer, List<Integer>> readBoardOrders(int userID, Set<Integer> boardIDs) throws SQLException {
+        Map<Integer, List<Integer>> boardOrders = new HashMap<>();
+        boardIDs.forEach(boardID -> boardOrders.put(boardID, List.of()));
+        if(boardIDs.isEmpty())
+            return boardOrders;
+
+        try(PreparedStatement boardOrdersStatement = connection.prepareStatement(BOARD_ORDERS_QUERY)) {
+            boardOrdersStatement.setArray(1, connection.createArrayOf("integer", boardIDs.toArray()));
+            boardOrdersStatement.setInt(2, userID);
+            boardOrdersStatement.setInt(3, userID);
+
+            ResultSet res = boardOrdersStatement.executeQuery();
+            while(res.next())
+                boardOrders.put(res.getInt(1), Arrays.stream((Object[]) res.getArray(2).getArray()).map(id -> (Integer) id).toList());
+        }
+
+        return boardOrders;
+    }
+}
@@ -3,14 +3,19 @@ package daopostgresimplementation;
 //Java imports
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
 import java.sql.*;
 
 //App imports
 import dao.ToDoDAO;
 import dto.ToDoDTO;
+import dto.ToDoUpdateDTO;
+import model.OffHeapToDoStore;
 import model.ToDo;
 
 /**
@@ -25,6 +30,9 @@ public class PostgresToDoDAO implements ToDoDAO {
     private static final String DUPLICATE_KEY_VALUE_SQL_STATE = "23505";
     private static final String FOREIGN_KEY_VIOLATION_SQL_STATE = "23503";
 
+    //Distance between the sparse ordering keys of consecutive ToDos, as used by the moveToDo and rebalanceBoardIndex procedures
+    private static final long BOARD_INDEX_GAP = 65536;
+
 
     /**
      * Instantiates a new PostgresNoticeboardDAO object.
@@ -61,19 +69,148 @@ public class PostgresToDoDAO implements ToDoDAO {
         if(todos == null)
             throw new IllegalArgumentException("The board's todo list cannot be null.");
 
-        try(PreparedStatement loadToDosStatement = connection.prepareStatement("SELECT todoID, state, todoTitle, todoDescription, activityURL, imageURL, expiryDate, ownerUserID, backgroundColor, boardIndex FROM Todos WHERE boardID=? ORDER BY boardIndex ASC")) {
+        //Only the cards' columns are read, the sharing data comes along so that no second query is needed
+        final String loadToDosQuery = """
+            SELECT
+                t.todoID, t.state, t.todoTitle, (t.todoDescription <> '' OR t.activityURL <> '' OR t.imageURL <> ''), t.expiryDate, t.ownerUserID, t.backgroundColor,
+                ARRAY(SELECT u.username FROM Sharing s JOIN Users u ON u.userID = s.userID WHERE s.todoID = t.todoID ORDER BY u.username)
+            FROM Todos t
+            WHERE t.boardID=?
+            ORDER BY t.boardIndex, t.todoID ASC
+        """;
+
+        try(PreparedStatement loadToDosStatement = connection.prepareStatement(loadToDosQuery)) {
             loadToDosStatement.setInt(1, boardID);
 
             ResultSet res = loadToDosStatement.executeQuery();
-            while(res.next())
-                todos.add(new ToDo(res.getInt(1), res.getBoolean(2), res.getString(3), res.getString(4), res.getString(5),
-                        res.getString(6), Optional.ofNullable(res.getTimestamp(7)).map(Timestamp::toLocalDateTime).orElse(null), res.getInt(8), res.getString(9)));
+            while(res.next()) {
+                ToDo todo = new ToDo(res.getInt(1), res.getBoolean(2), res.getString(3), res.getBoolean(4),
+                        Optional.ofNullable(res.getTimestamp(5)).map(Timestamp::toLocalDateTime).orElse(null), res.getInt(6), res.getString(7));
+                for(Object username : (Object[]) res.getArray(8).getArray())
+                    todo.addSharedUser((String) username);
+
+                todos.add(todo);
+            }
 
             return 0;
         } catch (SQLException _) {
             return -1;
         }
     }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int loadToDosByBoardID(int boardID, int fetchSize, OffHeapToDoStore store) {
+        if(store == null)
+            throw new IllegalArgumentException("The board's todo store cannot be null.");
+        if(fetchSize <= 0)
+            throw new IllegalArgumentException("The fetch size must be positive.");
+
+        final String loadToDosQuery = """
+            SELECT
+                t.todoID, t.state, t.todoTitle, (t.todoDescription <> '' OR t.activityURL <> '' OR t.imageURL <> ''), t.expiryDate, t.ownerUserID, t.backgroundColor,
+                ARRAY(SELECT u.username FROM Sharing s JOIN Users u ON u.userID = s.userID WHERE s.todoID = t.todoID ORDER BY u.username)
+            FROM Todos t
+            WHERE t.boardID=?
+            ORDER BY t.boardIndex, t.todoID ASC
+        """;
+
+        try {
+            //The driver only streams through a cursor inside a transaction, otherwise it buffers the whole result
+            boolean ownsTransaction = connection.getAutoCommit();
+            if(ownsTransaction)
+                connection.setAutoCommit(false);
+
+            try(PreparedStatement loadToDosStatement = connection.prepareStatement(loadToDosQuery)) {
+                loadToDosStatement.setFetchSize(fetchSize);
+                loadToDosStatement.setInt(1, boardID);
+
+                ResultSet res = loadToDosStatement.executeQuery();
+                while(res.next()) {
+                    List<String> sharedUsers = new ArrayList<>();
+                    for(Object username : (Object[]) res.getArray(8).getArray())
+                        sharedUsers.add((String) username);
+
+                    store.append(res.getInt(1), res.getBoolean(2), res.getString(3), res.getBoolean(4),
+                            Optional.ofNullable(res.getTimestamp(5)).map(Timestamp::toLocalDateTime).orElse(null), res.getInt(6), res.getString(7), sharedUsers);
+                }
+
+                if(ownsTransaction)
+                    connection.commit();
+                return 0;
+            }
+            catch (SQLException e) {
+                if(ownsTransaction)
+                    connection.rollback();
+                throw e;
+            }
+            finally {
+                if(ownsTransaction)
+                    connection.setAutoCommit(true);
+            }
+        } catch (SQLException _) {
+            return -1;
+        }
+    }
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ToDoPage loadToDoPage(int boardID, int userID, long afterBoardIndex, int afterToDoID, int pageSize) {
+        if(pageSize <= 0)
+            throw new IllegalArgumentException("The page size must be positive.");
+
+        //One row more than the page size tells whether another page follows, only the cards' columns are read
+        final String pageQuery = """
+            SELECT
+                t.todoID, t.state, t.todoTitle, (t.todoDescription <> '' OR t.activityURL <> '' OR t.imageURL <> ''), t.expiryDate, t.ownerUserID, t.backgroundColor, t.boardIndex,
+                ARRAY(SELECT u.username FROM Sharing s JOIN Users u ON u.userID = s.userID
+                      WHERE s.todoID = t.todoID AND (b.userID = ? OR s.userID = ?) ORDER BY u.username)
+            FROM Todos t JOIN Noticeboards b ON b.boardID = t.boardID
+            WHERE t.boardID = ? AND (t.boardIndex, t.todoID) > (?, ?)
+              AND (b.userID = ? OR EXISTS (SELECT 1 FROM Sharing s WHERE s.todoID = t.todoID AND s.userID = ?))
+            ORDER BY t.boardIndex, t.todoID
+            LIMIT ?
+        """;
+
+        try(PreparedStatement pageStatement = connection.prepareStatement(pageQuery)) {
+            pageStatement.setInt(1, userID);
+            pageStatement.setInt(2, userID);
+            pageStatement.setInt(3, boardID);
+            pageStatement.setLong(4, afterBoardIndex);
+            pageStatement.setInt(5, afterToDoID);
+            pageStatement.setInt(6, userID);
+            pageStatement.setInt(7, userID);
+            pageStatement.setInt(8, pageSize + 1);
+
+            ResultSet res = pageStatement.executeQuery();
+            ArrayList<ToDo> todos = new ArrayList<>(pageSize);
+            long lastBoardIndex = afterBoardIndex;
+            int lastToDoID = afterToDoID;
+            boolean hasMore = false;
+            while(res.next()) {
+                if(todos.size() == pageSize) {
+                    hasMore = true;
+                    break;
+                }
+
+                ToDo todo = new ToDo(res.getInt(1), res.getBoolean(2), res.getString(3), res.getBoolean(4),
+                        Optional.ofNullable(res.getTimestamp(5)).map(Timestamp::toLocalDateTime).orElse(null), res.getInt(6), res.getString(7));
+                for(Object username : (Object[]) res.getArray(9).getArray())
+                    todo.addSharedUser((String) username);
+
+                todos.add(todo);
+                lastBoardIndex = res.getLong(8);
+                lastToDoID = todo.getToDoID();
+            }
+
+            return new ToDoPage(todos, lastBoardIndex, lastToDoID, hasMore);
+        } catch (SQLException _) {
+            return null;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -94,33 +231,88 @@ public class PostgresToDoDAO implements ToDoDAO {
     /**
      * {@inheritDoc}
      */
-    public int addToDo(ToDoDTO todo, int boardID, int boardIndex) {
-        try(PreparedStatement insertStatement = connection.prepareStatement("INSERT INTO Todos (state, todoTitle, todoDescription, activityURL, imageURL, expiryDate, ownerUserID, backgroundColor, boardID, boardIndex) VALUES (?,?,?,?,?,?,?,?,?,?)")) {
-            insertStatement.setBoolean(1, todo.isCompleted());
-            insertStatement.setString(2, todo.getTitle());
-            insertStatement.setString(3, todo.getDescription());
-            insertStatement.setString(4, todo.getActivityURL());
-            insertStatement.setString(5, todo.getImageURL());
-            if(todo.getExpiryDate() != null)
-                insertStatement.setTimestamp(6, Timestamp.valueOf(todo.getExpiryDate()));
-            else
-                insertStatement.setNull(6, java.sql.Types.TIMESTAMP);
-            insertStatement.setInt(7, todo.getOwnerUserID());
-            insertStatement.setString(8, todo.getBackgroundColor());
-            insertStatement.setInt(9, boardID);
-            insertStatement.setInt(10, boardIndex);
-
-            insertStatement.executeUpdate();
-
-            //Get the new board's ID
-            try (PreparedStatement boardIDStatement = connection.prepareStatement("SELECT todoID FROM Todos WHERE todoTitle=? AND boardID=?")) {
-                boardIDStatement.setString(1, todo.getTitle());
-                boardIDStatement.setInt(2, boardID);
+    @Override
+    public ToDoDetails loadToDoDetails(int todoID, int userID) {
+        final String detailsQuery = """
+            SELECT t.todoDescription, t.activityURL, t.imageURL
+            FROM Todos t JOIN Noticeboards b ON b.boardID = t.boardID
+            WHERE t.todoID = ? AND (b.userID = ? OR EXISTS (SELECT 1 FROM Sharing s WHERE s.todoID = t.todoID AND s.userID = ?))
+        """;
+
+        try(PreparedStatement detailsStatement = connection.prepareStatement(detailsQuery)) {
+            detailsStatement.setInt(1, todoID);
+            detailsStatement.setInt(2, userID);
+            detailsStatement.setInt(3, userID);
+
+            ResultSet res = detailsStatement.executeQuery();
+            if(!res.next())
+                return null;
+
+            return new ToDoDetails(res.getString(1), res.getString(2), res.getString(3));
+        } catch (SQLException _) {
+            return null;
+        }
+    }
 
-                ResultSet resSet = boardIDStatement.executeQuery();
-                resSet.next();
+    /**
+     * {@inheritDoc}
+     */
+    public ToDo addToDo(ToDoDTO todo, int boardID) {
+        //Omit the background color when missing, so that the column's default applies, and append after the board's last ToDo
+        boolean hasColor = todo.getBackgroundColor() != null && !todo.getBackgroundColor().isBlank();
+        final String insertQuery = hasColor ? """
+            INSERT INTO Todos (state, todoTitle, todoDescription, activityURL, imageURL, expiryDate, ownerUserID, boardID, boardIndex, backgroundColor)
+            VALUES (?,?,?,?,?,?,?,?,(SELECT COALESCE(MAX(boardIndex), 0) + ? FROM Todos WHERE boardID = ?),?)
+            RETURNING todoID, state, todoTitle, todoDescription, activityURL, imageURL, expiryDate, ownerUserID, backgroundColor
+        """ : """
+            INSERT INTO Todos (state, todoTitle, todoDescription, activityURL, imageURL, expiryDate, ownerUserID, boardID, boardIndex)
+            VALUES (?,?,?,?,?,?,?,?,(SELECT COALESCE(MAX(boardIndex), 0) + ? FROM Todos WHERE boardID = ?))
+            RETURNING todoID, state, todoTitle, todoDescription, activityURL, imageURL, expiryDate, ownerUserID, backgroundColor
+        """;
 
-                return resSet.getInt(1);
+        try {
+            boolean ownsTransaction = connection.getAutoCommit();
+            if(ownsTransaction)
+                connection.setAutoCommit(false);
+
+            try(PreparedStatement insertStatement = connection.prepareStatement(insertQuery)) {
+                //Hold the board's lock until the INSERT commits, so that concurrent appends read each other's MAX(boardIndex)
+                this.lockBoard(boardID);
+
+                insertStatement.setBoolean(1, todo.isCompleted());
+                insertStatement.setString(2, todo.getTitle());
+                insertStatement.setString(3, todo.getDescription());
+                insertStatement.setString(4, todo.getActivityURL());
+                insertStatement.setString(5, todo.getImageURL());
+                if(todo.getExpiryDate() != null)
+                    insertStatement.setTimestamp(6, Timestamp.valueOf(todo.getExpiryDate()));
+                else
+                    insertStatement.setNull(6, java.sql.Types.TIMESTAMP);
+                insertStatement.setInt(7, todo.getOwnerUserID());
+                insertStatement.setInt(8, boardID);
+                insertStatement.setLong(9, BOARD_INDEX_GAP);
+                insertStatement.setInt(10, boardID);
+                if(hasColor)
+                    insertStatement.setString(11, todo.getBackgroundColor());
+
+                //Read the new ToDo back from the inserted row, generated ID and defaults included
+                ResultSet res = insertStatement.executeQuery();
+                ToDo added = !res.next() ? null : new ToDo(res.getInt(1), res.getBoolean(2), res.getString(3), res.getString(4), res.getString(5),
+                        res.getString(6), Optional.ofNullable(res.getTimestamp(7)).map(Timestamp::toLocalDateTime).orElse(null), res.getInt(8), res.getString(9));
+
+                if(ownsTransaction)
+                    connection.commit();
+
+                return added;
+            }
+            catch (SQLException e) {
+                if(ownsTransaction)
+                    connection.rollback();
+                throw e;
+            }
+            finally {
+                if(ownsTransaction)
+                    connection.setAutoCommit(true);
             }
         } catch (SQLException e) {
             String code = e.getSQLState();
@@ -129,7 +321,7 @@ public class PostgresToDoDAO implements ToDoDAO {
                 case FOREIGN_KEY_VIOLATION_SQL_STATE -> throw new IllegalArgumentException("No board with the ID " + boardID + " or user with the id " + todo.getOwnerUserID() + " exists");
                 case DUPLICATE_KEY_VALUE_SQL_STATE -> throw new IllegalStateException("A ToDo with the same title exists already for this board");
                 case CONSTAINT_CHECK_VIOLATION_SQL_STATE -> {
-                    if(!todo.getBackgroundColor().matches("^#[0-9A-Fa-f]{6}$"))
+                    if(hasColor && !todo.getBackgroundColor().matches("^#[0-9A-Fa-f]{6}$"))
                         throw new IllegalArgumentException("ToDo background color is not valid, must be in the following format \"#rrggbb\"");
 
                     if (todo.getTitle().isBlank())
@@ -137,7 +329,81 @@ public class PostgresToDoDAO implements ToDoDAO {
                     else
                         throw new IllegalArgumentException("ToDo title is not valid.");
                 }
-                default -> { return -1; }
+                default -> { return null; }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<ToDo> addToDos(List<ToDoDTO> todos, int boardID) {
+        if(todos == null)
+            throw new IllegalArgumentException("The list of ToDos to add cannot be null.");
+        if(todos.isEmpty())
+            return List.of();
+
+        //Split the ToDos by whether they have a background color, those without one must get the column's default
+        ArrayList<ToDoDTO> colored = new ArrayList<>();
+        ArrayList<Long> coloredIndexes = new ArrayList<>();
+        ArrayList<ToDoDTO> uncolored = new ArrayList<>();
+        ArrayList<Long> uncoloredIndexes = new ArrayList<>();
+
+        try {
+            boolean ownsTransaction = connection.getAutoCommit();
+            if(ownsTransaction)
+                connection.setAutoCommit(false);
+
+            try {
+                //Append after the board's last ToDo, one gap apart, holding the board's lock until the INSERT commits
+                this.lockBoard(boardID);
+
+                long lastBoardIndex;
+                try(PreparedStatement lastIndexStatement = connection.prepareStatement("SELECT COALESCE(MAX(boardIndex), 0) FROM Todos WHERE boardID = ?")) {
+                    lastIndexStatement.setInt(1, boardID);
+
+                    ResultSet res = lastIndexStatement.executeQuery();
+                    res.next();
+                    lastBoardIndex = res.getLong(1);
+                }
+
+                for(int i = 0; i < todos.size(); i++) {
+                    ToDoDTO todo = todos.get(i);
+                    boolean hasColor = todo.getBackgroundColor() != null && !todo.getBackgroundColor().isBlank();
+                    (hasColor ? colored : uncolored).add(todo);
+                    (hasColor ? coloredIndexes : uncoloredIndexes).add(lastBoardIndex + (i + 1) * BOARD_INDEX_GAP);
+                }
+
+                //Map the inserted rows back to the list by their board index
+                TreeMap<Long, ToDo> inserted = new TreeMap<>();
+                if(!colored.isEmpty())
+                    this.insertToDoRows(colored, coloredIndexes, boardID, true, inserted);
+                if(!uncolored.isEmpty())
+                    this.insertToDoRows(uncolored, uncoloredIndexes, boardID, false, inserted);
+
+                if(ownsTransaction)
+                    connection.commit();
+
+                return List.copyOf(inserted.values());
+            }
+            catch (SQLException e) {
+                if(ownsTransaction)
+                    connection.rollback();
+                throw e;
+            }
+            finally {
+                if(ownsTransaction)
+                    connection.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            String code = e.getSQLState();
+            switch (code) {
+                case VALUE_TOO_LONG_SQL_STATE -> throw new IllegalArgumentException("The ToDos' titles cannot be longer than 128 characters.");
+                case FOREIGN_KEY_VIOLATION_SQL_STATE -> throw new NoSuchElementException("No board with the ID " + boardID + " or one of the ToDo owners exists");
+                case DUPLICATE_KEY_VALUE_SQL_STATE -> throw new IllegalStateException("Two ToDos have the same title, or a ToDo with the same title exists already for this board");
+                case CONSTAINT_CHECK_VIOLATION_SQL_STATE -> throw new IllegalArgumentException("A ToDo's title or background color is not valid.");
+                default -> { return null; }
             }
         }
     }
@@ -155,7 +421,51 @@ public class PostgresToDoDAO implements ToDoDAO {
             if(res == 0)
                 throw new NoSuchElementException("The target todo (ID: " + todoID + ") does not exist");
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new UnknownPostgresException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void updateToDoCompletionStates(Map<Integer, Boolean> states) {
+        if(states == null)
+            throw new IllegalArgumentException("The ToDos' states cannot be null.");
+        if(states.isEmpty())
+            return;
+
+        final String updateQuery = """
+            UPDATE Todos t SET state = v.state
+            FROM unnest(?::integer[], ?::boolean[]) AS v(todoID, state)
+            WHERE t.todoID = v.todoID
+        """;
+
+        try(PreparedStatement updateStatement = connection.prepareStatement(updateQuery)) {
+            updateStatement.setArray(1, connection.createArrayOf("integer", states.keySet().toArray()));
+            updateStatement.setArray(2, connection.createArrayOf("boolean", states.values().toArray()));
+            updateStatement.executeUpdate();
+        } catch (SQLException e) {
+            throw new UnknownPostgresException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void updateToDosCompletionState(boolean isCompleted, Set<Integer> todoIDs) {
+        if(todoIDs == null)
+            throw new IllegalArgumentException("The ToDos' IDs cannot be null.");
+        if(todoIDs.isEmpty())
+            return;
+
+        try(PreparedStatement updateStatement = connection.prepareStatement("UPDATE Todos SET state=? WHERE todoID = ANY(?::integer[])")) {
+            updateStatement.setBoolean(1, isCompleted);
+            updateStatement.setArray(2, connection.createArrayOf("integer", todoIDs.toArray()));
+            this.executeForAllToDos(updateStatement, todoIDs.size());
+        } catch (SQLException e) {
+            throw new UnknownPostgresException(e);
         }
     }
 
@@ -200,9 +510,10 @@ public class PostgresToDoDAO implements ToDoDAO {
             if(res == 0)
                 throw new NoSuchElementException("The target todo (ID: " + todoID + ") does not exist");
         } catch (SQLException e) {
-            String code = e.getSQLState();
-            if(code.equals(VALUE_TOO_LONG_SQL_STATE))
+            if(VALUE_TOO_LONG_SQL_STATE.equals(e.getSQLState()))
                 throw new IllegalArgumentException("ToDo description cannot be longer than 256 characters.");
+
+            throw new UnknownPostgresException(e);
         }
     }
 
@@ -219,9 +530,10 @@ public class PostgresToDoDAO implements ToDoDAO {
             if(res == 0)
                 throw new NoSuchElementException("The target todo (ID: " + todoID + ") does not exist");
         } catch (SQLException e) {
-            String code = e.getSQLState();
-            if(code.equals(VALUE_TOO_LONG_SQL_STATE))
+            if(VALUE_TOO_LONG_SQL_STATE.equals(e.getSQLState()))
                 throw new IllegalArgumentException("ToDo activity URL cannot be longer than 256 characters.");
+
+            throw new UnknownPostgresException(e);
         }
     }
 
@@ -238,9 +550,10 @@ public class PostgresToDoDAO implements ToDoDAO {
             if(res == 0)
                 throw new NoSuchElementException("The target todo (ID: " + todoID + ") does not exist");
         } catch (SQLException e) {
-            String code = e.getSQLState();
-            if(code.equals(VALUE_TOO_LONG_SQL_STATE))
+            if(VALUE_TOO_LONG_SQL_STATE.equals(e.getSQLState()))
                 throw new IllegalArgumentException("ToDo image URL cannot be longer than 256 characters.");
+
+            throw new UnknownPostgresException(e);
         }
     }
 
@@ -261,7 +574,7 @@ public class PostgresToDoDAO implements ToDoDAO {
             if(res == 0)
                 throw new NoSuchElementException("The target todo (ID: " + todoID + ") does not exist");
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new UnknownPostgresException(e);
         }
     }
 
@@ -287,6 +600,124 @@ public class PostgresToDoDAO implements ToDoDAO {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void updateToDoBackgroundColors(Map<Integer, String> colors) {
+        if(colors == null)
+            throw new IllegalArgumentException("The ToDos' background colors cannot be null.");
+        if(colors.isEmpty())
+            return;
+
+        final String updateQuery = """
+            UPDATE Todos t SET backgroundColor = v.backgroundColor
+            FROM unnest(?::integer[], ?::varchar[]) AS v(todoID, backgroundColor)
+            WHERE t.todoID = v.todoID
+        """;
+
+        try(PreparedStatement updateStatement = connection.prepareStatement(updateQuery)) {
+            updateStatement.setArray(1, connection.createArrayOf("integer", colors.keySet().toArray()));
+            updateStatement.setArray(2, connection.createArrayOf("varchar", colors.values().toArray()));
+            updateStatement.executeUpdate();
+        } catch (SQLException e) {
+            String code = e.getSQLState();
+            switch (code){
+                case VALUE_TOO_LONG_SQL_STATE -> throw new IllegalArgumentException("ToDo background color cannot be longer than 7 characters.");
+                case CONSTAINT_CHECK_VIOLATION_SQL_STATE -> throw new IllegalArgumentException("ToDo background color is not valid, must be in the following format \"#RRGGBB\"");
+                default -> throw new UnknownPostgresException(e);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void updateToDosBackgroundColor(String newColor, Set<Integer> todoIDs) {
+        if(todoIDs == null)
+            throw new IllegalArgumentException("The ToDos' IDs cannot be null.");
+        if(todoIDs.isEmpty())
+            return;
+
+        try(PreparedStatement updateStatement = connection.prepareStatement("UPDATE Todos SET backgroundColor=? WHERE todoID = ANY(?::integer[])")) {
+            updateStatement.setString(1, newColor);
+            updateStatement.setArray(2, connection.createArrayOf("integer", todoIDs.toArray()));
+            this.executeForAllToDos(updateStatement, todoIDs.size());
+        } catch (SQLException e) {
+            String code = e.getSQLState();
+            switch (code){
+                case VALUE_TOO_LONG_SQL_STATE -> throw new IllegalArgumentException("ToDo background color cannot be longer than 7 characters.");
+                case CONSTAINT_CHECK_VIOLATION_SQL_STATE -> throw new IllegalArgumentException("ToDo background color is not valid, must be in the following format \"#RRGGBB\"");
+                default -> throw new UnknownPostgresException(e);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void updateToDo(int todoID, ToDoUpdateDTO changes) {
+        if(changes == null)
+            throw new IllegalArgumentException("The ToDo's changes cannot be null.");
+        if(changes.isEmpty())
+            return;
+
+        //Only the changed columns are set, in the order of ToDoUpdateDTO.Field
+        StringBuilder updateQuery = new StringBuilder("UPDATE Todos SET ");
+        for(ToDoUpdateDTO.Field field : changes.getChangedFields()) {
+            updateQuery.append(switch (field) {
+                case TITLE -> "todoTitle=?, ";
+                case DESCRIPTION -> "todoDescription=?, ";
+                case EXPIRY_DATE -> "expiryDate=?, ";
+                case ACTIVITY_URL -> "activityURL=?, ";
+                case IMAGE_URL -> "imageURL=?, ";
+                case BACKGROUND_COLOR -> "backgroundColor=?, ";
+            });
+        }
+        updateQuery.setLength(updateQuery.length() - 2);
+        updateQuery.append(" WHERE todoID=?");
+
+        try(PreparedStatement updateStatement = connection.prepareStatement(updateQuery.toString())) {
+            int parameterIndex = 1;
+            for(ToDoUpdateDTO.Field field : changes.getChangedFields()) {
+                switch (field) {
+                    case TITLE -> updateStatement.setString(parameterIndex, changes.getTitle());
+                    case DESCRIPTION -> updateStatement.setString(parameterIndex, changes.getDescription());
+                    case EXPIRY_DATE -> {
+                        if(changes.getExpiryDate() != null)
+                            updateStatement.setTimestamp(parameterIndex, Timestamp.valueOf(changes.getExpiryDate()));
+                        else
+                            updateStatement.setNull(parameterIndex, Types.TIMESTAMP);
+                    }
+                    case ACTIVITY_URL -> updateStatement.setString(parameterIndex, changes.getActivityURL());
+                    case IMAGE_URL -> updateStatement.setString(parameterIndex, changes.getImageURL());
+                    case BACKGROUND_COLOR -> updateStatement.setString(parameterIndex, changes.getBackgroundColor());
+                }
+                parameterIndex++;
+            }
+            updateStatement.setInt(parameterIndex, todoID);
+            int res = updateStatement.executeUpdate();
+
+            if(res == 0)
+                throw new NoSuchElementException("The target todo (ID: " + todoID + ") does not exist");
+        } catch (SQLException e) {
+            String code = e.getSQLState();
+            switch (code) {
+                case VALUE_TOO_LONG_SQL_STATE -> throw new IllegalArgumentException("A ToDo attribute is too long.");
+                case DUPLICATE_KEY_VALUE_SQL_STATE -> throw new IllegalStateException("A todo with the same title exists already for this board");
+                case CONSTAINT_CHECK_VIOLATION_SQL_STATE -> {
+                    if(e.getMessage() != null && e.getMessage().contains("todoColorIsRGBHex"))
+                        throw new IllegalArgumentException("ToDo background color is not valid, must be in the following format \"#RRGGBB\"");
+                    else
+                        throw new IllegalArgumentException("ToDo title is not valid.");
+                }
+                default -> throw new UnknownPostgresException(e);
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -298,7 +729,7 @@ public class PostgresToDoDAO implements ToDoDAO {
 
             moveQuery.executeUpdate();
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new UnknownPostgresException(e);
         }
     }
 
@@ -306,55 +737,109 @@ public class PostgresToDoDAO implements ToDoDAO {
      * {@inheritDoc}
      */
     public void moveToDoToBoard(int todoID, int oldBoardID, int newBoardID) {
-        try {
-            if (oldBoardID == newBoardID)
-                return;
+        if (oldBoardID == newBoardID)
+            return;
 
-            //Set auto commit to false in order to avoid cataclysm
-            connection.setAutoCommit(false);
+        //Append after the new board's last ToDo, the hole left in the old board needs no renumbering
+        final String moveQuery = """
+            UPDATE ToDos SET boardID = ?, boardIndex =
+            (SELECT COALESCE(MAX(boardIndex), 0) + ? FROM Todos WHERE boardID = ?)
+            WHERE todoID = ?
+        """;
 
-            final String moveQuery = """
-                UPDATE ToDos SET boardID = ?, boardIndex =
-                (SELECT COUNT(todoID) FROM Todos WHERE boardID = ?)
-                WHERE todoID = ?
-            """;
+        try {
+            boolean ownsTransaction = connection.getAutoCommit();
+            if(ownsTransaction)
+                connection.setAutoCommit(false);
 
-            //Modify ToDo board and index
             try (PreparedStatement moveStatement = connection.prepareStatement(moveQuery)) {
+                //Hold the new board's lock until the UPDATE commits, so that concurrent appends read each other's MAX(boardIndex)
+                this.lockBoard(newBoardID);
+
                 moveStatement.setInt(1, newBoardID);
-                moveStatement.setInt(2, newBoardID);
-                moveStatement.setInt(3, todoID);
+                moveStatement.setLong(2, BOARD_INDEX_GAP);
+                moveStatement.setInt(3, newBoardID);
+                moveStatement.setInt(4, todoID);
 
                 int res = moveStatement.executeUpdate();
                 if (res == 0)
                     throw new NoSuchElementException("The target todo (ID: " + todoID + ") does not exist");
 
-                //Normalize old board index to fill in the hole
-                try (PreparedStatement normalizeStatement = connection.prepareStatement("CALL normalizeBoardIndex(?)")) {
-                    normalizeStatement.setInt(1, oldBoardID);
-                normalizeStatement.executeUpdate();
-
-                connection.commit();
-                }
+                if(ownsTransaction)
+                    connection.commit();
+            }
+            catch (SQLException | RuntimeException e) {
+                if(ownsTransaction)
+                    connection.rollback();
+                throw e;
+            }
+            finally {
+                if(ownsTransaction)
+                    connection.setAutoCommit(true);
             }
         }
         catch (SQLException e) {
-            if(e.getSQLState().equals(DUPLICATE_KEY_VALUE_SQL_STATE))
+            if(DUPLICATE_KEY_VALUE_SQL_STATE.equals(e.getSQLState()))
                 throw new IllegalStateException("You can't move a ToDo to a Noticeboard where a ToDo with the same title exists.");
 
-            try {
-                connection.rollback();
+            throw new UnknownPostgresException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void moveToDosToBoard(Set<Integer> todoIDs, int oldBoardID, int newBoardID) {
+        if(todoIDs == null)
+            throw new IllegalArgumentException("The ToDos' IDs cannot be null.");
+        if(todoIDs.isEmpty() || oldBoardID == newBoardID)
+            return;
+
+        //Append after the new board's last ToDo one gap apart, in the order they had in the old board
+        final String moveQuery = """
+            UPDATE Todos t SET boardID = ?, boardIndex = lastToDo.boardIndex + moved.position * ?
+            FROM (SELECT COALESCE(MAX(boardIndex), 0) AS boardIndex FROM Todos WHERE boardID = ?) AS lastToDo,
+                 (SELECT todoID, ROW_NUMBER() OVER (ORDER BY boardIndex, todoID) AS position
+                  FROM Todos WHERE boardID = ? AND todoID = ANY(?::integer[])) AS moved
+            WHERE t.todoID = moved.todoID
+        """;
+
+        try {
+            boolean ownsTransaction = connection.getAutoCommit();
+            if(ownsTransaction)
+                connection.setAutoCommit(false);
+
+            try (PreparedStatement moveStatement = connection.prepareStatement(moveQuery)) {
+                //Hold the new board's lock until the UPDATE commits, so that concurrent appends read each other's MAX(boardIndex)
+                this.lockBoard(newBoardID);
+
+                moveStatement.setInt(1, newBoardID);
+                moveStatement.setLong(2, BOARD_INDEX_GAP);
+                moveStatement.setInt(3, newBoardID);
+                moveStatement.setInt(4, oldBoardID);
+                moveStatement.setArray(5, connection.createArrayOf("integer", todoIDs.toArray()));
+                this.executeForAllToDos(moveStatement, todoIDs.size());
+
+                if(ownsTransaction)
+                    connection.commit();
             }
-            catch (SQLException e1) {
-                e1.printStackTrace();
+            catch (SQLException | RuntimeException e) {
+                if(ownsTransaction)
+                    connection.rollback();
+                throw e;
             }
-        }
-        finally {
-            try {
-                connection.setAutoCommit(true);
+            finally {
+                if(ownsTransaction)
+                    connection.setAutoCommit(true);
             }
-            catch (SQLException e1) {
-                e1.printStackTrace();
+        }
+        catch (SQLException e) {
+            String code = e.getSQLState();
+            switch (code) {
+                case DUPLICATE_KEY_VALUE_SQL_STATE -> throw new IllegalStateException("You can't move a ToDo to a Noticeboard where a ToDo with the same title exists.");
+                case FOREIGN_KEY_VIOLATION_SQL_STATE -> throw new NoSuchElementException("No board with the ID " + newBoardID + " exists");
+                default -> throw new UnknownPostgresException(e);
             }
         }
     }
@@ -370,7 +855,138 @@ public class PostgresToDoDAO implements ToDoDAO {
             if(res == 0)
                 throw new NoSuchElementException("The target ToDo (ID: " + todoID + ") does not exist");
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new UnknownPostgresException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void removeToDos(Set<Integer> todoIDs) {
+        if(todoIDs == null)
+            throw new IllegalArgumentException("The ToDos' IDs cannot be null.");
+        if(todoIDs.isEmpty())
+            return;
+
+        try(PreparedStatement deleteStatement = connection.prepareStatement("DELETE FROM Todos WHERE todoID = ANY(?::integer[])")) {
+            deleteStatement.setArray(1, connection.createArrayOf("integer", todoIDs.toArray()));
+            this.executeForAllToDos(deleteStatement, todoIDs.size());
+        } catch (SQLException e) {
+            throw new UnknownPostgresException(e);
+        }
+    }
+
+    //Utility methods
+    /**
+     * <p>Runs a statement targeting many ToDos, rolling it back unless it touches all of them.</p>
+     * <p>If the connection is in auto-commit mode the statement runs in its own transaction, otherwise the caller's
+     * transaction is left to be rolled back by the caller.</p>
+     * @param statement the statement
+     * @param todoCount the number of targeted ToDos
+     *
+     * @throws SQLException if the statement fails
+     * @throws NoSuchElementException if one of the targeted ToDos does not exist
+     */
+    private void executeForAllToDos(PreparedStatement statement, int todoCount) throws SQLException {
+        boolean ownsTransaction = connection.getAutoCommit();
+        if(ownsTransaction)
+            connection.setAutoCommit(false);
+
+        try {
+            int res = statement.executeUpdate();
+            if(res != todoCount)
+                throw new NoSuchElementException((todoCount - res) + " of the target ToDos do not exist");
+
+            if(ownsTransaction)
+                connection.commit();
+        }
+        catch (SQLException | RuntimeException e) {
+            if(ownsTransaction)
+                connection.rollback();
+            throw e;
+        }
+        finally {
+            if(ownsTransaction)
+                connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * <p>Locks a Noticeboard's row until the end of the current transaction, as the moveToDo procedure does.</p>
+     * <p>Appends compute the board's next index from MAX(boardIndex), so two concurrent appends to the same board must
+     * not read it before the other one commits.</p>
+     * @param boardID the Noticeboard's ID
+     *
+     * @throws SQLException if the lock cannot be taken
+     */
+    private void lockBoard(int boardID) throws SQLException {
+        try(PreparedStatement lockStatement = connection.prepareStatement("SELECT 1 FROM Noticeboards WHERE boardID = ? FOR UPDATE")) {
+            lockStatement.setInt(1, boardID);
+            lockStatement.executeQuery();
+        }
+    }
+
+    /**
+     * <p>Inserts many ToDos in a single multi-row INSERT, unnesting one array parameter per column.</p>
+     * @param todos the ToDos to insert
+     * @param boardIndexes the board index of each ToDo
+     * @param boardID the target Noticeboard's ID
+     * @param withColor {@code true} to insert the ToDos' background colors, {@code false} to let the column's default apply
+     * @param inserted the map to put the inserted {@link ToDo}s into, keyed by board index
+     *
+     * @throws SQLException if the insert fails
+     */
+    private void insertToDoRows(List<ToDoDTO> todos, List<Long> boardIndexes, int boardID, boolean withColor, Map<Long, ToDo> inserted) throws SQLException {
+        final String insertQuery = withColor ? """
+            INSERT INTO Todos (boardID, state, todoTitle, todoDescription, activityURL, imageURL, expiryDate, ownerUserID, boardIndex, backgroundColor)
+            SELECT ?, newRows.* FROM unnest(?::boolean[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::timestamp[], ?::integer[], ?::bigint[], ?::varchar[]) AS newRows
+            RETURNING todoID, state, todoTitle, todoDescription, activityURL, imageURL, expiryDate, ownerUserID, backgroundColor, boardIndex
+        """ : """
+            INSERT INTO Todos (boardID, state, todoTitle, todoDescription, activityURL, imageURL, expiryDate, ownerUserID, boardIndex)
+            SELECT ?, newRows.* FROM unnest(?::boolean[], ?::varchar[], ?::varchar[], ?::varchar[], ?::varchar[], ?::timestamp[], ?::integer[], ?::bigint[]) AS newRows
+            RETURNING todoID, state, todoTitle, todoDescription, activityURL, imageURL, expiryDate, ownerUserID, backgroundColor, boardIndex
+        """;
+
+        int count = todos.size();
+        Boolean[] states = new Boolean[count];
+        String[] titles = new String[count];
+        String[] descriptions = new String[count];
+        String[] activityURLs = new String[count];
+        String[] imageURLs = new String[count];
+        Timestamp[] expiryDates = new Timestamp[count];
+        Integer[] owners = new Integer[count];
+        Long[] indexes = boardIndexes.toArray(new Long[0]);
+        String[] colors = new String[count];
+        for(int i = 0; i < count; i++) {
+            ToDoDTO todo = todos.get(i);
+            states[i] = todo.isCompleted();
+            titles[i] = todo.getTitle();
+            descriptions[i] = todo.getDescription();
+            activityURLs[i] = todo.getActivityURL();
+            imageURLs[i] = todo.getImageURL();
+            expiryDates[i] = todo.getExpiryDate() != null ? Timestamp.valueOf(todo.getExpiryDate()) : null;
+            owners[i] = todo.getOwnerUserID();
+            colors[i] = todo.getBackgroundColor();
+        }
+
+        try(PreparedStatement insertStatement = connection.prepareStatement(insertQuery)) {
+            insertStatement.setInt(1, boardID);
+            insertStatement.setArray(2, connection.createArrayOf("boolean", states));
+            insertStatement.setArray(3, connection.createArrayOf("varchar", titles));
+            insertStatement.setArray(4, connection.createArrayOf("varchar", descriptions));
+            insertStatement.setArray(5, connection.createArrayOf("varchar", activityURLs));
+            insertStatement.setArray(6, connection.createArrayOf("varchar", imageURLs));
+            insertStatement.setArray(7, connection.createArrayOf("timestamp", expiryDates));
+            insertStatement.setArray(8, connection.createArrayOf("integer", owners));
+            insertStatement.setArray(9, connection.createArrayOf("bigint", indexes));
+            if(withColor)
+                insertStatement.setArray(10, connection.createArrayOf("varchar", colors));
+
+            ResultSet res = insertStatement.executeQuery();
+            while(res.next())
+                inserted.put(res.getLong(10), new ToDo(res.getInt(1), res.getBoolean(2), res.getString(3), res.getString(4), res.getString(5),
+                        res.getString(6), Optional.ofNullable(res.getTimestamp(7)).map(Timestamp::toLocalDateTime).orElse(null), res.getInt(8), res.getString(9)));
         }
     }
 }
\ No newline at end of file
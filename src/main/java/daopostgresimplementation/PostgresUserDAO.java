@@ -1,6 +1,11 @@
 package daopostgresimplementation;
 
 //Java imports
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.Map;
 import java.util.TreeMap;
 import java.sql.ResultSet;
@@ -10,6 +15,8 @@ import java.sql.SQLException;
 
 //App imports
 import dao.UserDAO;
+import model.Noticeboard;
+import model.ToDo;
 import model.User;
 
 /**
@@ -31,19 +38,13 @@ public class PostgresUserDAO implements UserDAO {
      */
     @Override
     public int registerUser(String username, String password){
-        try(PreparedStatement s = connection.prepareStatement("INSERT INTO Users (username, password) VALUES (?,?)")) {
+        try(PreparedStatement s = connection.prepareStatement("INSERT INTO Users (username, password) VALUES (?,?) RETURNING userID")) {
             s.setString(1, username);
             s.setString(2, password);
-            s.executeUpdate();
 
-            //Get the new user's ID
-            PreparedStatement userIDStatement = connection.prepareStatement("SELECT userID FROM Users WHERE username=?");
-            userIDStatement.setString(1, username);
-
-            ResultSet resSet = userIDStatement.executeQuery();
-            resSet.next();
-
-            return resSet.getInt(1); //Returns userID
+            //Get the new user's ID from the inserted row
+            ResultSet resSet = s.executeQuery();
+            return resSet.next() ? resSet.getInt(1) : -1; //Returns userID
         } catch (SQLException e) {
             String code = e.getSQLState();
             switch (code){
@@ -132,4 +133,192 @@ public class PostgresUserDAO implements UserDAO {
             return null;
         }
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public User loadUserByUserID(int userID) {
+        //Build the whole User tree as a single JSON document on the server
+        final String userTreeQuery = """
+            SELECT json_build_object(
+                'userID', u.userID, 'username', u.username, 'password', u.password,
+                'boards', COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'boardID', b.boardID, 'title', b.boardTitle, 'description', b.boardDescription, 'userID', b.userID,
+                        'todos', COALESCE((
+                            SELECT json_agg(json_build_object(
+                                'todoID', t.todoID, 'completed', t.state, 'title', t.todoTitle,
+                                'hasDetails', (t.todoDescription <> '' OR t.activityURL <> '' OR t.imageURL <> ''), 'expiryDate', t.expiryDate,
+                                'ownerUserID', t.ownerUserID, 'backgroundColor', t.backgroundColor,
+                                'sharedUsers', COALESCE((
+                                    SELECT json_agg(su.username ORDER BY su.username)
+                                    FROM Sharing s JOIN Users su ON su.userID = s.userID
+                                    WHERE s.todoID = t.todoID), '[]'::json)
+                            ) ORDER BY t.boardIndex, t.todoID)
+                            FROM Todos t WHERE t.boardID = b.boardID), '[]'::json)
+                    ) ORDER BY b.boardID)
+                    FROM Noticeboards b WHERE b.userID = u.userID), '[]'::json),
+                'sharedBoards', COALESCE((
+                    SELECT json_agg(json_build_object(
+                        'boardID', b.boardID, 'title', b.boardTitle, 'description', b.boardDescription, 'userID', b.userID,
+                        'todos', (
+                            SELECT json_agg(json_build_object(
+                                'todoID', t.todoID, 'completed', t.state, 'title', t.todoTitle,
+                                'hasDetails', (t.todoDescription <> '' OR t.activityURL <> '' OR t.imageURL <> ''), 'expiryDate', t.expiryDate,
+                                'ownerUserID', t.ownerUserID, 'backgroundColor', t.backgroundColor,
+                                'sharedUsers', json_build_array(u.username)
+                            ) ORDER BY t.boardIndex, t.todoID)
+                            FROM Todos t JOIN Sharing s ON s.todoID = t.todoID
+                            WHERE t.boardID = b.boardID AND s.userID = u.userID)
+                    ) ORDER BY b.boardID)
+                    FROM Noticeboards b
+                    WHERE b.boardID IN (SELECT t.boardID FROM Todos t JOIN Sharing s ON s.todoID = t.todoID WHERE s.userID = u.userID)), '[]'::json)
+            )
+            FROM Users u
+            WHERE u.userID = ?
+        """;
+
+        try(PreparedStatement s = connection.prepareStatement(userTreeQuery)) {
+            s.setInt(1, userID);
+
+            ResultSet res = s.executeQuery();
+            if(!res.next())
+                return null;
+
+            //Hydrate the model while the document streams in
+            try(JsonReader reader = new JsonReader(res.getCharacterStream(1))) {
+                return this.readUser(reader);
+            }
+        } catch (SQLException | IOException | IllegalArgumentException | DateTimeParseException _) {
+            return null;
+        }
+    }
+
+    //Utility methods
+    /**
+     * <p>Reads a User object, and all its nested Noticeboards, from a JSON document.</p>
+     * @param reader the JSON reader, positioned on the User object
+     * @return the User
+     *
+     * @throws IOException if the document is malformed
+     */
+    private User readUser(JsonReader reader) throws IOException {
+        int id = -1;
+        String username = null;
+        String password = null;
+        User user = null;
+
+        reader.beginObject();
+        while(reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "userID" -> id = reader.nextInt();
+                case "username" -> username = reader.nextString();
+                case "password" -> password = reader.nextString();
+                case "boards", "sharedBoards" -> {
+                    //The metadata members precede the board arrays
+                    if(user == null)
+                        user = new User(id, username, password);
+
+                    reader.beginArray();
+                    while(reader.hasNext())
+                        user.addNoticeboard(this.readNoticeboard(reader));
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return user != null ? user : new User(id, username, password);
+    }
+
+    /**
+     * <p>Reads a Noticeboard object, and all its nested ToDos, from a JSON document.</p>
+     * @param reader the JSON reader, positioned on the Noticeboard object
+     * @return the Noticeboard
+     *
+     * @throws IOException if the document is malformed
+     */
+    private Noticeboard readNoticeboard(JsonReader reader) throws IOException {
+        int id = -1;
+        String title = null;
+        String description = null;
+        int ownerID = -1;
+        Noticeboard board = null;
+
+        reader.beginObject();
+        while(reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "boardID" -> id = reader.nextInt();
+                case "title" -> title = reader.nextString();
+                case "description" -> description = reader.nextString();
+                case "userID" -> ownerID = reader.nextInt();
+                case "todos" -> {
+                    //The metadata members precede the ToDo array
+                    if(board == null)
+                        board = new Noticeboard(id, title, description, ownerID);
+
+                    if(reader.peek() == JsonReader.Token.NULL)
+                        reader.nextNull();
+                    else {
+                        reader.beginArray();
+                        while(reader.hasNext())
+                            board.addToDo(this.readToDo(reader));
+                        reader.endArray();
+                    }
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        return board != null ? board : new Noticeboard(id, title, description, ownerID);
+    }
+
+    /**
+     * <p>Reads a ToDo object, and its sharing usernames, from a JSON document.</p>
+     * @param reader the JSON reader, positioned on the ToDo object
+     * @return the ToDo
+     *
+     * @throws IOException if the document is malformed
+     */
+    private ToDo readToDo(JsonReader reader) throws IOException {
+        int id = -1;
+        boolean completed = false;
+        String title = null;
+        boolean hasDetails = false;
+        String expiryDate = null;
+        int ownerID = -1;
+        String backgroundColor = null;
+        ArrayList<String> sharedUsers = new ArrayList<>();
+
+        reader.beginObject();
+        while(reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "todoID" -> id = reader.nextInt();
+                case "completed" -> completed = reader.nextBoolean();
+                case "title" -> title = reader.nextString();
+                case "hasDetails" -> hasDetails = reader.nextBoolean();
+                case "expiryDate" -> expiryDate = reader.nextString();
+                case "ownerUserID" -> ownerID = reader.nextInt();
+                case "backgroundColor" -> backgroundColor = reader.nextString();
+                case "sharedUsers" -> {
+                    reader.beginArray();
+                    while(reader.hasNext())
+                        sharedUsers.add(reader.nextString());
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        //Timestamps are serialized by PostgreSQL in ISO 8601 format, without a time zone
+        ToDo todo = new ToDo(id, completed, title, hasDetails,
+                expiryDate != null ? LocalDateTime.parse(expiryDate) : null, ownerID, backgroundColor);
+        sharedUsers.forEach(todo::addSharedUser);
+
+        return todo;
+    }
 }
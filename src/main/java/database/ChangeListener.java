@@ -0,0 +1,216 @@
+package database;
+
+//Java imports
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+
+/**
+ * <p>Listens, on a dedicated connection outside of the {@link ConnectionPool}, for the change notifications sent by the Database's triggers.</p>
+ * <p>The notifications received in a single poll are decoded and handed to the handler as one batch, on the given callback {@link Executor}.
+ * The notifications sent by the App's own connections are dropped, as the App applied those changes already.
+ * If the connection is lost, the listener reconnects with an increasing delay and then reports that changes may have been missed.</p>
+ */
+public class ChangeListener implements AutoCloseable {
+    /**
+     * <p>The kinds of entity a change notification can refer to.</p>
+     */
+    public enum EntityType {
+        //A Noticeboard was inserted, updated or deleted
+        NOTICEBOARD,
+        //A ToDo was inserted, updated or deleted
+        TODO,
+        //A ToDo was shared or unshared with a User
+        SHARING,
+        //Notifications may have been missed, anything may have changed
+        UNKNOWN
+    }
+
+    /**
+     * <p>A decoded change notification.</p>
+     * @param entityType the kind of the changed entity
+     * @param boardID the ID of the Noticeboard the change belongs to, {@code 0} if unknown
+     * @param todoID the ID of the changed ToDo, {@code 0} for Noticeboard changes and for ToDo deletions, which are notified per Noticeboard
+     * @param userID the owner's ID for Noticeboard and ToDo changes, the ID of the User the ToDo is shared with for sharing changes
+     */
+    public record Change(EntityType entityType, int boardID, int todoID, int userID) { }
+
+    //Connection settings
+    private final String url;
+    private final String username;
+    private final String password;
+
+    private final Consumer<List<Change>> handler;
+    private final Executor callbackExecutor;
+    private final IntPredicate isOwnBackend;
+
+    private final Thread listenerThread;
+    private volatile boolean closed;
+    private volatile Connection connection;
+
+    /* package */ static final String CHANNEL = "applicativo_changes";
+    private static final int POLL_TIMEOUT_MILLIS = 1_000;
+    private static final long MIN_RECONNECT_DELAY_MILLIS = 1_000;
+    private static final long MAX_RECONNECT_DELAY_MILLIS = 30_000;
+
+    /**
+     * <p>Instantiates a new ChangeListener and starts listening.</p>
+     * @param url the JDBC URL of the database
+     * @param username the database username
+     * @param password the database password
+     * @param handler the handler of the decoded change batches
+     * @param callbackExecutor the {@link Executor} the handler is run on
+     * @param isOwnBackend tells whether a notifying server process serves one of the App's own connections
+     */
+    /* package */ ChangeListener(String url, String username, String password, Consumer<List<Change>> handler, Executor callbackExecutor, IntPredicate isOwnBackend) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+
+        this.handler = handler;
+        this.callbackExecutor = callbackExecutor;
+        this.isOwnBackend = isOwnBackend;
+        this.closed = false;
+
+        //Listen on a daemon thread, so that it never keeps the App alive
+        this.listenerThread = new Thread(this::listen, "ChangeListener");
+        this.listenerThread.setDaemon(true);
+        this.listenerThread.start();
+    }
+
+    //Methods
+    /**
+     * <p>Stops listening and closes the dedicated connection.</p>
+     */
+    @Override
+    public void close() {
+        closed = true;
+        listenerThread.interrupt();
+        this.closeConnection();
+    }
+
+    //Utility methods
+    /**
+     * <p>Polls the notifications until the listener is closed, reconnecting whenever the connection is lost.</p>
+     */
+    private void listen() {
+        long reconnectDelay = MIN_RECONNECT_DELAY_MILLIS;
+        boolean reconnecting = false;
+
+        while(!closed) {
+            try {
+                this.openConnection();
+                reconnectDelay = MIN_RECONNECT_DELAY_MILLIS;
+
+                //Whatever happened while disconnected was not notified
+                if(reconnecting)
+                    this.dispatch(List.of(new Change(EntityType.UNKNOWN, 0, 0, 0)));
+                reconnecting = true;
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while(!closed) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MILLIS);
+                    if(notifications == null || notifications.length == 0)
+                        continue;
+
+                    List<Change> changes = new ArrayList<>(notifications.length);
+                    for(PGNotification notification : notifications) {
+                        if(isOwnBackend.test(notification.getPID()))
+                            continue;
+
+                        Change change = decode(notification.getParameter());
+                        if(change != null)
+                            changes.add(change);
+                    }
+
+                    if(!changes.isEmpty())
+                        this.dispatch(changes);
+                }
+            }
+            catch (SQLException sqlex) {
+                if(closed)
+                    return;
+                Logger.getLogger(ChangeListener.class.getName()).log(Level.WARNING, "Lost the change notification connection, reconnecting in " + reconnectDelay + "ms.", sqlex);
+            }
+            finally {
+                this.closeConnection();
+            }
+
+            try {
+                Thread.sleep(reconnectDelay);
+            }
+            catch (InterruptedException _) {
+                return; //Interrupted by close()
+            }
+            reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY_MILLIS);
+        }
+    }
+
+    private void openConnection() throws SQLException {
+        connection = DriverManager.getConnection(url, username, password);
+        try (Statement listenStatement = connection.createStatement()) {
+            listenStatement.execute("LISTEN " + CHANNEL);
+        }
+    }
+
+    private void closeConnection() {
+        Connection toClose = connection;
+        connection = null;
+        if(toClose == null)
+            return;
+
+        try {
+            toClose.close();
+        } catch (SQLException _) {
+            //The connection is being discarded anyway
+        }
+    }
+
+    private void dispatch(List<Change> changes) {
+        callbackExecutor.execute(() -> {
+            if(!closed)
+                handler.accept(changes);
+        });
+    }
+
+    /**
+     * <p>Decodes a notification payload in the {@code <entityType>:<boardID>:<todoID>:<userID>} format.</p>
+     * @param payload the payload
+     * @return the decoded {@link Change}, {@code null} if the payload is malformed
+     */
+    private static Change decode(String payload) {
+        if(payload == null)
+            return null;
+
+        String[] fields = payload.split(":");
+        if(fields.length != 4)
+            return null;
+
+        EntityType entityType = switch (fields[0]) {
+            case "B" -> EntityType.NOTICEBOARD;
+            case "T" -> EntityType.TODO;
+            case "S" -> EntityType.SHARING;
+            default -> null;
+        };
+        if(entityType == null)
+            return null;
+
+        try {
+            return new Change(entityType, Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), Integer.parseInt(fields[3]));
+        } catch (NumberFormatException _) {
+            return null;
+        }
+    }
+}
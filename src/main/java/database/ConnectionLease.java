@@ -0,0 +1,57 @@
+package database;
+
+//Java imports
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>A {@link Connection} leased from the {@link ConnectionPool}, meant to be used in a try-with-resources statement.</p>
+ * <p>Closing the lease gives the connection back to the pool, unless the connection belongs to a {@link UnitOfWork}.</p>
+ */
+public final class ConnectionLease implements AutoCloseable {
+    private final Connection connection;
+    private final boolean shared; //Shared leases leave the connection to its UnitOfWork
+
+    /**
+     * <p>Instantiates a new ConnectionLease.</p>
+     * @param connection the leased connection
+     */
+    /* package */ ConnectionLease(Connection connection) {
+        this(connection, false);
+    }
+
+    /**
+     * <p>Instantiates a new ConnectionLease.</p>
+     * @param connection the leased connection
+     * @param shared {@code true} if the connection belongs to a {@link UnitOfWork} and must not be given back on close
+     */
+    /* package */ ConnectionLease(Connection connection, boolean shared) {
+        this.connection = connection;
+        this.shared = shared;
+    }
+
+    //Getters
+    /**
+     * <p>Gets the leased {@link Connection}.</p>
+     * @return the connection
+     */
+    public Connection getConnection() { return connection; }
+
+    //Methods
+    /**
+     * <p>Gives the leased connection back to the pool, if it is not shared.</p>
+     */
+    @Override
+    public void close() {
+        if(shared)
+            return;
+
+        try {
+            connection.close();
+        } catch (SQLException sqlex) {
+            Logger.getLogger(ConnectionLease.class.getName()).log(Level.WARNING, "Could not give the connection back to the pool.", sqlex);
+        }
+    }
+}
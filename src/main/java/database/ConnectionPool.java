@@ -0,0 +1,353 @@
+package database;
+
+//Java imports
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>A bounded pool of physical JDBC {@link Connection}s to the PostgreSQL database.</p>
+ * <p>Connections are leased with {@link #lease()} and go back to the pool when the leased {@link Connection} is closed.
+ * Idle connections are validated before being leased again and are evicted once they stay idle for too long.</p>
+ */
+public class ConnectionPool implements AutoCloseable {
+    /**
+     * <p>A point-in-time snapshot of the pool's state and lease/return counters.</p>
+     * @param openConnections the count of physical connections currently open (idle + leased)
+     * @param idleConnections the count of idle connections
+     * @param leasedConnections the count of leased connections
+     * @param leaseCount the total count of successful leases
+     * @param returnCount the total count of connections returned to the pool
+     * @param createdCount the total count of physical connections opened
+     * @param evictedCount the total count of idle connections evicted
+     * @param validationFailureCount the total count of idle connections discarded because they failed validation
+     * @param leaseTimeoutCount the total count of leases that timed out waiting for a free connection
+     * @param statementCacheHits the total count of prepared statements reused from a connection's statement cache
+     * @param statementCacheMisses the total count of prepared statements that had to be prepared anew
+     * @param statementCacheEvictions the total count of prepared statements evicted from a statement cache
+     */
+    public record Statistics(int openConnections, int idleConnections, int leasedConnections,
+                             long leaseCount, long returnCount, long createdCount,
+                             long evictedCount, long validationFailureCount, long leaseTimeoutCount,
+                             long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) { }
+
+    //Connection settings
+    private final String url;
+    private final String username;
+    private final String password;
+
+    //Pool settings
+    private final int maxSize;
+    private final long leaseTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final int STATEMENT_CACHE_CAPACITY = 64;
+
+    //Pool state, guarded by lock (a ReentrantLock rather than synchronized, so that waiting virtual threads do not pin their carrier)
+    private final ReentrantLock lock;
+    private final Condition connectionAvailable;
+    private final ArrayDeque<PooledConnection> idleConnections;
+    private int openConnections;
+    private boolean closed;
+
+    private final Set<Integer> backendPIDs; //The server PIDs of the open physical connections, read without the lock
+
+    private final ScheduledExecutorService evictor;
+
+    //Statistics counters, guarded by lock
+    private long leaseCount;
+    private long returnCount;
+    private long createdCount;
+    private long evictedCount;
+    private long validationFailureCount;
+    private long leaseTimeoutCount;
+    private final StatementCache.Counters statementCacheCounters;
+
+    /**
+     * <p>Instantiates a new, empty, ConnectionPool. Physical connections are opened on demand.</p>
+     * @param url the JDBC URL of the database
+     * @param username the database username
+     * @param password the database password
+     * @param maxSize the maximum count of physical connections the pool can open
+     * @param leaseTimeoutMillis how long {@link #lease()} waits for a free connection, in milliseconds
+     * @param idleTimeoutMillis how long a connection can stay idle before being evicted, in milliseconds
+     *
+     * @throws IllegalArgumentException if {@code maxSize}, {@code leaseTimeoutMillis} or {@code idleTimeoutMillis} are not positive
+     */
+    public ConnectionPool(String url, String username, String password, int maxSize, long leaseTimeoutMillis, long idleTimeoutMillis) {
+        if(maxSize <= 0)
+            throw new IllegalArgumentException("The pool size must be positive");
+        if(leaseTimeoutMillis <= 0 || idleTimeoutMillis <= 0)
+            throw new IllegalArgumentException("The pool timeouts must be positive");
+
+        this.url = url;
+        this.username = username;
+        this.password = password;
+
+        this.maxSize = maxSize;
+        this.leaseTimeoutMillis = leaseTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+
+        this.lock = new ReentrantLock();
+        this.connectionAvailable = lock.newCondition();
+        this.idleConnections = new ArrayDeque<>();
+        this.openConnections = 0;
+        this.closed = false;
+        this.statementCacheCounters = new StatementCache.Counters();
+        this.backendPIDs = ConcurrentHashMap.newKeySet();
+
+        //Schedule the idle connection evictor on a daemon thread, so that it never keeps the App alive
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ConnectionPool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long evictionPeriod = Math.max(1, idleTimeoutMillis / 2);
+        this.evictor.scheduleWithFixedDelay(this::evictIdleConnections, evictionPeriod, evictionPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    //Methods
+    /**
+     * <p>Leases a connection from the pool, opening a new physical connection if none is idle and the pool is not full.</p>
+     * <p>The leased {@link Connection} must be closed in order to give it back to the pool.</p>
+     * @return the leased connection
+     *
+     * @throws SQLException if the pool is closed, if no connection became free before the lease timeout or if a new connection could not be opened
+     */
+    public Connection lease() throws SQLException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(leaseTimeoutMillis);
+
+        while(true) {
+            PooledConnection candidate = null;
+            boolean shouldOpen = false;
+
+            lock.lock();
+            try {
+                while(candidate == null && !shouldOpen) {
+                    if(closed)
+                        throw new SQLException("The connection pool is closed");
+
+                    candidate = idleConnections.pollFirst(); //LIFO, the most recently used connection is the most likely to be still valid
+                    if(candidate == null && openConnections < maxSize) {
+                        openConnections++; //Reserve a slot for the new connection
+                        shouldOpen = true;
+                    }
+                    else if(candidate == null) {
+                        long remaining = deadline - System.nanoTime();
+                        if(remaining <= 0) {
+                            leaseTimeoutCount++;
+                            throw new SQLException("Timed out after " + leaseTimeoutMillis + "ms waiting for a free database connection");
+                        }
+                        connectionAvailable.awaitNanos(remaining);
+                    }
+                }
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a free database connection", e);
+            }
+            finally {
+                lock.unlock();
+            }
+
+            //Open or validate the connection outside the lock, both involve a round trip to the database
+            if(shouldOpen)
+                return this.openConnection();
+
+            if(candidate.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                lock.lock();
+                try {
+                    leaseCount++;
+                } finally {
+                    lock.unlock();
+                }
+                return candidate.lease();
+            }
+
+            //Discard the invalid connection and try again
+            this.discard(candidate, true);
+        }
+    }
+
+    /**
+     * <p>Gets a snapshot of the pool's statistics.</p>
+     * @return the pool's {@link Statistics}
+     */
+    public Statistics getStatistics() {
+        lock.lock();
+        try {
+            int idle = idleConnections.size();
+            return new Statistics(openConnections, idle, openConnections - idle,
+                    leaseCount, returnCount, createdCount, evictedCount, validationFailureCount, leaseTimeoutCount,
+                    statementCacheCounters.getHits(), statementCacheCounters.getMisses(), statementCacheCounters.getEvictions());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * <p>Checks whether a server process serves one of the pool's connections.</p>
+     * <p>Used to tell the Database notifications caused by this App's own writes, which the App applied already.</p>
+     * @param backendPID the PID of the server process
+     * @return {@code true} if one of the pool's open connections is served by the process, {@code false} otherwise
+     */
+    public boolean isPoolBackend(int backendPID) {
+        return backendPID != 0 && backendPIDs.contains(backendPID);
+    }
+
+    /**
+     * <p>Closes the pool and all of its idle connections. Leased connections are closed when they are returned.</p>
+     */
+    @Override
+    public void close() {
+        List<PooledConnection> toClose;
+
+        lock.lock();
+        try {
+            if(closed)
+                return;
+
+            closed = true;
+            toClose = new ArrayList<>(idleConnections);
+            openConnections -= idleConnections.size();
+            idleConnections.clear();
+            connectionAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        evictor.shutdownNow();
+        toClose.forEach(this::closePhysical);
+    }
+
+    /**
+     * <p>Gives a leased connection back to the pool, resetting its session state.</p>
+     * <p>Called by {@link PooledConnection} when the leased {@link Connection} is closed.</p>
+     * @param connection the returned connection
+     */
+    /* package */ void release(PooledConnection connection) {
+        boolean reusable = !closed && connection.resetSessionState();
+
+        lock.lock();
+        try {
+            returnCount++;
+            if(reusable && !closed) {
+                idleConnections.offerFirst(connection);
+                connectionAvailable.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        this.discard(connection, false);
+    }
+
+    //Utility methods
+    /**
+     * <p>Opens a new physical connection in a slot previously reserved by {@link #lease()}.</p>
+     * @return the leased connection
+     *
+     * @throws SQLException if the connection could not be opened
+     */
+    private Connection openConnection() throws SQLException {
+        try {
+            PooledConnection connection = new PooledConnection(this, DriverManager.getConnection(url, username, password),
+                    STATEMENT_CACHE_CAPACITY, statementCacheCounters);
+            backendPIDs.add(connection.getBackendPID());
+
+            lock.lock();
+            try {
+                createdCount++;
+                leaseCount++;
+            } finally {
+                lock.unlock();
+            }
+
+            return connection.lease();
+        }
+        catch (SQLException | RuntimeException e) {
+            //Give back the reserved slot
+            lock.lock();
+            try {
+                openConnections--;
+                connectionAvailable.signal();
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * <p>Closes a physical connection and frees its slot in the pool.</p>
+     * @param connection the connection to discard
+     * @param failedValidation {@code true} if the connection is discarded because it failed validation
+     */
+    private void discard(PooledConnection connection, boolean failedValidation) {
+        this.closePhysical(connection);
+
+        lock.lock();
+        try {
+            openConnections--;
+            if(failedValidation)
+                validationFailureCount++;
+            connectionAvailable.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * <p>Evicts the connections that have been idle for longer than the idle timeout.</p>
+     */
+    private void evictIdleConnections() {
+        List<PooledConnection> evicted = new ArrayList<>();
+        long now = System.currentTimeMillis();
+
+        lock.lock();
+        try {
+            Iterator<PooledConnection> it = idleConnections.descendingIterator(); //The least recently used connections are at the tail
+            while(it.hasNext()) {
+                PooledConnection connection = it.next();
+                if(now - connection.getLastReturnedMillis() < idleTimeoutMillis)
+                    break;
+
+                it.remove();
+                evicted.add(connection);
+            }
+
+            openConnections -= evicted.size();
+            evictedCount += evicted.size();
+        } finally {
+            lock.unlock();
+        }
+
+        evicted.forEach(this::closePhysical);
+        if(!evicted.isEmpty())
+            Logger.getLogger(ConnectionPool.class.getName()).log(Level.FINE, "Evicted {0} idle database connection(s).", evicted.size());
+    }
+
+    /**
+     * <p>Closes a physical connection, forgetting its server PID first, as the server may hand the PID to another client.</p>
+     * @param connection the connection to close
+     */
+    private void closePhysical(PooledConnection connection) {
+        backendPIDs.remove(connection.getBackendPID());
+        connection.closePhysical();
+    }
+}
@@ -1,62 +1,140 @@
 package database;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+//App imports
+import database.migration.MigrationRunner;
+
 /**
  * <p>The DatabaseConnection, acts as an interface between the Database's state and the Data Access Object classes.</p>
+ * <p>Connections are leased from a bounded {@link ConnectionPool}, so that independent operations do not have to share a single connection.</p>
  */
 public class DatabaseConnection {
     private static DatabaseConnection instance;
 
-    private static Connection connection = null;
+    private final ConnectionPool pool;
+    private final ThreadLocal<UnitOfWork> currentUnitOfWork;
 
     private static final String POSTGRES_USERNAME = "postgres";
     private static final String POSTGRES_PASSWORD = "password";
     private static final String POSTGRES_URL = "jdbc:postgresql://localhost:5432/postgres";
     private static final String DRIVER = "org.postgresql.Driver";
 
+    //Pool settings
+    private static final int POOL_MAX_SIZE = 8;
+    private static final long POOL_LEASE_TIMEOUT_MILLIS = 10_000;
+    private static final long POOL_IDLE_TIMEOUT_MILLIS = 5 * 60_000L;
+
     /**
-     * <p>Private Constructor for DatabaseConnection, sets up a PostgreSQL driver and tries to get a connection.</p>
+     * <p>Private Constructor for DatabaseConnection, sets up a PostgreSQL driver and the connection pool, then applies the pending schema migrations.</p>
+     *
+     * @throws IllegalStateException if the schema could not be brought up to date, the DAOs cannot work on an outdated schema
      */
     private DatabaseConnection() {
         try {
             Class.forName(DRIVER);
-            connection = DriverManager.getConnection(POSTGRES_URL, POSTGRES_USERNAME, POSTGRES_PASSWORD);
-        }
-        catch (SQLException sqlex){
-            Logger.getLogger(DatabaseConnection.class.getName()).log(Level.SEVERE, "Could not connect to the PostgreSQL database.", sqlex);
         } catch (ClassNotFoundException e) {
             Logger.getLogger(DatabaseConnection.class.getName()).log(Level.SEVERE, "Could not find JDBC driver.");
         }
+
+        currentUnitOfWork = new ThreadLocal<>();
+        pool = new ConnectionPool(POSTGRES_URL, POSTGRES_USERNAME, POSTGRES_PASSWORD, POOL_MAX_SIZE, POOL_LEASE_TIMEOUT_MILLIS, POOL_IDLE_TIMEOUT_MILLIS);
+
+        //Bring the schema up to date before any DAO uses it
+        try (Connection connection = pool.lease()) {
+            new MigrationRunner(connection).migrate();
+        } catch (SQLException sqlex) {
+            Logger.getLogger(DatabaseConnection.class.getName()).log(Level.SEVERE, "Could not migrate the PostgreSQL database schema.", sqlex);
+            pool.close();
+            throw new IllegalStateException("Could not migrate the PostgreSQL database schema.", sqlex);
+        }
     }
 
     /**
      * <p>Gets the singleton instance.</p>
      * @return the DatabaseConnection singleton instance
+     *
+     * @throws IllegalStateException if the instance could not be set up, see {@link #DatabaseConnection()}
      */
-    public static DatabaseConnection getInstance() {
+    public static synchronized DatabaseConnection getInstance() {
         if (instance == null)
             instance = new DatabaseConnection();
-        else {
-            try {
-                if (DatabaseConnection.connection.isClosed())
-                    instance = new DatabaseConnection();
-            } catch (SQLException sqlex) {
-                Logger.getLogger(DatabaseConnection.class.getName()).log(Level.SEVERE, "Could not connect to the PostgreSQL database.", sqlex);
-            }
-        }
+
         return instance;
     }
 
     /**
-     * Gets the {@link Connection} associated with the driver.
-     * @return the connection
+     * <p>Leases a connection from the pool, the lease must be closed to give the connection back.</p>
+     * <p>While the calling thread has a {@link UnitOfWork} open, its connection is leased instead, so that the DAOs join its transaction.</p>
+     * @return the {@link ConnectionLease}
+     *
+     * @throws IllegalStateException if no connection to the PostgreSQL database could be leased
+     */
+    public ConnectionLease leaseConnection() {
+        UnitOfWork unitOfWork = currentUnitOfWork.get();
+        if(unitOfWork != null)
+            return unitOfWork.share();
+
+        try {
+            return new ConnectionLease(pool.lease());
+        }
+        catch (SQLException sqlex) {
+            Logger.getLogger(DatabaseConnection.class.getName()).log(Level.SEVERE, "Could not connect to the PostgreSQL database.", sqlex);
+            throw new IllegalStateException("Could not connect to the PostgreSQL database.", sqlex);
+        }
+    }
+
+    /**
+     * <p>Opens a {@link UnitOfWork} bound to the calling thread, whose transaction every connection leased by the thread joins until it is closed.</p>
+     * @return the {@link UnitOfWork}, which must be committed and then closed
+     *
+     * @throws IllegalStateException if the calling thread has a unit of work open already, or if no connection could be leased
+     */
+    public UnitOfWork beginUnitOfWork() {
+        if(currentUnitOfWork.get() != null)
+            throw new IllegalStateException("A unit of work is open already on this thread.");
+
+        try {
+            UnitOfWork unitOfWork = new UnitOfWork(pool.lease(), currentUnitOfWork::remove);
+            currentUnitOfWork.set(unitOfWork);
+            return unitOfWork;
+        }
+        catch (SQLException sqlex) {
+            Logger.getLogger(DatabaseConnection.class.getName()).log(Level.SEVERE, "Could not connect to the PostgreSQL database.", sqlex);
+            throw new IllegalStateException("Could not connect to the PostgreSQL database.", sqlex);
+        }
+    }
+
+    /**
+     * <p>Checks if the calling thread has a {@link UnitOfWork} open.</p>
+     * @return {@code true} if a unit of work is open, otherwise {@code false}
+     */
+    public boolean isInUnitOfWork() {
+        return currentUnitOfWork.get() != null;
+    }
+
+    /**
+     * <p>Starts listening for the change notifications sent by the Database, on a dedicated connection outside of the pool.</p>
+     * <p>The notifications caused by the writes made through the pool are not handed to the handler.</p>
+     * @param handler the handler of the decoded change batches
+     * @param callbackExecutor the {@link Executor} the handler is run on
+     * @return the started {@link ChangeListener}, which must be closed to stop listening
+     */
+    public ChangeListener openChangeListener(Consumer<List<ChangeListener.Change>> handler, Executor callbackExecutor) {
+        return new ChangeListener(POSTGRES_URL, POSTGRES_USERNAME, POSTGRES_PASSWORD, handler, callbackExecutor, pool::isPoolBackend);
+    }
+
+    /**
+     * <p>Gets the lease/return statistics of the connection pool.</p>
+     * @return the pool's {@link ConnectionPool.Statistics}
      */
-    public Connection getConnection() {
-        return connection;
+    public ConnectionPool.Statistics getPoolStatistics() {
+        return pool.getStatistics();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,169 @@
+package database;
+
+//Java imports
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.postgresql.PGConnection;
+
+/**
+ * <p>A physical {@link Connection} owned by a {@link ConnectionPool}.</p>
+ * <p>Every lease hands out a new proxy of the physical connection: closing the proxy gives the connection back to the pool,
+ * and any further use of that proxy fails instead of touching a connection that may now be leased by someone else.</p>
+ * <p>Statements prepared through {@link Connection#prepareStatement(String)} are served by the connection's {@link StatementCache}.</p>
+ */
+/* package */ class PooledConnection {
+    private final ConnectionPool pool;
+    private final Connection physicalConnection;
+    private final StatementCache statementCache;
+    private final int backendPID; //The PID of the server process serving the connection, 0 if unknown
+
+    private volatile long lastReturnedMillis;
+
+    /**
+     * <p>Instantiates a new PooledConnection wrapping a physical connection.</p>
+     * @param pool the owning pool
+     * @param physicalConnection the physical connection
+     * @param statementCacheCapacity the maximum count of idle prepared statements kept by the connection
+     * @param statementCacheCounters the pool's statement cache counters
+     */
+    /* package */ PooledConnection(ConnectionPool pool, Connection physicalConnection, int statementCacheCapacity, StatementCache.Counters statementCacheCounters) {
+        this.pool = pool;
+        this.physicalConnection = physicalConnection;
+        this.statementCache = new StatementCache(physicalConnection, statementCacheCapacity, statementCacheCounters);
+        this.backendPID = readBackendPID(physicalConnection);
+        this.lastReturnedMillis = System.currentTimeMillis();
+    }
+
+    //Getters
+    /**
+     * <p>Gets the last time the connection was returned to the pool.</p>
+     * @return the time, in milliseconds since the epoch
+     */
+    /* package */ long getLastReturnedMillis() { return lastReturnedMillis; }
+
+    /**
+     * <p>Gets the PID of the server process serving the connection, the one the Database reports as the sender of its notifications.</p>
+     * @return the PID, {@code 0} if unknown
+     */
+    /* package */ int getBackendPID() { return backendPID; }
+
+    //Methods
+    /**
+     * <p>Creates a new lease of the connection.</p>
+     * @return a {@link Connection} proxy that gives the connection back to the pool when closed
+     */
+    /* package */ Connection lease() {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{ Connection.class }, new LeaseHandler());
+    }
+
+    /**
+     * <p>Checks whether the physical connection is still usable.</p>
+     * @param timeoutSeconds the validation timeout, in seconds
+     * @return {@code true} if the connection is valid, {@code false} otherwise
+     */
+    /* package */ boolean isValid(int timeoutSeconds) {
+        try {
+            return physicalConnection.isValid(timeoutSeconds);
+        } catch (SQLException _) {
+            return false;
+        }
+    }
+
+    /**
+     * <p>Resets the session state altered by the last lease, rolling back any pending transaction.</p>
+     * @return {@code true} if the connection can be leased again, {@code false} otherwise
+     */
+    /* package */ boolean resetSessionState() {
+        try {
+            if(physicalConnection.isClosed())
+                return false;
+
+            if(!physicalConnection.getAutoCommit()) {
+                physicalConnection.rollback();
+                physicalConnection.setAutoCommit(true);
+            }
+            physicalConnection.clearWarnings();
+
+            lastReturnedMillis = System.currentTimeMillis();
+            return true;
+        } catch (SQLException _) {
+            return false;
+        }
+    }
+
+    /**
+     * <p>Closes the physical connection.</p>
+     */
+    /* package */ void closePhysical() {
+        try {
+            statementCache.clear();
+            physicalConnection.close();
+        } catch (SQLException sqlex) {
+            Logger.getLogger(PooledConnection.class.getName()).log(Level.WARNING, "Could not close a pooled database connection.", sqlex);
+        }
+    }
+
+    private static int readBackendPID(Connection physicalConnection) {
+        try {
+            return physicalConnection.unwrap(PGConnection.class).getBackendPID();
+        } catch (SQLException _) {
+            return 0;
+        }
+    }
+
+    /**
+     * <p>Forwards the calls of a single lease to the physical connection until the lease is closed.</p>
+     */
+    private class LeaseHandler implements InvocationHandler {
+        private boolean returned = false;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if(!returned) {
+                        returned = true;
+                        pool.release(PooledConnection.this);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || physicalConnection.isClosed();
+                }
+                case "prepareStatement" -> {
+                    if(returned)
+                        throw new SQLException("The connection has already been returned to the pool");
+                    if(args.length == 1)
+                        return statementCache.prepare((String) args[0], (Connection) proxy);
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Leased" + physicalConnection;
+                }
+                default -> {
+                    if(returned)
+                        throw new SQLException("The connection has already been returned to the pool");
+                }
+            }
+
+            try {
+                return method.invoke(physicalConnection, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package database;
+
+//Java imports
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>A least-recently-used cache of {@link PreparedStatement}s bound to a single physical {@link Connection}, keyed by SQL text.</p>
+ * <p>Statements are checked out of the cache while in use: closing the handed-out statement puts it back in the cache
+ * instead of closing it, so that the statement stays prepared on the server across calls. A statement checked back in
+ * has its parameters and its fetch size, row limit and timeout reset, so that no setting leaks to the next borrower.</p>
+ */
+/* package */ class StatementCache {
+    /**
+     * <p>The hit/miss/eviction counters, shared by all the caches of a {@link ConnectionPool}.</p>
+     */
+    /* package */ static final class Counters {
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder evictions = new LongAdder();
+
+        /* package */ long getHits() { return hits.sum(); }
+        /* package */ long getMisses() { return misses.sum(); }
+        /* package */ long getEvictions() { return evictions.sum(); }
+    }
+
+    private final Connection physicalConnection;
+    private final int capacity;
+    private final Counters counters;
+
+    private final LinkedHashMap<String, PreparedStatement> idleStatements;
+
+    /**
+     * <p>Instantiates a new, empty, StatementCache.</p>
+     * @param physicalConnection the physical connection the statements are prepared on
+     * @param capacity the maximum count of idle statements kept prepared
+     * @param counters the counters to update
+     */
+    /* package */ StatementCache(Connection physicalConnection, int capacity, Counters counters) {
+        this.physicalConnection = physicalConnection;
+        this.capacity = capacity;
+        this.counters = counters;
+        this.idleStatements = new LinkedHashMap<>(16, 0.75f, true); //Access order, the eldest entry is the least recently used
+    }
+
+    //Methods
+    /**
+     * <p>Gets a prepared statement for the SQL text, reusing a cached one if available.</p>
+     * @param sql the SQL text
+     * @param leasedConnection the leased connection proxy, returned by the statement's {@code getConnection()}
+     * @return a {@link PreparedStatement} that goes back to the cache when closed
+     *
+     * @throws SQLException if the statement could not be prepared
+     */
+    /* package */ PreparedStatement prepare(String sql, Connection leasedConnection) throws SQLException {
+        PreparedStatement statement = idleStatements.remove(sql);
+        if(statement != null && !statement.isClosed())
+            counters.hits.increment();
+        else {
+            counters.misses.increment();
+            statement = physicalConnection.prepareStatement(sql);
+        }
+
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class<?>[]{ PreparedStatement.class }, new CheckoutHandler(sql, statement, leasedConnection));
+    }
+
+    /**
+     * <p>Closes all the cached statements.</p>
+     */
+    /* package */ void clear() {
+        for(PreparedStatement statement : idleStatements.values())
+            closeQuietly(statement);
+        idleStatements.clear();
+    }
+
+    //Utility methods
+    /**
+     * <p>Puts a checked out statement back in the cache, evicting the least recently used statements if the cache is full.</p>
+     * @param sql the statement's SQL text
+     * @param statement the statement
+     */
+    private void checkIn(String sql, PreparedStatement statement) {
+        try {
+            //Reset the state left by the last use
+            ResultSet openResult = statement.getResultSet();
+            if(openResult != null)
+                openResult.close();
+            statement.clearParameters();
+            statement.clearWarnings();
+
+            //Reset the settings the last borrower may have changed, the next one expects the driver's defaults
+            statement.setFetchSize(0);
+            statement.setMaxRows(0);
+            statement.setMaxFieldSize(0);
+            statement.setQueryTimeout(0);
+            statement.setFetchDirection(ResultSet.FETCH_FORWARD);
+        }
+        catch (SQLException _) {
+            closeQuietly(statement);
+            return;
+        }
+
+        //Another copy of the same statement was checked in meanwhile, keep only one
+        if(idleStatements.containsKey(sql)) {
+            closeQuietly(statement);
+            return;
+        }
+
+        idleStatements.put(sql, statement);
+
+        Iterator<Map.Entry<String, PreparedStatement>> it = idleStatements.entrySet().iterator();
+        while(idleStatements.size() > capacity && it.hasNext()) {
+            closeQuietly(it.next().getValue());
+            it.remove();
+            counters.evictions.increment();
+        }
+    }
+
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException _) {
+            //The statement is being discarded anyway
+        }
+    }
+
+    /**
+     * <p>Forwards the calls to a checked out statement until it is closed, then checks it back in the cache.</p>
+     */
+    private class CheckoutHandler implements InvocationHandler {
+        private final String sql;
+        private final PreparedStatement statement;
+        private final Connection leasedConnection;
+
+        private boolean checkedIn = false;
+
+        private CheckoutHandler(String sql, PreparedStatement statement, Connection leasedConnection) {
+            this.sql = sql;
+            this.statement = statement;
+            this.leasedConnection = leasedConnection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if(!checkedIn) {
+                        checkedIn = true;
+                        checkIn(sql, statement);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return checkedIn || statement.isClosed();
+                }
+                case "getConnection" -> {
+                    return leasedConnection;
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Cached" + statement;
+                }
+                default -> {
+                    if(checkedIn)
+                        throw new SQLException("The statement has already been closed");
+                }
+            }
+
+            try {
+                return method.invoke(statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package database;
+
+//Java imports
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.postgresql.core.BaseConnection;
+import org.postgresql.core.TransactionState;
+
+/**
+ * <p>A database transaction spanning many operations, on a single connection leased from the {@link ConnectionPool}.</p>
+ * <p>While open, the unit of work's connection is handed out by {@link DatabaseConnection#leaseConnection()} to its thread,
+ * with autocommit disabled, so that every DAO call joins the same transaction. Closing the unit of work without committing it rolls it back.</p>
+ */
+public final class UnitOfWork implements AutoCloseable {
+    private static final String IN_FAILED_TRANSACTION_SQL_STATE = "25P02";
+
+    private final Connection connection;
+    private final Runnable onClose;
+    private boolean committed;
+
+    /**
+     * <p>Instantiates a new UnitOfWork and begins its transaction.</p>
+     * @param connection the leased connection
+     * @param onClose run once the unit of work is closed, unbinds it from its thread
+     *
+     * @throws SQLException if the transaction could not be started
+     */
+    /* package */ UnitOfWork(Connection connection, Runnable onClose) throws SQLException {
+        this.connection = connection;
+        this.onClose = onClose;
+        this.committed = false;
+
+        try {
+            connection.setAutoCommit(false);
+        }
+        catch (SQLException sqlex) {
+            connection.close();
+            throw sqlex;
+        }
+    }
+
+    //Methods
+    /**
+     * <p>Commits every operation made within the unit of work at once.</p>
+     * <p>A statement that failed within the unit of work aborts its transaction, even if its error was handled, and
+     * the Database answers the commit of an aborted transaction with a rollback the driver does not report. Such a
+     * transaction is refused instead, so that the caller never takes a rollback for a commit.</p>
+     *
+     * @throws SQLException if a statement failed within the unit of work or the commit failed, in which case nothing was persisted
+     */
+    public void commit() throws SQLException {
+        if(this.isAborted())
+            throw new SQLException("A statement failed within the unit of work, its transaction was aborted.", IN_FAILED_TRANSACTION_SQL_STATE);
+
+        connection.commit();
+        committed = true;
+    }
+
+    /**
+     * <p>Rolls the transaction back if it was not committed and gives the connection back to the pool.</p>
+     */
+    @Override
+    public void close() {
+        try {
+            if(!committed)
+                connection.rollback();
+            connection.setAutoCommit(true);
+        }
+        catch (SQLException sqlex) {
+            Logger.getLogger(UnitOfWork.class.getName()).log(Level.WARNING, "Could not roll back the unit of work.", sqlex);
+        }
+        finally {
+            try {
+                connection.close();
+            } catch (SQLException sqlex) {
+                Logger.getLogger(UnitOfWork.class.getName()).log(Level.WARNING, "Could not give the connection back to the pool.", sqlex);
+            }
+            onClose.run();
+        }
+    }
+
+    //Utility methods
+    private boolean isAborted() throws SQLException {
+        return connection.isWrapperFor(BaseConnection.class)
+                && connection.unwrap(BaseConnection.class).getTransactionState() == TransactionState.FAILED;
+    }
+
+    /**
+     * <p>Leases the unit of work's connection without giving away its ownership.</p>
+     * @return a {@link ConnectionLease} whose closing leaves the connection open
+     */
+    /* package */ ConnectionLease share() {
+        return new ConnectionLease(connection, true);
+    }
+}
@@ -0,0 +1,10 @@
+package database.migration;
+
+/**
+ * <p>A numbered change to the Database's schema.</p>
+ * <p>The SQL of a migration must be idempotent, so that a migration interrupted after its changes but before being recorded can safely run again.</p>
+ * @param version the migration's version, migrations are applied in ascending version order
+ * @param description a short description of the migration, recorded along with its version
+ * @param sql the migration's SQL statements
+ */
+public record Migration(int version, String description, String sql) { }
@@ -0,0 +1,123 @@
+package database.migration;
+
+//Java imports
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * <p>Brings the Database's schema up to date by applying the pending {@link Migration}s, recording the applied versions in the SchemaVersion table.</p>
+ * <p>Each migration is applied in its own transaction along with its record, so that it is either applied and recorded or neither.
+ * Concurrent runners are serialized by an advisory lock, so that two App instances starting together never apply the same migration twice.</p>
+ */
+public class MigrationRunner {
+    private final Connection connection;
+    private final List<Migration> migrations;
+
+    //Arbitrary key of the advisory lock held while migrating
+    private static final long MIGRATION_LOCK_KEY = 0x4170706C6963L;
+
+    /**
+     * <p>Instantiates a new MigrationRunner applying the App's migrations.</p>
+     * @param con the connection to the PostgreSQL database
+     */
+    public MigrationRunner(Connection con) {
+        this(con, Migrations.ALL);
+    }
+
+    /**
+     * <p>Instantiates a new MigrationRunner applying the given migrations.</p>
+     * @param con the connection to the PostgreSQL database
+     * @param migrations the migrations, in any order
+     *
+     * @throws IllegalArgumentException if two migrations have the same version
+     */
+    public MigrationRunner(Connection con, List<Migration> migrations) {
+        if(migrations.stream().map(Migration::version).distinct().count() != migrations.size())
+            throw new IllegalArgumentException("Two migrations cannot have the same version");
+
+        this.connection = con;
+        this.migrations = migrations.stream().sorted((a, b) -> Integer.compare(a.version(), b.version())).toList();
+    }
+
+    //Methods
+    /**
+     * <p>Applies the pending migrations, in version order.</p>
+     * @return the count of migrations applied
+     *
+     * @throws SQLException if a migration fails, the migrations applied before it stay applied
+     */
+    public int migrate() throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                CREATE TABLE IF NOT EXISTS SchemaVersion
+                (
+                  version integer PRIMARY KEY NOT NULL,
+                  description character varying(256) NOT NULL,
+                  appliedAt timestamp NOT NULL DEFAULT now()
+                )
+                """);
+            connection.commit();
+
+            int applied = 0;
+            for(Migration migration : migrations) {
+                //Hold the lock for the whole transaction, and check again under it whether another runner got there first
+                statement.execute("SELECT pg_advisory_xact_lock(" + MIGRATION_LOCK_KEY + ")");
+                if(this.getAppliedVersions().contains(migration.version())) {
+                    connection.commit();
+                    continue;
+                }
+
+                try {
+                    statement.execute(migration.sql());
+                    this.recordVersion(migration);
+                    connection.commit();
+                }
+                catch (SQLException e) {
+                    connection.rollback();
+                    throw new SQLException("Migration " + migration.version() + " (" + migration.description() + ") failed", e);
+                }
+
+                applied++;
+                Logger.getLogger(MigrationRunner.class.getName()).log(Level.INFO, "Applied migration {0}: {1}", new Object[]{ migration.version(), migration.description() });
+            }
+
+            return applied;
+        }
+        finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    //Utility methods
+    private Set<Integer> getAppliedVersions() throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+        try (PreparedStatement versionsStatement = connection.prepareStatement("SELECT version FROM SchemaVersion")) {
+            ResultSet res = versionsStatement.executeQuery();
+            while(res.next())
+                versions.add(res.getInt(1));
+        }
+
+        return versions;
+    }
+
+    private void recordVersion(Migration migration) throws SQLException {
+        try (PreparedStatement recordStatement = connection.prepareStatement("INSERT INTO SchemaVersion (version, description) VALUES (?, ?)")) {
+            recordStatement.setInt(1, migration.version());
+            recordStatement.setString(2, migration.description());
+
+            recordStatement.executeUpdate();
+        }
+    }
+}
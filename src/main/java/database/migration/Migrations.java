@@ -0,0 +1,316 @@
+package database.migration;
+
+//Java imports
+import java.util.List;
+
+/**
+ * <p>The Database's migrations, in version order.</p>
+ * <p>New migrations are appended with the next version, applied migrations must never be changed.</p>
+ * <p>Every change to the schema ships as a migration, so that a Database set up by an older release can be upgraded.
+ * setupDump.sql creates the latest schema for fresh installs, on which the migrations must run as no-ops.</p>
+ */
+/* package */ final class Migrations {
+    /* package */ static final List<Migration> ALL = List.of(
+        new Migration(1, "Track the changes to Noticeboards, ToDos and sharing data for the incremental sync", """
+            CREATE SEQUENCE IF NOT EXISTS changeSequence START WITH 1 MINVALUE 1 INCREMENT BY 1;
+
+            ALTER TABLE Noticeboards ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT nextval('changeSequence');
+            ALTER TABLE ToDos ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT nextval('changeSequence');
+            ALTER TABLE Sharing ADD COLUMN IF NOT EXISTS version bigint NOT NULL DEFAULT nextval('changeSequence');
+
+            CREATE TABLE IF NOT EXISTS DeletionLog
+            (
+              version bigint PRIMARY KEY NOT NULL DEFAULT nextval('changeSequence'),
+              entityType character(1) NOT NULL,
+              boardID integer,
+              todoID integer,
+              userID integer NOT NULL,
+
+              CONSTRAINT "deletedEntityTypeIsValid" CHECK (entityType IN ('B', 'T', 'S'))
+            );
+            CREATE INDEX IF NOT EXISTS deletionLogUserVersionIndex ON DeletionLog (userID, version);
+
+            CREATE OR REPLACE FUNCTION bumpVersion()
+            RETURNS TRIGGER AS
+            $$
+              BEGIN
+                NEW.version := nextval('changeSequence');
+                RETURN NEW;
+              END;
+            $$ LANGUAGE plpgsql;
+
+            CREATE OR REPLACE FUNCTION logDeletion()
+            RETURNS TRIGGER AS
+            $$
+              BEGIN
+                IF TG_TABLE_NAME = 'noticeboards' THEN
+                  INSERT INTO DeletionLog (entityType, boardID, userID) VALUES ('B', OLD.boardID, OLD.userID);
+                ELSIF TG_TABLE_NAME = 'todos' THEN
+                  INSERT INTO DeletionLog (entityType, boardID, todoID, userID) VALUES ('T', OLD.boardID, OLD.todoID, OLD.ownerUserID);
+                ELSE
+                  INSERT INTO DeletionLog (entityType, todoID, userID) VALUES ('S', OLD.todoID, OLD.userID);
+                END IF;
+                RETURN NULL;
+              END;
+            $$ LANGUAGE plpgsql;
+
+            DROP TRIGGER IF EXISTS noticeboardsVersionTrigger ON Noticeboards;
+            CREATE TRIGGER noticeboardsVersionTrigger BEFORE UPDATE ON Noticeboards FOR EACH ROW EXECUTE FUNCTION bumpVersion();
+            DROP TRIGGER IF EXISTS todosVersionTrigger ON ToDos;
+            CREATE TRIGGER todosVersionTrigger BEFORE UPDATE ON ToDos FOR EACH ROW EXECUTE FUNCTION bumpVersion();
+            DROP TRIGGER IF EXISTS sharingVersionTrigger ON Sharing;
+            CREATE TRIGGER sharingVersionTrigger BEFORE UPDATE ON Sharing FOR EACH ROW EXECUTE FUNCTION bumpVersion();
+
+            DROP TRIGGER IF EXISTS noticeboardsDeletionTrigger ON Noticeboards;
+            CREATE TRIGGER noticeboardsDeletionTrigger AFTER DELETE ON Noticeboards FOR EACH ROW EXECUTE FUNCTION logDeletion();
+            DROP TRIGGER IF EXISTS todosDeletionTrigger ON ToDos;
+            CREATE TRIGGER todosDeletionTrigger AFTER DELETE ON ToDos FOR EACH ROW EXECUTE FUNCTION logDeletion();
+            DROP TRIGGER IF EXISTS sharingDeletionTrigger ON Sharing;
+            CREATE TRIGGER sharingDeletionTrigger AFTER DELETE ON Sharing FOR EACH ROW EXECUTE FUNCTION logDeletion();
+            """),
+        new Migration(2, "Notify the listening clients of the changes to Noticeboards, ToDos and sharing data", """
+            CREATE OR REPLACE FUNCTION notifyChange()
+            RETURNS TRIGGER AS
+            $$
+              DECLARE
+                r RECORD;
+              BEGIN
+                IF TG_OP = 'DELETE' THEN
+                  r := OLD;
+                ELSE
+                  r := NEW;
+                END IF;
+
+                IF TG_TABLE_NAME = 'noticeboards' THEN
+                  PERFORM pg_notify('applicativo_changes', 'B:' || r.boardID || ':0:' || r.userID);
+                ELSIF TG_TABLE_NAME = 'todos' THEN
+                  PERFORM pg_notify('applicativo_changes', 'T:' || r.boardID || ':' || r.todoID || ':' || r.ownerUserID);
+                  IF TG_OP = 'UPDATE' AND OLD.boardID <> NEW.boardID THEN
+                    PERFORM pg_notify('applicativo_changes', 'T:' || OLD.boardID || ':' || OLD.todoID || ':' || OLD.ownerUserID);
+                  END IF;
+                ELSE
+                  PERFORM pg_notify('applicativo_changes', 'S:' || COALESCE((SELECT boardID FROM ToDos WHERE todoID = r.todoID), 0) || ':' || r.todoID || ':' || r.userID);
+                END IF;
+                RETURN NULL;
+              END;
+            $$ LANGUAGE plpgsql;
+
+            DROP TRIGGER IF EXISTS noticeboardsNotifyTrigger ON Noticeboards;
+            CREATE TRIGGER noticeboardsNotifyTrigger AFTER INSERT OR UPDATE OR DELETE ON Noticeboards FOR EACH ROW EXECUTE FUNCTION notifyChange();
+            DROP TRIGGER IF EXISTS todosNotifyTrigger ON ToDos;
+            CREATE TRIGGER todosNotifyTrigger AFTER INSERT OR UPDATE OR DELETE ON ToDos FOR EACH ROW EXECUTE FUNCTION notifyChange();
+            DROP TRIGGER IF EXISTS sharingNotifyTrigger ON Sharing;
+            CREATE TRIGGER sharingNotifyTrigger AFTER INSERT OR UPDATE OR DELETE ON Sharing FOR EACH ROW EXECUTE FUNCTION notifyChange();
+            """),
+        new Migration(3, "Order the ToDos by a sparse boardIndex, so that a move writes one row", """
+            DO $$
+              BEGIN
+                --Spread the dense positions out only once, a fresh install has the sparse bigint column already
+                IF (SELECT data_type FROM information_schema.columns
+                    WHERE table_schema = current_schema() AND table_name = 'todos' AND column_name = 'boardindex') = 'integer' THEN
+                  ALTER TABLE ToDos ALTER COLUMN boardIndex TYPE bigint;
+
+                  WITH spreadRows AS (
+                    SELECT todoID, (ROW_NUMBER() OVER (PARTITION BY boardID ORDER BY boardIndex, todoID)) * 65536 AS newIndex
+                    FROM ToDos
+                  )
+                  UPDATE ToDos t
+                  SET boardIndex = s.newIndex
+                  FROM spreadRows s
+                  WHERE t.todoID = s.todoID;
+                END IF;
+              END;
+            $$;
+
+            --A deletion leaves a gap now, renumbering the board would undo the sparse keys
+            DROP TRIGGER IF EXISTS normalizeIndexTrigger ON ToDos;
+            DROP FUNCTION IF EXISTS normalizeIndex();
+            DROP PROCEDURE IF EXISTS normalizeBoardIndex(INT);
+
+            CREATE OR REPLACE PROCEDURE rebalanceBoardIndex(targetBoardID INT)
+            AS $$
+              BEGIN
+                WITH rebalancedRows AS (
+                  SELECT
+                    todoID, (ROW_NUMBER() OVER (ORDER BY boardIndex, todoID)) * 65536 AS newIndex
+                  FROM ToDos
+                  WHERE boardID = targetBoardID
+                )
+                UPDATE ToDos t
+                SET boardIndex = n.newIndex
+                FROM rebalancedRows n
+                WHERE t.todoID = n.todoID
+                  AND t.boardIndex <> n.newIndex;
+              END;
+            $$ LANGUAGE plpgsql;
+
+            CREATE OR REPLACE PROCEDURE moveToDo(p_todoID INT, newIndex INT)
+            AS $$
+            DECLARE
+              targetBoardID INT;
+              lowerID INT;
+              lowerIndex BIGINT;
+              upperID INT;
+              upperIndex BIGINT;
+            BEGIN
+                SELECT boardID INTO targetBoardID FROM ToDos WHERE todoID = p_todoID;
+                IF targetBoardID IS NULL THEN
+                   RETURN;
+                END IF;
+
+                --Serialize the moves within the board, so that two moves never take the same gap
+                PERFORM 1 FROM Noticeboards WHERE boardID = targetBoardID FOR UPDATE;
+
+                IF newIndex > 0 THEN
+                    SELECT todoID, boardIndex INTO lowerID, lowerIndex FROM ToDos
+                    WHERE boardID = targetBoardID ORDER BY boardIndex, todoID OFFSET newIndex - 1 LIMIT 1;
+                END IF;
+                SELECT todoID, boardIndex INTO upperID, upperIndex FROM ToDos
+                WHERE boardID = targetBoardID ORDER BY boardIndex, todoID OFFSET newIndex LIMIT 1;
+
+                IF lowerID = p_todoID OR upperID = p_todoID THEN
+                   RETURN; --Early exit, no need to update
+                END IF;
+
+                --No gap left between the neighbours, spread the board again and retry
+                IF lowerIndex IS NOT NULL AND upperIndex IS NOT NULL AND upperIndex - lowerIndex < 2 THEN
+                    CALL rebalanceBoardIndex(targetBoardID);
+                    CALL moveToDo(p_todoID, newIndex);
+                    RETURN;
+                END IF;
+
+                -- Moves ToDo to new index
+                UPDATE ToDos
+                SET boardIndex = CASE
+                    WHEN lowerIndex IS NULL THEN upperIndex - 65536
+                    WHEN upperIndex IS NULL THEN lowerIndex + 65536
+                    ELSE lowerIndex + (upperIndex - lowerIndex) / 2
+                END
+                WHERE todoID = p_todoID;
+            END;
+            $$ LANGUAGE plpgsql;
+            """),
+        new Migration(4, "Log and notify the deleted rows once per statement, from transition tables", """
+            CREATE OR REPLACE FUNCTION logDeletion()
+            RETURNS TRIGGER AS
+            $$
+              BEGIN
+                IF TG_TABLE_NAME = 'noticeboards' THEN
+                  INSERT INTO DeletionLog (entityType, boardID, userID)
+                  SELECT 'B', d.boardID, d.userID FROM deletedRows d
+                  WHERE EXISTS (SELECT 1 FROM Users u WHERE u.userID = d.userID);
+                ELSIF TG_TABLE_NAME = 'todos' THEN
+                  INSERT INTO DeletionLog (entityType, boardID, todoID, userID)
+                  SELECT 'T', d.boardID, d.todoID, d.ownerUserID FROM deletedRows d
+                  WHERE EXISTS (SELECT 1 FROM Noticeboards b WHERE b.boardID = d.boardID);
+                ELSE
+                  INSERT INTO DeletionLog (entityType, todoID, userID)
+                  SELECT 'S', d.todoID, d.userID FROM deletedRows d
+                  WHERE EXISTS (SELECT 1 FROM Users u WHERE u.userID = d.userID);
+                END IF;
+                RETURN NULL;
+              END;
+            $$ LANGUAGE plpgsql;
+
+            CREATE OR REPLACE FUNCTION notifyChange()
+            RETURNS TRIGGER AS
+            $$
+              DECLARE
+                r RECORD;
+              BEGIN
+                r := NEW;
+
+                IF TG_TABLE_NAME = 'noticeboards' THEN
+                  PERFORM pg_notify('applicativo_changes', 'B:' || r.boardID || ':0:' || r.userID);
+                ELSIF TG_TABLE_NAME = 'todos' THEN
+                  PERFORM pg_notify('applicativo_changes', 'T:' || r.boardID || ':' || r.todoID || ':' || r.ownerUserID);
+                  IF TG_OP = 'UPDATE' AND OLD.boardID <> NEW.boardID THEN
+                    PERFORM pg_notify('applicativo_changes', 'T:' || OLD.boardID || ':' || OLD.todoID || ':' || OLD.ownerUserID);
+                  END IF;
+                ELSE
+                  PERFORM pg_notify('applicativo_changes', 'S:' || COALESCE((SELECT boardID FROM ToDos WHERE todoID = r.todoID), 0) || ':' || r.todoID || ':' || r.userID);
+                END IF;
+                RETURN NULL;
+              END;
+            $$ LANGUAGE plpgsql;
+
+            CREATE OR REPLACE FUNCTION notifyDeletion()
+            RETURNS TRIGGER AS
+            $$
+              BEGIN
+                IF TG_TABLE_NAME = 'noticeboards' THEN
+                  PERFORM pg_notify('applicativo_changes', 'B:' || d.boardID || ':0:' || d.userID) FROM deletedRows d;
+                ELSIF TG_TABLE_NAME = 'todos' THEN
+                  PERFORM pg_notify('applicativo_changes', 'T:' || d.boardID || ':0:' || d.ownerUserID)
+                  FROM (SELECT DISTINCT boardID, ownerUserID FROM deletedRows) d
+                  WHERE EXISTS (SELECT 1 FROM Noticeboards b WHERE b.boardID = d.boardID);
+                ELSE
+                  PERFORM pg_notify('applicativo_changes', 'S:' || COALESCE(t.boardID, 0) || ':' || d.todoID || ':' || d.userID)
+                  FROM deletedRows d LEFT JOIN ToDos t ON t.todoID = d.todoID
+                  WHERE EXISTS (SELECT 1 FROM Users u WHERE u.userID = d.userID);
+                END IF;
+                RETURN NULL;
+              END;
+            $$ LANGUAGE plpgsql;
+
+            --Replace the per row deletion triggers with statement-level ones
+            DROP TRIGGER IF EXISTS noticeboardsDeletionTrigger ON Noticeboards;
+            CREATE TRIGGER noticeboardsDeletionTrigger AFTER DELETE ON Noticeboards REFERENCING OLD TABLE AS deletedRows FOR EACH STATEMENT EXECUTE FUNCTION logDeletion();
+            DROP TRIGGER IF EXISTS todosDeletionTrigger ON ToDos;
+            CREATE TRIGGER todosDeletionTrigger AFTER DELETE ON ToDos REFERENCING OLD TABLE AS deletedRows FOR EACH STATEMENT EXECUTE FUNCTION logDeletion();
+            DROP TRIGGER IF EXISTS sharingDeletionTrigger ON Sharing;
+            CREATE TRIGGER sharingDeletionTrigger AFTER DELETE ON Sharing REFERENCING OLD TABLE AS deletedRows FOR EACH STATEMENT EXECUTE FUNCTION logDeletion();
+
+            DROP TRIGGER IF EXISTS noticeboardsNotifyTrigger ON Noticeboards;
+            CREATE TRIGGER noticeboardsNotifyTrigger AFTER INSERT OR UPDATE ON Noticeboards FOR EACH ROW EXECUTE FUNCTION notifyChange();
+            DROP TRIGGER IF EXISTS todosNotifyTrigger ON ToDos;
+            CREATE TRIGGER todosNotifyTrigger AFTER INSERT OR UPDATE ON ToDos FOR EACH ROW EXECUTE FUNCTION notifyChange();
+            DROP TRIGGER IF EXISTS sharingNotifyTrigger ON Sharing;
+            CREATE TRIGGER sharingNotifyTrigger AFTER INSERT OR UPDATE ON Sharing FOR EACH ROW EXECUTE FUNCTION notifyChange();
+
+            DROP TRIGGER IF EXISTS noticeboardsDeletionNotifyTrigger ON Noticeboards;
+            CREATE TRIGGER noticeboardsDeletionNotifyTrigger AFTER DELETE ON Noticeboards REFERENCING OLD TABLE AS deletedRows FOR EACH STATEMENT EXECUTE FUNCTION notifyDeletion();
+            DROP TRIGGER IF EXISTS todosDeletionNotifyTrigger ON ToDos;
+            CREATE TRIGGER todosDeletionNotifyTrigger AFTER DELETE ON ToDos REFERENCING OLD TABLE AS deletedRows FOR EACH STATEMENT EXECUTE FUNCTION notifyDeletion();
+            DROP TRIGGER IF EXISTS sharingDeletionNotifyTrigger ON Sharing;
+            CREATE TRIGGER sharingDeletionNotifyTrigger AFTER DELETE ON Sharing REFERENCING OLD TABLE AS deletedRows FOR EACH STATEMENT EXECUTE FUNCTION notifyDeletion();
+            """),
+        new Migration(5, "Index the ToDos by board order", """
+            CREATE INDEX IF NOT EXISTS todosBoardOrderIndex ON ToDos (boardID, boardIndex) INCLUDE (todoID);
+            """),
+        new Migration(6, "Index the Noticeboards by owner", """
+            CREATE INDEX IF NOT EXISTS noticeboardsUserIndex ON Noticeboards (userID, boardID) INCLUDE (boardTitle, boardDescription, version);
+            """),
+        new Migration(7, "Index the ToDos by owner", """
+            CREATE INDEX IF NOT EXISTS todosOwnerIndex ON ToDos (ownerUserID, boardID) INCLUDE (todoID);
+            """),
+        new Migration(8, "Index the sharing data by ToDo", """
+            CREATE INDEX IF NOT EXISTS sharingToDoIndex ON Sharing (todoID) INCLUDE (userID, version);
+            """),
+        new Migration(9, "Key the board order index on the ToDo ID too, for keyset pagination", """
+            CREATE INDEX IF NOT EXISTS todosBoardPageIndex ON ToDos (boardID, boardIndex, todoID);
+            DROP INDEX IF EXISTS todosBoardOrderIndex;
+            """),
+        new Migration(10, "Record the writing transaction's ID in the tracked rows, for the sync to follow commit order", """
+            ALTER TABLE Noticeboards ADD COLUMN IF NOT EXISTS xactID xid8 NOT NULL DEFAULT pg_current_xact_id();
+            ALTER TABLE ToDos ADD COLUMN IF NOT EXISTS xactID xid8 NOT NULL DEFAULT pg_current_xact_id();
+            ALTER TABLE Sharing ADD COLUMN IF NOT EXISTS xactID xid8 NOT NULL DEFAULT pg_current_xact_id();
+            ALTER TABLE DeletionLog ADD COLUMN IF NOT EXISTS xactID xid8 NOT NULL DEFAULT pg_current_xact_id();
+
+            CREATE INDEX IF NOT EXISTS deletionLogUserXactIndex ON DeletionLog (userID, xactID);
+            DROP INDEX IF EXISTS deletionLogUserVersionIndex;
+
+            CREATE OR REPLACE FUNCTION bumpVersion()
+            RETURNS TRIGGER AS
+            $$
+              BEGIN
+                NEW.version := nextval('changeSequence');
+                NEW.xactID := pg_current_xact_id();
+                RETURN NEW;
+              END;
+            $$ LANGUAGE plpgsql;
+            """)
+    );
+
+    private Migrations() { }
+}
@@ -2,30 +2,62 @@ package dto;
 
 //App imports
 import model.Noticeboard;
+import model.OffHeapToDoStore;
+import model.ToDo;
+import model.ToDoCursor;
 
 //Java imports
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
 
 /**
  * <p>A Noticeboard Data Transfer Object.</p>
  * <p>The class provides methods to retrieve the attributes and ToDos of a {@link Noticeboard}.</p>
+ * <p>NoticeboardDTOs are immutable, so a snapshot of a Noticeboard can be taken from its previous snapshot,
+ * sharing the {@link ToDoDTO}s of the ToDos whose version did not change since. The ToDoDTOs of a snapshot are held
+ * in chunks, and the chunks none of whose ToDos changed or moved are shared as a whole.</p>
  */
 public class NoticeboardDTO {
+    private static final int CHUNK_SIZE = 64;
+
     private final int boardID;
     private final String title;
     private final String description;
     private final int userID;
+    private final long version; //The version of the Noticeboard the DTO was copied from, -1 if it was not copied from one
 
     private final List<ToDoDTO> todos;
+    private final ToDoChunk[] chunks; //The ToDos of a snapshot, in chunks of CHUNK_SIZE, null if the DTO is not a snapshot of an on heap Noticeboard
 
     /**
      * <p>Instantiates a new NoticeboardDTO copied from a {@link Noticeboard} object.</p>
+     * <p>The ToDos of a Noticeboard stored off the heap are not copied, see {@link #getToDos()}.</p>
      * @param source the Noticeboard to copy the attributes and ToDo list from
      *
      * @throws IllegalArgumentException if {@code source} is {@code null}
      */
     public NoticeboardDTO(Noticeboard source) {
+        //Delegates to
+        //  NoticeboardDTO(Noticeboard source, NoticeboardDTO previous)
+        this(source, null);
+    }
+
+    /**
+     * <p>Instantiates a new snapshot of a {@link Noticeboard}, reusing the ToDos of its previous snapshot that did not change since.</p>
+     * <p>A ToDo is reused if its version matches the one it had in {@code previous}, the ToDos are matched in board order,
+     * stepping over single ToDos added or removed since.</p>
+     * @param source the Noticeboard to copy the attributes and ToDo list from
+     * @param previous the previous snapshot of the Noticeboard, {@code null} if there is none
+     *
+     * @throws IllegalArgumentException if {@code source} is {@code null}
+     */
+    public NoticeboardDTO(Noticeboard source, NoticeboardDTO previous) {
         if(source == null)
             throw new IllegalArgumentException("Source Noticeboard cannot be null");
 
@@ -33,7 +65,56 @@ public class NoticeboardDTO {
         this.title = source.getTitle();
         this.description = source.getDescription();
         this.userID = source.getUserID();
-        this.todos = source.getToDos().stream().map(ToDoDTO::new).toList();
+        this.version = source.getVersion();
+
+        //ToDos stored off the heap cannot change, so they are read from the store when asked for instead of being copied
+        if(source.isStoredOffHeap()) {
+            this.todos = new OffHeapList(source.getOffHeapToDos());
+            this.chunks = null;
+            return;
+        }
+
+        NoticeboardDTO reusable = previous != null && previous.boardID == boardID && previous.chunks != null ? previous : null;
+        int reusableCount = reusable != null ? reusable.todos.size() : 0;
+
+        List<ToDo> sourceToDos = source.getToDos();
+        int count = sourceToDos.size();
+        this.chunks = new ToDoChunk[(count + CHUNK_SIZE - 1) / CHUNK_SIZE];
+
+        ToDoDTO[] chunkToDos = new ToDoDTO[CHUNK_SIZE];
+        int[] chunkVersions = new int[CHUNK_SIZE];
+        boolean chunkUnchanged = true;
+        int previousPosition = 0;
+        for(int i = 0; i < count; i++) {
+            ToDo todo = sourceToDos.get(i);
+
+            //Step over a ToDo of the previous snapshot that has been removed or moved since
+            if(previousPosition + 1 < reusableCount && reusable.todos.get(previousPosition).getToDoID() != todo.getToDoID()
+                    && reusable.todos.get(previousPosition + 1).getToDoID() == todo.getToDoID())
+                previousPosition++;
+
+            ToDoDTO reused = null;
+            if(previousPosition < reusableCount && reusable.todos.get(previousPosition).getToDoID() == todo.getToDoID()) {
+                if(reusable.getToDoVersion(previousPosition) == todo.getVersion())
+                    reused = reusable.todos.get(previousPosition);
+                previousPosition++;
+            }
+
+            int offset = i % CHUNK_SIZE;
+            chunkToDos[offset] = reused != null ? reused : new ToDoDTO(todo);
+            chunkVersions[offset] = todo.getVersion();
+            chunkUnchanged &= reused != null && previousPosition == i + 1;
+
+            if(offset == CHUNK_SIZE - 1 || i == count - 1) {
+                int chunk = i / CHUNK_SIZE;
+                //Every ToDo of the chunk is reused from the same position, so the previous chunk matches it if it has the same length
+                chunks[chunk] = chunkUnchanged && chunk < reusable.chunks.length && reusable.chunks[chunk].todos().length == offset + 1
+                        ? reusable.chunks[chunk]
+                        : new ToDoChunk(Arrays.copyOf(chunkToDos, offset + 1), Arrays.copyOf(chunkVersions, offset + 1));
+                chunkUnchanged = true;
+            }
+        }
+        this.todos = new ChunkedList(chunks, count);
     }
 
     /**
@@ -53,7 +134,9 @@ public class NoticeboardDTO {
         this.title = title;
         this.description = description;
         this.userID = userID;
+        this.version = -1;
         this.todos = new ArrayList<>();
+        this.chunks = null;
     }
 
     /**
@@ -90,10 +173,17 @@ public class NoticeboardDTO {
      * @return the id
      */
     public int getUserID() { return userID; }
+    /**
+     * <p>Gets the version of the Noticeboard the DTO was copied from.</p>
+     * @return the version, {@code -1} if the DTO was not copied from a Noticeboard
+     */
+    public long getVersion() { return version; }
 
     //ToDo methods
     /**
      * <p>Gets the ToDos.</p>
+     * <p>If the Noticeboard was stored off the heap, the list reads the ToDos from the store, copying each into a new
+     * {@link ToDoDTO} whenever it is read.</p>
      * @return if any ToDo exist returns them as a {@link List} of {@link ToDoDTO}, otherwise returns {@code null}
      */
     public List<ToDoDTO> getToDos() { return todos; }
@@ -117,12 +207,16 @@ public class NoticeboardDTO {
     public ToDoDTO getToDo(String title){
         if(todos == null)
             return null;
+        if(todos instanceof OffHeapList offHeapToDos)
+            return offHeapToDos.find(title);
 
         return todos.stream().filter(todo -> todo.getTitle().equals(title))
                 .findFirst().orElse(null);
     }
 
     //Utility methods
+    private int getToDoVersion(int position) { return chunks[position / CHUNK_SIZE].versions()[position % CHUNK_SIZE]; }
+
     @Override
     public boolean equals(Object obj) {
         if (this == obj) return true;
@@ -159,4 +253,91 @@ public class NoticeboardDTO {
         sb.append("}");
         return sb.toString();
     }
+
+    /**
+     * <p>A chunk of the ToDos of a snapshot, with the versions of the ToDos they were copied from.</p>
+     * @param todos the ToDos
+     * @param versions the versions of the ToDos they were copied from, in the same order
+     */
+    private record ToDoChunk(ToDoDTO[] todos, int[] versions) { }
+
+    /**
+     * <p>An unmodifiable {@link List} view of the chunks of a snapshot.</p>
+     */
+    private static final class ChunkedList extends AbstractList<ToDoDTO> implements RandomAccess {
+        private final ToDoChunk[] chunks;
+        private final int size;
+
+        private ChunkedList(ToDoChunk[] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        public ToDoDTO get(int index) {
+            Objects.checkIndex(index, size);
+            return chunks[index / CHUNK_SIZE].todos()[index % CHUNK_SIZE];
+        }
+
+        @Override
+        public int size() { return size; }
+    }
+
+    /**
+     * <p>An unmodifiable {@link List} view of ToDos stored off the heap, read in place through a {@link ToDoCursor}.</p>
+     * <p>The store is append-only, so the view holds the ToDos stored when it was taken.</p>
+     */
+    private static final class OffHeapList extends AbstractList<ToDoDTO> implements RandomAccess {
+        private final OffHeapToDoStore store;
+        private final int size;
+
+        private OffHeapList(OffHeapToDoStore store) {
+            this.store = store;
+            this.size = store.size();
+        }
+
+        @Override
+        public ToDoDTO get(int index) {
+            Objects.checkIndex(index, size);
+            return new ToDoDTO(store.cursor(index));
+        }
+
+        @Override
+        public int size() { return size; }
+
+        @Override
+        public Iterator<ToDoDTO> iterator() {
+            ToDoCursor cursor = store.cursor();
+            return new Iterator<>() {
+                private int read = 0;
+
+                @Override
+                public boolean hasNext() { return read < size; }
+
+                @Override
+                public ToDoDTO next() {
+                    if(!this.hasNext())
+                        throw new NoSuchElementException();
+
+                    cursor.next();
+                    read++;
+                    return new ToDoDTO(cursor);
+                }
+            };
+        }
+
+        /**
+         * <p>Finds a ToDo from its title, decoding only the titles of the ToDos before it.</p>
+         * @param title the title
+         * @return the ToDoDTO, {@code null} if no ToDo has that title
+         */
+        private ToDoDTO find(String title) {
+            ToDoCursor cursor = store.cursor();
+            for(int i = 0; i < size && cursor.next(); i++)
+                if(cursor.getTitle().equals(title))
+                    return new ToDoDTO(cursor);
+
+            return null;
+        }
+    }
 }
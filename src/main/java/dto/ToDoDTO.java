@@ -2,11 +2,13 @@ package dto;
 
 //App imports
 import model.ToDo;
+import model.ToDoCursor;
 
 //Java imports
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * <p>A ToDo Data Transfer Object.</p>
@@ -22,6 +24,7 @@ public class ToDoDTO {
     private final String description;
     private final String activityURL;
     private final String imageURL;
+    private final boolean hasDetails;
     private final LocalDateTime expiryDate;
     private final String backgroundColor;
 
@@ -44,6 +47,31 @@ public class ToDoDTO {
         this.description = source.getDescription();
         this.activityURL = source.getActivityURL();
         this.imageURL = source.getImageURL();
+        this.hasDetails = source.hasDetails();
+        this.expiryDate = source.getExpiryDate();
+        this.backgroundColor = source.getBackgroundColor();
+
+        this.ownerUserID = source.getOwnerUserID();
+        this.sharedUsers = List.copyOf(source.getSharedUsers());
+    }
+
+    /**
+     * <p>Instantiates a new ToDoDTO object copied from the ToDo a cursor is on.</p>
+     * @param source the cursor to copy the attributes from
+     *
+     * @throws IllegalArgumentException if {@code source} is {@code null}
+     */
+    public ToDoDTO(ToDoCursor source) {
+        if(source == null)
+            throw new IllegalArgumentException("Source ToDo cursor cannot be null");
+
+        this.todoID = source.getToDoID();
+        this.state = source.isCompleted() ? ToDoState.COMPLETED : ToDoState.NOTCOMPLETED;
+        this.title = source.getTitle();
+        this.description = source.getDescription();
+        this.activityURL = source.getActivityURL();
+        this.imageURL = source.getImageURL();
+        this.hasDetails = source.hasDetails();
         this.expiryDate = source.getExpiryDate();
         this.backgroundColor = source.getBackgroundColor();
 
@@ -77,6 +105,7 @@ public class ToDoDTO {
         this.description = description;
         this.activityURL = activityURL;
         this.imageURL = imageURL;
+        this.hasDetails = (description != null && !description.isEmpty()) || (activityURL != null && !activityURL.isEmpty()) || (imageURL != null && !imageURL.isEmpty());
         this.expiryDate = expiryDate;
         this.backgroundColor = backgroundColor;
 
@@ -121,6 +150,18 @@ public class ToDoDTO {
      */
     public boolean isCompleted() { return state == ToDoState.COMPLETED; }
 
+    /**
+     * <p>Checks if the ToDo's description and URLs are loaded.</p>
+     * @return {@code true} if loaded, {@code false} if the ToDo is a summary
+     */
+    public boolean areDetailsLoaded() { return description != null; }
+
+    /**
+     * <p>Checks if the ToDo has a description or any URL, whether they are loaded or not.</p>
+     * @return {@code true} if any of the description and URLs is not empty, {@code false} otherwise
+     */
+    public boolean hasDetails() { return hasDetails; }
+
     //Getter & Setter methods
     /**
      * <p>Gets the ToDo's ID.</p>
@@ -136,7 +177,7 @@ public class ToDoDTO {
 
     /**
      * <p>Gets the ToDo's description.</p>
-     * @return the description
+     * @return the description, {@code null} if the details are not loaded
      */
     public String getDescription() { return description; }
 
@@ -148,13 +189,13 @@ public class ToDoDTO {
 
     /**
      * <p>Gets the ToDo's activity url.</p>
-     * @return the activity url
+     * @return the activity url, {@code null} if the details are not loaded
      */
     public String getActivityURL() { return activityURL; }
 
     /**
      * <p>Gets the ToDo's image url.</p>
-     * @return the image url
+     * @return the image url, {@code null} if the details are not loaded
      */
     public String getImageURL() { return imageURL; }
 
@@ -197,11 +238,11 @@ public class ToDoDTO {
         return this.todoID == todo.getToDoID() &&
                 this.isCompleted() == todo.isCompleted() &&
                 this.title.equals(todo.getTitle()) &&
-                this.description.equals(todo.getDescription()) &&
+                Objects.equals(this.description, todo.getDescription()) &&
                 ((this.expiryDate == null) ? todo.getExpiryDate() == null : this.expiryDate.equals(todo.getExpiryDate())) &&
                 //expiryDate is nullable, therefore we need to check beforehand whether it can be compared with .equals()
-                this.activityURL.equals(todo.getActivityURL()) &&
-                this.imageURL.equals(todo.getImageURL()) &&
+                Objects.equals(this.activityURL, todo.getActivityURL()) &&
+                Objects.equals(this.imageURL, todo.getImageURL()) &&
                 this.backgroundColor.equals(todo.getBackgroundColor()) &&
                 this.ownerUserID == todo.getOwnerUserID() &&
                 this.sharedUsers.equals(todo.getSharedUsers());
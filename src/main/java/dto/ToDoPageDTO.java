@@ -0,0 +1,47 @@
+package dto;
+
+//Java imports
+import java.util.List;
+
+/**
+ * <p>A ToDo page Data Transfer Object.</p>
+ * <p>The class provides methods to retrieve a page of the ToDos of a {@link model.Noticeboard} and the token to request the next page with.</p>
+ */
+public class ToDoPageDTO {
+    private final List<ToDoDTO> todos;
+    private final String nextPageToken;
+
+    /**
+     * <p>Instantiates a new ToDoPageDTO.</p>
+     * @param todos the page's ToDos, in board order
+     * @param nextPageToken the continuation token of the next page, {@code null} if this is the last page
+     *
+     * @throws IllegalArgumentException if {@code todos} is {@code null}
+     */
+    public ToDoPageDTO(List<ToDoDTO> todos, String nextPageToken) {
+        if(todos == null)
+            throw new IllegalArgumentException("The page's ToDos cannot be null");
+
+        this.todos = List.copyOf(todos);
+        this.nextPageToken = nextPageToken;
+    }
+
+    //Getter methods
+    /**
+     * <p>Gets the page's ToDos.</p>
+     * @return the ToDos, as a {@link List} of {@link ToDoDTO} in board order
+     */
+    public List<ToDoDTO> getToDos() { return todos; }
+
+    /**
+     * <p>Gets the continuation token to request the next page with.</p>
+     * @return the token, {@code null} if this is the last page
+     */
+    public String getNextPageToken() { return nextPageToken; }
+
+    /**
+     * <p>Checks whether another page follows this one.</p>
+     * @return {@code true} if another page follows, {@code false} otherwise
+     */
+    public boolean hasNextPage() { return nextPageToken != null; }
+}
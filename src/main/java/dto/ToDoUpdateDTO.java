@@ -0,0 +1,119 @@
+package dto;
+
+//Java imports
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * <p>A ToDo update Data Transfer Object.</p>
+ * <p>The class holds the editable attributes of a {@link model.ToDo} that differ between two versions of it, so that only those are persisted.</p>
+ */
+public class ToDoUpdateDTO {
+    /**
+     * <p>The editable attributes of a ToDo.</p>
+     */
+    public enum Field { TITLE, DESCRIPTION, EXPIRY_DATE, ACTIVITY_URL, IMAGE_URL, BACKGROUND_COLOR }
+
+    //Members
+    private final Set<Field> changedFields;
+    private final String title;
+    private final String description;
+    private final LocalDateTime expiryDate;
+    private final String activityURL;
+    private final String imageURL;
+    private final String backgroundColor;
+
+    /**
+     * <p>Instantiates a new ToDoUpdateDTO holding the attributes of {@code updated} that differ from {@code original}.</p>
+     * <p>If the details of {@code original} are not loaded, the description and URLs of {@code updated} are considered changed.</p>
+     * @param original the ToDo before the edit
+     * @param updated the ToDo after the edit
+     *
+     * @throws IllegalArgumentException if either ToDo is {@code null}
+     */
+    public ToDoUpdateDTO(ToDoDTO original, ToDoDTO updated) {
+        if(original == null || updated == null)
+            throw new IllegalArgumentException("The original and updated ToDos cannot be null");
+
+        EnumSet<Field> changed = EnumSet.noneOf(Field.class);
+        if(!Objects.equals(original.getTitle(), updated.getTitle()))
+            changed.add(Field.TITLE);
+        if(!Objects.equals(original.getDescription(), updated.getDescription()))
+            changed.add(Field.DESCRIPTION);
+        if(!Objects.equals(original.getExpiryDate(), updated.getExpiryDate()))
+            changed.add(Field.EXPIRY_DATE);
+        if(!Objects.equals(original.getActivityURL(), updated.getActivityURL()))
+            changed.add(Field.ACTIVITY_URL);
+        if(!Objects.equals(original.getImageURL(), updated.getImageURL()))
+            changed.add(Field.IMAGE_URL);
+        if(!Objects.equals(original.getBackgroundColor(), updated.getBackgroundColor()))
+            changed.add(Field.BACKGROUND_COLOR);
+
+        this.changedFields = Collections.unmodifiableSet(changed);
+        this.title = updated.getTitle();
+        this.description = updated.getDescription();
+        this.expiryDate = updated.getExpiryDate();
+        this.activityURL = updated.getActivityURL();
+        this.imageURL = updated.getImageURL();
+        this.backgroundColor = updated.getBackgroundColor();
+    }
+
+    //Getter methods
+    /**
+     * <p>Gets the changed attributes.</p>
+     * @return the changed attributes, as a {@link Set} of {@link Field}
+     */
+    public Set<Field> getChangedFields() { return changedFields; }
+
+    /**
+     * <p>Checks if an attribute was changed.</p>
+     * @param field the attribute
+     * @return {@code true} if changed, otherwise {@code false}
+     */
+    public boolean isChanged(Field field) { return changedFields.contains(field); }
+
+    /**
+     * <p>Checks if no attribute was changed.</p>
+     * @return {@code true} if there is nothing to update, otherwise {@code false}
+     */
+    public boolean isEmpty() { return changedFields.isEmpty(); }
+
+    /**
+     * <p>Gets the new title.</p>
+     * @return the title
+     */
+    public String getTitle() { return title; }
+
+    /**
+     * <p>Gets the new description.</p>
+     * @return the description
+     */
+    public String getDescription() { return description; }
+
+    /**
+     * <p>Gets the new expiry date.</p>
+     * @return the expiry date, {@code null} if the ToDo does not expire
+     */
+    public LocalDateTime getExpiryDate() { return expiryDate; }
+
+    /**
+     * <p>Gets the new activity url.</p>
+     * @return the activity url
+     */
+    public String getActivityURL() { return activityURL; }
+
+    /**
+     * <p>Gets the new image url.</p>
+     * @return the image url
+     */
+    public String getImageURL() { return imageURL; }
+
+    /**
+     * <p>Gets the new background color.</p>
+     * @return the background color as an hexadecimal RBG string in the "#RRGGBB" format
+     */
+    public String getBackgroundColor() { return backgroundColor; }
+}
@@ -1,21 +1,30 @@
 package dto;
 
 //App imports
+import model.Noticeboard;
 import model.User;
 
 //Java imports
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * <p>A User Data Transfer Object.</p>
  * <p>The class provides methods to retrieve the attributes and Noticeboards of a {@link User}.</p>
+ * <p>UserDTOs are immutable, so a snapshot of a User can be taken from its previous snapshot,
+ * sharing the {@link NoticeboardDTO}s of the Noticeboards that did not change since.</p>
  */
 public class UserDTO {
     private final int userID;
     private final String username;
     private final String password;
+    private final long version; //The version of the User the DTO was copied from
 
     private final List<NoticeboardDTO> boards;
+    private final Map<Integer, Integer> boardPositions; //The position of each Noticeboard in boards, by ID
 
     /**
      * <p>Instantiates a new User DTO copied from a User.</p>
@@ -30,7 +39,55 @@ public class UserDTO {
         this.userID = source.getUserID();
         this.username = source.getUsername();
         this.password = source.getPassword();
+        this.version = source.getVersion();
         this.boards = source.getNoticeboards().stream().map(NoticeboardDTO::new).toList();
+        this.boardPositions = indexByID(boards);
+    }
+
+    /**
+     * <p>Instantiates a new snapshot of a User, reusing the Noticeboards of its previous snapshot that did not change since.</p>
+     * <p>Only the snapshots of the changed Noticeboards are taken again, each from its previous snapshot, see
+     * {@link NoticeboardDTO#NoticeboardDTO(Noticeboard, NoticeboardDTO)}. If no Noticeboard changed, added, removed or moved,
+     * the Noticeboard list of the previous snapshot is shared too.</p>
+     * @param source the User to copy the attributes and Noticeboard list from
+     * @param previous the previous snapshot of the User, {@code null} if there is none
+     *
+     * @throws IllegalArgumentException if {@code source} is {@code null}
+     */
+    public UserDTO(User source, UserDTO previous){
+        if(source == null)
+            throw new IllegalArgumentException("Source User cannot be null");
+
+        this.userID = source.getUserID();
+        this.username = source.getUsername();
+        this.password = source.getPassword();
+        this.version = source.getVersion();
+
+        UserDTO reusable = previous != null && previous.userID == userID ? previous : null;
+        List<Noticeboard> sourceBoards = source.getNoticeboards();
+
+        //Compare the versions first, the Noticeboards are copied only if one of them changed
+        boolean sameBoards = reusable != null && reusable.boards.size() == sourceBoards.size();
+        for(int i = 0; sameBoards && i < sourceBoards.size(); i++) {
+            NoticeboardDTO previousBoard = reusable.boards.get(i);
+            sameBoards = previousBoard.getBoardID() == sourceBoards.get(i).getBoardID() && previousBoard.getVersion() == sourceBoards.get(i).getVersion();
+        }
+        if(sameBoards) {
+            this.boards = reusable.boards;
+            this.boardPositions = reusable.boardPositions;
+            return;
+        }
+
+        List<NoticeboardDTO> snapshots = new ArrayList<>(sourceBoards.size());
+        boolean sameOrder = reusable != null && reusable.boards.size() == sourceBoards.size();
+        for(Noticeboard board : sourceBoards) {
+            NoticeboardDTO previousBoard = reusable != null ? reusable.getNoticeboard(board.getBoardID()) : null;
+            snapshots.add(previousBoard != null && previousBoard.getVersion() == board.getVersion()
+                    ? previousBoard : new NoticeboardDTO(board, previousBoard));
+            sameOrder = sameOrder && reusable.boards.get(snapshots.size() - 1).getBoardID() == board.getBoardID();
+        }
+        this.boards = Collections.unmodifiableList(snapshots);
+        this.boardPositions = sameOrder ? reusable.boardPositions : indexByID(boards);
     }
 
     //Getter & Setter methods
@@ -51,10 +108,34 @@ public class UserDTO {
      */
     public String getPassword() { return password; }
 
+    /**
+     * <p>Gets the version of the User the DTO was copied from.</p>
+     * @return the version
+     */
+    public long getVersion() { return version; }
+
     //Noticeboard methods
     /**
      * <p>Gets the User's Noticeboards.</p>
      * @return the Noticeboards, as a {@link List} of {@link NoticeboardDTO}
      */
     public List<NoticeboardDTO> getNoticeboards() { return boards; }
+
+    /**
+     * <p>Gets one of the User's Noticeboards.</p>
+     * @param boardID the Noticeboard's ID
+     * @return the Noticeboard, {@code null} if the User has no Noticeboard with that ID
+     */
+    public NoticeboardDTO getNoticeboard(int boardID) {
+        Integer position = boardPositions.get(boardID);
+        return position != null ? boards.get(position) : null;
+    }
+
+    //Utility methods
+    private static Map<Integer, Integer> indexByID(List<NoticeboardDTO> boards) {
+        Map<Integer, Integer> index = new HashMap<>();
+        for(int i = 0; i < boards.size(); i++)
+            index.put(boards.get(i).getBoardID(), i);
+        return index;
+    }
 }
@@ -1,6 +1,10 @@
 package gui;
 
+//Java imports
+import javax.swing.JOptionPane;
+
 //App imports
+import controller.Controller;
 import gui.views.GUIView;
 import gui.views.homeview.HomeView;
 
@@ -40,10 +44,18 @@ public class GUI {
 
     //Main method
     /**
-     * The Main function of the App, spawns a {@link GUI}.
+     * The Main function of the App, connects to the Database then spawns a {@link GUI}.
      * @param args unused main arguments
      */
     public static void main(String[] args) {
+        try {
+            Controller.getInstance().connectDatabase();
+        }
+        catch (IllegalStateException e) {
+            JOptionPane.showMessageDialog(null, "Could not set up the database: " + e.getMessage(), "Error - Database unavailable", JOptionPane.ERROR_MESSAGE);
+            System.exit(1);
+        }
+
         new GUI();
     }
 }
@@ -5,16 +5,22 @@ import javax.swing.*;
 import javax.swing.border.Border;
 
 import java.awt.*;
+import java.awt.event.ActionEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 //App imports
 import controller.*;
 
 import dto.NoticeboardDTO;
 import dto.ToDoDTO;
+import dto.ToDoPageDTO;
+import gui.components.ListComponent;
 import gui.components.forms.ToDoForm;
 
 /**
@@ -23,10 +29,20 @@ import gui.components.forms.ToDoForm;
 class BoardComponent {
     private final JPanel mainPanel;
     private final JPanel todoPanel;
+    private final JButton selectionButton;
 
     private final BoardView parentBoardView;
 
     private NoticeboardDTO board;
+    private final boolean shouldDrawShared;
+
+    private final List<ToDoDTO> loadedToDos;
+    private String nextPageToken;
+    private boolean hasMorePages;
+
+    private final Set<Integer> selectedToDoIDs; //The ToDos the bulk actions apply to
+
+    private static final int PAGE_SIZE = 50; //ToDos fetched at a time, further pages are fetched as the view is scrolled
 
     //Setters and getters
     /**
@@ -47,25 +63,63 @@ class BoardComponent {
      */
     /* package */ NoticeboardDTO getBoard() { return board; }
 
+    /**
+     * <p>Gets the ToDos loaded so far, in board order.</p>
+     * @return the loaded ToDos, as a {@link List} of {@link ToDoDTO}
+     */
+    /* package */ List<ToDoDTO> getLoadedToDos() { return Collections.unmodifiableList(loadedToDos); }
+
+    /**
+     * <p>Checks whether the Noticeboard has ToDos that have not been loaded yet.</p>
+     * @return {@code true} if more pages can be loaded, {@code false} otherwise
+     */
+    /* package */ boolean hasMorePages() { return hasMorePages; }
+
+    /**
+     * <p>Checks whether a ToDo is selected.</p>
+     * @param todoID the ToDo's ID
+     * @return {@code true} if the ToDo is selected, {@code false} otherwise
+     */
+    /* package */ boolean isSelected(int todoID) { return selectedToDoIDs.contains(todoID); }
+
     //Constructors
     /**
      * <p>Instantiates a new BoardComponent attached to a {@link BoardView} and linked to a {@link model.Noticeboard}.</p>
      * @param parent the parent {@link BoardView}
-     * @param board the linked {@link NoticeboardDTO}
+     * @param board the linked {@link NoticeboardDTO}, its ToDos are loaded a page at a time
      * @param shouldDrawShared set {@code true} if the component should draw the ToDos that are shared with the User, set {@code false} otherwise
      */
     /* package */ BoardComponent(BoardView parent, NoticeboardDTO board, boolean shouldDrawShared) {
         //Setting up state
         this.parentBoardView = parent;
         this.board = board;
+        this.shouldDrawShared = shouldDrawShared;
+        this.loadedToDos = new ArrayList<>();
+        this.nextPageToken = null;
+        this.hasMorePages = true;
+        this.selectedToDoIDs = new LinkedHashSet<>();
 
         //Initialize GUI
         mainPanel = new JPanel(new GridBagLayout());
 
         this.initializeBoard(board, shouldDrawShared);
 
+        //Initialize the bulk actions button, only shown while ToDos are selected
+        selectionButton = new JButton();
+        selectionButton.setVisible(false);
+        selectionButton.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                super.mouseClicked(e);
+                JPopupMenu popup = getSelectionPopupMenu();
+                popup.show(selectionButton, e.getX(), e.getY());
+            }
+        });
+        mainPanel.add(selectionButton, new GridBagConstraints(0, 1, 2, 1, 0.5, 0.0,
+                GridBagConstraints.PAGE_START, GridBagConstraints.HORIZONTAL, new Insets(0, 0, 0, 0), 0, 0));
+
         //Initialize ToDo components
-        GridBagConstraints todoPanelConstraints = new GridBagConstraints(0, 1, 2, 1, 0.5, 0.5,
+        GridBagConstraints todoPanelConstraints = new GridBagConstraints(0, 2, 2, 1, 0.5, 0.5,
                 GridBagConstraints.PAGE_START, GridBagConstraints.HORIZONTAL, new Insets(0, 0, 0, 0), 0, 0);
 
         todoPanel = new JPanel();
@@ -73,10 +127,7 @@ class BoardComponent {
         todoPanel.setVisible(true);
         mainPanel.add(todoPanel, todoPanelConstraints);
 
-        for (ToDoDTO todo : this.getVisibleToDos(shouldDrawShared)) {
-            ToDoComponent t = new ToDoComponent(this, todo);
-            todoPanel.add(t.getPanel());
-        }
+        this.loadNextPage();
 
         mainPanel.setVisible(true);
     }
@@ -123,24 +174,92 @@ class BoardComponent {
     }
 
     /**
-     * <p>Invalidates the cached {@link model.Noticeboard} and reloads the {@link ToDoComponent}s.</p>
+     * <p>Loads the next page of the Noticeboard's ToDos and appends their {@link ToDoComponent}s.</p>
      */
-    /* package */ void reloadToDoComponent() {
-        //Reset DTO to mimic the updated model's state
-        board = Controller.getInstance().getNoticeboard(board.getBoardID());
-
-        //Remove all ToDoComponents from the BoardComponent
-        todoPanel.removeAll();
+    /* package */ void loadNextPage() {
+        if(!hasMorePages)
+            return;
+
+        ToDoPageDTO page = Controller.getInstance().getToDoPage(board.getBoardID(), nextPageToken, PAGE_SIZE);
+        if(page == null) { //Leave the remaining pages to the next attempt
+            JOptionPane.showMessageDialog(mainPanel, "Couldn't load the Noticeboard's ToDos.");
+            return;
+        }
 
-        for (ToDoDTO todo : board.getToDos()) {
+        for (ToDoDTO todo : this.getVisibleToDos(page.getToDos())) {
+            loadedToDos.add(todo);
             ToDoComponent t = new ToDoComponent(this, todo);
             todoPanel.add(t.getPanel());
         }
 
+        nextPageToken = page.getNextPageToken();
+        hasMorePages = page.hasNextPage();
+
+        todoPanel.revalidate();
+        todoPanel.repaint();
+    }
+
+    /**
+     * <p>Redraws the {@link ToDoComponent}s of some of the loaded ToDos from the model, dropping the ones that are gone.</p>
+     * <p>Only the changed ToDos are redrawn, the pages loaded so far are not read again.</p>
+     * @param todoIDs the IDs of the changed ToDos
+     */
+    /* package */ void refreshToDos(Set<Integer> todoIDs) {
+        //Walk backwards, so that dropping a ToDo does not shift the ones still to visit
+        for(int i = loadedToDos.size() - 1; i >= 0; i--) {
+            int todoID = loadedToDos.get(i).getToDoID();
+            if(!todoIDs.contains(todoID))
+                continue;
+
+            ToDoDTO todo = Controller.getInstance().getToDoDTO(board.getBoardID(), todoID);
+            todoPanel.remove(i);
+            if(todo == null || this.getVisibleToDos(List.of(todo)).isEmpty()) { //Deleted or moved to another Noticeboard
+                loadedToDos.remove(i);
+                selectedToDoIDs.remove(todoID);
+            }
+            else {
+                loadedToDos.set(i, todo);
+                todoPanel.add(new ToDoComponent(this, todo).getPanel(), i);
+            }
+        }
+
+        this.updateSelectionButton();
+
+        todoPanel.revalidate();
+        todoPanel.repaint();
+    }
+
+    /**
+     * <p>Draws a ToDo just added to the Noticeboard, if the last page is loaded already.</p>
+     * <p>New ToDos are appended to the Noticeboard, so that otherwise the ToDo is drawn once its page is loaded.</p>
+     * @param title the new ToDo's title
+     */
+    /* package */ void showAddedToDo(String title) {
+        if(hasMorePages)
+            return;
+
+        ToDoDTO todo = Controller.getInstance().getToDoDTO(board.getBoardID(), title);
+        if(todo == null || this.getVisibleToDos(List.of(todo)).isEmpty())
+            return;
+
+        loadedToDos.add(todo);
+        todoPanel.add(new ToDoComponent(this, todo).getPanel());
+
         todoPanel.revalidate();
         todoPanel.repaint();
     }
 
+    /**
+     * <p>Selects a ToDo if it is not selected, deselects it otherwise.</p>
+     * @param todoID the ToDo's ID
+     */
+    /* package */ void toggleSelection(int todoID) {
+        if(!selectedToDoIDs.remove(todoID))
+            selectedToDoIDs.add(todoID);
+
+        this.updateSelectionButton();
+    }
+
     private void addToDoAction() {
         try {
             ToDoForm form = new ToDoForm(null);
@@ -152,7 +271,7 @@ class BoardComponent {
                 Controller.getInstance().addToDo(board.getBoardID(), todoToAdd);
 
                 //Sync GUI state
-                reloadToDoComponent();
+                showAddedToDo(todoToAdd.getTitle());
             }
         } catch (InvalidControllerOperationException _) {
             JOptionPane.showMessageDialog(mainPanel, "Couldn't add ToDo, a ToDo with the same title exists already.");
@@ -160,16 +279,193 @@ class BoardComponent {
     }
 
     /**
-     * <p>Gets the {@link model.Noticeboard}s that are currently visible to the logged User.</p>
-     * @param shouldDrawSharedToDos {@code true} if the component should draw the ToDoComponents of ToDos that are shared with the User, {@code false} otherwise
-     * @return a {@link List} of {@link ToDoDTO} containing the visible ToDos
+     * <p>Shows the number of selected ToDos on the bulk actions button, hiding it if none is selected.</p>
      */
-    private List<ToDoDTO> getVisibleToDos(boolean shouldDrawSharedToDos) {
-        List<ToDoDTO> boardToDos = this.board.getToDos();
+    private void updateSelectionButton() {
+        selectionButton.setText("Selected ToDos (" + selectedToDoIDs.size() + ")");
+        selectionButton.setVisible(!selectedToDoIDs.isEmpty());
+    }
+
+    /**
+     * <p>Initializes the popup menu of the actions applied to all the selected ToDos at once.</p>
+     * @return the generated {@link JPopupMenu}
+     */
+    private JPopupMenu getSelectionPopupMenu() {
+        JPopupMenu popup = new JPopupMenu("");
+
+        //ToDo state section
+        JMenuItem completeItem = new JMenuItem("Set complete");
+        JMenuItem notCompleteItem = new JMenuItem("Set not complete");
+        //ToDo edit section
+        JMenuItem colorItem = new JMenuItem("Change the background color");
+        //Todo positioning section
+        JMenuItem changeBoardItem = new JMenuItem("Move to a new Noticeboard");
+        //ToDo delete section
+        JMenuItem deleteItem = new JMenuItem("Delete");
+        //Selection section
+        JMenuItem clearItem = new JMenuItem("Clear the selection");
+
+        //Adding item listeners
+        completeItem.addActionListener(new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                setCompletionStateAction(true);
+            }
+        });
+
+        notCompleteItem.addActionListener(new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                setCompletionStateAction(false);
+            }
+        });
+
+        colorItem.addActionListener(new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                setBackgroundColorAction();
+            }
+        });
+
+        changeBoardItem.addActionListener(new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                changeBoardAction();
+            }
+        });
+
+        deleteItem.addActionListener(new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                deleteAction();
+            }
+        });
+
+        clearItem.addActionListener(new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                //Redraw the deselected ToDos without their outline
+                Set<Integer> deselected = Set.copyOf(selectedToDoIDs);
+                selectedToDoIDs.clear();
+                refreshToDos(deselected);
+            }
+        });
+
+        popup.add(completeItem);
+        popup.add(notCompleteItem);
+        popup.addSeparator();
+        popup.add(colorItem);
+        popup.addSeparator();
+        popup.add(changeBoardItem);
+        popup.addSeparator();
+        popup.add(deleteItem);
+        popup.addSeparator();
+        popup.add(clearItem);
+
+        return popup;
+    }
+
+    //Bulk menu helpers
+    private void setCompletionStateAction(boolean isCompleted) {
+        String message = "Are you really sure you want to set " + selectedToDoIDs.size() + " ToDos as " + (isCompleted ? "complete?" : "not complete?");
+
+        if(JOptionPane.YES_OPTION == JOptionPane.showConfirmDialog(mainPanel, message, "", JOptionPane.YES_NO_OPTION)) {
+            Controller.getInstance().setCompletionState(board.getBoardID(), Set.copyOf(selectedToDoIDs), isCompleted);
+
+            //Sync GUI state
+            Set<Integer> changed = Set.copyOf(selectedToDoIDs);
+            selectedToDoIDs.clear();
+            this.refreshToDos(changed);
+        }
+    }
+
+    private void setBackgroundColorAction() {
+        Color color = JColorChooser.showDialog(mainPanel, "Choose the ToDos' color", Color.WHITE);
+        if(color == null)
+            return;
+
+        String hexColor = String.format("#%02X%02X%02X", color.getRed(), color.getGreen(), color.getBlue());
+        Controller.getInstance().setBackgroundColor(board.getBoardID(), Set.copyOf(selectedToDoIDs), hexColor);
+
+        //Sync GUI state
+        Set<Integer> changed = Set.copyOf(selectedToDoIDs);
+        selectedToDoIDs.clear();
+        this.refreshToDos(changed);
+    }
+
+    private void deleteAction() {
+        if(JOptionPane.YES_OPTION ==
+                JOptionPane.showConfirmDialog(mainPanel, "Are you really sure you want to delete " + selectedToDoIDs.size() + " ToDos?", "", JOptionPane.YES_NO_OPTION)) {
+            Controller.getInstance().deleteToDos(board.getBoardID(), Set.copyOf(selectedToDoIDs));
+
+            //Sync GUI state
+            Set<Integer> changed = Set.copyOf(selectedToDoIDs);
+            selectedToDoIDs.clear();
+            this.refreshToDos(changed);
+        }
+    }
+
+    private void changeBoardAction() {
+        //Create BoardList object with all the boards owned by the logged user
+        int userID = Controller.getInstance().getLoggedUser().getUserID();
+        List<NoticeboardDTO> ownedBoards = Controller.getInstance().getNoticeboards().stream().filter(ownedBoard -> ownedBoard.getUserID() == userID).toList();
+        List<String> items = ownedBoards.stream().map(NoticeboardDTO::getTitle).toList();
+
+        ListComponent list = new ListComponent(items, "Move ToDos to a new board");
+        list.getModel().removeElement(board.getTitle()); //Remove the original board from the list
 
+        //Create "Move" button and init its settings
+        JButton button = new JButton("Move");
+        button.setEnabled(false);
+        list.getPanel().add(button, new GridBagConstraints(0, 1, 1, 1, 0.5, 0.5, GridBagConstraints.PAGE_END, GridBagConstraints.HORIZONTAL, new Insets(0, 0, 0, 0), 0, 0));
+        button.setVisible(true);
+        list.reloadListComponent();
+
+        //Add list and button listeners
+        list.getList().addListSelectionListener(e -> button.setEnabled(true));
+
+        button.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                super.mouseClicked(e);
+
+                if(!button.isEnabled())
+                    return;
+
+                String newBoardTitle = list.getList().getSelectedValue();
+
+                if(JOptionPane.YES_OPTION == JOptionPane.showConfirmDialog(list.getPanel(),
+                        "Are you really sure you want to move " + selectedToDoIDs.size() + " ToDos to \"" + newBoardTitle + "\"?", "", JOptionPane.YES_NO_OPTION)) {
+                    try {
+                        //Sync App change
+                        int newBoardID = ownedBoards.stream().filter(ownedBoard -> ownedBoard.getTitle().equals(newBoardTitle)).findFirst().get().getBoardID();
+                        Controller.getInstance().moveToDosToBoard(board.getBoardID(), Set.copyOf(selectedToDoIDs), newBoardID);
+
+                        //Sync GUI state
+                        selectedToDoIDs.clear();
+                        list.dispose();
+                        parentBoardView.refreshBoardComponents();
+                    }
+                    catch (InvalidControllerOperationException exc){
+                        if(exc.getErrorType() == InvalidControllerOperationException.InvalidOperationType.TODO_TITLE_ALREADY_EXISTS)
+                            JOptionPane.showMessageDialog(mainPanel, "The destination Noticeboard already owns a ToDo with the same title as one of the selected ToDos.", "Error", JOptionPane.ERROR_MESSAGE);
+                        else
+                            throw exc;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * <p>Filters the ToDos of a page down to the ones the component should draw.</p>
+     * @param pageToDos the ToDos of the page
+     * @return a {@link List} of {@link ToDoDTO} containing the visible ToDos
+     */
+    private List<ToDoDTO> getVisibleToDos(List<ToDoDTO> pageToDos) {
         ArrayList<ToDoDTO> visibleToDos = new ArrayList<>();
-        for (ToDoDTO todo : boardToDos)
-            if(shouldDrawSharedToDos || todo.getOwnerUserID() == Controller.getInstance().getLoggedUser().getUserID())
+        for (ToDoDTO todo : pageToDos)
+            if(shouldDrawShared || todo.getOwnerUserID() == Controller.getInstance().getLoggedUser().getUserID())
                 visibleToDos.add(todo);
 
         return visibleToDos;
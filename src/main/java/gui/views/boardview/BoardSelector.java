@@ -42,11 +42,14 @@ import dto.NoticeboardDTO;
 
         //Initializing component
         ArrayList<NoticeboardDTO> boards = new ArrayList<>(Controller.getInstance().getNoticeboards());
-        ArrayList<NoticeboardDTO> displayed = new ArrayList<>(parentBoardComponent.getParentViewer().getCurrentlyDisplayedBoards());
-        displayed.remove(parentBoardComponent.getBoard()); //Remove the parent board from the boards that are already displayed (needs to be the only one visible)
+        int parentBoardID = parentBoardComponent.getBoard().getBoardID();
+        List<Integer> displayed = parentBoardComponent.getParentViewer().getCurrentlyDisplayedBoards().stream()
+                .map(NoticeboardDTO::getBoardID)
+                .filter(boardID -> boardID != parentBoardID) //Remove the parent board from the boards that are already displayed (needs to be the only one visible)
+                .toList();
 
-        //Remove boards that are already displayed
-        boards.removeAll(displayed);
+        //Remove boards that are already displayed (compared by ID, as the boards' ToDos may not be loaded yet)
+        boards.removeIf(board -> displayed.contains(board.getBoardID()));
 
         //Cache the logged user's ID
         int userID = Controller.getInstance().getLoggedUser().getUserID();
@@ -71,7 +74,7 @@ import dto.NoticeboardDTO;
 
         //Create the JComboBox and set it up
         comboBox = new JComboBox<>(boardSelectorItemList.toArray(new String[0]));
-        comboBox.setSelectedIndex(boards.indexOf(parentBoardComponent.getBoard()));
+        comboBox.setSelectedIndex(boards.stream().map(NoticeboardDTO::getBoardID).toList().indexOf(parentBoardID));
         comboBox.setToolTipText(originalTitle + (originalDescription.isEmpty() ? " / ..." : " / " + originalDescription));
 
         Dimension bsDim = new Dimension((int)(parentBoardSize.width / 1.5), parentBoardSize.height / 16);
@@ -86,7 +89,7 @@ import dto.NoticeboardDTO;
 
                 //Sync GUI changes
                 BoardView viewer = parentBoardComponent.getParentViewer();
-                int currentBoardIndex = viewer.getCurrentlyDisplayedBoards().indexOf(parentBoardComponent.getBoard());
+                int currentBoardIndex = viewer.getCurrentlyDisplayedBoards().stream().map(NoticeboardDTO::getBoardID).toList().indexOf(parentBoardComponent.getBoard().getBoardID());
                 int newBoardIndex = comboBox.getSelectedIndex();
 
                 swapViewerBoard(currentBoardIndex, boards.get(newBoardIndex));
@@ -112,7 +115,7 @@ import dto.NoticeboardDTO;
         if(newBoard == null)
             throw new IllegalArgumentException("New board cannot be null");
 
-        if(!toDisplay.contains(newBoard) && toDisplay.get(viewerIndex) != newBoard) {
+        if(toDisplay.stream().noneMatch(board -> board.getBoardID() == newBoard.getBoardID())) {
             toDisplay.set(viewerIndex, newBoard);
             viewer.refreshBoardComponents();
         }
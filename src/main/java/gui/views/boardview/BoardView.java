@@ -11,6 +11,7 @@ import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 //App imports
 import gui.components.forms.NoticeboardForm;
@@ -29,13 +30,19 @@ import dto.ToDoDTO;
 public class BoardView implements GUIView {
     private JFrame viewerFrame;
     private JPanel mainPanel;
+    private JScrollPane scrollPane;
 
     private final ArrayList<NoticeboardDTO> toDisplay;
+    private final ArrayList<BoardComponent> boardComponents;
 
     private boolean shouldDrawShared;
 
+    private static final int PAGE_LOAD_THRESHOLD = 200; //Distance from the bottom, in pixels, at which the next ToDo pages are loaded
+
     //Implemented methods
     public void disposeView() {
+        Controller.getInstance().stopChangeListener();
+        Controller.getInstance().disableWriteBehind(); //Waits for the deferred writes
         viewerFrame.setVisible(false);
         viewerFrame.dispose();
     }
@@ -59,15 +66,17 @@ public class BoardView implements GUIView {
 
         //Setting up state
         this.shouldDrawShared = true;
+        this.boardComponents = new ArrayList<>();
 
         //Initialize GUI
         this.initializeViewer();
 
         //Initialize Board components
-        List<NoticeboardDTO> visibleBoards = this.getVisibleNoticeboards();
+        List<NoticeboardDTO> visibleBoards = this.getVisibleNoticeboards(false);
         toDisplay = new ArrayList<>();
+        Controller.getInstance().setDisplayedNoticeboards(visibleBoards.stream().limit(3).map(NoticeboardDTO::getBoardID).toList());
         for(int i = 0; i < Math.min(3, visibleBoards.size()); i++)
-                toDisplay.add(visibleBoards.get(i));
+                toDisplay.add(visibleBoards.get(i)); //The BoardComponents load the ToDos a page at a time
 
         //Initializing board components
         this.drawBoards();
@@ -84,6 +93,12 @@ public class BoardView implements GUIView {
         viewerFrame.setVisible(true);
         viewerFrame.setExtendedState(viewerFrame.getExtendedState() | Frame.MAXIMIZED_BOTH);
         viewerFrame.requestFocus();
+
+        //Keep the displayed boards in sync with the changes made by other users
+        Controller.getInstance().startChangeListener(SwingUtilities::invokeLater, this::refreshChangedBoards);
+
+        //Defer and coalesce the writes of rapid clicks, such as completion toggles, off the event thread
+        Controller.getInstance().enableWriteBehind(SwingUtilities::invokeLater, this::writeFailedAction);
     }
 
     //Methods
@@ -96,10 +111,14 @@ public class BoardView implements GUIView {
         viewerFrame.setPreferredSize(new Dimension(screenDim.width, screenDim.height));
 
         //Create scrollpane and init settings
-        JScrollPane scrollPane = new JScrollPane(ScrollPaneConstants.VERTICAL_SCROLLBAR_ALWAYS, ScrollPaneConstants.HORIZONTAL_SCROLLBAR_ALWAYS);
+        scrollPane = new JScrollPane(ScrollPaneConstants.VERTICAL_SCROLLBAR_ALWAYS, ScrollPaneConstants.HORIZONTAL_SCROLLBAR_ALWAYS);
         scrollPane.setVisible(true);
         scrollPane.getVerticalScrollBar().setUnitIncrement(10);
         scrollPane.getHorizontalScrollBar().setUnitIncrement(10);
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> {
+            if(!e.getValueIsAdjusting())
+                loadNextPagesIfNeeded();
+        });
         viewerFrame.getContentPane().add(scrollPane);
 
         //Attach main content panel
@@ -320,7 +339,7 @@ public class BoardView implements GUIView {
         LocalDate today = LocalDate.now();
 
         ArrayList<String> expiringToday = new ArrayList<>();
-        for (NoticeboardDTO board : getVisibleNoticeboards())
+        for (NoticeboardDTO board : getVisibleNoticeboards(true))
             for(ToDoDTO todo : board.getToDos())
                 if (todo.getExpiryDate() != null && todo.getExpiryDate().toLocalDate().isEqual(today) && !todo.isExpired()) {
                     String matchDescription = todo.getTitle();
@@ -363,7 +382,7 @@ public class BoardView implements GUIView {
 
         //Collect all unexpired ToDos
         ArrayList<String> expiringAtDate = new ArrayList<>();
-        for (NoticeboardDTO board : getVisibleNoticeboards()) {
+        for (NoticeboardDTO board : getVisibleNoticeboards(true)) {
             for (ToDoDTO todo : board.getToDos()){
                 if(todo.getExpiryDate() != null) {
                     boolean beforeDate = todo.getExpiryDate().toLocalDate().isBefore(date);
@@ -399,7 +418,7 @@ public class BoardView implements GUIView {
         }
 
         ArrayList<String> matches = new ArrayList<>();
-        for (NoticeboardDTO board : getVisibleNoticeboards()) {
+        for (NoticeboardDTO board : getVisibleNoticeboards(true)) {
             for (ToDoDTO todo : board.getToDos()) {
                 if(todo.getTitle().toLowerCase().contains(title.toLowerCase())) {
                     String matchDescription = todo.getTitle();
@@ -420,8 +439,9 @@ public class BoardView implements GUIView {
     /* package */ void refreshBoardComponents() {
         mainPanel.removeAll();
 
-        //Refresh DTOs'data
-        toDisplay.replaceAll(board -> Controller.getInstance().getNoticeboard(board.getBoardID()));
+        //Refresh DTOs'data, keeping the displayed boards loaded
+        Controller.getInstance().setDisplayedNoticeboards(toDisplay.stream().map(NoticeboardDTO::getBoardID).toList());
+        toDisplay.replaceAll(board -> Controller.getInstance().getNoticeboardMetadata(board.getBoardID()));
 
         //Refresh components
         this.drawBoards();
@@ -437,13 +457,77 @@ public class BoardView implements GUIView {
     /* package */ public void reloadBoardComponents() {
         toDisplay.clear();
 
-        List<NoticeboardDTO> visibleBoards = this.getVisibleNoticeboards();
+        List<NoticeboardDTO> visibleBoards = this.getVisibleNoticeboards(false);
         for(int i = 0; i < Math.min(3, visibleBoards.size()); i++)
             toDisplay.add(visibleBoards.get(i));
 
         this.refreshBoardComponents();
     }
 
+    /**
+     * <p>Redraws only the displayed {@link BoardComponent}s whose {@link model.Noticeboard}s were changed by other users.</p>
+     * @param changedBoardIDs the IDs of the changed Noticeboards, {@code null} if all of them may have changed
+     */
+    private void refreshChangedBoards(Set<Integer> changedBoardIDs) {
+        if(changedBoardIDs == null) {
+            this.reloadBoardComponents();
+            return;
+        }
+
+        for(int i = 0; i < toDisplay.size(); i++) {
+            if(!changedBoardIDs.contains(toDisplay.get(i).getBoardID()))
+                continue;
+
+            //A displayed board was deleted or is no longer shared, pick the displayed boards again
+            NoticeboardDTO board = Controller.getInstance().getNoticeboardMetadata(toDisplay.get(i).getBoardID());
+            if(board == null) {
+                this.reloadBoardComponents();
+                return;
+            }
+
+            //Swap in a new BoardComponent, the selector has to show the new title too
+            BoardComponent boardComponent = new BoardComponent(this, board, shouldDrawShared);
+            toDisplay.set(i, board);
+            boardComponents.set(i, boardComponent);
+            mainPanel.remove(i);
+            mainPanel.add(boardComponent.getPanel(), i);
+        }
+
+        mainPanel.revalidate();
+        mainPanel.repaint();
+        SwingUtilities.invokeLater(this::loadNextPagesIfNeeded);
+    }
+
+    /**
+     * <p>Reports a deferred write that could not be persisted and redraws the boards, whose model changes were rolled back.</p>
+     * @param failure the cause of the failure
+     */
+    private void writeFailedAction(RuntimeException failure) {
+        JOptionPane.showMessageDialog(viewerFrame, "Some of the latest changes couldn't be saved and were undone.", "Error", JOptionPane.ERROR_MESSAGE);
+        this.refreshBoardComponents();
+    }
+
+    /**
+     * <p>Loads the next ToDo page of every {@link BoardComponent} that has more, while the view is scrolled close to its bottom.</p>
+     */
+    private void loadNextPagesIfNeeded() {
+        JScrollBar scrollBar = scrollPane.getVerticalScrollBar();
+        if(scrollBar.getValue() + scrollBar.getVisibleAmount() < scrollBar.getMaximum() - PAGE_LOAD_THRESHOLD)
+            return;
+
+        boolean loaded = false;
+        for(BoardComponent boardComponent : boardComponents) {
+            if(boardComponent.hasMorePages()) {
+                boardComponent.loadNextPage();
+                loaded = true;
+            }
+        }
+
+        //The new ToDos may still not fill the view, check again once they are laid out
+        if(loaded)
+            SwingUtilities.invokeLater(this::loadNextPagesIfNeeded);
+    }
+
     /**
      * <p>Draws the BoardComponents and, if needed, dummy BoardComponents.</p>
      */
@@ -451,12 +535,15 @@ public class BoardView implements GUIView {
         Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
         Dimension boardSize = new Dimension(screenSize.width / 6, screenSize.height / 2);
 
+        boardComponents.clear();
         for (NoticeboardDTO board : toDisplay) {
             BoardComponent boardComponent = new BoardComponent(this, board, shouldDrawShared);
+            boardComponents.add(boardComponent);
             mainPanel.add(boardComponent.getPanel());
         }
 
         this.addDummyBoards(boardSize);
+        SwingUtilities.invokeLater(this::loadNextPagesIfNeeded);
     }
 
     /**
@@ -474,11 +561,12 @@ public class BoardView implements GUIView {
 
     /**
      * <p>Gets the Noticeboards that are currently visible by the logged User.</p>
+     * @param withToDos {@code true} if the ToDos of the boards are needed, {@code false} if only their metadata is
      * @return a {@link List} of {@link NoticeboardDTO} containing the owned boards
      */
-    private List<NoticeboardDTO> getVisibleNoticeboards() {
+    private List<NoticeboardDTO> getVisibleNoticeboards(boolean withToDos) {
         Controller ctr = Controller.getInstance();
-        List<NoticeboardDTO> userBoards = ctr.getNoticeboards();
+        List<NoticeboardDTO> userBoards = withToDos ? ctr.getHydratedNoticeboards() : ctr.getNoticeboards();
 
         ArrayList<NoticeboardDTO> visibleBoards = new ArrayList<>();
         for (NoticeboardDTO board : userBoards)
@@ -17,6 +17,7 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 import java.util.List;
+import java.util.Set;
 import java.util.function.ToDoubleFunction;
 
 import java.net.URI;
@@ -38,7 +39,8 @@ class ToDoComponent {
     private final JPanel mainPanel;
     private final BoardComponent parentBoardComponent;
 
-    private final ToDoDTO todo;
+    private ToDoDTO todo;
+    private boolean expanded; //The description and URLs are only drawn once the component is expanded
 
     //Setters and getters
     /**
@@ -57,10 +59,32 @@ class ToDoComponent {
         //Setting up state
         this.parentBoardComponent = parent;
         this.todo = todo;
+        this.expanded = false;
 
         //Setting up main panel and its layout
         mainPanel = new JPanel(new GridBagLayout());
+        this.drawComponent();
 
+        //Ctrl+click selects the ToDo for the board's bulk actions
+        if(todo.getOwnerUserID() == Controller.getInstance().getLoggedUser().getUserID()) {
+            mainPanel.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    super.mouseClicked(e);
+                    if(e.isControlDown())
+                        toggleSelectionAction();
+                }
+            });
+        }
+
+        mainPanel.setVisible(true);
+    }
+
+    //Methods
+    /**
+     * <p>Draws the ToDoComponent's buttons and the parent ToDo's attributes.</p>
+     */
+    private void drawComponent() {
         //Setting up "+" button
         JButton moreButton = new JButton("(+)");
         moreButton.addMouseListener(new MouseAdapter() {
@@ -74,12 +98,38 @@ class ToDoComponent {
 
         //Draw the ToDoComponent's elements
         mainPanel.add(moreButton, new GridBagConstraints(0, 0, 1, 1, 0.5, 0.5, GridBagConstraints.FIRST_LINE_END, GridBagConstraints.NONE, new Insets(0,0,0,0), 0, 0));
-        addToDoAttributeElements(mainPanel);
 
-        mainPanel.setVisible(true);
+        //Setting up the expand button, only if there is something to expand
+        if(todo.hasDetails()) {
+            JButton expandButton = new JButton(expanded ? "(-)" : "(...)");
+            expandButton.setToolTipText(expanded ? "Hide the details" : "Show the details");
+            expandButton.addMouseListener(new MouseAdapter() {
+                @Override
+                public void mouseClicked(MouseEvent e) {
+                    super.mouseClicked(e);
+                    toggleExpandedAction();
+                }
+            });
+            mainPanel.add(expandButton, new GridBagConstraints(0, 0, 1, 1, 0.5, 0.5, GridBagConstraints.PAGE_START, GridBagConstraints.NONE, new Insets(0,0,0,0), 0, 0));
+        }
+
+        addToDoAttributeElements(mainPanel);
     }
 
-    //Methods
+    /**
+     * <p>Loads the ToDo's description and URLs, if they have not been loaded yet.</p>
+     * @return {@code true} if the details are loaded, {@code false} if they could not be loaded
+     */
+    private boolean loadDetails() {
+        ToDoDTO detailed = Controller.getInstance().loadToDoDetails(parentBoardComponent.getBoard().getBoardID(), todo);
+        if(detailed == null) {
+            JOptionPane.showMessageDialog(mainPanel, "Couldn't load the ToDo's details.", "Error", JOptionPane.ERROR_MESSAGE);
+            return false;
+        }
+
+        todo = detailed;
+        return true;
+    }
 
     /**
      * <p>Draws the parent ToDo's attributes in the ToDoComponent.</p>
@@ -120,7 +170,10 @@ class ToDoComponent {
 
         //Set up ToDo background color and border
         mainPanel.setBackground(backgroundColor);
-        mainPanel.setBorder(BorderFactory.createMatteBorder(1,1,2,1, backgroundColor.darker()));
+        if(parentBoardComponent.isSelected(todo.getToDoID())) //A selected ToDo is outlined with its text color
+            mainPanel.setBorder(BorderFactory.createMatteBorder(3,3,3,3, textColor));
+        else
+            mainPanel.setBorder(BorderFactory.createMatteBorder(1,1,2,1, backgroundColor.darker()));
     }
 
     //ToDo Attributes Renderer Helpers
@@ -129,7 +182,7 @@ class ToDoComponent {
         constraints.anchor = GridBagConstraints.FIRST_LINE_START;
 
         String title = todo.getTitle();
-        String desc = todo.getDescription();
+        String desc = expanded ? todo.getDescription() : null;
 
         //Calculate title color
         Color titleColor = textColor;
@@ -165,7 +218,7 @@ class ToDoComponent {
     }
 
     private void drawImage(Color textColor, Color backgroundColor, Dimension todoSize, GridBagConstraints constraints) {
-        String imgPath = todo.getImageURL();
+        String imgPath = expanded ? todo.getImageURL() : null;
         if(imgPath != null && !imgPath.isEmpty()){
             //Load image and handle errors
             try {
@@ -199,8 +252,8 @@ class ToDoComponent {
     }
 
     private void drawActivityURL (Color backgroundColor, GridBagConstraints constraints) {
-        String activityURL = todo.getActivityURL();
-        if(!activityURL.isEmpty()) {
+        String activityURL = expanded ? todo.getActivityURL() : null;
+        if(activityURL != null && !activityURL.isEmpty()) {
             constraints.gridy += 1;
 
             Color urlColor = calculateContrast(Color.BLUE.brighter(), backgroundColor) > calculateContrast(Color.BLUE, backgroundColor) ? Color.BLUE.brighter() : Color.BLUE;
@@ -289,6 +342,8 @@ class ToDoComponent {
         //ToDo state section
         String completeMenuItemName = "Set " + (todo.isCompleted() ? "not " : "") +  "complete";
         JMenuItem completeItem = new JMenuItem(completeMenuItemName);
+        //ToDo selection section
+        JMenuItem selectItem = new JMenuItem(parentBoardComponent.isSelected(todo.getToDoID()) ? "Deselect ToDo" : "Select ToDo (Ctrl+click)");
         //ToDo edit section
         JMenuItem editItem = new JMenuItem("Edit ToDo");
         //Todo sharing state section
@@ -309,6 +364,13 @@ class ToDoComponent {
             }
         });
 
+        selectItem.addActionListener(new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                toggleSelectionAction();
+            }
+        });
+
         editItem.addActionListener(new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
@@ -360,7 +422,7 @@ class ToDoComponent {
                     NoticeboardDTO board = parentBoardComponent.getBoard();
                     Controller.getInstance().deleteToDo(board.getBoardID(), todo.getToDoID());
 
-                    parentBoardComponent.reloadToDoComponent(); //Sync GUI state
+                    parentBoardComponent.refreshToDos(Set.of(todo.getToDoID())); //Sync GUI state
                 }
             }
         });
@@ -370,6 +432,9 @@ class ToDoComponent {
             //ToDo state section
             popup.add(completeItem);
             popup.addSeparator();
+            //ToDo selection section
+            popup.add(selectItem);
+            popup.addSeparator();
             //ToDo edit section
             popup.add(editItem);
             popup.addSeparator();
@@ -401,11 +466,31 @@ class ToDoComponent {
             int todoID = todo.getToDoID();
             Controller.getInstance().updateCompletionState(boardID, todoID);
 
-            parentBoardComponent.reloadToDoComponent();
+            parentBoardComponent.refreshToDos(Set.of(todo.getToDoID()));
         }
     }
 
+    private void toggleExpandedAction() {
+        if(!expanded && !this.loadDetails())
+            return;
+
+        expanded = !expanded;
+
+        //Redraw the component, with or without the details
+        this.redrawComponent();
+    }
+
+    private void toggleSelectionAction() {
+        parentBoardComponent.toggleSelection(todo.getToDoID());
+
+        //Redraw the component, outlined if selected
+        this.redrawComponent();
+    }
+
     private void editAction() {
+        if(!this.loadDetails())
+            return;
+
         ToDoForm form = new ToDoForm(todo);
         ToDoDTO newToDo = form.showToDoForm();
         if (newToDo == null)
@@ -415,37 +500,15 @@ class ToDoComponent {
         int boardID = parentBoardComponent.getBoard().getBoardID();
         int todoID = todo.getToDoID();
 
-        //If necessary replace title
-        if (!newToDo.getTitle().equals(todo.getTitle())) { //If newtitle != oldtitle
-            try {
-                Controller.getInstance().updateToDoTitle(boardID, todoID, newToDo.getTitle());
-            }
-            catch (InvalidControllerOperationException _) {
-                JOptionPane.showMessageDialog(mainPanel, "A ToDo with the same title already exists in the board", "Error", JOptionPane.ERROR_MESSAGE);
-            }
+        //Persist only the changed attributes, all at once
+        try {
+            Controller.getInstance().updateToDo(boardID, todoID, new ToDoUpdateDTO(todo, newToDo));
+        }
+        catch (InvalidControllerOperationException _) {
+            JOptionPane.showMessageDialog(mainPanel, "A ToDo with the same title already exists in the board", "Error", JOptionPane.ERROR_MESSAGE);
         }
 
-        //If necessary replace description
-        if(!newToDo.getDescription().equals(todo.getDescription()))
-            Controller.getInstance().updateToDoDescription(boardID, todoID, newToDo.getDescription());
-
-        //If necessary (null case is to avoid dealing with NullPointerException) replace expiry date
-        if((newToDo.getExpiryDate() == null && todo.getExpiryDate() != null) || !newToDo.getExpiryDate().equals(todo.getExpiryDate()))
-                Controller.getInstance().updateToDoExpiryDate(boardID, todoID, newToDo.getExpiryDate());
-
-        //If necessary replace activity url
-        if(!newToDo.getActivityURL().equals(todo.getActivityURL()))
-            Controller.getInstance().updateToDoActivityURL(boardID, todoID, newToDo.getActivityURL());
-
-        //If necessary replace activity url
-        if(!newToDo.getImageURL().equals(todo.getImageURL()))
-            Controller.getInstance().updateToDoImageURL(boardID, todoID, newToDo.getImageURL());
-
-        //If necessary replace background color
-        if(!newToDo.getBackgroundColor().equals(todo.getBackgroundColor()))
-            Controller.getInstance().updateToDoBackgroundColor(boardID, todoID, newToDo.getBackgroundColor());
-
-        parentBoardComponent.reloadToDoComponent();
+        parentBoardComponent.refreshToDos(Set.of(todo.getToDoID()));
     }
 
     private void addSharedUserAction() {
@@ -472,7 +535,7 @@ class ToDoComponent {
             }
         }
 
-        parentBoardComponent.reloadToDoComponent();
+        parentBoardComponent.refreshToDos(Set.of(todo.getToDoID()));
     }
 
     private void removeSharedUserAction() {
@@ -495,13 +558,13 @@ class ToDoComponent {
             }
         }
 
-        parentBoardComponent.reloadToDoComponent();
+        parentBoardComponent.refreshToDos(Set.of(todo.getToDoID()));
     }
 
     private void changePositionAction() {
         //Create ListComponent object and remove the todo from the list
         NoticeboardDTO board = parentBoardComponent.getBoard();
-        List<ToDoDTO> todos = board.getToDos();
+        List<ToDoDTO> todos = parentBoardComponent.getLoadedToDos(); //The loaded ToDos are a prefix of the board order
         List<String> items = todos.stream().map(ToDoDTO::getTitle).toList();
         ListComponent list = new ListComponent(items, "Move ToDo");
 
@@ -531,9 +594,13 @@ class ToDoComponent {
                 if(!button.isEnabled())
                     return;
 
-                //Sync App change
+                //Sync App change, placing the ToDo right after the selected one in board order
                 String selectedToDoTitle = list.getList().getSelectedValue();
-                int predecessorIndex = (selectedToDoTitle == null) ? 0 : todos.indexOf(board.getToDo(selectedToDoTitle)) + 1;
+                int predecessorIndex = 0;
+                if(selectedToDoTitle != null) {
+                    int selectedToDoID = todos.stream().filter(other -> other.getTitle().equals(selectedToDoTitle)).findFirst().orElseThrow().getToDoID();
+                    predecessorIndex = Controller.getInstance().getToDoPosition(board.getBoardID(), selectedToDoID) + 1;
+                }
 
                 Controller.getInstance().moveToDoToIndex(board.getBoardID(), todo.getToDoID(), predecessorIndex);
 
@@ -598,6 +665,16 @@ class ToDoComponent {
     }
 
     //Utility Methods
+    /**
+     * <p>Removes the ToDoComponent's elements and draws them again.</p>
+     */
+    private void redrawComponent() {
+        mainPanel.removeAll();
+        this.drawComponent();
+        mainPanel.revalidate();
+        mainPanel.repaint();
+    }
+
     /**
      * <p>Calculates the contrast between a foreground color and a background color.</p>
      * @param foregroundColor the foreground color
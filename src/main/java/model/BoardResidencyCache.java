@@ -0,0 +1,194 @@
+package model;
+
+//Java imports
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * <p>Bounds how many {@link ToDo}s the model keeps loaded, by evicting the ToDos of the {@link Noticeboard}s that are not displayed.</p>
+ * <p>Each resident Noticeboard weighs as much as its count of ToDos. When the total weight exceeds the cache's capacity,
+ * the least frequently accessed Noticeboards that are not pinned are evicted: their ToDos are dropped and they go back to
+ * being not hydrated, so that they are loaded again the next time they are accessed.</p>
+ * <p>Access frequencies are halved periodically, so that Noticeboards that were popular long ago do not stay resident forever.</p>
+ */
+public class BoardResidencyCache {
+    /**
+     * <p>A point-in-time snapshot of the cache's state and hit/miss/eviction counters.</p>
+     * @param hits the total count of accesses to a Noticeboard whose ToDos were loaded
+     * @param misses the total count of accesses to a Noticeboard whose ToDos had to be loaded
+     * @param evictions the total count of Noticeboards whose ToDos have been evicted
+     * @param residentBoards the count of Noticeboards whose ToDos are currently loaded
+     * @param residentWeight the current total weight of the resident Noticeboards
+     * @param capacity the maximum total weight of the resident Noticeboards
+     */
+    public record Statistics(long hits, long misses, long evictions, int residentBoards, int residentWeight, int capacity) { }
+
+    private final int capacity;
+
+    //Resident Noticeboards by ID, and the pinned Noticeboards' IDs
+    private final HashMap<Integer, Noticeboard> resident;
+    private final HashSet<Integer> pinned;
+
+    //Access frequencies by Noticeboard ID, kept for evicted Noticeboards too so that they are not forgotten once loaded again
+    private final HashMap<Integer, Integer> frequencies;
+    private final HashMap<Integer, Long> lastAccesses;
+    private long clock;
+
+    //Statistics counters
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    private static final int AGING_PERIOD = 256;
+
+    /**
+     * <p>Instantiates a new, empty, BoardResidencyCache.</p>
+     * @param capacity the maximum total weight, that is the maximum count of ToDos, of the resident Noticeboards
+     *
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     */
+    public BoardResidencyCache(int capacity) {
+        if(capacity <= 0)
+            throw new IllegalArgumentException("The cache capacity must be positive");
+
+        this.capacity = capacity;
+        this.resident = new HashMap<>();
+        this.pinned = new HashSet<>();
+        this.frequencies = new HashMap<>();
+        this.lastAccesses = new HashMap<>();
+        this.clock = 0;
+    }
+
+    //Methods
+    /**
+     * <p>Records an access to a Noticeboard whose ToDos were already loaded.</p>
+     * @param board the Noticeboard
+     */
+    public void recordHit(Noticeboard board) {
+        hits++;
+        this.admit(board);
+    }
+
+    /**
+     * <p>Records an access to a Noticeboard whose ToDos have just been loaded.</p>
+     * @param board the Noticeboard
+     */
+    public void recordMiss(Noticeboard board) {
+        misses++;
+        this.admit(board);
+    }
+
+    /**
+     * <p>Starts tracking a Noticeboard whose ToDos have been loaded without being accessed, for example by an eager load.</p>
+     * @param board the Noticeboard
+     */
+    public void track(Noticeboard board) {
+        if(!board.isHydrated())
+            return;
+
+        resident.put(board.getBoardID(), board);
+        this.evictIfNeeded(board.getBoardID());
+    }
+
+    /**
+     * <p>Pins the displayed Noticeboards, so that their ToDos are never evicted. Any previously pinned Noticeboard is unpinned.</p>
+     * @param boardIDs the IDs of the displayed Noticeboards
+     */
+    public void pin(Collection<Integer> boardIDs) {
+        pinned.clear();
+        pinned.addAll(boardIDs);
+        this.evictIfNeeded(-1);
+    }
+
+    /**
+     * <p>Stops tracking a Noticeboard, for example because it has been deleted.</p>
+     * @param boardID the Noticeboard's ID
+     */
+    public void remove(int boardID) {
+        resident.remove(boardID);
+        frequencies.remove(boardID);
+        lastAccesses.remove(boardID);
+    }
+
+    /**
+     * <p>Stops tracking all the Noticeboards. The pinned Noticeboards and the statistics counters are kept.</p>
+     */
+    public void clear() {
+        resident.clear();
+        frequencies.clear();
+        lastAccesses.clear();
+    }
+
+    /**
+     * <p>Gets a snapshot of the cache's statistics.</p>
+     * @return the cache's {@link Statistics}
+     */
+    public Statistics getStatistics() {
+        return new Statistics(hits, misses, evictions, resident.size(), this.residentWeight(), capacity);
+    }
+
+    //Utility methods
+    private void admit(Noticeboard board) {
+        int boardID = board.getBoardID();
+
+        frequencies.merge(boardID, 1, Integer::sum);
+        lastAccesses.put(boardID, ++clock);
+        if(clock % AGING_PERIOD == 0)
+            frequencies.replaceAll((_, frequency) -> frequency / 2);
+
+        if(board.isHydrated()) {
+            resident.put(boardID, board);
+            this.evictIfNeeded(boardID);
+        }
+    }
+
+    private static int weightOf(Noticeboard board) {
+        return Math.max(1, board.getToDoCount());
+    }
+
+    private int residentWeight() {
+        int weight = 0;
+        for(Noticeboard board : resident.values())
+            weight += weightOf(board);
+        return weight;
+    }
+
+    /**
+     * <p>Evicts the least frequently accessed, then least recently accessed, Noticeboards until the cache is within its capacity.</p>
+     * @param justAccessedID the ID of the Noticeboard that has just been accessed, which is never evicted
+     */
+    private void evictIfNeeded(int justAccessedID) {
+        int weight = this.residentWeight();
+
+        while(weight > capacity) {
+            Noticeboard victim = null;
+            int victimFrequency = Integer.MAX_VALUE;
+            long victimLastAccess = Long.MAX_VALUE;
+
+            for(Map.Entry<Integer, Noticeboard> entry : resident.entrySet()) {
+                int boardID = entry.getKey();
+                if(boardID == justAccessedID || pinned.contains(boardID))
+                    continue;
+
+                int frequency = frequencies.getOrDefault(boardID, 0);
+                long lastAccess = lastAccesses.getOrDefault(boardID, 0L);
+                if(frequency < victimFrequency || (frequency == victimFrequency && lastAccess < victimLastAccess)) {
+                    victim = entry.getValue();
+                    victimFrequency = frequency;
+                    victimLastAccess = lastAccess;
+                }
+            }
+
+            //Everything left is pinned or in use
+            if(victim == null)
+                return;
+
+            weight -= weightOf(victim);
+            resident.remove(victim.getBoardID());
+            victim.evictToDos();
+            evictions++;
+        }
+    }
+}
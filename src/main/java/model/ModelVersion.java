@@ -0,0 +1,31 @@
+package model;
+
+//Java imports
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>Hands out the version stamps of the model's Users, Noticeboards and ToDos.</p>
+ * <p>The stamps are unique and increasing across all instances, so that a snapshot taken from an object is never
+ * mistaken for one taken from a newer object with the same ID, for example after a reload.</p>
+ */
+/* package */ final class ModelVersion {
+    private static final AtomicLong LAST_VERSION = new AtomicLong();
+    private static final AtomicInteger LAST_TODO_VERSION = new AtomicInteger(); //Kept apart to fit in the padding of a ToDo, see nextToDoVersion()
+
+    private ModelVersion() { }
+
+    /**
+     * <p>Gets a new version stamp.</p>
+     * @return the stamp, greater than every stamp handed out before
+     */
+    /* package */ static long next() { return LAST_VERSION.incrementAndGet(); }
+
+    /**
+     * <p>Gets a new version stamp for a ToDo.</p>
+     * <p>ToDo stamps are {@code int}s, so that they do not grow the ToDos, and wrap around only after
+     * 2<sup>32</sup> ToDo changes, far more than a session makes.</p>
+     * @return the stamp, different from every stamp handed out in the last 2<sup>32</sup> ones
+     */
+    /* package */ static int nextToDoVersion() { return LAST_TODO_VERSION.incrementAndGet(); }
+}
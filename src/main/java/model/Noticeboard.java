@@ -1,14 +1,28 @@
 package model;
 
 //Java imports
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.function.Predicate;
 
 /**
  * <p>A Noticeboard in the model.</p>
  * <p>Every Noticeboard has a collection of displayed {@link ToDo}.</p>
  * <p>The class provides methods to retrieve, add and remove the displayed ToDos.</p>
+ * <p>The ToDos are kept in board order in an {@link OrderStatisticList}, so that they are moved and their positions are looked up
+ * in logarithmic time, alongside an ID index and a title index, so that they are looked up in constant time.
+ * The indexes are kept consistent by the Noticeboard's methods, the ToDos must be added, removed, renamed and moved through them.</p>
+ * <p>The ToDos can instead be kept off the heap in an {@link OffHeapToDoStore}, to be read through {@link #cursor()}.
+ * Any other access to the ToDos brings them back onto the heap first, so the store suits boards that are mostly read.</p>
+ * <p>Every change to the Noticeboard or to one of its ToDos moves it, and the {@link User} it belongs to, to a new version,
+ * so that a snapshot taken from the Noticeboard can be reused for as long as its version is unchanged.</p>
  */
 public class Noticeboard {
     private final int boardID;
@@ -16,7 +30,13 @@ public class Noticeboard {
     private String description;
     private final int userID;
 
-    private final ArrayList<ToDo> todos;
+    private final OrderStatisticList<ToDo> todos;
+    private final HashMap<Integer, ToDo> todosByID;
+    private final HashMap<String, ToDo> todosByTitle; //Titles are unique within a board, see the uniqueToDoIDandTitle constraint
+    private OffHeapToDoStore offHeapToDos; //null unless the ToDos are stored off the heap, the heap structures are empty otherwise
+    private boolean hydrated;
+    private long version;
+    private User parentUser; //The User the Noticeboard belongs to, null if it is not added to one yet
 
     /**
      * <p>Instantiates a new Noticeboard with no todos.</p>
@@ -37,7 +57,13 @@ public class Noticeboard {
         this.title = title;
         this.description = description;
         this.userID = userID;
-        this.todos = new ArrayList<>();
+        this.todos = new OrderStatisticList<>();
+        this.todosByID = new HashMap<>();
+        this.todosByTitle = new HashMap<>();
+        this.offHeapToDos = null;
+        this.hydrated = true;
+        this.version = ModelVersion.next();
+        this.parentUser = null;
     }
 
     //Getter & Setter methods
@@ -76,26 +102,106 @@ public class Noticeboard {
             throw new IllegalArgumentException("Noticeboard title cannot be null or blank");
 
         this.title = title;
+        this.touch();
     }
 
     /**
      * <p>Sets the Noticeboard's description.</p>
      * @param description the description
      */
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) {
+        this.description = description;
+        this.touch();
+    }
+
+    /**
+     * <p>Checks if the Noticeboard's ToDos have been loaded.</p>
+     * @return {@code true} if the ToDos have been loaded, {@code false} if only the Noticeboard's metadata has
+     */
+    public boolean isHydrated() { return hydrated; }
+
+    /**
+     * <p>Sets whether the Noticeboard's ToDos have been loaded.</p>
+     * @param hydrated {@code true} if the ToDos have been loaded, {@code false} if only the Noticeboard's metadata has
+     */
+    public void setHydrated(boolean hydrated) {
+        this.hydrated = hydrated;
+        this.touch();
+    }
+
+    /**
+     * <p>Gets the Noticeboard's version, which changes whenever the Noticeboard or one of its ToDos changes.</p>
+     * @return the version
+     */
+    public long getVersion() { return version; }
+
+    /**
+     * <p>Drops the Noticeboard's ToDos, keeping only its metadata. The Noticeboard is no longer hydrated.</p>
+     */
+    public void evictToDos() {
+        offHeapToDos = null;
+        todos.forEach(todo -> todo.detachFrom(this));
+        todos.clear();
+        todosByID.clear();
+        todosByTitle.clear();
+        this.hydrated = false;
+        this.touch();
+    }
+
+    //Off-heap storage methods
+    /**
+     * <p>Replaces the Noticeboard's ToDos with the ToDos held by an {@link OffHeapToDoStore}.</p>
+     * @param store the store, holding the ToDos in board order
+     *
+     * @throws IllegalArgumentException if {@code store} is {@code null}
+     */
+    public void storeToDosOffHeap(OffHeapToDoStore store) {
+        if(store == null)
+            throw new IllegalArgumentException("Cannot store the ToDos in a null store");
+
+        todos.forEach(todo -> todo.detachFrom(this));
+        todos.clear();
+        todosByID.clear();
+        todosByTitle.clear();
+        this.offHeapToDos = store;
+        this.touch();
+    }
+
+    /**
+     * <p>Checks if the Noticeboard's ToDos are stored off the heap.</p>
+     * @return {@code true} if the ToDos are held by an {@link OffHeapToDoStore}, {@code false} otherwise
+     */
+    public boolean isStoredOffHeap() { return offHeapToDos != null; }
+
+    /**
+     * <p>Gets the store holding the Noticeboard's ToDos off the heap.</p>
+     * @return the store, {@code null} if the ToDos are not stored off the heap
+     */
+    public OffHeapToDoStore getOffHeapToDos() { return offHeapToDos; }
+
+    /**
+     * <p>Opens a cursor over the Noticeboard's ToDos, which reads them in place wherever they are stored.</p>
+     * @return the cursor, before the first ToDo in board order
+     */
+    public ToDoCursor cursor() {
+        return offHeapToDos != null ? offHeapToDos.cursor() : new ListCursor(todos);
+    }
 
     //ToDo methods
     /**
      * <p>Gets the Noticeboard's {@link ToDo}s.</p>
-     * @return the ToDos, as a {@link List} of {@link ToDo}
+     * @return the ToDos in board order, as an unmodifiable {@link List} of {@link ToDo}
      */
-    public List<ToDo> getToDos() { return todos; }
+    public List<ToDo> getToDos() {
+        this.moveToDosOnHeap();
+        return Collections.unmodifiableList(todos);
+    }
 
     /**
      * <p>Gets the count of ToDos.</p>
      * @return the count of ToDos
      */
-    public int getToDoCount() { return todos.size(); }
+    public int getToDoCount() { return offHeapToDos != null ? offHeapToDos.size() : todos.size(); }
 
     /**
      * <p>Gets a ToDo from its title.</p>
@@ -103,8 +209,8 @@ public class Noticeboard {
      * @return the ToDo if the Noticeboard displays it, {@code null} otherwise
      */
     public ToDo getToDo(String title){
-        return todos.stream().filter(todo -> todo.getTitle().equals(title))
-                .findFirst().orElse(null);
+        this.moveToDosOnHeap();
+        return todosByTitle.get(title);
     }
 
     /**
@@ -113,8 +219,19 @@ public class Noticeboard {
      * @return the ToDo if the Noticeboard displays it, {@code null} otherwise
      */
     public ToDo getToDo(int todoID){
-        return todos.stream().filter(todo -> todo.getToDoID() == todoID)
-                .findFirst().orElse(null);
+        this.moveToDosOnHeap();
+        return todosByID.get(todoID);
+    }
+
+    /**
+     * <p>Gets the position of a ToDo in the Noticeboard.</p>
+     * @param todoID the ID
+     * @return the ToDo's index in board order, -1 if the Noticeboard does not display it
+     */
+    public int getToDoPosition(int todoID){
+        this.moveToDosOnHeap();
+        ToDo todo = todosByID.get(todoID);
+        return todo != null ? todos.indexOf(todo) : -1;
     }
 
     /**
@@ -129,10 +246,28 @@ public class Noticeboard {
         if(todo == null)
             throw new IllegalArgumentException("Cannot add a null ToDo to a Noticeboard");
 
-        if(this.getToDo(todo.getToDoID()) != null) //ToDo exists already
+        this.moveToDosOnHeap();
+        if(todosByID.putIfAbsent(todo.getToDoID(), todo) != null) //ToDo exists already
             throw new IllegalStateException("A ToDo with the same title exists already, duplicate titles are not allowed");
 
         todos.add(todo);
+        this.indexTitle(todo);
+        todo.attachTo(this);
+        this.touch();
+    }
+
+    /**
+     * <p>Adds many ToDos to the Noticeboard, in order.</p>
+     * @param todos the ToDos
+     *
+     * @throws IllegalArgumentException if {@code todos} is {@code null} or contains {@code null}
+     * @throws IllegalStateException if one of the ToDos is already in the Noticeboard, the ToDos before it are added anyway
+     */
+    public void addToDos(Collection<ToDo> todos){
+        if(todos == null)
+            throw new IllegalArgumentException("Cannot add null ToDos to a Noticeboard");
+
+        todos.forEach(this::addToDo);
     }
 
     /**
@@ -146,7 +281,7 @@ public class Noticeboard {
         if(todo == null)
             throw new NoSuchElementException("Cannot remove ToDo \"" + title + "\", it does not exist");
 
-        todos.remove(todo);
+        this.removeToDo(todo);
     }
 
     /**
@@ -160,7 +295,192 @@ public class Noticeboard {
         if(todo == null)
             throw new NoSuchElementException("Cannot remove ToDo-" + todoID + ", it does not exist");
 
+        this.removeToDo(todo);
+    }
+
+    /**
+     * <p>Deletes the ToDos matching a condition from the Noticeboard.</p>
+     * @param filter the condition, {@code true} for the ToDos to delete
+     * @return the deleted ToDos, as a {@link List} of {@link ToDo}
+     */
+    public List<ToDo> deleteToDosIf(Predicate<ToDo> filter){
+        this.moveToDosOnHeap();
+        List<ToDo> removed = new ArrayList<>();
+        todos.removeIf(todo -> {
+            if(!filter.test(todo))
+                return false;
+
+            removed.add(todo);
+            return true;
+        });
+
+        //Rebuild the indexes once rather than patching them for every deleted ToDo
+        if(!removed.isEmpty()) {
+            removed.forEach(todo -> todo.detachFrom(this));
+            this.rebuildIndexes();
+            this.touch();
+        }
+
+        return removed;
+    }
+
+    /**
+     * <p>Renames a ToDo of the Noticeboard, keeping the title index consistent.</p>
+     * @param todoID the ToDo's ID
+     * @param newTitle the new title
+     *
+     * @throws NoSuchElementException if the ToDo does not exist
+     * @throws IllegalArgumentException if {@code newTitle} is not valid
+     */
+    public void renameToDo(int todoID, String newTitle){
+        ToDo todo = this.getToDo(todoID);
+        if(todo == null)
+            throw new NoSuchElementException("Cannot rename ToDo-" + todoID + ", it does not exist");
+
+        String oldTitle = todo.getTitle();
+        todo.setTitle(newTitle);
+
+        this.unindexTitle(todo, oldTitle);
+        this.indexTitle(todo);
+    }
+
+    /**
+     * <p>Moves a ToDo from its index in the Noticeboard to another index.</p>
+     * @param todoID the ToDo's ID
+     * @param newIndex the new index, counting the moved ToDo at its current position
+     *
+     * @throws NoSuchElementException if the ToDo does not exist
+     * @throws IndexOutOfBoundsException if {@code newIndex < 0} or {@code newIndex} is bigger or equal to the Noticeboard's size
+     */
+    public void moveToDo(int todoID, int newIndex){
+        ToDo todo = this.getToDo(todoID);
+        if(todo == null)
+            throw new NoSuchElementException("Cannot move ToDo-" + todoID + ", it does not exist");
+        if(newIndex < 0 || newIndex >= todos.size())
+            throw new IndexOutOfBoundsException("Cannot move ToDo-" + todoID + " to index " + newIndex);
+
+        int targetIndex = todos.indexOf(todo);
+
+        //Adjust newIndex if the removal shifted it
+        if(newIndex > targetIndex)
+            newIndex--;
+
+        //Titles do not change on a move, so the indexes stay valid
+        todos.move(targetIndex, newIndex);
+        this.touch();
+    }
+
+    /**
+     * <p>Reorders the Noticeboard's ToDos.</p>
+     * @param todoIDs the IDs of all the Noticeboard's ToDos, in the new order
+     *
+     * @throws IllegalStateException if {@code todoIDs} are not exactly the IDs of the Noticeboard's ToDos
+     */
+    public void reorderToDos(List<Integer> todoIDs){
+        this.moveToDosOnHeap();
+        if(todoIDs.size() != todos.size())
+            throw new IllegalStateException("Cannot reorder Noticeboard-" + boardID + ", the ToDos do not match");
+
+        Map<Integer, ToDo> todosByID = new HashMap<>();
+        todos.forEach(todo -> todosByID.put(todo.getToDoID(), todo));
+
+        List<ToDo> reordered = new ArrayList<>(todos.size());
+        for(int todoID : todoIDs) {
+            ToDo todo = todosByID.remove(todoID);
+            if(todo == null)
+                throw new IllegalStateException("Cannot reorder Noticeboard-" + boardID + ", the ToDos do not match");
+            reordered.add(todo);
+        }
+
+        //The same ToDos keep their IDs and titles, so the indexes stay valid
+        todos.clear();
+        todos.addAll(reordered);
+        this.touch();
+    }
+
+    //Utility methods
+    /**
+     * <p>Brings the ToDos stored off the heap, if any, back into the list and the indexes, then drops the store.</p>
+     */
+    private void moveToDosOnHeap(){
+        if(offHeapToDos == null)
+            return;
+
+        ArrayList<ToDo> loaded = new ArrayList<>(offHeapToDos.size());
+        ToDoCursor cursor = offHeapToDos.cursor();
+        while(cursor.next())
+            loaded.add(cursor.toToDo());
+
+        //The ToDos are unchanged, so the Noticeboard keeps its version
+        offHeapToDos = null;
+        todos.addAll(loaded);
+        loaded.forEach(todo -> todo.attachTo(this));
+        this.rebuildIndexes();
+    }
+
+    /**
+     * <p>Removes a ToDo from the list and the indexes.</p>
+     * @param todo the ToDo, which must be in the Noticeboard
+     */
+    private void removeToDo(ToDo todo){
         todos.remove(todo);
+        todosByID.remove(todo.getToDoID());
+        this.unindexTitle(todo, todo.getTitle());
+        todo.detachFrom(this);
+        this.touch();
+    }
+
+    /**
+     * <p>Moves the Noticeboard, and the User it belongs to, to a new version.</p>
+     */
+    /* package */ void touch(){
+        this.version = ModelVersion.next();
+        if(parentUser != null)
+            parentUser.touch();
+    }
+
+    /**
+     * <p>Links the Noticeboard to the User it belongs to.</p>
+     * @param user the User
+     */
+    /* package */ void attachTo(User user){ this.parentUser = user; }
+
+    /**
+     * <p>Unlinks the Noticeboard from a User it no longer belongs to, unless it has been linked to another one already.</p>
+     * @param user the User
+     */
+    /* package */ void detachFrom(User user){
+        if(parentUser == user)
+            this.parentUser = null;
+    }
+
+    /**
+     * <p>Indexes a ToDo's title.</p>
+     * @param todo the ToDo
+     */
+    private void indexTitle(ToDo todo){
+        todosByTitle.put(todo.getTitle(), todo);
+    }
+
+    /**
+     * <p>Drops a ToDo from the title index, unless another ToDo has been indexed with the title since.</p>
+     * @param todo the ToDo
+     * @param title the title the ToDo is indexed with
+     */
+    private void unindexTitle(ToDo todo, String title){
+        todosByTitle.remove(title, todo);
+    }
+
+    /**
+     * <p>Rebuilds the ID and title indexes from the ToDos list.</p>
+     */
+    private void rebuildIndexes(){
+        todosByID.clear();
+        todosByTitle.clear();
+        for(ToDo todo : todos) {
+            todosByID.put(todo.getToDoID(), todo);
+            this.indexTitle(todo);
+        }
     }
 
     @Override
@@ -171,16 +491,72 @@ public class Noticeboard {
         sb.append("Title: ").append(this.title).append(", ");
         sb.append("Description: ").append(this.description).append(", ");
         sb.append("ToDos: [");
-        if(todos != null) {
-            for (int i = 0; i < todos.size(); i++) {
-                if (i != todos.size() - 1)
-                    sb.append(todos.get(i).getTitle()).append(", ");
-                else
-                    sb.append(todos.get(i).getTitle());
-            }
+        ToDoCursor cursor = this.cursor();
+        for (boolean first = true; cursor.next(); first = false) {
+            if (!first)
+                sb.append(", ");
+            sb.append(cursor.getTitle());
         }
         sb.append("]");
         sb.append("}");
         return sb.toString();
     }
+
+    /**
+     * <p>A cursor over ToDos held on the heap.</p>
+     */
+    private static final class ListCursor implements ToDoCursor {
+        private final Iterator<ToDo> iterator;
+        private ToDo current;
+
+        private ListCursor(List<ToDo> todos) {
+            this.iterator = todos.iterator();
+            this.current = null;
+        }
+
+        @Override
+        public boolean next() {
+            current = iterator.hasNext() ? iterator.next() : null;
+            return current != null;
+        }
+
+        @Override
+        public int getToDoID() { return this.current().getToDoID(); }
+
+        @Override
+        public boolean isCompleted() { return this.current().isCompleted(); }
+
+        @Override
+        public String getTitle() { return this.current().getTitle(); }
+
+        @Override
+        public boolean hasDetails() { return this.current().hasDetails(); }
+
+        @Override
+        public String getDescription() { return this.current().getDescription(); }
+
+        @Override
+        public String getActivityURL() { return this.current().getActivityURL(); }
+
+        @Override
+        public String getImageURL() { return this.current().getImageURL(); }
+
+        @Override
+        public LocalDateTime getExpiryDate() { return this.current().getExpiryDate(); }
+
+        @Override
+        public int getOwnerUserID() { return this.current().getOwnerUserID(); }
+
+        @Override
+        public String getBackgroundColor() { return this.current().getBackgroundColor(); }
+
+        @Override
+        public List<String> getSharedUsers() { return this.current().getSharedUsers(); }
+
+        private ToDo current() {
+            if(current == null)
+                throw new NoSuchElementException("The cursor is not on a ToDo");
+            return current;
+        }
+    }
 }
@@ -0,0 +1,309 @@
+package model;
+
+//Java imports
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemoryLayout;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.StructLayout;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import static java.lang.foreign.MemoryLayout.PathElement.groupElement;
+
+/**
+ * <p>An append-only store of the ToDos of a {@link Noticeboard}, kept outside the Java heap.</p>
+ * <p>Every ToDo is a fixed-width record in a chunk of native memory: the ID, owner, packed background color and flags as
+ * {@code int}s, the packed expiry date and a reference to each of its strings as {@code long}s. The strings are encoded in
+ * UTF-8, prefixed by their length, and appended to chunks of a separate string area, so that a reference is the string's
+ * chunk and offset. The shared usernames are joined by a NUL character, which PostgreSQL text cannot contain.</p>
+ * <p>The ToDos are read back in board order through a {@link ToDoCursor}, which decodes only the attributes asked for.
+ * The memory is allocated by an automatic {@link Arena}, and released once the store is no longer reachable.</p>
+ */
+public final class OffHeapToDoStore {
+    //Record layout
+    private static final StructLayout RECORD = MemoryLayout.structLayout(
+            ValueLayout.JAVA_INT.withName("todoID"),
+            ValueLayout.JAVA_INT.withName("ownerUserID"),
+            ValueLayout.JAVA_INT.withName("backgroundColor"),
+            ValueLayout.JAVA_INT.withName("flags"),
+            ValueLayout.JAVA_LONG.withName("expiryDate"),
+            ValueLayout.JAVA_LONG.withName("title"),
+            ValueLayout.JAVA_LONG.withName("description"),
+            ValueLayout.JAVA_LONG.withName("activityURL"),
+            ValueLayout.JAVA_LONG.withName("imageURL"),
+            ValueLayout.JAVA_LONG.withName("sharedUsers")
+    );
+    private static final long TODO_ID = RECORD.byteOffset(groupElement("todoID"));
+    private static final long OWNER_USER_ID = RECORD.byteOffset(groupElement("ownerUserID"));
+    private static final long BACKGROUND_COLOR = RECORD.byteOffset(groupElement("backgroundColor"));
+    private static final long FLAGS = RECORD.byteOffset(groupElement("flags"));
+    private static final long EXPIRY_DATE = RECORD.byteOffset(groupElement("expiryDate"));
+    private static final long TITLE = RECORD.byteOffset(groupElement("title"));
+    private static final long DESCRIPTION = RECORD.byteOffset(groupElement("description"));
+    private static final long ACTIVITY_URL = RECORD.byteOffset(groupElement("activityURL"));
+    private static final long IMAGE_URL = RECORD.byteOffset(groupElement("imageURL"));
+    private static final long SHARED_USERS = RECORD.byteOffset(groupElement("sharedUsers"));
+
+    //Flags
+    private static final int COMPLETED = 1;
+    private static final int HAS_DETAILS = 1 << 1;
+
+    //Chunk sizes
+    private static final int RECORDS_PER_CHUNK = 1024;
+    private static final long STRING_CHUNK_BYTES = 64 * 1024; //Longer strings get a chunk of their own
+
+    //Sentinels
+    private static final long NULL_STRING = -1;
+    private static final String SHARED_USERS_SEPARATOR = "\0";
+
+    //Members
+    private final Arena arena;
+    private final List<MemorySegment> recordChunks;
+    private final List<MemorySegment> stringChunks;
+    private long stringChunkUsed; //Bytes used in the last string chunk
+    private int size;
+    private long allocatedBytes;
+
+    /**
+     * <p>Instantiates a new empty OffHeapToDoStore.</p>
+     */
+    public OffHeapToDoStore() {
+        this.arena = Arena.ofAuto();
+        this.recordChunks = new ArrayList<>();
+        this.stringChunks = new ArrayList<>();
+        this.stringChunkUsed = 0;
+        this.size = 0;
+        this.allocatedBytes = 0;
+    }
+
+    //Store methods
+    /**
+     * <p>Appends a ToDo summary, whose description and URLs are not loaded, after the stored ToDos.</p>
+     * @param todoID          the id
+     * @param completed       the completion state as a boolean ({@code true} for Complete, {@code false} for Not Complete)
+     * @param title           the title
+     * @param hasDetails      {@code true} if any of the description and URLs is not empty, {@code false} otherwise
+     * @param expiryDate      the expiry date, {@code null} if the ToDo does not expire
+     * @param ownerUserID     the owner's ID
+     * @param backgroundColor the background color
+     * @param sharedUsers     the usernames of the Users the ToDo is shared with
+     *
+     * @throws IllegalArgumentException if {@code todoID} is negative, {@code title} is {@code null} or blank, {@code expiryDate} is out of range or {@code backgroundColor} is not valid
+     */
+    public void append(int todoID, boolean completed, String title, boolean hasDetails, LocalDateTime expiryDate, int ownerUserID, String backgroundColor, Collection<String> sharedUsers) {
+        this.append(todoID, completed, title, hasDetails, null, null, null, expiryDate, ownerUserID, backgroundColor, sharedUsers);
+    }
+
+    /**
+     * <p>Appends a copy of a ToDo after the stored ToDos, with its details if they are loaded.</p>
+     * @param todo the ToDo
+     *
+     * @throws IllegalArgumentException if {@code todo} is {@code null}
+     */
+    public void append(ToDo todo) {
+        if(todo == null)
+            throw new IllegalArgumentException("Cannot store a null ToDo");
+
+        this.append(todo.getToDoID(), todo.isCompleted(), todo.getTitle(), todo.hasDetails(), todo.getDescription(), todo.getActivityURL(), todo.getImageURL(),
+                todo.getExpiryDate(), todo.getOwnerUserID(), todo.getBackgroundColor(), todo.getSharedUsers());
+    }
+
+    /**
+     * <p>Gets the count of stored ToDos.</p>
+     * @return the count of ToDos
+     */
+    public int size() { return size; }
+
+    /**
+     * <p>Gets the native memory held by the store.</p>
+     * @return the allocated bytes
+     */
+    public long getOffHeapBytes() { return allocatedBytes; }
+
+    /**
+     * <p>Opens a cursor over the stored ToDos, in the order they were appended.</p>
+     * @return the cursor, before the first ToDo
+     */
+    public ToDoCursor cursor() { return new RecordCursor(-1); }
+
+    /**
+     * <p>Opens a cursor on one of the stored ToDos, the records have a fixed width so it is reached directly.</p>
+     * @param index the position of the ToDo, in the order they were appended
+     * @return the cursor, on the ToDo at {@code index}
+     *
+     * @throws IndexOutOfBoundsException if {@code index} is negative or not less than {@link #size()}
+     */
+    public ToDoCursor cursor(int index) {
+        Objects.checkIndex(index, size);
+
+        RecordCursor cursor = new RecordCursor(index - 1);
+        cursor.next();
+        return cursor;
+    }
+
+    //Utility methods
+    private void append(int todoID, boolean completed, String title, boolean hasDetails, String description, String activityURL, String imageURL,
+                        LocalDateTime expiryDate, int ownerUserID, String backgroundColor, Collection<String> sharedUsers) {
+        if(todoID < 0)
+            throw new IllegalArgumentException("ToDo ID cannot be negative");
+        if(title == null || title.isBlank())
+            throw new IllegalArgumentException("ToDo title cannot be null or blank");
+
+        //Encode before writing anything, so that an invalid ToDo leaves the store unchanged
+        int color = ToDo.encodeColor(backgroundColor);
+        long expiry = ToDo.encodeExpiryDate(ToDo.checkExpiryDate(expiryDate));
+        int flags = (completed ? COMPLETED : 0) | (hasDetails ? HAS_DETAILS : 0);
+
+        if(size == recordChunks.size() * RECORDS_PER_CHUNK)
+            recordChunks.add(this.allocate(RECORD.byteSize() * RECORDS_PER_CHUNK));
+
+        MemorySegment chunk = recordChunks.get(size / RECORDS_PER_CHUNK);
+        long record = (size % RECORDS_PER_CHUNK) * RECORD.byteSize();
+
+        chunk.set(ValueLayout.JAVA_INT, record + TODO_ID, todoID);
+        chunk.set(ValueLayout.JAVA_INT, record + OWNER_USER_ID, ownerUserID);
+        chunk.set(ValueLayout.JAVA_INT, record + BACKGROUND_COLOR, color);
+        chunk.set(ValueLayout.JAVA_INT, record + FLAGS, flags);
+        chunk.set(ValueLayout.JAVA_LONG, record + EXPIRY_DATE, expiry);
+        chunk.set(ValueLayout.JAVA_LONG, record + TITLE, this.storeString(title));
+        chunk.set(ValueLayout.JAVA_LONG, record + DESCRIPTION, this.storeString(description));
+        chunk.set(ValueLayout.JAVA_LONG, record + ACTIVITY_URL, this.storeString(activityURL));
+        chunk.set(ValueLayout.JAVA_LONG, record + IMAGE_URL, this.storeString(imageURL));
+        chunk.set(ValueLayout.JAVA_LONG, record + SHARED_USERS, sharedUsers == null || sharedUsers.isEmpty()
+                ? NULL_STRING : this.storeString(String.join(SHARED_USERS_SEPARATOR, sharedUsers)));
+
+        size++;
+    }
+
+    private MemorySegment allocate(long bytes) {
+        allocatedBytes += bytes;
+        return arena.allocate(bytes, Long.BYTES);
+    }
+
+    /**
+     * <p>Appends a string to the string area.</p>
+     * @param string the string
+     * @return the reference to the string, {@link #NULL_STRING} if {@code string} is {@code null}
+     */
+    private long storeString(String string) {
+        if(string == null)
+            return NULL_STRING;
+
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        long needed = Integer.BYTES + bytes.length;
+
+        if(stringChunks.isEmpty() || stringChunkUsed + needed > stringChunks.getLast().byteSize()) {
+            stringChunks.add(this.allocate(Math.max(STRING_CHUNK_BYTES, needed)));
+            stringChunkUsed = 0;
+        }
+
+        int chunkIndex = stringChunks.size() - 1;
+        MemorySegment chunk = stringChunks.get(chunkIndex);
+        long offset = stringChunkUsed;
+
+        chunk.set(ValueLayout.JAVA_INT, offset, bytes.length);
+        MemorySegment.copy(bytes, 0, chunk, ValueLayout.JAVA_BYTE, offset + Integer.BYTES, bytes.length);
+
+        //Keep the length prefixes aligned
+        stringChunkUsed = (offset + needed + Integer.BYTES - 1) & -Integer.BYTES;
+        return ((long) chunkIndex << 32) | offset;
+    }
+
+    /**
+     * <p>Reads a string back from the string area.</p>
+     * @param reference the reference returned by {@link #storeString(String)}
+     * @return the string, {@code null} if {@code reference} is {@link #NULL_STRING}
+     */
+    private String loadString(long reference) {
+        if(reference == NULL_STRING)
+            return null;
+
+        MemorySegment chunk = stringChunks.get((int) (reference >>> 32));
+        long offset = reference & 0xFFFFFFFFL;
+
+        byte[] bytes = new byte[chunk.get(ValueLayout.JAVA_INT, offset)];
+        MemorySegment.copy(chunk, ValueLayout.JAVA_BYTE, offset + Integer.BYTES, bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * <p>A cursor reading the records in place.</p>
+     */
+    private final class RecordCursor implements ToDoCursor {
+        private int index;
+        private MemorySegment chunk;
+        private long record;
+
+        private RecordCursor(int index) { this.index = index; }
+
+        @Override
+        public boolean next() {
+            if(index + 1 >= size) {
+                index = size;
+                return false;
+            }
+
+            index++;
+            chunk = recordChunks.get(index / RECORDS_PER_CHUNK);
+            record = (index % RECORDS_PER_CHUNK) * RECORD.byteSize();
+            return true;
+        }
+
+        @Override
+        public int getToDoID() { return this.getInt(TODO_ID); }
+
+        @Override
+        public boolean isCompleted() { return (this.getInt(FLAGS) & COMPLETED) != 0; }
+
+        @Override
+        public String getTitle() { return loadString(this.getLong(TITLE)); }
+
+        @Override
+        public boolean hasDetails() { return (this.getInt(FLAGS) & HAS_DETAILS) != 0; }
+
+        @Override
+        public String getDescription() { return loadString(this.getLong(DESCRIPTION)); }
+
+        @Override
+        public String getActivityURL() { return loadString(this.getLong(ACTIVITY_URL)); }
+
+        @Override
+        public String getImageURL() { return loadString(this.getLong(IMAGE_URL)); }
+
+        @Override
+        public LocalDateTime getExpiryDate() { return ToDo.decodeExpiryDate(this.getLong(EXPIRY_DATE)); }
+
+        @Override
+        public int getOwnerUserID() { return this.getInt(OWNER_USER_ID); }
+
+        @Override
+        public String getBackgroundColor() { return ToDo.decodeColor(this.getInt(BACKGROUND_COLOR)); }
+
+        @Override
+        public List<String> getSharedUsers() {
+            String joined = loadString(this.getLong(SHARED_USERS));
+            return joined != null ? List.of(joined.split(SHARED_USERS_SEPARATOR, -1)) : List.of();
+        }
+
+        private int getInt(long field) {
+            this.checkPosition();
+            return chunk.get(ValueLayout.JAVA_INT, record + field);
+        }
+
+        private long getLong(long field) {
+            this.checkPosition();
+            return chunk.get(ValueLayout.JAVA_LONG, record + field);
+        }
+
+        private void checkPosition() {
+            if(index < 0 || index >= size)
+                throw new NoSuchElementException("The cursor is not on a ToDo");
+        }
+    }
+}
@@ -0,0 +1,407 @@
+package model;
+
+//Java imports
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+/**
+ * <p>A {@link List} of distinct elements backed by an implicit treap, a randomly balanced binary tree ordered by position.</p>
+ * <p>Every node keeps the size of its subtree, so that positional access, insertion, removal and moves take O(log n).
+ * An identity index from element to node, together with parent links, makes {@link #indexOf(Object)} and
+ * {@link #contains(Object)} take O(log n) and O(1). Iteration takes O(1) amortized per element.</p>
+ * <p>Elements are compared by identity and must not be {@code null}, an element can be in the list only once.</p>
+ * @param <E> the type of the elements
+ */
+/* package */ final class OrderStatisticList<E> extends AbstractList<E> {
+    private static final class Node<E> {
+        private E value;
+        private final int priority;
+        private int size;
+        private Node<E> left;
+        private Node<E> right;
+        private Node<E> parent;
+
+        private Node(E value) {
+            this.value = value;
+            this.priority = ThreadLocalRandom.current().nextInt();
+            this.size = 1;
+        }
+    }
+
+    private Node<E> root;
+    private final IdentityHashMap<E, Node<E>> nodes;
+
+    /**
+     * <p>Instantiates a new empty OrderStatisticList.</p>
+     */
+    /* package */ OrderStatisticList() {
+        this.root = null;
+        this.nodes = new IdentityHashMap<>();
+    }
+
+    //List methods
+    @Override
+    public int size() { return size(root); }
+
+    @Override
+    public E get(int index) {
+        return this.nodeAt(index).value;
+    }
+
+    @Override
+    public E set(int index, E element) {
+        Node<E> node = this.nodeAt(index);
+        if(node.value == element)
+            return element;
+
+        this.checkNewElement(element);
+
+        E previous = node.value;
+        nodes.remove(previous);
+        node.value = element;
+        nodes.put(element, node);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        if(index < 0 || index > this.size())
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size());
+        this.checkNewElement(element);
+
+        Node<E> node = new Node<>(element);
+        nodes.put(element, node);
+
+        Node<E>[] parts = split(root, index);
+        this.setRoot(merge(merge(parts[0], node), parts[1]));
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        Node<E> node = this.nodeAt(index);
+
+        Node<E>[] parts = split(root, index);
+        Node<E>[] rest = split(parts[1], 1);
+        this.setRoot(merge(parts[0], rest[1]));
+
+        nodes.remove(node.value);
+        modCount++;
+        return node.value;
+    }
+
+    @Override
+    public boolean remove(Object element) {
+        int index = this.indexOf(element);
+        if(index < 0)
+            return false;
+
+        this.remove(index);
+        return true;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends E> elements) {
+        if(elements.isEmpty())
+            return false;
+
+        //Build the new elements' subtree in linear time, then append it
+        ArrayList<Node<E>> added = new ArrayList<>(elements.size());
+        try {
+            for(E element : elements) {
+                this.checkNewElement(element);
+
+                Node<E> node = new Node<>(element);
+                nodes.put(element, node);
+                added.add(node);
+            }
+        }
+        catch (RuntimeException e) {
+            added.forEach(node -> nodes.remove(node.value));
+            throw e;
+        }
+
+        this.setRoot(merge(root, build(added)));
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        //Keep the surviving nodes in order and rebuild the tree from them in linear time
+        ArrayList<Node<E>> kept = new ArrayList<>(this.size());
+        boolean removed = false;
+        for(Node<E> node = first(root); node != null; node = successor(node)) {
+            if(filter.test(node.value)) {
+                nodes.remove(node.value);
+                removed = true;
+            }
+            else
+                kept.add(node);
+        }
+
+        if(removed) {
+            this.setRoot(build(kept));
+            modCount++;
+        }
+
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        root = null;
+        nodes.clear();
+        modCount++;
+    }
+
+    @Override
+    public boolean contains(Object element) { return nodes.containsKey(element); }
+
+    @Override
+    public int indexOf(Object element) {
+        Node<E> node = nodes.get(element);
+        return node != null ? rank(node) : -1;
+    }
+
+    @Override
+    public int lastIndexOf(Object element) { return this.indexOf(element); }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<>() {
+            private Node<E> next = first(root);
+            private Node<E> lastReturned = null;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() { return next != null; }
+
+            @Override
+            public E next() {
+                if(modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                if(next == null)
+                    throw new NoSuchElementException();
+
+                lastReturned = next;
+                next = successor(next);
+                return lastReturned.value;
+            }
+
+            @Override
+            public void remove() {
+                if(lastReturned == null)
+                    throw new IllegalStateException();
+                if(modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+
+                //The nodes survive the removal, so the successor found before it is still valid
+                OrderStatisticList.this.remove(rank(lastReturned));
+                lastReturned = null;
+                expectedModCount = modCount;
+            }
+        };
+    }
+
+    //Order-statistic methods
+    /**
+     * <p>Moves an element from a position to another.</p>
+     * @param fromIndex the element's current position
+     * @param toIndex the element's position once moved
+     *
+     * @throws IndexOutOfBoundsException if either index is negative or not smaller than the list's size
+     */
+    /* package */ void move(int fromIndex, int toIndex) {
+        if(toIndex < 0 || toIndex >= this.size())
+            throw new IndexOutOfBoundsException("Index: " + toIndex + ", Size: " + this.size());
+        if(fromIndex == toIndex) {
+            this.nodeAt(fromIndex);
+            return;
+        }
+
+        Node<E> node = this.nodeAt(fromIndex);
+
+        //Cut the node out, then splice it back in, reusing the node so that its index entry stays valid
+        Node<E>[] parts = split(root, fromIndex);
+        Node<E>[] rest = split(parts[1], 1);
+        Node<E> remaining = merge(parts[0], rest[1]);
+
+        node.left = null;
+        node.right = null;
+        update(node);
+
+        Node<E>[] target = split(remaining, toIndex);
+        this.setRoot(merge(merge(target[0], node), target[1]));
+        modCount++;
+    }
+
+    //Utility methods
+    private Node<E> nodeAt(int index) {
+        if(index < 0 || index >= this.size())
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size());
+
+        Node<E> node = root;
+        while(true) {
+            int leftSize = size(node.left);
+            if(index < leftSize)
+                node = node.left;
+            else if(index == leftSize)
+                return node;
+            else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    private void checkNewElement(E element) {
+        if(element == null)
+            throw new IllegalArgumentException("The list cannot hold null elements");
+        if(nodes.containsKey(element))
+            throw new IllegalStateException("The element is in the list already");
+    }
+
+    private void setRoot(Node<E> node) {
+        root = node;
+        if(root != null)
+            root.parent = null;
+    }
+
+    private static <E> int size(Node<E> node) { return node != null ? node.size : 0; }
+
+    /**
+     * <p>Recomputes a node's subtree size and links its children back to it.</p>
+     * @param node the node
+     */
+    private static <E> void update(Node<E> node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        if(node.left != null)
+            node.left.parent = node;
+        if(node.right != null)
+            node.right.parent = node;
+    }
+
+    /**
+     * <p>Splits a subtree in two.</p>
+     * @param node the subtree's root
+     * @param count the number of elements going to the first part
+     * @return the first part's root and the second part's root
+     */
+    @SuppressWarnings("unchecked")
+    private static <E> Node<E>[] split(Node<E> node, int count) {
+        if(node == null)
+            return (Node<E>[]) new Node<?>[]{ null, null };
+
+        Node<E>[] parts;
+        if(size(node.left) >= count) {
+            parts = split(node.left, count);
+            node.left = parts[1];
+            update(node);
+            parts[1] = node;
+        }
+        else {
+            parts = split(node.right, count - size(node.left) - 1);
+            node.right = parts[0];
+            update(node);
+            parts[0] = node;
+        }
+
+        return parts;
+    }
+
+    /**
+     * <p>Concatenates two subtrees.</p>
+     * @param first the first subtree's root
+     * @param second the second subtree's root
+     * @return the concatenation's root
+     */
+    private static <E> Node<E> merge(Node<E> first, Node<E> second) {
+        if(first == null)
+            return second;
+        if(second == null)
+            return first;
+
+        if(first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            update(first);
+            return first;
+        }
+
+        second.left = merge(first, second.left);
+        update(second);
+        return second;
+    }
+
+    /**
+     * <p>Builds a subtree holding detached nodes in order, in linear time.</p>
+     * @param ordered the nodes, in order
+     * @return the subtree's root
+     */
+    private static <E> Node<E> build(List<Node<E>> ordered) {
+        //Cartesian tree construction, the rightmost path is kept on the stack
+        ArrayDeque<Node<E>> rightPath = new ArrayDeque<>();
+        for(Node<E> node : ordered) {
+            node.left = null;
+            node.right = null;
+
+            Node<E> last = null;
+            while(!rightPath.isEmpty() && rightPath.peek().priority < node.priority)
+                last = rightPath.pop();
+
+            node.left = last;
+            if(!rightPath.isEmpty())
+                rightPath.peek().right = node;
+            rightPath.push(node);
+        }
+
+        Node<E> built = rightPath.peekLast();
+        if(built != null)
+            updateSubtree(built);
+        return built;
+    }
+
+    private static <E> void updateSubtree(Node<E> node) {
+        if(node.left != null)
+            updateSubtree(node.left);
+        if(node.right != null)
+            updateSubtree(node.right);
+        update(node);
+    }
+
+    private static <E> int rank(Node<E> node) {
+        int rank = size(node.left);
+        while(node.parent != null) {
+            if(node == node.parent.right)
+                rank += size(node.parent.left) + 1;
+            node = node.parent;
+        }
+        return rank;
+    }
+
+    private static <E> Node<E> first(Node<E> node) {
+        if(node == null)
+            return null;
+        while(node.left != null)
+            node = node.left;
+        return node;
+    }
+
+    private static <E> Node<E> successor(Node<E> node) {
+        if(node.right != null)
+            return first(node.right);
+
+        while(node.parent != null && node == node.parent.right)
+            node = node.parent;
+        return node.parent;
+    }
+}
@@ -2,28 +2,59 @@ package model;
 
 //Java imports
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 /**
  * <p>A ToDo in the model.</p>
  * <p>The class provides methods to manage the ToDo's state, attributes and its user sharing status.</p>
+ * <p>Boards can hold a very large number of ToDos, so the attributes are kept packed in primitives and decoded on access:
+ * the state and flags in a single byte, the background color as an RGB {@code int} with the case of its hex digits,
+ * the expiry date as epoch microseconds, the precision of PostgreSQL timestamps, and the shared usernames as an interned
+ * array, shared by all the ToDos that are not shared. An array of user IDs would not be smaller, an {@code int} and a
+ * compressed reference both take four bytes, so the usernames are kept and the model needs no directory of Users;
+ * see {@code ToDoHeapFootprint} in the tests for the figures.</p>
+ * <p>Every change to a ToDo moves it to a new version, and so the {@link Noticeboard} it is displayed in, so that a snapshot
+ * taken from the ToDo can be reused for as long as its version is unchanged.</p>
  */
 public class ToDo {
-    private enum ToDoState { COMPLETED, NOTCOMPLETED }
+    //Flags
+    private static final byte COMPLETED = 1;
+    private static final byte HAS_DETAILS = 1 << 1;
+
+    //Encodings
+    private static final int NO_COLOR = -1;
+    private static final int LOWERCASE_SHIFT = 24; //Bits 24 to 29 mark the hex digits of the background color given in lowercase
+    private static final long NO_EXPIRY_DATE = Long.MIN_VALUE;
+    private static final long MIN_EXPIRY_DATE = Long.MIN_VALUE + 1; //Stands for LocalDateTime.MIN, which does not fit in epoch microseconds
+    private static final long MAX_EXPIRY_DATE = Long.MAX_VALUE; //Stands for LocalDateTime.MAX, which does not fit in epoch microseconds
+    private static final long MICROS_PER_SECOND = 1_000_000;
+
+    /**
+     * <p>The earliest expiry date a ToDo accepts, besides {@link LocalDateTime#MIN}.</p>
+     */
+    public static final LocalDateTime FIRST_EXPIRY_DATE = LocalDateTime.of(-290_000, 1, 1, 0, 0);
+
+    /**
+     * <p>The latest expiry date a ToDo accepts, besides {@link LocalDateTime#MAX}.</p>
+     */
+    public static final LocalDateTime LAST_EXPIRY_DATE = LocalDateTime.of(290_000, 12, 31, 23, 59, 59, 999_999_000);
+
+    private static final String[] NOT_SHARED = new String[0];
 
     //Members
     private final int todoID;
-    private ToDoState state;
-    private String title;
-    private String description;
-    private String activityURL;
-    private String imageURL;
-    private LocalDateTime expiryDate;
-    private String backgroundColor;
-
     private final int ownerUserID;
-    private final ArrayList<String> sharedUsers;
+    private byte flags;
+    private int version;
+    private int backgroundColor;
+    private long expiryDate;
+    private String title;
+    private String[] details; //The description, activity url and image url, null until loaded, see areDetailsLoaded()
+    private String[] sharedUsers;
+    private Noticeboard parentBoard; //The Noticeboard displaying the ToDo, null if it is not displayed yet
 
     /**
      * <p>Instantiates a new, not completed, ToDo with the specified attributes.</p>
@@ -37,7 +68,7 @@ public class ToDo {
      * @param ownerUserID   the owner's username
      * @param backgroundColor the background color
      *
-     * @throws IllegalArgumentException if {@code title} is {@code null} or blank
+     * @throws IllegalArgumentException if {@code title} is {@code null} or blank, {@code expiryDate} is out of range or {@code backgroundColor} is not valid
      */
     public ToDo(int todoID, boolean completed, String title, String description, String activityURL, String imageURL, LocalDateTime expiryDate, int ownerUserID, String backgroundColor) {
         if(todoID < 0)
@@ -48,17 +79,40 @@ public class ToDo {
         //Setting up ToDo attributes
         this.todoID = todoID;
 
-        this.state = completed ? ToDoState.COMPLETED : ToDoState.NOTCOMPLETED;
+        this.flags = completed ? COMPLETED : 0;
+        this.version = ModelVersion.nextToDoVersion();
 
+        //Set the fields directly, the setters can be overridden
         this.title = title;
-        this.description = description == null ? "" : description;
-        this.activityURL = activityURL == null ? "" : activityURL;
-        this.imageURL = imageURL == null ? "" : imageURL;
-        this.expiryDate = expiryDate;
-        this.backgroundColor = backgroundColor == null ? "" : backgroundColor;
+        this.details = packDetails(description, activityURL, imageURL);
+        this.setFlag(HAS_DETAILS, !details[0].isEmpty() || !details[1].isEmpty() || !details[2].isEmpty());
+        this.expiryDate = encodeExpiryDate(checkExpiryDate(expiryDate));
+        this.backgroundColor = encodeColor(backgroundColor);
 
         this.ownerUserID = ownerUserID;
-        this.sharedUsers = new ArrayList<>();
+        this.sharedUsers = NOT_SHARED;
+    }
+
+    /**
+     * <p>Instantiates a new ToDo summary, whose description and URLs are not loaded yet.</p>
+     * <p>Summaries carry only what a ToDo's card shows, the details can be loaded later with {@link #setDetails(String, String, String)}.</p>
+     * @param todoID          the id
+     * @param completed       the completion state as a boolean ({@code true} for Complete, {@code false} for Not Complete)
+     * @param title           the title
+     * @param hasDetails      {@code true} if any of the description and URLs is not empty, {@code false} otherwise
+     * @param expiryDate      the expiry date
+     * @param ownerUserID     the owner's username
+     * @param backgroundColor the background color
+     *
+     * @throws IllegalArgumentException if {@code title} is {@code null} or blank, {@code expiryDate} is out of range or {@code backgroundColor} is not valid
+     */
+    public ToDo(int todoID, boolean completed, String title, boolean hasDetails, LocalDateTime expiryDate, int ownerUserID, String backgroundColor) {
+        //Delegates to:
+        // ToDo(int todoID, boolean completed, String title, String description, String activityURL, String imageURL, LocalDateTime expiryDate, int ownerUserID, String backgroundColor)
+        this(todoID, completed, title, null, null, null, expiryDate, ownerUserID, backgroundColor);
+
+        this.details = null;
+        this.setFlag(HAS_DETAILS, hasDetails);
     }
 
     //ToDo State methods
@@ -67,22 +121,43 @@ public class ToDo {
      * @return returns {@code true} if ToDo's expiry date is past the current date and time, otherwise {@code false}
      */
     public boolean isExpired() {
-        if(expiryDate == null)
+        if(expiryDate == NO_EXPIRY_DATE)
             return false;
 
-        return LocalDateTime.now().isAfter(expiryDate);
+        return toEpochMicros(LocalDateTime.now()) > expiryDate;
     }
 
     /**
      * <p>Checks if ToDo is completed.</p>
      * @return returns {@code true} if ToDo is completed, otherwise {@code false}
      */
-    public boolean isCompleted() { return state == ToDoState.COMPLETED; }
+    public boolean isCompleted() { return (flags & COMPLETED) != 0; }
 
     /**
      * <p>Changes ToDo state from not completed to completed and vice versa.</p>
      */
-    public void changeCompletionState() { this.state = this.isCompleted() ? ToDoState.NOTCOMPLETED: ToDoState.COMPLETED; }
+    public void changeCompletionState() {
+        this.flags ^= COMPLETED;
+        this.touch();
+    }
+
+    /**
+     * <p>Checks if the ToDo's description and URLs are loaded.</p>
+     * @return {@code true} if loaded, {@code false} if the ToDo is a summary
+     */
+    public boolean areDetailsLoaded() { return details != null; }
+
+    /**
+     * <p>Checks if the ToDo has a description or any URL, whether they are loaded or not.</p>
+     * @return {@code true} if any of the description and URLs is not empty, {@code false} otherwise
+     */
+    public boolean hasDetails() { return (flags & HAS_DETAILS) != 0; }
+
+    /**
+     * <p>Gets the ToDo's version, which changes whenever the ToDo changes.</p>
+     * @return the version
+     */
+    public int getVersion() { return version; }
 
     //Getter & Setter methods
     /**
@@ -99,33 +174,33 @@ public class ToDo {
 
     /**
      * <p>Gets the ToDo's description.</p>
-     * @return the description
+     * @return the description, {@code null} if the details are not loaded
      */
-    public String getDescription() { return description; }
+    public String getDescription() { return details != null ? details[0] : null; }
 
     /**
      * <p>Gets the ToDo's expiry date.</p>
      * @return the expiry date
      */
-    public LocalDateTime getExpiryDate() { return expiryDate; }
+    public LocalDateTime getExpiryDate() { return decodeExpiryDate(expiryDate); }
 
     /**
      * <p>Gets the ToDo's activity url.</p>
-     * @return the activity url
+     * @return the activity url, {@code null} if the details are not loaded
      */
-    public String getActivityURL() { return activityURL; }
+    public String getActivityURL() { return details != null ? details[1] : null; }
 
     /**
      * <p>Gets the ToDo's image url.</p>
-     * @return the image url
+     * @return the image url, {@code null} if the details are not loaded
      */
-    public String getImageURL() { return imageURL; }
+    public String getImageURL() { return details != null ? details[2] : null; }
 
     /**
      * <p>Gets the ToDo's background color.</p>
-     * @return the background color as an hexadecimal RBG string in the "#RRGGBB" format
+     * @return the background color as an hexadecimal RBG string in the "#RRGGBB" format, empty if the ToDo has none
      */
-    public String getBackgroundColor() { return backgroundColor; }
+    public String getBackgroundColor() { return decodeColor(backgroundColor); }
 
     /**
      * <p>Gets the ToDo's owner User's ID.</p>
@@ -135,9 +210,29 @@ public class ToDo {
 
     /**
      * <p>Gets the ToDo's shared Users.</p>
-     * @return the shared Users' usernames, as a {@link List} of {@link String}
+     * @return the shared Users' usernames, as an unmodifiable {@link List} of {@link String}
+     */
+    public List<String> getSharedUsers() { return List.of(sharedUsers); }
+
+    /**
+     * <p>Replaces the ToDo's shared Users.</p>
+     * @param usernames the shared Users' usernames
+     *
+     * @throws IllegalArgumentException if {@code usernames} is {@code null} or contains a {@code null} or blank username
      */
-    public List<String> getSharedUsers() { return sharedUsers; }
+    public void setSharedUsers(Collection<String> usernames) {
+        if(usernames == null)
+            throw new IllegalArgumentException("Usernames cannot be null");
+
+        String[] shared = usernames.stream().distinct().map(username -> {
+            if(username == null || username.isBlank())
+                throw new IllegalArgumentException("Username cannot be null or blank");
+            return username.intern();
+        }).toArray(String[]::new);
+
+        this.sharedUsers = shared.length == 0 ? NOT_SHARED : shared;
+        this.touch();
+    }
 
     /**
      * <p>Sets the ToDo's title.</p>
@@ -150,37 +245,86 @@ public class ToDo {
             throw new IllegalArgumentException("ToDo title cannot be null or blank");
 
         this.title = title;
+        this.touch();
     }
 
     /**
      * <p>Sets the ToDo's description.</p>
+     * <p>If the details are not loaded, the description is left to be read along with them.</p>
      * @param description the description
      */
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) {
+        if(this.areDetailsLoaded())
+            this.setDetails(description, details[1], details[2]);
+        else if(description != null && !description.isEmpty()) {
+            this.setFlag(HAS_DETAILS, true);
+            this.touch();
+        }
+    }
 
     /**
      * <p>Sets the ToDo's expiry date.</p>
-     * @param expiryDate the expiry date
+     * <p>The expiry date is kept to the microsecond, as PostgreSQL timestamps are.</p>
+     * @param expiryDate the expiry date, {@code null} if the ToDo does not expire
+     *
+     * @throws IllegalArgumentException if {@code expiryDate} is not {@link LocalDateTime#MIN}, {@link LocalDateTime#MAX}
+     * or between {@link #FIRST_EXPIRY_DATE} and {@link #LAST_EXPIRY_DATE}
      */
-    public void setExpiryDate(LocalDateTime expiryDate) { this.expiryDate = expiryDate; }
+    public void setExpiryDate(LocalDateTime expiryDate) {
+        this.expiryDate = encodeExpiryDate(checkExpiryDate(expiryDate));
+        this.touch();
+    }
 
     /**
      * <p>Sets the ToDo's activity url.</p>
+     * <p>If the details are not loaded, the activity url is left to be read along with them.</p>
      * @param activityURL the activity url
      */
-    public void setActivityURL(String activityURL) { this.activityURL = activityURL; }
+    public void setActivityURL(String activityURL) {
+        if(this.areDetailsLoaded())
+            this.setDetails(details[0], activityURL, details[2]);
+        else if(activityURL != null && !activityURL.isEmpty()) {
+            this.setFlag(HAS_DETAILS, true);
+            this.touch();
+        }
+    }
 
     /**
      * <p>Sets the ToDo's image url.</p>
+     * <p>If the details are not loaded, the image url is left to be read along with them.</p>
      * @param imageURL the image url
      */
-    public void setImageURL(String imageURL) { this.imageURL = imageURL; }
+    public void setImageURL(String imageURL) {
+        if(this.areDetailsLoaded())
+            this.setDetails(details[0], details[1], imageURL);
+        else if(imageURL != null && !imageURL.isEmpty()) {
+            this.setFlag(HAS_DETAILS, true);
+            this.touch();
+        }
+    }
+
+    /**
+     * <p>Sets the ToDo's description and URLs, marking the details as loaded.</p>
+     * @param description the description
+     * @param activityURL the activity url
+     * @param imageURL the image url
+     */
+    public void setDetails(String description, String activityURL, String imageURL) {
+        this.details = packDetails(description, activityURL, imageURL);
+        this.setFlag(HAS_DETAILS, !details[0].isEmpty() || !details[1].isEmpty() || !details[2].isEmpty());
+        this.touch();
+    }
 
     /**
      * <p>Sets the ToDo's background color.</p>
-     * @param backgroundColor the background color as an hexadecimal RBG string in the "#RRGGBB" format
+     * @param backgroundColor the background color as an hexadecimal RBG string in the "#RRGGBB" format, {@code null} or empty for none
+     *
+     * @throws IllegalArgumentException if {@code backgroundColor} is not empty and not in the "#RRGGBB" format
      */
-    public void setBackgroundColor(String backgroundColor) { this.backgroundColor = backgroundColor; }
+    public void setBackgroundColor(String backgroundColor) {
+        this.backgroundColor = encodeColor(backgroundColor);
+        this.touch();
+    }
 
     //User sharing methods
     /**
@@ -189,7 +333,11 @@ public class ToDo {
      * @return {@code true} if shared, else {@code false}
      */
     public boolean isSharedWith(String username) {
-        return sharedUsers.contains(username);
+        for(String sharedUser : sharedUsers)
+            if(sharedUser.equals(username))
+                return true;
+
+        return false;
     }
 
     /**
@@ -206,7 +354,10 @@ public class ToDo {
         if(this.isSharedWith(username))
             return -1;
 
-        this.sharedUsers.add(username);
+        String[] shared = Arrays.copyOf(sharedUsers, sharedUsers.length + 1);
+        shared[sharedUsers.length] = username.intern(); //Usernames repeat across ToDos, keep a single copy of each
+        this.sharedUsers = shared;
+        this.touch();
         return 0;
     }
 
@@ -224,33 +375,163 @@ public class ToDo {
         if(!this.isSharedWith(username))
             return -1;
 
-        this.sharedUsers.remove(username);
+        this.sharedUsers = sharedUsers.length == 1 ? NOT_SHARED
+                : Arrays.stream(sharedUsers).filter(sharedUser -> !sharedUser.equals(username)).toArray(String[]::new);
+        this.touch();
         return 0;
     }
 
+    //Utility methods
+    private void setFlag(byte flag, boolean value) {
+        this.flags = (byte) (value ? flags | flag : flags & ~flag);
+    }
+
+    /**
+     * <p>Moves the ToDo, and the Noticeboard displaying it, if any, to a new version.</p>
+     */
+    private void touch() {
+        this.version = ModelVersion.nextToDoVersion();
+        if(parentBoard != null)
+            parentBoard.touch();
+    }
+
+    /**
+     * <p>Links the ToDo to the Noticeboard displaying it.</p>
+     * @param board the Noticeboard
+     */
+    /* package */ void attachTo(Noticeboard board) { this.parentBoard = board; }
+
+    /**
+     * <p>Unlinks the ToDo from a Noticeboard that no longer displays it, unless it has been linked to another one already.</p>
+     * @param board the Noticeboard
+     */
+    /* package */ void detachFrom(Noticeboard board) {
+        if(parentBoard == board)
+            this.parentBoard = null;
+    }
+
+    private static String[] packDetails(String description, String activityURL, String imageURL) {
+        return new String[]{
+                description == null ? "" : description,
+                activityURL == null ? "" : activityURL,
+                imageURL == null ? "" : imageURL
+        };
+    }
+
+    /**
+     * <p>Checks that an expiry date can be packed.</p>
+     * @param expiryDate the expiry date, {@code null} if the ToDo does not expire
+     * @return {@code expiryDate}
+     *
+     * @throws IllegalArgumentException if {@code expiryDate} is not {@code null}, {@link LocalDateTime#MIN}, {@link LocalDateTime#MAX}
+     * or between {@link #FIRST_EXPIRY_DATE} and {@link #LAST_EXPIRY_DATE}
+     */
+    /* package */ static LocalDateTime checkExpiryDate(LocalDateTime expiryDate) {
+        if(expiryDate == null || expiryDate.equals(LocalDateTime.MIN) || expiryDate.equals(LocalDateTime.MAX))
+            return expiryDate;
+
+        if(expiryDate.isBefore(FIRST_EXPIRY_DATE) || expiryDate.isAfter(LAST_EXPIRY_DATE))
+            throw new IllegalArgumentException("ToDo expiry date " + expiryDate + " is out of range, must be between " + FIRST_EXPIRY_DATE + " and " + LAST_EXPIRY_DATE);
+
+        return expiryDate;
+    }
+
+    /**
+     * <p>Packs an expiry date into a {@code long}.</p>
+     * @param expiryDate the expiry date, {@code null} if the ToDo does not expire, checked by {@link #checkExpiryDate(LocalDateTime)}
+     * @return the packed expiry date, in microseconds since the epoch unless it is a sentinel
+     */
+    /* package */ static long encodeExpiryDate(LocalDateTime expiryDate) {
+        if(expiryDate == null)
+            return NO_EXPIRY_DATE;
+        if(expiryDate.equals(LocalDateTime.MIN))
+            return MIN_EXPIRY_DATE;
+        if(expiryDate.equals(LocalDateTime.MAX))
+            return MAX_EXPIRY_DATE;
+
+        return toEpochMicros(expiryDate);
+    }
+
+    /**
+     * <p>Unpacks an expiry date packed by {@link #encodeExpiryDate(LocalDateTime)}.</p>
+     * @param expiryDate the packed expiry date
+     * @return the expiry date, {@code null} if the ToDo does not expire
+     */
+    /* package */ static LocalDateTime decodeExpiryDate(long expiryDate) {
+        if(expiryDate == NO_EXPIRY_DATE)
+            return null;
+        if(expiryDate == MIN_EXPIRY_DATE)
+            return LocalDateTime.MIN;
+        if(expiryDate == MAX_EXPIRY_DATE)
+            return LocalDateTime.MAX;
+
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(expiryDate, MICROS_PER_SECOND), (int) Math.floorMod(expiryDate, MICROS_PER_SECOND) * 1000, ZoneOffset.UTC);
+    }
+
+    /**
+     * <p>Packs a background color into an {@code int}.</p>
+     * @param backgroundColor the background color as an hexadecimal RBG string in the "#RRGGBB" format, {@code null} or empty for none
+     * @return the packed background color, the RGB bits and a bit above them for each hex digit given in lowercase
+     *
+     * @throws IllegalArgumentException if {@code backgroundColor} is not empty and not in the "#RRGGBB" format
+     */
+    /* package */ static int encodeColor(String backgroundColor) {
+        if(backgroundColor == null || backgroundColor.isEmpty())
+            return NO_COLOR;
+
+        if(!backgroundColor.matches("^#[0-9A-Fa-f]{6}$"))
+            throw new IllegalArgumentException("ToDo background color is not valid, must be in the following format \"#RRGGBB\"");
+
+        int packed = Integer.parseInt(backgroundColor, 1, 7, 16);
+        for(int digit = 0; digit < 6; digit++)
+            if(Character.isLowerCase(backgroundColor.charAt(digit + 1)))
+                packed |= 1 << (LOWERCASE_SHIFT + digit);
+
+        return packed;
+    }
+
+    /**
+     * <p>Unpacks a background color packed by {@link #encodeColor(String)}.</p>
+     * @param backgroundColor the packed background color
+     * @return the background color as an hexadecimal RBG string in the "#RRGGBB" format, empty if there is none
+     */
+    /* package */ static String decodeColor(int backgroundColor) {
+        if(backgroundColor == NO_COLOR)
+            return "";
+
+        char[] hex = String.format("#%06X", backgroundColor & 0xFFFFFF).toCharArray();
+        for(int digit = 0; digit < 6; digit++)
+            if((backgroundColor & 1 << (LOWERCASE_SHIFT + digit)) != 0)
+                hex[digit + 1] = Character.toLowerCase(hex[digit + 1]);
+
+        return new String(hex);
+    }
+
+    /**
+     * <p>Converts a date and time to the microseconds since the epoch, taking it as UTC.</p>
+     * @param dateTime the date and time, between {@link #FIRST_EXPIRY_DATE} and {@link #LAST_EXPIRY_DATE}
+     * @return the microseconds since the epoch
+     */
+    private static long toEpochMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * MICROS_PER_SECOND + dateTime.getNano() / 1000;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
         sb.append("{");
         sb.append("ID: ").append(this.todoID).append(", ");
-        sb.append("State: ").append(this.state).append(", ");
+        sb.append("State: ").append(this.isCompleted() ? "COMPLETED" : "NOTCOMPLETED").append(", ");
         sb.append("Title: ").append(this.title).append(", ");
-        sb.append("Description: ").append(this.description).append(", ");
-        sb.append("Expiration: ").append(this.expiryDate).append(", ");
-        sb.append("ActivityURL: ").append(this.activityURL).append(", ");
-        sb.append("ImageURL:").append(this.imageURL).append(", ");
+        sb.append("Description: ").append(this.getDescription()).append(", ");
+        sb.append("Expiration: ").append(this.getExpiryDate()).append(", ");
+        sb.append("ActivityURL: ").append(this.getActivityURL()).append(", ");
+        sb.append("ImageURL:").append(this.getImageURL()).append(", ");
         sb.append("Owner: ").append(this.ownerUserID).append(", ");
         sb.append("Shared Users: [");
-        if(this.sharedUsers != null) {
-            for (int i = 0; i < this.sharedUsers.size(); i++) {
-                if (i != this.sharedUsers.size() - 1)
-                    sb.append(this.sharedUsers.get(i)).append(", ");
-                else
-                    sb.append(this.sharedUsers.get(i));
-            }
-        }
+        sb.append(String.join(", ", this.sharedUsers));
         sb.append("], ");
-        sb.append("Color: ").append(this.backgroundColor).append("}");
+        sb.append("Color: ").append(this.getBackgroundColor()).append("}");
         return sb.toString();
     }
 }
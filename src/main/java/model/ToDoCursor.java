@@ -0,0 +1,96 @@
+package model;
+
+//Java imports
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * <p>A forward-only cursor over the ToDos of a {@link Noticeboard}, in board order.</p>
+ * <p>The cursor starts before the first ToDo, {@link #next()} moves it to the following one. The getters read the ToDo
+ * the cursor is on, so that the ToDos can be scanned without instantiating a {@link ToDo} for each of them.</p>
+ */
+public interface ToDoCursor {
+    /**
+     * <p>Moves the cursor to the next ToDo.</p>
+     * @return {@code true} if the cursor is on a ToDo, {@code false} if there are no more ToDos
+     */
+    boolean next();
+
+    /**
+     * <p>Gets the ToDo's ID.</p>
+     * @return the ID
+     */
+    int getToDoID();
+
+    /**
+     * <p>Checks if the ToDo is completed.</p>
+     * @return {@code true} if completed, otherwise {@code false}
+     */
+    boolean isCompleted();
+
+    /**
+     * <p>Gets the ToDo's title.</p>
+     * @return the title
+     */
+    String getTitle();
+
+    /**
+     * <p>Checks if the ToDo has a description or any URL, whether they are loaded or not.</p>
+     * @return {@code true} if any of the description and URLs is not empty, {@code false} otherwise
+     */
+    boolean hasDetails();
+
+    /**
+     * <p>Gets the ToDo's description.</p>
+     * @return the description, {@code null} if the details are not loaded
+     */
+    String getDescription();
+
+    /**
+     * <p>Gets the ToDo's activity url.</p>
+     * @return the activity url, {@code null} if the details are not loaded
+     */
+    String getActivityURL();
+
+    /**
+     * <p>Gets the ToDo's image url.</p>
+     * @return the image url, {@code null} if the details are not loaded
+     */
+    String getImageURL();
+
+    /**
+     * <p>Gets the ToDo's expiry date.</p>
+     * @return the expiry date, {@code null} if the ToDo does not expire
+     */
+    LocalDateTime getExpiryDate();
+
+    /**
+     * <p>Gets the ToDo's owner User's ID.</p>
+     * @return the ID
+     */
+    int getOwnerUserID();
+
+    /**
+     * <p>Gets the ToDo's background color.</p>
+     * @return the background color as an hexadecimal RBG string in the "#RRGGBB" format, empty if there is none
+     */
+    String getBackgroundColor();
+
+    /**
+     * <p>Gets the usernames of the Users the ToDo is shared with.</p>
+     * @return the usernames, as an unmodifiable {@link List} of {@link String}
+     */
+    List<String> getSharedUsers();
+
+    /**
+     * <p>Instantiates a {@link ToDo} holding the attributes of the ToDo the cursor is on.</p>
+     * @return the ToDo, detached from the cursor
+     */
+    default ToDo toToDo() {
+        ToDo todo = this.getDescription() != null
+                ? new ToDo(this.getToDoID(), this.isCompleted(), this.getTitle(), this.getDescription(), this.getActivityURL(), this.getImageURL(), this.getExpiryDate(), this.getOwnerUserID(), this.getBackgroundColor())
+                : new ToDo(this.getToDoID(), this.isCompleted(), this.getTitle(), this.hasDetails(), this.getExpiryDate(), this.getOwnerUserID(), this.getBackgroundColor());
+        todo.setSharedUsers(this.getSharedUsers());
+        return todo;
+    }
+}
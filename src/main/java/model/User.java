@@ -2,13 +2,21 @@ package model;
 
 //Java imports
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Predicate;
 
 /**
  * <p>A User in the model.</p>
  * <p>Every User has a collection of {@link Noticeboard}.</p>
  * <p>The class provides methods to retrieve, add, remove and get the count of the Noticeboards.</p>
+ * <p>The Noticeboards are kept in order, alongside an ID index and a title index, so that they are looked up in constant time.
+ * The indexes are kept consistent by the User's methods, the Noticeboards must be added, removed and renamed through them.</p>
+ * <p>Every change to the User's Noticeboards, or to their ToDos, moves the User to a new version,
+ * so that a snapshot taken from the User can be reused for as long as its version is unchanged.</p>
  */
 public class User {
     private final int userID;
@@ -16,6 +24,9 @@ public class User {
     private final String password;
 
     private final ArrayList<Noticeboard> boards;
+    private final HashMap<Integer, Noticeboard> boardsByID;
+    private final HashMap<String, Noticeboard> boardsByTitle; //Holds the last indexed Noticeboard with each title, shared Noticeboards may share titles with owned ones
+    private long version;
 
     /**
      * <p>Instantiates a new User.</p>
@@ -39,6 +50,9 @@ public class User {
         this.username = username;
         this.password = password;
         boards = new ArrayList<>();
+        boardsByID = new HashMap<>();
+        boardsByTitle = new HashMap<>();
+        version = ModelVersion.next();
     }
 
     //Getter & Setter methods
@@ -59,12 +73,18 @@ public class User {
      */
     public String getPassword() { return password; }
 
+    /**
+     * <p>Gets the User's version, which changes whenever the User's Noticeboards or their ToDos change.</p>
+     * @return the version
+     */
+    public long getVersion() { return version; }
+
     //Noticeboard methods
     /**
      * <p>Gets the User's {@link Noticeboard}s.</p>
-     * @return the Noticeboards, as a {@link List} of {@link Noticeboard}
+     * @return the Noticeboards, as an unmodifiable {@link List} of {@link Noticeboard}
      */
-    public List<Noticeboard> getNoticeboards() { return boards; }
+    public List<Noticeboard> getNoticeboards() { return Collections.unmodifiableList(boards); }
 
     /**
      * <p>Gets the count of the User's Noticeboards.</p>
@@ -78,8 +98,7 @@ public class User {
      * @return the noticeboard if the user is able to view it, else {@code null}
      */
     public Noticeboard getNoticeboard(String title){
-        return boards.stream().filter(board -> board.getTitle().equals(title))
-                .findFirst().orElse(null);
+        return boardsByTitle.get(title);
     }
     /**
      * <p>Gets a Noticeboard from the User.</p>
@@ -87,8 +106,7 @@ public class User {
      * @return the noticeboard if the user is able to view it, else {@code null}
      */
     public Noticeboard getNoticeboard(int boardID){
-        return boards.stream().filter(board -> board.getBoardID() == boardID)
-                .findFirst().orElse(null);
+        return boardsByID.get(boardID);
     }
 
     /**
@@ -102,10 +120,28 @@ public class User {
         if(noticeboard == null)
             throw new IllegalArgumentException("You cannot add a null Noticeboard to a User");
 
-        if(this.getNoticeboard(noticeboard.getBoardID()) != null) //Board exists already
+        if(boardsByID.putIfAbsent(noticeboard.getBoardID(), noticeboard) != null) //Board exists already
             throw new IllegalStateException("A Noticeboard with the same title exists already, duplicate titles are not allowed");
 
         boards.add(noticeboard);
+        this.indexTitle(noticeboard);
+        noticeboard.attachTo(this);
+        this.touch();
+    }
+
+    /**
+     * <p>Adds many Noticeboards to the User, in order.</p>
+     * @param noticeboards the noticeboards
+     *
+     * @throws IllegalArgumentException if {@code noticeboards} is {@code null} or contains {@code null}
+     * @throws IllegalStateException if a noticeboard with the same ID exists already, the noticeboards before it are added anyway
+     */
+    public void addNoticeboards(Collection<Noticeboard> noticeboards){
+        if(noticeboards == null)
+            throw new IllegalArgumentException("You cannot add null Noticeboards to a User");
+
+        boards.ensureCapacity(boards.size() + noticeboards.size());
+        noticeboards.forEach(this::addNoticeboard);
     }
 
     /**
@@ -119,7 +155,7 @@ public class User {
         if(b == null)
             throw new NoSuchElementException("Cannot remove Noticeboard  \"" + title + "\", it does not exist");
 
-        boards.remove(b);
+        this.removeNoticeboard(b);
     }
     /**
      * <p>Deletes a Noticeboard from the User.</p>
@@ -132,7 +168,111 @@ public class User {
         if(b == null)
             throw new NoSuchElementException("Cannot remove Noticeboard-" + boardID + ", it does not exist");
 
-        boards.remove(b);
+        this.removeNoticeboard(b);
+    }
+
+    /**
+     * <p>Deletes the Noticeboards matching a condition from the User.</p>
+     * @param filter the condition, {@code true} for the noticeboards to delete
+     * @return the deleted Noticeboards, as a {@link List} of {@link Noticeboard}
+     */
+    public List<Noticeboard> deleteNoticeboardsIf(Predicate<Noticeboard> filter){
+        List<Noticeboard> removed = new ArrayList<>();
+        boards.removeIf(board -> {
+            if(!filter.test(board))
+                return false;
+
+            removed.add(board);
+            return true;
+        });
+
+        //Rebuild the indexes once rather than patching them for every deleted Noticeboard
+        if(!removed.isEmpty()) {
+            removed.forEach(board -> board.detachFrom(this));
+            this.rebuildIndexes();
+            this.touch();
+        }
+
+        return removed;
+    }
+
+    /**
+     * <p>Deletes all the User's Noticeboards.</p>
+     */
+    public void clearNoticeboards(){
+        boards.forEach(board -> board.detachFrom(this));
+        boards.clear();
+        boardsByID.clear();
+        boardsByTitle.clear();
+        this.touch();
+    }
+
+    /**
+     * <p>Renames one of the User's Noticeboards, keeping the title index consistent.</p>
+     * @param boardID the ID
+     * @param newTitle the new title
+     *
+     * @throws NoSuchElementException if the noticeboard does not exist
+     * @throws IllegalArgumentException if {@code newTitle} is {@code null} or blank
+     */
+    public void renameNoticeboard(int boardID, String newTitle){
+        Noticeboard b = this.getNoticeboard(boardID);
+        if(b == null)
+            throw new NoSuchElementException("Cannot rename Noticeboard-" + boardID + ", it does not exist");
+
+        String oldTitle = b.getTitle();
+        b.setTitle(newTitle);
+
+        this.unindexTitle(b, oldTitle);
+        this.indexTitle(b);
+        this.touch();
+    }
+
+    //Utility methods
+    /**
+     * <p>Removes a Noticeboard from the list and the indexes.</p>
+     * @param board the noticeboard, which must belong to the User
+     */
+    private void removeNoticeboard(Noticeboard board){
+        boards.remove(board);
+        boardsByID.remove(board.getBoardID());
+        this.unindexTitle(board, board.getTitle());
+        board.detachFrom(this);
+        this.touch();
+    }
+
+    /**
+     * <p>Moves the User to a new version.</p>
+     */
+    /* package */ void touch(){ this.version = ModelVersion.next(); }
+
+    /**
+     * <p>Indexes a Noticeboard's title.</p>
+     * @param board the noticeboard
+     */
+    private void indexTitle(Noticeboard board){
+        boardsByTitle.put(board.getTitle(), board);
+    }
+
+    /**
+     * <p>Drops a Noticeboard from the title index, unless another Noticeboard has been indexed with the title since.</p>
+     * @param board the noticeboard
+     * @param title the title the noticeboard is indexed with
+     */
+    private void unindexTitle(Noticeboard board, String title){
+        boardsByTitle.remove(title, board);
+    }
+
+    /**
+     * <p>Rebuilds the ID and title indexes from the Noticeboards list.</p>
+     */
+    private void rebuildIndexes(){
+        boardsByID.clear();
+        boardsByTitle.clear();
+        for(Noticeboard board : boards) {
+            boardsByID.put(board.getBoardID(), board);
+            this.indexTitle(board);
+        }
     }
 
     @Override
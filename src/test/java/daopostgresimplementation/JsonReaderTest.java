@@ -0,0 +1,232 @@
+package daopostgresimplementation;
+
+//Java imports
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>Checks {@link JsonReader} on documents shaped like the ones the user data query returns, and on malformed ones.</p>
+ */
+class JsonReaderTest {
+    private static final String USER_DOCUMENT = """
+            {
+              "userID": 7,
+              "username": "alice",
+              "boards": [
+                {
+                  "boardID": -12,
+                  "title": "Work",
+                  "description": null,
+                  "todos": [
+                    { "todoID": 1, "title": "Call \\"Bob\\"", "completed": true, "sharedUsers": ["carol", "dave"] },
+                    { "todoID": 2, "title": "Caf\\u00e9\\n\\tbreak", "completed": false, "sharedUsers": [] }
+                  ]
+                }
+              ]
+            }
+            """;
+
+    @Test
+    void walksNestedDocument() throws IOException {
+        assertWalksUserDocument(new JsonReader(new StringReader(USER_DOCUMENT)));
+    }
+
+    @Test
+    void walksDocumentReadOneCharacterAtATime() throws IOException {
+        //Every token straddles a buffer refill
+        assertWalksUserDocument(new JsonReader(new OneCharReader(USER_DOCUMENT)));
+    }
+
+    @Test
+    void walksDocumentLongerThanBuffer() throws IOException {
+        StringBuilder document = new StringBuilder("[");
+        for(int i = 0; i < 5_000; i++)
+            document.append(i > 0 ? ", " : "").append("\"todo number ").append(i).append('"');
+        document.append(']');
+
+        try(JsonReader reader = new JsonReader(new StringReader(document.toString()))) {
+            reader.beginArray();
+            for(int i = 0; i < 5_000; i++) {
+                assertTrue(reader.hasNext());
+                assertEquals("todo number " + i, reader.nextString());
+            }
+            assertFalse(reader.hasNext());
+            reader.endArray();
+            assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+        }
+    }
+
+    @Test
+    void skipsUnknownMembersWithNestedValues() throws IOException {
+        String document = "{\"skipped\": {\"a\": [1, {\"b\": null}, \"]\"], \"c\": true}, \"kept\": 3, \"last\": [[]]}";
+
+        try(JsonReader reader = new JsonReader(new StringReader(document))) {
+            reader.beginObject();
+            assertEquals("skipped", reader.nextName());
+            reader.skipValue();
+            assertEquals("kept", reader.nextName());
+            assertEquals(3, reader.nextInt());
+            assertEquals("last", reader.nextName());
+            reader.skipValue();
+            assertFalse(reader.hasNext());
+            reader.endObject();
+        }
+    }
+
+    @Test
+    void peeksWithoutConsuming() throws IOException {
+        try(JsonReader reader = new JsonReader(new StringReader("  {\"a\": null}"))) {
+            assertEquals(JsonReader.Token.BEGIN_OBJECT, reader.peek());
+            assertEquals(JsonReader.Token.BEGIN_OBJECT, reader.peek());
+            reader.beginObject();
+            assertEquals(JsonReader.Token.NAME, reader.peek());
+            reader.nextName();
+            assertEquals(JsonReader.Token.NULL, reader.peek());
+            assertNull(reader.nextString());
+            assertEquals(JsonReader.Token.END_OBJECT, reader.peek());
+            reader.endObject();
+            assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+        }
+    }
+
+    @Test
+    void rejectsUnexpectedTokens() throws IOException {
+        try(JsonReader reader = new JsonReader(new StringReader("{\"a\": \"text\"}"))) {
+            assertThrows(IOException.class, reader::beginArray);
+            reader.beginObject();
+            assertThrows(IOException.class, reader::nextString);
+            reader.nextName();
+            assertThrows(IOException.class, reader::nextInt);
+            assertThrows(IOException.class, reader::nextBoolean);
+        }
+    }
+
+    @Test
+    void rejectsMalformedDocuments() {
+        assertMalformed("{\"a\" 1}", reader -> {
+            reader.beginObject();
+            reader.nextName();
+        });
+        assertMalformed("\"unterminated", JsonReader::nextString);
+        assertMalformed("\"bad \\x escape\"", JsonReader::nextString);
+        assertMalformed("\"bad \\u00zz escape\"", JsonReader::nextString);
+        assertMalformed("12.5", JsonReader::nextInt);
+        assertMalformed("99999999999", JsonReader::nextInt);
+        assertMalformed("tru", JsonReader::nextBoolean);
+        assertMalformed("nul", JsonReader::nextNull);
+        assertMalformed("@", JsonReader::peek);
+    }
+
+    @Test
+    void closesUnderlyingReader() throws IOException {
+        OneCharReader source = new OneCharReader("[]");
+        new JsonReader(source).close();
+        assertTrue(source.closed);
+    }
+
+    //Utility methods
+    private static void assertWalksUserDocument(JsonReader reader) throws IOException {
+        try(reader) {
+            reader.beginObject();
+            assertEquals("userID", reader.nextName());
+            assertEquals(7, reader.nextInt());
+            assertEquals("username", reader.nextName());
+            assertEquals("alice", reader.nextString());
+
+            assertEquals("boards", reader.nextName());
+            reader.beginArray();
+            reader.beginObject();
+            assertEquals("boardID", reader.nextName());
+            assertEquals(-12, reader.nextInt());
+            assertEquals("title", reader.nextName());
+            assertEquals("Work", reader.nextString());
+            assertEquals("description", reader.nextName());
+            assertEquals(JsonReader.Token.NULL, reader.peek());
+            reader.nextNull();
+
+            assertEquals("todos", reader.nextName());
+            reader.beginArray();
+
+            reader.beginObject();
+            assertEquals("todoID", reader.nextName());
+            assertEquals(1, reader.nextInt());
+            assertEquals("title", reader.nextName());
+            assertEquals("Call \"Bob\"", reader.nextString());
+            assertEquals("completed", reader.nextName());
+            assertTrue(reader.nextBoolean());
+            assertEquals("sharedUsers", reader.nextName());
+            reader.beginArray();
+            assertEquals("carol", reader.nextString());
+            assertEquals("dave", reader.nextString());
+            assertFalse(reader.hasNext());
+            reader.endArray();
+            assertFalse(reader.hasNext());
+            reader.endObject();
+
+            assertTrue(reader.hasNext());
+            reader.beginObject();
+            assertEquals("todoID", reader.nextName());
+            assertEquals(2, reader.nextInt());
+            assertEquals("title", reader.nextName());
+            assertEquals("Café\n\tbreak", reader.nextString());
+            assertEquals("completed", reader.nextName());
+            assertFalse(reader.nextBoolean());
+            assertEquals("sharedUsers", reader.nextName());
+            reader.beginArray();
+            assertFalse(reader.hasNext());
+            reader.endArray();
+            reader.endObject();
+
+            assertFalse(reader.hasNext());
+            reader.endArray();
+            reader.endObject();
+            reader.endArray();
+            reader.endObject();
+
+            assertFalse(reader.hasNext());
+            assertEquals(JsonReader.Token.END_DOCUMENT, reader.peek());
+        }
+    }
+
+    private interface ReaderStep {
+        void accept(JsonReader reader) throws IOException;
+    }
+
+    private static void assertMalformed(String document, ReaderStep step) {
+        JsonReader reader = new JsonReader(new StringReader(document));
+        IOException e = assertThrows(IOException.class, () -> step.accept(reader));
+        assertTrue(e.getMessage().startsWith("Malformed JSON document"), e.getMessage());
+    }
+
+    /**
+     * <p>A {@link Reader} handing out a single character per read.</p>
+     */
+    private static final class OneCharReader extends Reader {
+        private final String text;
+        private int position;
+        private boolean closed;
+
+        private OneCharReader(String text) { this.text = text; }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if(position == text.length())
+                return -1;
+
+            buffer[offset] = text.charAt(position++);
+            return 1;
+        }
+
+        @Override
+        public void close() { closed = true; }
+    }
+}
@@ -0,0 +1,289 @@
+package database;
+
+//Java imports
+import java.lang.reflect.Proxy;
+
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>Checks the leasing, validation and eviction of {@link ConnectionPool}, on physical connections opened by a fake JDBC driver.</p>
+ */
+class ConnectionPoolTest {
+    private static final AtomicInteger DATABASE_COUNT = new AtomicInteger();
+    private static final long LONG_TIMEOUT_MILLIS = 60_000;
+
+    private FakeDriver driver;
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void registerDriver() throws SQLException {
+        driver = new FakeDriver("jdbc:fake:database" + DATABASE_COUNT.incrementAndGet());
+        DriverManager.registerDriver(driver);
+    }
+
+    @AfterEach
+    void deregisterDriver() throws SQLException {
+        if(pool != null)
+            pool.close();
+        DriverManager.deregisterDriver(driver);
+    }
+
+    @Test
+    void rejectsInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionPool(driver.url, "user", "password", 0, 1_000, 1_000));
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionPool(driver.url, "user", "password", 1, 0, 1_000));
+        assertThrows(IllegalArgumentException.class, () -> new ConnectionPool(driver.url, "user", "password", 1, 1_000, -1));
+    }
+
+    @Test
+    void reusesReturnedConnection() throws SQLException {
+        pool = new ConnectionPool(driver.url, "user", "password", 2, LONG_TIMEOUT_MILLIS, LONG_TIMEOUT_MILLIS);
+
+        Connection first = pool.lease();
+        first.close();
+        Connection second = pool.lease();
+
+        assertNotSame(first, second);
+        assertEquals(1, driver.connections.size());
+
+        ConnectionPool.Statistics statistics = pool.getStatistics();
+        assertEquals(1, statistics.openConnections());
+        assertEquals(1, statistics.leasedConnections());
+        assertEquals(2, statistics.leaseCount());
+        assertEquals(1, statistics.returnCount());
+        assertEquals(1, statistics.createdCount());
+        second.close();
+    }
+
+    @Test
+    void returnedLeaseCannotBeUsed() throws SQLException {
+        pool = new ConnectionPool(driver.url, "user", "password", 1, LONG_TIMEOUT_MILLIS, LONG_TIMEOUT_MILLIS);
+
+        Connection connection = pool.lease();
+        connection.close();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        assertThrows(SQLException.class, connection::createStatement);
+        assertThrows(SQLException.class, () -> connection.prepareStatement("SELECT 1"));
+        assertEquals(1, pool.getStatistics().returnCount());
+        assertFalse(driver.connections.getFirst().closed);
+    }
+
+    @Test
+    void returnedConnectionRollsBackOpenTransaction() throws SQLException {
+        pool = new ConnectionPool(driver.url, "user", "password", 1, LONG_TIMEOUT_MILLIS, LONG_TIMEOUT_MILLIS);
+
+        Connection connection = pool.lease();
+        connection.setAutoCommit(false);
+        connection.close();
+
+        FakeConnection physical = driver.connections.getFirst();
+        assertEquals(1, physical.rollbacks);
+        assertTrue(physical.autoCommit);
+    }
+
+    @Test
+    void leaseTimesOutWhenPoolIsFull() throws SQLException {
+        pool = new ConnectionPool(driver.url, "user", "password", 1, 50, LONG_TIMEOUT_MILLIS);
+
+        Connection connection = pool.lease();
+        assertThrows(SQLException.class, pool::lease);
+        assertEquals(1, pool.getStatistics().leaseTimeoutCount());
+        assertEquals(1, driver.connections.size());
+        connection.close();
+    }
+
+    @Test
+    void waitingLeaseGetsReturnedConnection() throws Exception {
+        pool = new ConnectionPool(driver.url, "user", "password", 1, LONG_TIMEOUT_MILLIS, LONG_TIMEOUT_MILLIS);
+
+        Connection connection = pool.lease();
+        Thread returner = new Thread(() -> {
+            try {
+                Thread.sleep(50);
+                connection.close();
+            }
+            catch (InterruptedException | SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        returner.start();
+
+        Connection next = pool.lease();
+        returner.join();
+
+        assertEquals(1, driver.connections.size());
+        assertEquals(0, pool.getStatistics().leaseTimeoutCount());
+        next.close();
+    }
+
+    @Test
+    void discardsIdleConnectionFailingValidation() throws SQLException {
+        pool = new ConnectionPool(driver.url, "user", "password", 1, LONG_TIMEOUT_MILLIS, LONG_TIMEOUT_MILLIS);
+
+        pool.lease().close();
+        FakeConnection broken = driver.connections.getFirst();
+        broken.valid = false;
+
+        Connection connection = pool.lease();
+
+        assertTrue(broken.closed);
+        assertEquals(2, driver.connections.size());
+        ConnectionPool.Statistics statistics = pool.getStatistics();
+        assertEquals(1, statistics.validationFailureCount());
+        assertEquals(1, statistics.openConnections());
+        connection.close();
+    }
+
+    @Test
+    void failedOpenGivesBackItsSlot() throws SQLException {
+        pool = new ConnectionPool(driver.url, "user", "password", 1, 50, LONG_TIMEOUT_MILLIS);
+
+        driver.failOpening = true;
+        assertThrows(SQLException.class, pool::lease);
+        assertEquals(0, pool.getStatistics().openConnections());
+
+        driver.failOpening = false;
+        pool.lease().close();
+        assertEquals(1, pool.getStatistics().createdCount());
+    }
+
+    @Test
+    void evictsConnectionsIdleForTooLong() throws Exception {
+        pool = new ConnectionPool(driver.url, "user", "password", 2, LONG_TIMEOUT_MILLIS, 50);
+
+        Connection first = pool.lease();
+        Connection second = pool.lease();
+        first.close();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while(!driver.connections.getFirst().closed && System.nanoTime() < deadline)
+            Thread.sleep(10);
+
+        ConnectionPool.Statistics statistics = pool.getStatistics();
+        assertEquals(1, statistics.evictedCount());
+        assertEquals(1, statistics.openConnections());
+        assertEquals(0, statistics.idleConnections());
+        assertTrue(driver.connections.get(0).closed);
+        assertFalse(driver.connections.get(1).closed);
+        second.close();
+    }
+
+    @Test
+    void closeClosesIdleConnectionsAndRejectsLeases() throws SQLException {
+        pool = new ConnectionPool(driver.url, "user", "password", 2, LONG_TIMEOUT_MILLIS, LONG_TIMEOUT_MILLIS);
+
+        Connection leased = pool.lease();
+        pool.lease().close();
+        pool.close();
+
+        assertTrue(driver.connections.get(1).closed);
+        assertFalse(driver.connections.get(0).closed);
+        assertThrows(SQLException.class, pool::lease);
+
+        //A connection returned after the pool is closed is closed too
+        leased.close();
+        assertTrue(driver.connections.stream().allMatch(connection -> connection.closed));
+        assertEquals(0, pool.getStatistics().openConnections());
+    }
+
+    /**
+     * <p>A JDBC driver opening {@link FakeConnection}s for a single URL.</p>
+     */
+    private static final class FakeDriver implements Driver {
+        private final String url;
+        private final List<FakeConnection> connections = new CopyOnWriteArrayList<>();
+        private volatile boolean failOpening = false;
+
+        private FakeDriver(String url) { this.url = url; }
+
+        @Override
+        public Connection connect(String url, Properties info) throws SQLException {
+            if(!this.acceptsURL(url))
+                return null;
+            if(failOpening)
+                throw new SQLException("Connection refused");
+
+            FakeConnection connection = new FakeConnection();
+            connections.add(connection);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{ Connection.class },
+                    (proxy, method, args) -> connection.invoke(method.getName(), args));
+        }
+
+        @Override
+        public boolean acceptsURL(String url) { return this.url.equals(url); }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) { return new DriverPropertyInfo[0]; }
+
+        @Override
+        public int getMajorVersion() { return 1; }
+
+        @Override
+        public int getMinorVersion() { return 0; }
+
+        @Override
+        public boolean jdbcCompliant() { return false; }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException { throw new SQLFeatureNotSupportedException(); }
+    }
+
+    /**
+     * <p>The state of a physical connection opened by the {@link FakeDriver}.</p>
+     */
+    private static final class FakeConnection {
+        private volatile boolean valid = true;
+        private volatile boolean closed = false;
+        private volatile boolean autoCommit = true;
+        private volatile int rollbacks = 0;
+
+        private Object invoke(String method, Object[] args) throws SQLException {
+            return switch (method) {
+                case "isValid" -> valid && !closed;
+                case "isClosed" -> closed;
+                case "close" -> {
+                    closed = true;
+                    yield null;
+                }
+                case "getAutoCommit" -> autoCommit;
+                case "setAutoCommit" -> {
+                    autoCommit = (Boolean) args[0];
+                    yield null;
+                }
+                case "rollback" -> {
+                    rollbacks++;
+                    yield null;
+                }
+                case "clearWarnings" -> null;
+                case "isWrapperFor" -> false;
+                case "hashCode" -> System.identityHashCode(this);
+                case "toString" -> "FakeConnection";
+                default -> throw new SQLFeatureNotSupportedException(method);
+            };
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package database.migration;
+
+//Java imports
+import java.lang.reflect.Proxy;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>Checks {@link MigrationRunner} against a fake transactional connection, and the ordering of the App's {@link Migrations}.</p>
+ */
+class MigrationRunnerTest {
+    private static final Migration FIRST = new Migration(1, "First", "CREATE TABLE First ()");
+    private static final Migration SECOND = new Migration(2, "Second", "CREATE TABLE Second ()");
+    private static final Migration THIRD = new Migration(3, "Third", "CREATE TABLE Third ()");
+    private static final Migration FAILING = new Migration(2, "Failing", "FAIL");
+
+    @Test
+    void appliesMigrationsInVersionOrder() throws SQLException {
+        FakeDatabase database = new FakeDatabase();
+
+        int applied = new MigrationRunner(database.connect(), List.of(THIRD, FIRST, SECOND)).migrate();
+
+        assertEquals(3, applied);
+        assertEquals(List.of(FIRST.sql(), SECOND.sql(), THIRD.sql()), database.committedSQL);
+        assertEquals(Set.of(1, 2, 3), database.committedVersions);
+        assertEquals(3, database.lockCount);
+        assertTrue(database.autoCommit);
+    }
+
+    @Test
+    void skipsAppliedMigrations() throws SQLException {
+        FakeDatabase database = new FakeDatabase();
+        database.committedVersions.addAll(Set.of(1, 2));
+
+        int applied = new MigrationRunner(database.connect(), List.of(FIRST, SECOND, THIRD)).migrate();
+
+        assertEquals(1, applied);
+        assertEquals(List.of(THIRD.sql()), database.committedSQL);
+        assertEquals(Set.of(1, 2, 3), database.committedVersions);
+    }
+
+    @Test
+    void secondRunAppliesNothing() throws SQLException {
+        FakeDatabase database = new FakeDatabase();
+        new MigrationRunner(database.connect(), List.of(FIRST, SECOND)).migrate();
+
+        int applied = new MigrationRunner(database.connect(), List.of(FIRST, SECOND)).migrate();
+
+        assertEquals(0, applied);
+        assertEquals(List.of(FIRST.sql(), SECOND.sql()), database.committedSQL);
+    }
+
+    @Test
+    void failedMigrationIsRolledBackAndStopsTheRun() {
+        FakeDatabase database = new FakeDatabase();
+        database.autoCommit = false;
+
+        SQLException e = assertThrows(SQLException.class,
+                () -> new MigrationRunner(database.connect(), List.of(FIRST, FAILING, THIRD)).migrate());
+
+        assertTrue(e.getMessage().startsWith("Migration 2 (Failing) failed"), e.getMessage());
+        assertEquals(Set.of(1), database.committedVersions);
+        assertEquals(List.of(FIRST.sql()), database.committedSQL);
+        assertTrue(database.pendingSQL.isEmpty());
+        assertFalse(database.autoCommit);
+    }
+
+    @Test
+    void rejectsDuplicateVersions() {
+        FakeDatabase database = new FakeDatabase();
+        assertThrows(IllegalArgumentException.class, () -> new MigrationRunner(database.connect(), List.of(FIRST, SECOND, FAILING)));
+    }
+
+    @Test
+    void appMigrationsAreNumberedConsecutively() {
+        for(int i = 0; i < Migrations.ALL.size(); i++) {
+            Migration migration = Migrations.ALL.get(i);
+            assertEquals(i + 1, migration.version(), "Migration " + migration.description());
+            assertFalse(migration.description().isBlank());
+            assertTrue(migration.description().length() <= 256, "Migration " + migration.version() + " description is too long");
+        }
+    }
+
+    @Test
+    void appMigrationsCreateWhatTheyUseFirst() {
+        //A Database set up before the incremental sync has none of these, see setupDump.sql
+        assertCreatedBeforeUse("version bigint", "version");
+        assertCreatedBeforeUse("CREATE TABLE IF NOT EXISTS DeletionLog", "DeletionLog");
+        assertCreatedBeforeUse("ADD COLUMN IF NOT EXISTS xactID", "xactID");
+        assertCreatedBeforeUse("CREATE SEQUENCE IF NOT EXISTS changeSequence", "changeSequence");
+    }
+
+    //Utility methods
+    private static void assertCreatedBeforeUse(String creation, String name) {
+        int created = -1;
+        for(Migration migration : Migrations.ALL) {
+            if(created < 0 && migration.sql().contains(creation))
+                created = migration.version();
+            if(migration.sql().contains(name))
+                assertTrue(created >= 0 && created <= migration.version(),
+                        "Migration " + migration.version() + " uses " + name + " before it is created");
+        }
+
+        assertTrue(created >= 0, name + " is never created");
+    }
+
+    /**
+     * <p>A Database holding only the applied migrations, with the pending changes of a single transaction.</p>
+     */
+    private static final class FakeDatabase {
+        private final Set<Integer> committedVersions = new TreeSet<>();
+        private final List<String> committedSQL = new ArrayList<>();
+        private final Set<Integer> pendingVersions = new TreeSet<>();
+        private final List<String> pendingSQL = new ArrayList<>();
+        private boolean autoCommit = true;
+        private int lockCount = 0;
+
+        private Connection connect() {
+            return proxy(Connection.class, (method, args) -> switch (method) {
+                case "getAutoCommit" -> autoCommit;
+                case "setAutoCommit" -> {
+                    autoCommit = (Boolean) args[0];
+                    yield null;
+                }
+                case "commit" -> {
+                    committedVersions.addAll(pendingVersions);
+                    committedSQL.addAll(pendingSQL);
+                    yield this.clearPending();
+                }
+                case "rollback" -> this.clearPending();
+                case "createStatement" -> this.createStatement();
+                case "prepareStatement" -> this.prepareStatement((String) args[0]);
+                default -> throw new SQLFeatureNotSupportedException(method);
+            });
+        }
+
+        private Object clearPending() {
+            pendingVersions.clear();
+            pendingSQL.clear();
+            return null;
+        }
+
+        private Statement createStatement() {
+            return proxy(Statement.class, (method, args) -> switch (method) {
+                case "execute" -> {
+                    String sql = (String) args[0];
+                    if(sql.contains("pg_advisory_xact_lock"))
+                        lockCount++;
+                    else if(sql.equals("FAIL"))
+                        throw new SQLException("syntax error at or near \"FAIL\"", "42601");
+                    else if(!sql.contains("CREATE TABLE IF NOT EXISTS SchemaVersion"))
+                        pendingSQL.add(sql);
+                    yield false;
+                }
+                case "close" -> null;
+                default -> throw new SQLFeatureNotSupportedException(method);
+            });
+        }
+
+        private PreparedStatement prepareStatement(String sql) {
+            int[] version = new int[1];
+            return proxy(PreparedStatement.class, (method, args) -> switch (method) {
+                case "executeQuery" -> {
+                    Set<Integer> versions = new TreeSet<>(committedVersions);
+                    versions.addAll(pendingVersions);
+                    yield resultSet(versions.iterator());
+                }
+                case "setInt" -> {
+                    version[0] = (Integer) args[1];
+                    yield null;
+                }
+                case "setString" -> null;
+                case "executeUpdate" -> {
+                    if(!sql.startsWith("INSERT INTO SchemaVersion"))
+                        throw new SQLFeatureNotSupportedException(sql);
+                    pendingVersions.add(version[0]);
+                    yield 1;
+                }
+                case "close" -> null;
+                default -> throw new SQLFeatureNotSupportedException(method);
+            });
+        }
+
+        private static ResultSet resultSet(Iterator<Integer> versions) {
+            int[] current = new int[1];
+            return proxy(ResultSet.class, (method, args) -> switch (method) {
+                case "next" -> {
+                    if(!versions.hasNext())
+                        yield false;
+                    current[0] = versions.next();
+                    yield true;
+                }
+                case "getInt" -> current[0];
+                case "close" -> null;
+                default -> throw new SQLFeatureNotSupportedException(method);
+            });
+        }
+    }
+
+    private interface FakeMethod {
+        Object invoke(String method, Object[] args) throws SQLException;
+    }
+
+    private static <T> T proxy(Class<T> type, FakeMethod fake) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{ type },
+                (proxy, method, args) -> fake.invoke(method.getName(), args)));
+    }
+}
@@ -0,0 +1,267 @@
+package model;
+
+//Java imports
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * <p>Checks {@link OrderStatisticList} against an {@link ArrayList} put through the same operations.</p>
+ */
+class OrderStatisticListTest {
+    private static final int OPERATIONS = 5_000;
+
+    /**
+     * <p>An element compared by identity, as the list does.</p>
+     */
+    private static final class Item {
+        private final int id;
+
+        private Item(int id) { this.id = id; }
+
+        @Override
+        public String toString() { return "Item" + id; }
+    }
+
+    private final Random random = new Random(42);
+    private int nextID = 0;
+
+    @Test
+    void addAtRandomPositionsMatchesOracle() {
+        OrderStatisticList<Item> list = new OrderStatisticList<>();
+        List<Item> oracle = new ArrayList<>();
+
+        for(int i = 0; i < OPERATIONS; i++) {
+            int index = random.nextInt(oracle.size() + 1);
+            Item item = new Item(nextID++);
+            list.add(index, item);
+            oracle.add(index, item);
+        }
+
+        assertMatches(oracle, list);
+    }
+
+    @Test
+    void removeByIndexAndByElementMatchesOracle() {
+        OrderStatisticList<Item> list = new OrderStatisticList<>();
+        List<Item> oracle = new ArrayList<>();
+        fill(list, oracle, OPERATIONS);
+
+        while(!oracle.isEmpty()) {
+            int index = random.nextInt(oracle.size());
+            if(random.nextBoolean())
+                assertEquals(oracle.remove(index), list.remove(index));
+            else {
+                Item item = oracle.remove(index);
+                assertTrue(list.remove(item));
+                assertFalse(list.remove(item));
+            }
+
+            if(oracle.size() % 500 == 0)
+                assertMatches(oracle, list);
+        }
+
+        assertMatches(oracle, list);
+    }
+
+    @Test
+    void moveMatchesOracle() {
+        OrderStatisticList<Item> list = new OrderStatisticList<>();
+        List<Item> oracle = new ArrayList<>();
+        fill(list, oracle, 1_000);
+
+        for(int i = 0; i < OPERATIONS; i++) {
+            int fromIndex = random.nextInt(oracle.size());
+            int toIndex = random.nextInt(oracle.size());
+            list.move(fromIndex, toIndex);
+            oracle.add(toIndex, oracle.remove(fromIndex));
+        }
+
+        assertMatches(oracle, list);
+    }
+
+    @Test
+    void moveRejectsOutOfBoundsIndexes() {
+        OrderStatisticList<Item> list = new OrderStatisticList<>();
+        List<Item> oracle = new ArrayList<>();
+        fill(list, oracle, 3);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> list.move(0, 3));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.move(3, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.move(-1, -1));
+        assertMatches(oracle, list);
+    }
+
+    @Test
+    void removeIfMatchesOracle() {
+        OrderStatisticList<Item> list = new OrderStatisticList<>();
+        List<Item> oracle = new ArrayList<>();
+        fill(list, oracle, OPERATIONS);
+
+        assertTrue(list.removeIf(item -> item.id % 3 == 0));
+        oracle.removeIf(item -> item.id % 3 == 0);
+        assertMatches(oracle, list);
+
+        assertFalse(list.removeIf(item -> item.id % 3 == 0));
+        assertMatches(oracle, list);
+
+        //The rebuilt tree keeps working
+        Item item = new Item(nextID++);
+        list.add(10, item);
+        oracle.add(10, item);
+        list.move(0, oracle.size() - 1);
+        oracle.add(oracle.size() - 1, oracle.removeFirst());
+        assertMatches(oracle, list);
+    }
+
+    @Test
+    void indexOfMatchesOracleAfterMixedOperations() {
+        OrderStatisticList<Item> list = new OrderStatisticList<>();
+        List<Item> oracle = new ArrayList<>();
+        fill(list, oracle, 200);
+
+        for(int i = 0; i < OPERATIONS; i++) {
+            switch(random.nextInt(4)) {
+                case 0 -> {
+                    int index = random.nextInt(oracle.size() + 1);
+                    Item item = new Item(nextID++);
+                    list.add(index, item);
+                    oracle.add(index, item);
+                }
+                case 1 -> {
+                    if(!oracle.isEmpty()) {
+                        int index = random.nextInt(oracle.size());
+                        assertEquals(oracle.remove(index), list.remove(index));
+                    }
+                }
+                case 2 -> {
+                    if(!oracle.isEmpty()) {
+                        int fromIndex = random.nextInt(oracle.size());
+                        int toIndex = random.nextInt(oracle.size());
+                        list.move(fromIndex, toIndex);
+                        oracle.add(toIndex, oracle.remove(fromIndex));
+                    }
+                }
+                default -> {
+                    if(!oracle.isEmpty()) {
+                        int index = random.nextInt(oracle.size());
+                        Item item = new Item(nextID++);
+                        assertEquals(oracle.set(index, item), list.set(index, item));
+                    }
+                }
+            }
+        }
+
+        assertMatches(oracle, list);
+        assertEquals(-1, list.indexOf(new Item(-1)));
+        assertFalse(list.contains(new Item(-1)));
+    }
+
+    @Test
+    void iteratorRemoveMatchesOracle() {
+        OrderStatisticList<Item> list = new OrderStatisticList<>();
+        List<Item> oracle = new ArrayList<>();
+        fill(list, oracle, 1_000);
+
+        Iterator<Item> it = list.iterator();
+        Iterator<Item> oracleIt = oracle.iterator();
+        while(oracleIt.hasNext()) {
+            assertTrue(it.hasNext());
+            Item item = oracleIt.next();
+            assertEquals(item, it.next());
+            if(item.id % 2 == 0) {
+                it.remove();
+                oracleIt.remove();
+            }
+        }
+
+        assertFalse(it.hasNext());
+        assertMatches(oracle, list);
+    }
+
+    @Test
+    void iteratorRemoveTwiceIsRejected() {
+        OrderStatisticList<Item> list = new OrderStatisticList<>();
+        fill(list, new ArrayList<>(), 3);
+
+        Iterator<Item> it = list.iterator();
+        assertThrows(IllegalStateException.class, it::remove);
+        it.next();
+        it.remove();
+        assertThrows(IllegalStateException.class, it::remove);
+        assertEquals(2, list.size());
+    }
+
+    @Test
+    void iteratorFailsFastOnConcurrentModification() {
+        OrderStatisticList<Item> list = new OrderStatisticList<>();
+        fill(list, new ArrayList<>(), 3);
+
+        Iterator<Item> it = list.iterator();
+        it.next();
+        list.move(0, 2);
+        assertThrows(ConcurrentModificationException.class, it::next);
+    }
+
+    @Test
+    void addAllAppendsInOrder() {
+        OrderStatisticList<Item> list = new OrderStatisticList<>();
+        List<Item> oracle = new ArrayList<>();
+        fill(list, oracle, 10);
+
+        List<Item> added = new ArrayList<>();
+        for(int i = 0; i < 1_000; i++)
+            added.add(new Item(nextID++));
+
+        assertTrue(list.addAll(added));
+        oracle.addAll(added);
+        assertFalse(list.addAll(List.of()));
+        assertMatches(oracle, list);
+    }
+
+    @Test
+    void rejectsNullAndDuplicateElements() {
+        OrderStatisticList<Item> list = new OrderStatisticList<>();
+        List<Item> oracle = new ArrayList<>();
+        fill(list, oracle, 3);
+
+        Item present = oracle.getFirst();
+        assertThrows(IllegalArgumentException.class, () -> list.add(0, null));
+        assertThrows(IllegalStateException.class, () -> list.add(0, present));
+        assertThrows(IllegalStateException.class, () -> list.set(1, present));
+
+        //A failed bulk add leaves nothing behind
+        Item fresh = new Item(nextID++);
+        assertThrows(IllegalStateException.class, () -> list.addAll(List.of(fresh, present)));
+        assertFalse(list.contains(fresh));
+        assertMatches(oracle, list);
+    }
+
+    //Utility methods
+    private void fill(OrderStatisticList<Item> list, List<Item> oracle, int count) {
+        for(int i = 0; i < count; i++) {
+            Item item = new Item(nextID++);
+            list.add(item);
+            oracle.add(item);
+        }
+    }
+
+    private static void assertMatches(List<Item> oracle, OrderStatisticList<Item> list) {
+        assertEquals(oracle.size(), list.size());
+        assertEquals(oracle, new ArrayList<>(list));
+        for(int i = 0; i < oracle.size(); i++) {
+            assertEquals(oracle.get(i), list.get(i));
+            assertEquals(i, list.indexOf(oracle.get(i)));
+            assertTrue(list.contains(oracle.get(i)));
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package model;
+
+//Java imports
+import java.lang.ref.Reference;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * <p>Measures the heap taken by a board of 1M summary {@link ToDo}s, as bulk loaded from the Database.</p>
+ * <p>The titles and colors are fresh strings per row, as the JDBC driver returns them, half of the ToDos have an expiry
+ * date and one in ten is shared with one of five Users. The sharing is also measured on its own, as held by the ToDos
+ * and as it would be held with a primitive array of user IDs per ToDo.</p>
+ * <p>Run it by hand, with a fixed heap so that the figures are comparable:
+ * {@code java -Xms2g -Xmx2g -cp target/classes:target/test-classes model.ToDoHeapFootprint}.</p>
+ */
+public final class ToDoHeapFootprint {
+    private static final int TODO_COUNT = 1_000_000;
+    private static final String[] USERNAMES = { "alice", "bob", "carol", "dave", "erin" };
+
+    private ToDoHeapFootprint() { }
+
+    public static void main(String[] args) throws InterruptedException {
+        long before = usedHeap();
+        ToDo[] todos = generateToDos();
+        report("ToDos", usedHeap() - before);
+
+        //The sharing alone, as usernames and as user IDs, with a single empty array for the ToDos that are not shared
+        String[] noUsernames = new String[0];
+        int[] noUserIDs = new int[0];
+
+        Object[] usernames = new Object[TODO_COUNT];
+        Object[] userIDs = new Object[TODO_COUNT];
+        long beforeUsernames = usedHeap();
+        for(int i = 0; i < TODO_COUNT; i++)
+            usernames[i] = todos[i].getSharedUsers().isEmpty() ? noUsernames : todos[i].getSharedUsers().toArray(new String[0]);
+        long beforeUserIDs = usedHeap();
+        for(int i = 0; i < TODO_COUNT; i++)
+            userIDs[i] = todos[i].getSharedUsers().isEmpty() ? noUserIDs : todos[i].getSharedUsers().stream().mapToInt(String::hashCode).toArray();
+        long after = usedHeap();
+
+        report("Shared usernames", beforeUserIDs - beforeUsernames);
+        report("Shared user IDs", after - beforeUserIDs);
+
+        //Keep everything reachable until measured
+        Reference.reachabilityFence(todos);
+        Reference.reachabilityFence(usernames);
+        Reference.reachabilityFence(userIDs);
+    }
+
+    //Utility methods
+    private static ToDo[] generateToDos() {
+        Random random = new Random(42);
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+        ToDo[] todos = new ToDo[TODO_COUNT];
+        for(int i = 0; i < TODO_COUNT; i++) {
+            String title = new String("Task number " + i);
+            String color = new String(String.format("#%06X", random.nextInt(1 << 24)));
+            LocalDateTime expiryDate = i % 2 == 0 ? start.plusMinutes(random.nextInt(1_000_000)) : null;
+
+            todos[i] = new ToDo(i, random.nextBoolean(), title, random.nextInt(4) == 0, expiryDate, 1, color);
+            if(i % 10 == 0)
+                todos[i].addSharedUser(new String(USERNAMES[random.nextInt(USERNAMES.length)]));
+        }
+
+        return todos;
+    }
+
+    private static void report(String name, long bytes) {
+        System.out.printf("%s: %.1f MB, %.1f bytes per ToDo%n", name, bytes / 1048576.0, (double) bytes / TODO_COUNT);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for(int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}